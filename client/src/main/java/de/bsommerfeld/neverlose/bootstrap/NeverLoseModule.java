@@ -4,26 +4,36 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.Singleton;
+import com.google.inject.multibindings.ProvidesIntoOptional;
 import de.bsommerfeld.jshepherd.core.ConfigurationLoader;
+import de.bsommerfeld.neverlose.Main;
 import de.bsommerfeld.neverlose.export.ExportService;
 import de.bsommerfeld.neverlose.export.PdfExportService;
+import de.bsommerfeld.neverlose.fx.service.PdfPageCache;
 import de.bsommerfeld.neverlose.fx.state.SearchState;
 import de.bsommerfeld.neverlose.fx.view.ViewLoader;
 import de.bsommerfeld.neverlose.fx.view.ViewProvider;
 import de.bsommerfeld.neverlose.persistence.guice.PersistenceModule;
+import de.bsommerfeld.neverlose.persistence.guice.StorageSettings;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 public class NeverLoseModule extends AbstractModule {
 
+    // Rendered preview pages kept in memory; about eight A4 pages at the preview's resolution
+    private static final long PREVIEW_CACHE_MEMORY_BYTES = 64L * 1024 * 1024;
+
     @Override
     protected void configure() {
         install(new PersistenceModule());
 
         // Core bindings
         bind(Bootstrap.class).to(NeverLoseBootstrap.class);
+        // One PDF service, so the editor, the preview and batch exports share its rendered documents
+        bind(PdfExportService.class).in(Singleton.class);
         bind(ExportService.class).to(PdfExportService.class);
 
         // View system bindings
@@ -44,4 +54,33 @@ public class NeverLoseModule extends AbstractModule {
         Path configPath = configDir.resolve("config.json");
         return ConfigurationLoader.load(configPath, NeverloseConfig::new, false);
     }
+
+    @Provides
+    @Singleton
+    PdfPageCache providePdfPageCache(NeverloseConfig config) {
+        Path baseDir = LogDirectorySetup.getApplicationDataBaseDirectory();
+        Path cacheDir = (baseDir != null ? baseDir.resolve("neverlose") : Paths.get("neverlose"))
+                .resolve("preview-cache");
+        return new PdfPageCache(
+                cacheDir,
+                Main.getNeverloseVersion(),
+                PREVIEW_CACHE_MEMORY_BYTES,
+                config.getPreviewCacheMaxMb() * 1024L * 1024L);
+    }
+
+    @ProvidesIntoOptional(ProvidesIntoOptional.Type.ACTUAL)
+    @Singleton
+    StorageSettings provideStorageSettings(NeverloseConfig config) {
+        String sharedPath = config.getSharedLibraryPath();
+        Path sharedLibrary =
+                (sharedPath == null || sharedPath.isBlank()) ? null : Paths.get(sharedPath);
+        StorageSettings.Precedence precedence =
+                "shared".equalsIgnoreCase(config.getSharedLibraryPrecedence())
+                        ? StorageSettings.Precedence.SHARED_FIRST
+                        : StorageSettings.Precedence.LOCAL_FIRST;
+        return new StorageSettings(
+                sharedLibrary,
+                precedence,
+                Duration.ofSeconds(config.getSharedLibraryCacheSeconds()));
+    }
 }
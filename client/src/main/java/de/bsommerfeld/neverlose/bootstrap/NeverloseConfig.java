@@ -18,6 +18,27 @@ public class NeverloseConfig extends ConfigurablePojo<NeverloseConfig> {
     @Key("combined-left-width-px")
     private double combinedLeftWidthPx = -1.0;
 
+    // Optional read-only library on a shared drive (e.g. the club's drill collection).
+    // Empty means only the local library is used.
+    @Key("shared-library-path")
+    private String sharedLibraryPath = "";
+
+    // Which library wins for identical plans/templates: "local" or "shared".
+    @Key("shared-library-precedence")
+    private String sharedLibraryPrecedence = "local";
+
+    // How long listings of the shared library are served from memory before refreshing.
+    @Key("shared-library-cache-seconds")
+    private int sharedLibraryCacheSeconds = 300;
+
+    // Upper bound for the memory used by the editor's undo history, in KiB.
+    @Key("undo-history-max-kb")
+    private int undoHistoryMaxKb = 4096;
+
+    // Upper bound for the rendered preview pages kept on disk, in MiB. 0 disables the disk cache.
+    @Key("preview-cache-max-mb")
+    private int previewCacheMaxMb = 256;
+
     public boolean isFirstStart() {
         return firstStart;
     }
@@ -57,4 +78,44 @@ public class NeverloseConfig extends ConfigurablePojo<NeverloseConfig> {
         }
         this.combinedLeftWidthPx = combinedLeftWidthPx;
     }
+
+    public String getSharedLibraryPath() {
+        return sharedLibraryPath;
+    }
+
+    public void setSharedLibraryPath(String sharedLibraryPath) {
+        this.sharedLibraryPath = sharedLibraryPath == null ? "" : sharedLibraryPath.trim();
+    }
+
+    public String getSharedLibraryPrecedence() {
+        return sharedLibraryPrecedence;
+    }
+
+    public void setSharedLibraryPrecedence(String sharedLibraryPrecedence) {
+        this.sharedLibraryPrecedence = sharedLibraryPrecedence;
+    }
+
+    public int getSharedLibraryCacheSeconds() {
+        return sharedLibraryCacheSeconds;
+    }
+
+    public void setSharedLibraryCacheSeconds(int sharedLibraryCacheSeconds) {
+        this.sharedLibraryCacheSeconds = Math.max(0, sharedLibraryCacheSeconds);
+    }
+
+    public int getUndoHistoryMaxKb() {
+        return undoHistoryMaxKb;
+    }
+
+    public void setUndoHistoryMaxKb(int undoHistoryMaxKb) {
+        this.undoHistoryMaxKb = Math.max(1, undoHistoryMaxKb);
+    }
+
+    public int getPreviewCacheMaxMb() {
+        return previewCacheMaxMb;
+    }
+
+    public void setPreviewCacheMaxMb(int previewCacheMaxMb) {
+        this.previewCacheMaxMb = Math.max(0, previewCacheMaxMb);
+    }
 }
@@ -40,6 +40,13 @@ public class ExerciseControl extends VBox {
     private final NotificationService notificationService;
     private final Consumer<TrainingExercise> onRemoveCallback;
 
+    // Fields showing the exercise's properties
+    private final TextField nameField;
+    private final TextField descriptionField;
+    private final TextField durationField;
+    private final Spinner<Integer> setsSpinner;
+    private final CheckBox ballBucketCheckBox;
+
     // UI components for action buttons
     private final HBox actionButtonsContainer;
     private final HBox moreButtonContainer;
@@ -97,7 +104,7 @@ public class ExerciseControl extends VBox {
         // Name field
         Label nameLabel = new Label(Messages.getString("ui.label.name"));
         nameLabel.getStyleClass().add("exercise-label");
-        TextField nameField = new TextField(exercise.getName());
+        nameField = new TextField(exercise.getName());
         nameField.getStyleClass().add("exercise-name-field");
         nameField.textProperty().addListener((obs, oldVal, newVal) -> exercise.setName(newVal));
         GridPane.setHgrow(nameField, Priority.ALWAYS);
@@ -105,7 +112,7 @@ public class ExerciseControl extends VBox {
         // Description field
         Label descLabel = new Label(Messages.getString("ui.label.description"));
         descLabel.getStyleClass().add("exercise-label");
-        TextField descriptionField = new TextField(exercise.getDescription());
+        descriptionField = new TextField(exercise.getDescription());
         descriptionField.getStyleClass().add("exercise-description-field");
         descriptionField
                 .textProperty()
@@ -115,14 +122,14 @@ public class ExerciseControl extends VBox {
         // Duration field
         Label durationLabel = new Label(Messages.getString("ui.label.duration"));
         durationLabel.getStyleClass().add("exercise-label");
-        TextField durationField = new TextField(exercise.getDuration());
+        durationField = new TextField(exercise.getDuration());
         durationField.getStyleClass().add("exercise-duration-field");
         durationField.textProperty().addListener((obs, oldVal, newVal) -> exercise.setDuration(newVal));
 
         // Sets spinner
         Label setsLabel = new Label(Messages.getString("ui.label.sets"));
         setsLabel.getStyleClass().add("exercise-label");
-        Spinner<Integer> setsSpinner = new Spinner<>(1, 100, exercise.getSets());
+        setsSpinner = new Spinner<>(1, 100, exercise.getSets());
         setsSpinner.setEditable(true);
         setsSpinner.valueProperty().addListener((obs, oldVal, newVal) -> exercise.setSets(newVal));
         setsSpinner.getStyleClass().add("exercise-sets-spinner");
@@ -130,7 +137,7 @@ public class ExerciseControl extends VBox {
         // Ball bucket checkbox
         Label ballBucketLabel = new Label(Messages.getString("ui.label.ballBucket"));
         ballBucketLabel.getStyleClass().add("exercise-label");
-        CheckBox ballBucketCheckBox = new CheckBox();
+        ballBucketCheckBox = new CheckBox();
         ballBucketCheckBox.setSelected(exercise.isBallBucket());
         ballBucketCheckBox
                 .selectedProperty()
@@ -209,6 +216,18 @@ public class ExerciseControl extends VBox {
         return exercise;
     }
 
+    /**
+     * Shows the current values of the exercise again, e.g. after an undo changed them. Fields whose value did not
+     * change keep their caret and selection.
+     */
+    public void refresh() {
+        nameField.setText(exercise.getName());
+        descriptionField.setText(exercise.getDescription());
+        durationField.setText(exercise.getDuration());
+        setsSpinner.getValueFactory().setValue(exercise.getSets());
+        ballBucketCheckBox.setSelected(exercise.isBallBucket());
+    }
+
     /**
      * Handles the action of saving the exercise as a template. Checks for existing templates with the same name and
      * asks for confirmation before overwriting. Saves the exercise to the storage service and shows a confirmation
@@ -0,0 +1,419 @@
+package de.bsommerfeld.neverlose.fx.components;
+
+import de.bsommerfeld.neverlose.fx.service.PdfPageRasterizer;
+import de.bsommerfeld.neverlose.fx.service.PdfPreviewService;
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Shows the pages of a plan's PDF export in a virtualized list: only the pages in view have a cell, and only those are
+ * rendered at full resolution.
+ * <p>
+ * As soon as the plan is exported, every page takes its final size. The pages in view are rendered at full resolution
+ * first, then every page is rendered as a low-resolution placeholder, which is shown while scrolling until the page's
+ * full-resolution image is ready. Full-resolution images of pages out of view are dropped, least recently shown first,
+ * once they exceed a memory budget. All rendering happens on the threads of the {@link PdfPreviewService}.
+ * <p>
+ * Showing a changed version of the plan keeps the images of the pages that did not change. The changed pages keep
+ * showing their previous images until they are rendered again, so that editing the plan does not make them flash.
+ */
+public class PdfPreviewPane extends StackPane {
+
+    private static final float PLACEHOLDER_DPI = 24f;
+    // About a dozen A4 pages at 144 DPI
+    private static final long FULL_IMAGE_BUDGET = 96L * 1024 * 1024;
+    private static final double PAGE_GAP = 10;
+    // Room for the vertical scroll bar and the list's padding
+    private static final double HORIZONTAL_INSETS = 40;
+    private static final double A4_ASPECT_RATIO = Math.sqrt(2);
+
+    private final LogFacade log = LogFacadeFactory.getLogger();
+    private final PdfPreviewService previewService;
+    private final float dpi;
+    private final ListView<Integer> pageList = new ListView<>();
+    private final ProgressIndicator progressIndicator = new ProgressIndicator();
+    private final DoubleBinding pageWidth;
+    private final DoubleProperty pageHeight = new SimpleDoubleProperty();
+    // Cells may be recreated by the list, so they are held weakly
+    private final Set<PageCell> cells = Collections.newSetFromMap(new WeakHashMap<>());
+    // Pages that have a visible cell; read by the render threads to skip pages scrolled out of view
+    private final Set<Integer> visiblePages = ConcurrentHashMap.newKeySet();
+    private final PriorityBlockingQueue<RenderRequest> renderQueue = new PriorityBlockingQueue<>();
+    private final AtomicLong requestSequence = new AtomicLong();
+    private volatile PreviewDocument document;
+    private CompletableFuture<PdfPageRasterizer> pendingDocument;
+    private Consumer<Throwable> onError;
+    private long showGeneration;
+    private boolean disposed;
+
+    /**
+     * Creates an empty preview.
+     *
+     * @param previewService the service exporting and rendering the plans
+     * @param dpi            the resolution of the full-resolution page images
+     */
+    public PdfPreviewPane(PdfPreviewService previewService, float dpi) {
+        this.previewService = previewService;
+        this.dpi = dpi;
+        this.pageWidth = Bindings.createDoubleBinding(
+                () -> Math.max(0, pageList.getWidth() - HORIZONTAL_INSETS), pageList.widthProperty());
+        pageHeight.bind(pageWidth.multiply(A4_ASPECT_RATIO));
+
+        getStyleClass().add("preview-pane");
+        pageList.getStyleClass().add("preview-page-list");
+        pageList.setFocusTraversable(false);
+        pageList.fixedCellSizeProperty().bind(pageHeight.add(PAGE_GAP));
+        pageList.setCellFactory(list -> new PageCell());
+
+        progressIndicator.setMaxSize(48, 48);
+        progressIndicator.setVisible(false);
+        getChildren().addAll(pageList, progressIndicator);
+    }
+
+    /** Sets the action called if a plan cannot be exported. It is called on the JavaFX application thread. */
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError;
+    }
+
+    /**
+     * Exports the plan in the background and shows its pages once the document is ready. The pages shown so far stay
+     * in view until then; a plan that is shown before the previous one is ready replaces it, and the previous export
+     * is cancelled.
+     *
+     * @param plan the plan to show
+     */
+    public void show(PlanSnapshot plan) {
+        long generation = ++showGeneration;
+        if (pendingDocument != null) {
+            pendingDocument.cancel(false);
+        }
+        progressIndicator.setVisible(document == null);
+        pendingDocument = previewService.open(plan);
+        pendingDocument.whenComplete((rasterizer, error) -> Platform.runLater(() -> {
+            if (generation != showGeneration || disposed) {
+                if (rasterizer != null) {
+                    closeQuietly(rasterizer);
+                }
+                return;
+            }
+            pendingDocument = null;
+            progressIndicator.setVisible(false);
+            if (error != null) {
+                if (onError != null) {
+                    onError.accept(error);
+                }
+                return;
+            }
+            setDocument(rasterizer);
+        }));
+    }
+
+    /** Closes the shown document and stops all rendering. The pane cannot be used afterwards. */
+    public void dispose() {
+        disposed = true;
+        if (pendingDocument != null) {
+            pendingDocument.cancel(false);
+        }
+        PreviewDocument current = document;
+        document = null;
+        if (current != null) {
+            close(current);
+        }
+        pageList.getItems().clear();
+    }
+
+    private void setDocument(PdfPageRasterizer rasterizer) {
+        PreviewDocument previous = document;
+        PreviewDocument next = new PreviewDocument(rasterizer);
+        boolean[] rendered = previous != null ? next.takeImages(previous) : new boolean[next.placeholders.length];
+        document = next;
+        if (previous != null) {
+            close(previous);
+        }
+
+        int pageCount = rasterizer.pageCount();
+        double aspectRatio = pageCount > 0 ? rasterizer.pageAspectRatio(0) : A4_ASPECT_RATIO;
+        pageHeight.bind(pageWidth.multiply(aspectRatio));
+        // Only add or remove pages at the end, replacing the items would reset the scroll position
+        ObservableList<Integer> pages = pageList.getItems();
+        if (pages.size() > pageCount) {
+            pages.remove(pageCount, pages.size());
+        } else if (pages.size() < pageCount) {
+            pages.addAll(IntStream.range(pages.size(), pageCount).boxed().toList());
+        }
+        // Cells keeping their page index would otherwise still show the previous document
+        cells.forEach(PageCell::showPage);
+
+        for (int i = 0; i < pageCount; i++) {
+            if (!rendered[i]) {
+                enqueue(new RenderRequest(next, i, false, requestSequence.incrementAndGet()));
+            }
+        }
+    }
+
+    private void requestFullPage(PreviewDocument requested, int page) {
+        if (requested.pendingFullPages.add(page)) {
+            enqueue(new RenderRequest(requested, page, true, requestSequence.incrementAndGet()));
+        }
+    }
+
+    private void enqueue(RenderRequest request) {
+        renderQueue.add(request);
+        // Every task renders the most urgent request at the time it runs, not necessarily this one
+        previewService.renderExecutor().execute(this::renderNext);
+    }
+
+    /** Renders the most urgent page; called on a render thread. */
+    private void renderNext() {
+        RenderRequest request = renderQueue.poll();
+        if (request == null) {
+            return;
+        }
+        PreviewDocument requested = request.document();
+        int page = request.page();
+        if (requested != document || requested.closed) {
+            return;
+        }
+        if (request.fullResolution() && !visiblePages.contains(page)) {
+            Platform.runLater(() -> fullPageSkipped(requested, page));
+            return;
+        }
+        try {
+            Image image = requested.rasterizer.renderPage(page, request.fullResolution() ? dpi : PLACEHOLDER_DPI);
+            Platform.runLater(() -> pageRendered(requested, page, request.fullResolution(), image));
+        } catch (IOException | RuntimeException e) {
+            if (!requested.closed) {
+                log.warn("Failed to render preview page {}", page + 1, e);
+            }
+            if (request.fullResolution()) {
+                Platform.runLater(() -> requested.pendingFullPages.remove(page));
+            }
+        }
+    }
+
+    private void fullPageSkipped(PreviewDocument requested, int page) {
+        requested.pendingFullPages.remove(page);
+        // The page may have scrolled back into view while the request was pending
+        if (requested == document && visiblePages.contains(page)) {
+            requestFullPage(requested, page);
+        }
+    }
+
+    private void pageRendered(PreviewDocument rendered, int page, boolean fullResolution, Image image) {
+        if (rendered != document) {
+            return;
+        }
+        if (fullResolution) {
+            rendered.pendingFullPages.remove(page);
+            addFullImage(rendered, page, image);
+        } else {
+            rendered.placeholders[page] = image;
+        }
+        rendered.standIns[page] = null;
+        for (PageCell cell : cells) {
+            if (!cell.isEmpty() && cell.getItem() == page) {
+                cell.showPage();
+            }
+        }
+    }
+
+    private void addFullImage(PreviewDocument current, int page, Image image) {
+        Image previous = current.fullImages.put(page, image);
+        if (previous != null) {
+            current.fullImageBytes -= imageBytes(previous);
+        }
+        current.fullImageBytes += imageBytes(image);
+        evictFullImages(current);
+    }
+
+    /** Drops the least recently shown full-resolution images of pages out of view until the budget is met. */
+    private void evictFullImages(PreviewDocument current) {
+        Iterator<Map.Entry<Integer, Image>> eldestFirst = current.fullImages.entrySet().iterator();
+        while (current.fullImageBytes > FULL_IMAGE_BUDGET && eldestFirst.hasNext()) {
+            Map.Entry<Integer, Image> entry = eldestFirst.next();
+            if (!visiblePages.contains(entry.getKey())) {
+                current.fullImageBytes -= imageBytes(entry.getValue());
+                eldestFirst.remove();
+            }
+        }
+    }
+
+    private void updateVisiblePages() {
+        Set<Integer> shown = new HashSet<>();
+        for (PageCell cell : cells) {
+            if (!cell.isEmpty() && cell.getItem() != null && cell.isVisible()) {
+                shown.add(cell.getItem());
+            }
+        }
+        // Never empty in between, the render threads read the set concurrently
+        visiblePages.addAll(shown);
+        visiblePages.retainAll(shown);
+    }
+
+    private void close(PreviewDocument closing) {
+        closing.closed = true;
+        renderQueue.removeIf(request -> request.document() == closing);
+        previewService.renderExecutor().execute(() -> closeQuietly(closing.rasterizer));
+    }
+
+    private void closeQuietly(PdfPageRasterizer rasterizer) {
+        try {
+            rasterizer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close preview document", e);
+        }
+    }
+
+    private static long imageBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    /** The document shown by the pane, with the images rendered from it so far. */
+    private static final class PreviewDocument {
+
+        private final PdfPageRasterizer rasterizer;
+        // The following are only accessed on the JavaFX application thread
+        private final Image[] placeholders;
+        // Images of the previous document, shown until the changed pages are rendered
+        private final Image[] standIns;
+        // Access-ordered, so the least recently shown page is evicted first
+        private final LinkedHashMap<Integer, Image> fullImages = new LinkedHashMap<>(16, 0.75f, true);
+        private final Set<Integer> pendingFullPages = new HashSet<>();
+        private long fullImageBytes;
+        private volatile boolean closed;
+
+        private PreviewDocument(PdfPageRasterizer rasterizer) {
+            this.rasterizer = rasterizer;
+            this.placeholders = new Image[rasterizer.pageCount()];
+            this.standIns = new Image[placeholders.length];
+        }
+
+        /**
+         * Takes over the images of the pages that did not change since the previous document. The previous images of
+         * the other pages become stand-ins.
+         *
+         * @return for every page, whether it already has its placeholder
+         */
+        private boolean[] takeImages(PreviewDocument previous) {
+            boolean[] rendered = new boolean[placeholders.length];
+            int pageCount = Math.min(placeholders.length, previous.placeholders.length);
+            for (int i = 0; i < pageCount; i++) {
+                Image fullImage = previous.fullImages.get(i);
+                if (rasterizer.hasSamePage(previous.rasterizer, i)) {
+                    placeholders[i] = previous.placeholders[i];
+                    standIns[i] = previous.standIns[i];
+                    if (fullImage != null) {
+                        fullImages.put(i, fullImage);
+                        fullImageBytes += imageBytes(fullImage);
+                    }
+                    rendered[i] = placeholders[i] != null;
+                } else {
+                    standIns[i] = fullImage != null ? fullImage
+                            : previous.placeholders[i] != null ? previous.placeholders[i] : previous.standIns[i];
+                }
+            }
+            return rendered;
+        }
+    }
+
+    /**
+     * A page to render. Pages in view come first, the most recently requested one first, so that the pages the user
+     * scrolled to are rendered before those scrolled past. Placeholders follow in page order.
+     */
+    private record RenderRequest(PreviewDocument document, int page, boolean fullResolution, long sequence)
+            implements Comparable<RenderRequest> {
+
+        @Override
+        public int compareTo(RenderRequest other) {
+            if (fullResolution != other.fullResolution) {
+                return fullResolution ? -1 : 1;
+            }
+            return fullResolution ? Long.compare(other.sequence, sequence) : Integer.compare(page, other.page);
+        }
+    }
+
+    private final class PageCell extends ListCell<Integer> {
+
+        private final ImageView imageView = new ImageView();
+        private final StackPane pageFrame = new StackPane(imageView);
+
+        private PageCell() {
+            getStyleClass().add("preview-page-cell");
+            pageFrame.getStyleClass().add("preview-page");
+            pageFrame.prefWidthProperty().bind(pageWidth);
+            pageFrame.prefHeightProperty().bind(pageHeight);
+            pageFrame.setMaxSize(USE_PREF_SIZE, USE_PREF_SIZE);
+            imageView.setPreserveRatio(true);
+            imageView.fitWidthProperty().bind(pageWidth);
+            setAlignment(Pos.TOP_CENTER);
+            // Cells moved out of view are hidden without being emptied
+            visibleProperty().addListener((obs, wasVisible, isVisible) -> updateVisiblePages());
+            cells.add(this);
+        }
+
+        @Override
+        protected void updateItem(Integer page, boolean empty) {
+            super.updateItem(page, empty);
+            setText(null);
+            if (empty || page == null) {
+                imageView.setImage(null);
+                setGraphic(null);
+            } else {
+                setGraphic(pageFrame);
+            }
+            updateVisiblePages();
+            showPage();
+        }
+
+        /** Shows the best image available for the cell's page and requests the full-resolution one if missing. */
+        private void showPage() {
+            PreviewDocument current = document;
+            Integer page = getItem();
+            if (current == null || isEmpty() || page == null || page >= current.placeholders.length) {
+                return;
+            }
+            Image fullImage = current.fullImages.get(page);
+            if (fullImage == null) {
+                // Pages scrolled back to are often still cached in memory
+                fullImage = current.rasterizer.cachedPage(page, dpi);
+                if (fullImage != null) {
+                    addFullImage(current, page, fullImage);
+                }
+            }
+            Image placeholder = current.placeholders[page] != null ? current.placeholders[page] : current.standIns[page];
+            imageView.setImage(fullImage != null ? fullImage : placeholder);
+            if (fullImage == null) {
+                requestFullPage(current, page);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package de.bsommerfeld.neverlose.fx.components;
+
+import de.bsommerfeld.neverlose.export.CalendarExportService;
+import de.bsommerfeld.neverlose.fx.messages.Messages;
+import de.bsommerfeld.neverlose.fx.service.NotificationService;
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import de.bsommerfeld.neverlose.plan.components.TrainingDuration;
+import de.bsommerfeld.neverlose.plan.schedule.ScheduledSession;
+import de.bsommerfeld.neverlose.plan.schedule.SeasonSchedule;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.TrainingStats;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Projects a training plan onto the dates of a season: the user picks the first and last day and the days without
+ * training, browses the resulting sessions week by week and can export the season as a calendar file.
+ * <p>
+ * Only the sessions of the displayed week are ever created, see {@link SeasonSchedule}.
+ */
+public class SeasonScheduleControl extends VBox {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM);
+    private static final DateTimeFormatter SESSION_FORMAT = DateTimeFormatter.ofPattern("EEE, dd.MM.");
+
+    private final LogFacade log = LogFacadeFactory.getLogger();
+    private final PlanSnapshot plan;
+    private final CalendarExportService calendarExportService;
+    private final NotificationService notificationService;
+    private final DatePicker startPicker = new DatePicker();
+    private final DatePicker endPicker = new DatePicker();
+    private final ObservableList<LocalDate> exclusions = FXCollections.observableArrayList();
+    private final ObservableList<ScheduledSession> weekSessions = FXCollections.observableArrayList();
+    private final Label summaryLabel = new Label();
+    private final Label weekLabel = new Label();
+    private final Button exportButton = new Button(Messages.getString("season.export"));
+    private SeasonSchedule schedule;
+    // Monday of the displayed week
+    private LocalDate week;
+
+    /**
+     * Creates the control for the given plan.
+     *
+     * @param plan                  the plan to schedule
+     * @param calendarExportService the service for the calendar export
+     * @param notificationService   service for showing notifications
+     */
+    public SeasonScheduleControl(
+            PlanSnapshot plan, CalendarExportService calendarExportService, NotificationService notificationService) {
+        this.plan = plan;
+        this.calendarExportService = calendarExportService;
+        this.notificationService = notificationService;
+
+        setSpacing(12);
+        setPadding(new Insets(20));
+        getStyleClass().add("season-schedule-control");
+
+        LocalDate today = LocalDate.now();
+        startPicker.setValue(today);
+        endPicker.setValue(today.plusMonths(6));
+        week = monday(today);
+        startPicker.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal != null) {
+                week = monday(newVal);
+            }
+            rebuildSchedule();
+        });
+        endPicker.valueProperty().addListener((obs, oldVal, newVal) -> rebuildSchedule());
+
+        HBox rangeRow = new HBox(10,
+                new Label(Messages.getString("season.start")), startPicker,
+                new Label(Messages.getString("season.end")), endPicker);
+        rangeRow.setAlignment(Pos.CENTER_LEFT);
+
+        getChildren().addAll(rangeRow, createExclusionsRow(), summaryLabel, createWeekRow(), createWeekList());
+
+        exportButton.getStyleClass().add("editor-action-button");
+        exportButton.setOnAction(event -> handleExport());
+        HBox footer = new HBox(exportButton);
+        footer.setAlignment(Pos.CENTER_RIGHT);
+        getChildren().add(footer);
+
+        rebuildSchedule();
+    }
+
+    private VBox createExclusionsRow() {
+        DatePicker exclusionPicker = new DatePicker();
+        Button addButton = new Button(Messages.getString("season.addExclusion"));
+        addButton.setOnAction(event -> {
+            LocalDate date = exclusionPicker.getValue();
+            if (date != null && !exclusions.contains(date)) {
+                exclusions.add(date);
+                FXCollections.sort(exclusions);
+                rebuildSchedule();
+            }
+        });
+
+        ListView<LocalDate> exclusionList = new ListView<>(exclusions);
+        exclusionList.setPrefHeight(90);
+        exclusionList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(LocalDate date, boolean empty) {
+                super.updateItem(date, empty);
+                setText(empty || date == null ? null : DATE_FORMAT.format(date));
+            }
+        });
+        // Remove the selected day with the delete key
+        exclusionList.setOnKeyPressed(event -> {
+            LocalDate selected = exclusionList.getSelectionModel().getSelectedItem();
+            if (selected != null && (event.getCode() == KeyCode.DELETE || event.getCode() == KeyCode.BACK_SPACE)) {
+                exclusions.remove(selected);
+                rebuildSchedule();
+            }
+        });
+
+        HBox inputRow = new HBox(10, exclusionPicker, addButton);
+        inputRow.setAlignment(Pos.CENTER_LEFT);
+        return new VBox(6, new Label(Messages.getString("season.exclusions")), inputRow, exclusionList);
+    }
+
+    private HBox createWeekRow() {
+        Button previousButton = new Button(Messages.getString("season.previousWeek"));
+        previousButton.setOnAction(event -> showWeek(week.minusWeeks(1)));
+        Button nextButton = new Button(Messages.getString("season.nextWeek"));
+        nextButton.setOnAction(event -> showWeek(week.plusWeeks(1)));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        weekLabel.getStyleClass().add("season-week-label");
+        HBox weekRow = new HBox(10, previousButton, weekLabel, spacer, nextButton);
+        weekRow.setAlignment(Pos.CENTER_LEFT);
+        return weekRow;
+    }
+
+    private ListView<ScheduledSession> createWeekList() {
+        ListView<ScheduledSession> weekList = new ListView<>(weekSessions);
+        weekList.setPlaceholder(new Label(Messages.getString("season.noSessions")));
+        weekList.setPrefHeight(200);
+        weekList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(ScheduledSession session, boolean empty) {
+                super.updateItem(session, empty);
+                setText(empty || session == null ? null : formatSession(session));
+            }
+        });
+        VBox.setVgrow(weekList, Priority.ALWAYS);
+        return weekList;
+    }
+
+    private static String formatSession(ScheduledSession session) {
+        StringBuilder text = new StringBuilder(SESSION_FORMAT.format(session.date()))
+                .append(" - ")
+                .append(session.unit().name());
+        TrainingStats stats = session.unit().stats();
+        if (stats.exercises() > stats.unparsedDurations()) {
+            text.append(" (").append(TrainingDuration.format(stats.totalDuration())).append(')');
+        }
+        return text.toString();
+    }
+
+    private void rebuildSchedule() {
+        LocalDate start = startPicker.getValue();
+        LocalDate end = endPicker.getValue();
+        if (start == null || end == null || end.isBefore(start)) {
+            schedule = null;
+            summaryLabel.setText(Messages.getString("season.invalidRange"));
+        } else {
+            schedule = new SeasonSchedule(plan, start, end, exclusions);
+            summaryLabel.setText(Messages.getString("season.sessionCount", schedule.sessionCount()));
+        }
+        exportButton.setDisable(schedule == null);
+        showWeek(week);
+    }
+
+    private void showWeek(LocalDate monday) {
+        week = monday;
+        weekLabel.setText(Messages.getString(
+                "season.week", DATE_FORMAT.format(monday), DATE_FORMAT.format(monday.plusDays(6))));
+        List<ScheduledSession> sessions = schedule != null ? schedule.week(monday).toList() : List.of();
+        weekSessions.setAll(sessions);
+    }
+
+    private void handleExport() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(Messages.getString("season.export"));
+        String planName = plan.name() == null ? "plan" : plan.name().replaceAll("\\s+", "_");
+        fileChooser.setInitialFileName(planName + ".ics");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter(Messages.getString("season.exportFilter"), "*.ics"));
+
+        File file = fileChooser.showSaveDialog(getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        try {
+            calendarExportService.export(schedule, file);
+            log.info("Exported season calendar to {}", file.getAbsolutePath());
+            notificationService.showInfo(
+                    Messages.getString("season.exported.title"), Messages.getString("season.exported.text"));
+        } catch (IOException e) {
+            log.error("Failed to export season calendar to {}", file.getAbsolutePath(), e);
+            notificationService.showError(
+                    Messages.getString("season.exportFailed.title"),
+                    Messages.getString("season.exportFailed.text", e.getMessage()));
+        }
+    }
+
+    private static LocalDate monday(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -7,6 +7,11 @@ import de.bsommerfeld.neverlose.fx.service.NotificationService;
 import de.bsommerfeld.neverlose.logger.LogFacade;
 import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
 import de.bsommerfeld.neverlose.persistence.service.PlanStorageService;
+import de.bsommerfeld.neverlose.plan.change.ModelChange;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemAdded;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemMoved;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemRemoved;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.PropertyChanged;
 import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
 import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
 import de.bsommerfeld.neverlose.plan.components.Weekday;
@@ -19,6 +24,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
@@ -29,8 +35,11 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.UUID;
 import java.util.function.Consumer;
 
 /**
@@ -41,11 +50,16 @@ public class TrainingUnitControl extends VBox {
 
     private final LogFacade log = LogFacadeFactory.getLogger();
     private final TrainingUnit trainingUnit;
+    private final TextField nameField;
+    private final TextArea descriptionField;
     private final ComboBox<Weekday> weekdayComboBox;
     private final VBox exercisesContainer;
+    // Controls of the exercises in exercisesContainer, keyed by exercise ID
+    private final Map<UUID, ExerciseControl> exerciseControls = new HashMap<>();
     private final PlanStorageService planStorageService;
     private final Consumer<TrainingUnit> saveAsTemplateCallback;
     private final Consumer<TrainingUnit> onRemoveCallback;
+    private final Consumer<TrainingUnit> copyToPlansCallback;
     private final Button showMoreButton;
     // Placeholder for empty exercises list
     private final Label placeholderLabel;
@@ -73,6 +87,30 @@ public class TrainingUnitControl extends VBox {
             Consumer<TrainingUnit> saveAsTemplateCallback,
             Consumer<TrainingUnit> onRemoveCallback,
             NotificationService notificationService) {
+        this(trainingUnit, planStorageService, saveAsTemplateCallback, onRemoveCallback, null, notificationService);
+    }
+
+    /**
+     * Creates a new TrainingUnitControl for the specified TrainingUnit that additionally offers copying the unit to
+     * other plans.
+     *
+     * @param trainingUnit           the TrainingUnit to represent
+     * @param planStorageService     the service for loading and saving templates
+     * @param saveAsTemplateCallback callback to be called when the "Save as Template" button is clicked
+     * @param onRemoveCallback       callback to be called when the "Remove" button is clicked
+     * @param copyToPlansCallback    callback to be called when the "Copy to" button is clicked; without it the button
+     *                               is not shown
+     * @param notificationService    service for showing notifications
+     *
+     * @throws IllegalArgumentException if trainingUnit, planStorageService, or notificationService is null
+     */
+    public TrainingUnitControl(
+            TrainingUnit trainingUnit,
+            PlanStorageService planStorageService,
+            Consumer<TrainingUnit> saveAsTemplateCallback,
+            Consumer<TrainingUnit> onRemoveCallback,
+            Consumer<TrainingUnit> copyToPlansCallback,
+            NotificationService notificationService) {
         // Check for null required parameters
         if (trainingUnit == null) {
             throw new IllegalArgumentException("TrainingUnit cannot be null");
@@ -88,6 +126,7 @@ public class TrainingUnitControl extends VBox {
         this.planStorageService = planStorageService;
         this.saveAsTemplateCallback = saveAsTemplateCallback; // Can be null
         this.onRemoveCallback = onRemoveCallback; // Can be null
+        this.copyToPlansCallback = copyToPlansCallback; // Can be null
         this.notificationService = notificationService;
 
         // Configure the VBox
@@ -107,7 +146,7 @@ public class TrainingUnitControl extends VBox {
         toggleArrow.setStyle("-fx-cursor: hand;"); // Hand cursor to indicate it's clickable
 
         // Name field
-        TextField nameField = new TextField(trainingUnit.getName());
+        nameField = new TextField(trainingUnit.getName());
         nameField.getStyleClass().add("unit-name-field");
         nameField.textProperty().addListener((obs, oldVal, newVal) -> trainingUnit.setName(newVal));
         HBox.setHgrow(nameField, Priority.ALWAYS);
@@ -129,12 +168,20 @@ public class TrainingUnitControl extends VBox {
         removeButton.getStyleClass().add("remove-button");
         removeButton.setOnAction(e -> handleRemove());
 
-        header
-                .getChildren()
-                .addAll(toggleArrow, nameField, weekdayComboBox, saveAsTemplateButton, removeButton);
+        header.getChildren().addAll(toggleArrow, nameField, weekdayComboBox, saveAsTemplateButton);
+
+        // Copy to other plans button, only if the owner supports it
+        if (copyToPlansCallback != null) {
+            Button copyToPlansButton = new Button(Messages.getString("ui.button.copyTo"));
+            copyToPlansButton.getStyleClass().add("save-as-template-button");
+            copyToPlansButton.setOnAction(e -> copyToPlansCallback.accept(trainingUnit));
+            header.getChildren().add(copyToPlansButton);
+        }
+
+        header.getChildren().add(removeButton);
 
         // Description field (use a wrapping, auto-growing TextArea instead of TextField)
-        javafx.scene.control.TextArea descriptionField = new javafx.scene.control.TextArea(trainingUnit.getDescription());
+        descriptionField = new TextArea(trainingUnit.getDescription());
         descriptionField.getStyleClass().add("unit-description-field");
         descriptionField.setWrapText(true);
         descriptionField.setPrefRowCount(2);
@@ -262,10 +309,21 @@ public class TrainingUnitControl extends VBox {
      * @param exercise the exercise to add
      */
     private void addExerciseToUI(TrainingExercise exercise) {
+        addExerciseToUI(exercise, exercisesContainer.getChildren().size());
+    }
+
+    /**
+     * Adds an exercise to the UI at the given position within the exercises container.
+     *
+     * @param exercise the exercise to add
+     * @param position the index in the exercises container, which starts with the placeholder
+     */
+    private void addExerciseToUI(TrainingExercise exercise, int position) {
         ExerciseControl exerciseControl =
                 new ExerciseControl(
                         exercise, planStorageService, notificationService, this::removeExercise);
-        exercisesContainer.getChildren().add(exerciseControl);
+        exercisesContainer.getChildren().add(position, exerciseControl);
+        exerciseControls.put(exercise.getId(), exerciseControl);
         updateExercisesVisibility();
     }
 
@@ -389,17 +447,8 @@ public class TrainingUnitControl extends VBox {
         // Remove the exercise from the training unit
         trainingUnit.getTrainingExercises().remove(exercise);
 
-        // Find and remove the corresponding ExerciseControl
-        ExerciseControl controlToRemove = null;
-        for (Node node : exercisesContainer.getChildren()) {
-            if (node instanceof ExerciseControl) {
-                ExerciseControl control = (ExerciseControl) node;
-                if (control.getExercise().getId().equals(exercise.getId())) {
-                    controlToRemove = control;
-                    break;
-                }
-            }
-        }
+        // Remove the corresponding ExerciseControl
+        ExerciseControl controlToRemove = exerciseControls.remove(exercise.getId());
 
         if (controlToRemove != null) {
             // Clean up listeners before removing
@@ -408,7 +457,7 @@ public class TrainingUnitControl extends VBox {
         }
 
         // Check if we need to show the placeholder
-        if (trainingUnit.getTrainingExercises().getAll().isEmpty()) {
+        if (trainingUnit.getTrainingExercises().isEmpty()) {
             placeholderLabel.setVisible(true);
             placeholderLabel.setManaged(true);
         }
@@ -444,6 +493,58 @@ public class TrainingUnitControl extends VBox {
         return trainingUnit;
     }
 
+    /**
+     * Shows a change of this unit or one of its exercises that was made without this control, e.g. by an undo. Only
+     * the affected field or exercise control is updated, so the other controls keep their state.
+     *
+     * @param change the change reported by the model
+     * @return true if the change concerned this unit or one of its exercises
+     */
+    public boolean showChange(ModelChange change) {
+        if (change.source() instanceof TrainingExercise exercise) {
+            ExerciseControl exerciseControl = exerciseControls.get(exercise.getId());
+            if (exerciseControl == null || exerciseControl.getExercise() != exercise) {
+                return false;
+            }
+            exerciseControl.refresh();
+            return true;
+        }
+        if (change.source() != trainingUnit) {
+            return false;
+        }
+        switch (change) {
+            case PropertyChanged property -> {
+                switch (property.property()) {
+                    case NAME -> nameField.setText(trainingUnit.getName());
+                    case DESCRIPTION -> descriptionField.setText(trainingUnit.getDescription());
+                    case WEEKDAY -> weekdayComboBox.setValue(trainingUnit.getWeekday());
+                    default -> {
+                        // Not a property of units
+                    }
+                }
+            }
+            // The placeholder is always the first child of the exercises container
+            case ItemAdded added -> addExerciseToUI((TrainingExercise) added.item(), added.index() + 1);
+            case ItemRemoved removed -> {
+                ExerciseControl exerciseControl = exerciseControls.remove(((TrainingExercise) removed.item()).getId());
+                if (exerciseControl != null) {
+                    exerciseControl.cleanup();
+                    exercisesContainer.getChildren().remove(exerciseControl);
+                }
+                updateExercisesVisibility();
+            }
+            case ItemMoved moved -> {
+                ExerciseControl exerciseControl = exerciseControls.get(((TrainingExercise) moved.item()).getId());
+                if (exerciseControl != null) {
+                    exercisesContainer.getChildren().remove(exerciseControl);
+                    exercisesContainer.getChildren().add(moved.toIndex() + 1, exerciseControl);
+                }
+                updateExercisesVisibility();
+            }
+        }
+        return true;
+    }
+
     /**
      * Handles the action of saving the training unit as a template. If a callback is set, it will be called with the
      * training unit.
@@ -635,14 +736,8 @@ public class TrainingUnitControl extends VBox {
      * @param templateExercise the template exercise to add
      */
     private void addExerciseFromTemplate(TrainingExercise templateExercise) {
-        // Create a new exercise with a new ID
-        TrainingExercise newExercise =
-                new TrainingExercise(
-                        templateExercise.getName(),
-                        templateExercise.getDescription(),
-                        templateExercise.getDuration(),
-                        templateExercise.getSets(),
-                        templateExercise.isBallBucket());
+        // Create a copy with a new ID
+        TrainingExercise newExercise = templateExercise.copy();
 
         // Add it to the training unit
         trainingUnit.getTrainingExercises().add(newExercise);
@@ -2,12 +2,16 @@ package de.bsommerfeld.neverlose.fx.controller;
 
 import com.google.inject.Inject;
 import de.bsommerfeld.neverlose.fx.controller.ControlsProvider.Alignment;
+import de.bsommerfeld.neverlose.fx.messages.Messages;
 import de.bsommerfeld.neverlose.fx.service.NotificationService;
 import de.bsommerfeld.neverlose.fx.view.View;
 import de.bsommerfeld.neverlose.fx.view.ViewProvider;
 import de.bsommerfeld.neverlose.fx.view.ViewWrapper;
 import de.bsommerfeld.neverlose.logger.LogFacade;
 import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import de.bsommerfeld.neverlose.persistence.integrity.CorruptFileReport;
+import de.bsommerfeld.neverlose.persistence.integrity.IntegrityService;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.Parent;
 import javafx.scene.layout.AnchorPane;
@@ -26,6 +30,7 @@ public class NeverLoseMetaController {
 
     private final ViewProvider viewProvider;
     private final NotificationService notificationService;
+    private final IntegrityService integrityService;
     private final Map<Object, ControlsContainer> controlsContainerMap = new HashMap<>();
 
     @FXML
@@ -37,9 +42,12 @@ public class NeverLoseMetaController {
 
     @Inject
     public NeverLoseMetaController(
-            ViewProvider viewProvider, NotificationService notificationService) {
+            ViewProvider viewProvider,
+            NotificationService notificationService,
+            IntegrityService integrityService) {
         this.viewProvider = viewProvider;
         this.notificationService = notificationService;
+        this.integrityService = integrityService;
     }
 
     private static void setAnchor(Parent center) {
@@ -62,6 +70,10 @@ public class NeverLoseMetaController {
         // Initialize the notification service
         notificationService.init(notificationContainer);
 
+        // Verify the library in the background and report quarantined files
+        integrityService.addListener(this::reportCorruptFile);
+        integrityService.start();
+
         // Show the combined view as the default view
         viewProvider.triggerViewChange(CombinedViewController.class);
     }
@@ -101,6 +113,18 @@ public class NeverLoseMetaController {
         }
     }
 
+    private void reportCorruptFile(CorruptFileReport report) {
+        log.warn("Library file {} was quarantined: {}", report.originalPath(), report.reason());
+        Platform.runLater(
+                () ->
+                        notificationService.showWarning(
+                                Messages.getString("integrity.quarantined.title"),
+                                Messages.getString(
+                                        "integrity.quarantined.message",
+                                        report.originalPath().getFileName(),
+                                        report.quarantinedPath().getParent())));
+    }
+
     static class ControlsContainer {
         Alignment alignment;
         Region container;
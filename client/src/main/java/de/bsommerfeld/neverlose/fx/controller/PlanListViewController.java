@@ -1,6 +1,9 @@
 package de.bsommerfeld.neverlose.fx.controller;
 
 import com.google.inject.Inject;
+import de.bsommerfeld.neverlose.export.BatchExport;
+import de.bsommerfeld.neverlose.export.BatchExporter;
+import de.bsommerfeld.neverlose.export.ExportService;
 import de.bsommerfeld.neverlose.fx.messages.Messages;
 import de.bsommerfeld.neverlose.fx.service.NotificationService;
 import de.bsommerfeld.neverlose.fx.state.SearchState;
@@ -13,11 +16,14 @@ import de.bsommerfeld.neverlose.persistence.service.PlanStorageService;
 import de.bsommerfeld.neverlose.plan.TrainingPlan;
 import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
 import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
 import javafx.fxml.FXML;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Scene;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContextMenu;
@@ -26,6 +32,8 @@ import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.OverrunStyle;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.scene.input.KeyCode;
@@ -35,8 +43,14 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.SVGPath;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -46,6 +60,8 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -58,6 +74,7 @@ public class PlanListViewController implements ControlsProvider {
     private final PlanStorageService planStorageService;
     private final SearchState searchState;
     private final NotificationService notificationService;
+    private final BatchExporter batchExporter;
     // Cache for lazily loaded plan metadata (description, units)
     private final Map<UUID, PlanMeta> planMetaCache = new ConcurrentHashMap<>();
     private Consumer<TrainingPlan> onPlanSelected;
@@ -79,11 +96,13 @@ public class PlanListViewController implements ControlsProvider {
             ViewProvider viewProvider,
             PlanStorageService planStorageService,
             SearchState searchState,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            ExportService exportService) {
         this.viewProvider = viewProvider;
         this.planStorageService = planStorageService;
         this.searchState = searchState;
         this.notificationService = notificationService;
+        this.batchExporter = new BatchExporter(exportService, "pdf");
     }
 
     /**
@@ -142,6 +161,8 @@ public class PlanListViewController implements ControlsProvider {
         // Allow the ListView to shrink within its parent (avoid forcing a horizontal scrollbar)
         listView.setMinWidth(0);
         listView.setMaxWidth(Double.MAX_VALUE);
+        // Several plans can be selected for a batch export
+        listView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         // Custom cell showing name and a meta row: description (left, ellipsized) + units icon+count (right)
         listView.setCellFactory(lv -> new ListCell<>() {
             private final Label title = new Label();
@@ -238,12 +259,18 @@ public class PlanListViewController implements ControlsProvider {
                     setGraphic(box);
                     boundId = item.identifier();
 
-                    // Context menu per row: only Delete
+                    // Context menu per row: Duplicate, Export and Delete
                     ContextMenu contextMenu = new ContextMenu();
+                    MenuItem duplicateItem = new MenuItem(Messages.getString("fxml.planCard.duplicate"));
+                    duplicateItem.setOnAction(e -> duplicatePlan(item.identifier()));
+                    MenuItem exportSelectedItem = new MenuItem(Messages.getString("fxml.planCard.exportSelected"));
+                    exportSelectedItem.setOnAction(e -> exportPlans(selectedPlanIds(item)));
+                    MenuItem exportAllItem = new MenuItem(Messages.getString("fxml.planCard.exportAll"));
+                    exportAllItem.setOnAction(e -> exportPlans(allPlans.stream().map(PlanSummary::identifier).toList()));
                     MenuItem deleteItem = new MenuItem(Messages.getString("fxml.planCard.delete"));
                     deleteItem.getStyleClass().add("delete-button");
                     deleteItem.setOnAction(e -> confirmAndDeletePlan(item.identifier(), item.name()));
-                    contextMenu.getItems().addAll(deleteItem);
+                    contextMenu.getItems().addAll(duplicateItem, exportSelectedItem, exportAllItem, deleteItem);
                     setContextMenu(contextMenu);
 
                     PlanMeta meta = planMetaCache.get(boundId);
@@ -315,7 +342,8 @@ public class PlanListViewController implements ControlsProvider {
 
         // Double-click or single-click to open depending on current behavior
         listView.setOnMouseClicked(event -> {
-            if (event.getButton() == MouseButton.PRIMARY) {
+            // Modifier clicks extend the selection instead of opening a plan
+            if (event.getButton() == MouseButton.PRIMARY && !event.isShortcutDown() && !event.isShiftDown()) {
                 openSelectedPlan();
             }
         });
@@ -563,6 +591,160 @@ public class PlanListViewController implements ControlsProvider {
         loadPlans();
     }
 
+    /**
+     * Saves a deep copy of the plan with fresh IDs under a new name and refreshes the list.
+     *
+     * @param planId the ID of the plan to duplicate
+     */
+    private void duplicatePlan(UUID planId) {
+        try {
+            Optional<TrainingPlan> plan = planStorageService.loadPlan(planId);
+            if (plan.isEmpty()) {
+                return;
+            }
+            TrainingPlan copy = plan.get().copy(Messages.getString("plan.copyName", plan.get().getName()));
+            planStorageService.savePlan(copy);
+            refreshPlans();
+        } catch (IOException e) {
+            log.error("Failed to duplicate plan {}", planId, e);
+            notificationService.showError(
+                    Messages.getString("plan.duplicateFailed.title"),
+                    Messages.getString("plan.duplicateFailed.text", e.getMessage()));
+        }
+    }
+
+    /**
+     * Returns the plans a context menu action applies to: the selection if the clicked plan is part of it, otherwise
+     * only the clicked plan.
+     */
+    private List<UUID> selectedPlanIds(PlanSummary clicked) {
+        List<PlanSummary> selected = listView.getSelectionModel().getSelectedItems();
+        if (!selected.contains(clicked)) {
+            return List.of(clicked.identifier());
+        }
+        return selected.stream().map(PlanSummary::identifier).toList();
+    }
+
+    /**
+     * Lets the user choose a directory and exports the given plans into it as PDF files, one per plan. The plans are
+     * loaded and exported in the background while a dialog shows the progress and allows to cancel.
+     *
+     * @param planIds the IDs of the plans to export
+     */
+    private void exportPlans(List<UUID> planIds) {
+        if (planIds.isEmpty()) {
+            return;
+        }
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle(Messages.getString("batchExport.chooseDirectory"));
+        File directory = directoryChooser.showDialog(listView.getScene().getWindow());
+        if (directory == null) {
+            return;
+        }
+
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        Label progressLabel = new Label(Messages.getString("batchExport.progress", 0, planIds.size()));
+        Button cancelButton = new Button(Messages.getString("ui.button.cancel"));
+        cancelButton.getStyleClass().add("editor-action-button");
+        HBox buttons = new HBox(cancelButton);
+        buttons.setAlignment(Pos.CENTER_RIGHT);
+        VBox content = new VBox(10, progressLabel, progressBar, buttons);
+        content.setPadding(new Insets(15));
+
+        Stage progressStage = new Stage();
+        progressStage.setTitle(Messages.getString("batchExport.title"));
+        progressStage.initModality(Modality.WINDOW_MODAL);
+        progressStage.initOwner(listView.getScene().getWindow());
+        Scene scene = new Scene(content, 360, 130);
+        scene.getStylesheets().addAll(listView.getScene().getStylesheets());
+        progressStage.setScene(scene);
+        // Closing the window cancels; it disappears once the running plans are written
+        progressStage.setOnCloseRequest(e -> {
+            e.consume();
+            cancelButton.fire();
+        });
+
+        // Cancelling may happen while the plans are still loading, before the export exists
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicReference<BatchExport> runningExport = new AtomicReference<>();
+        cancelButton.setOnAction(e -> {
+            cancelButton.setDisable(true);
+            cancelled.set(true);
+            BatchExport export = runningExport.get();
+            if (export != null) {
+                export.cancel();
+            }
+        });
+
+        BatchExport.Listener listener = new BatchExport.Listener() {
+            @Override
+            public void onFailed(PlanSnapshot plan, Exception error) {
+                log.error("Failed to export plan {}", plan.name(), error);
+            }
+
+            @Override
+            public void onProgress(int finished, int total) {
+                Platform.runLater(() -> {
+                    progressBar.setProgress((double) finished / total);
+                    progressLabel.setText(Messages.getString("batchExport.progress", finished, total));
+                });
+            }
+        };
+
+        CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return planStorageService.loadPlans(planIds).stream().map(TrainingPlan::snapshot).toList();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .thenCompose(plans -> {
+                    try {
+                        BatchExport export = batchExporter.exportAll(plans, directory.toPath(), listener);
+                        runningExport.set(export);
+                        if (cancelled.get()) {
+                            export.cancel();
+                        }
+                        return export.result();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .whenComplete((result, error) -> Platform.runLater(() -> {
+                    progressStage.close();
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        log.error("Failed to export {} plans to {}", planIds.size(), directory, cause);
+                        notificationService.showError(
+                                Messages.getString("batchExport.failed.title"),
+                                Messages.getString("batchExport.failed.text", cause.getMessage()));
+                    } else {
+                        showExportResult(result, planIds.size(), directory.toPath());
+                    }
+                }));
+
+        progressStage.show();
+    }
+
+    private void showExportResult(BatchExport.Result result, int total, Path directory) {
+        if (result.isComplete()) {
+            notificationService.showSuccess(
+                    Messages.getString("batchExport.done.title"),
+                    Messages.getString("batchExport.done.text", result.exportedFiles().size(), directory));
+        } else {
+            notificationService.showWarning(
+                    Messages.getString("batchExport.partial.title"),
+                    Messages.getString(
+                            "batchExport.partial.text",
+                            result.exportedFiles().size(),
+                            total,
+                            result.failures().size(),
+                            result.skipped()));
+        }
+    }
+
     private void confirmAndDeletePlan(UUID planId, String planName) {
         if (notificationService == null) {
             log.error(Messages.getString("error.notification.notInitialized"));
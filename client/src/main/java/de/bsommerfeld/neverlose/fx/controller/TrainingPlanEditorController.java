@@ -1,12 +1,16 @@
 package de.bsommerfeld.neverlose.fx.controller;
 
 import com.google.inject.Inject;
-import de.bsommerfeld.neverlose.bootstrap.LogDirectorySetup;
+import de.bsommerfeld.neverlose.bootstrap.NeverloseConfig;
+import de.bsommerfeld.neverlose.export.CalendarExportService;
 import de.bsommerfeld.neverlose.export.ExportService;
+import de.bsommerfeld.neverlose.fx.components.PdfPreviewPane;
+import de.bsommerfeld.neverlose.fx.components.SeasonScheduleControl;
 import de.bsommerfeld.neverlose.fx.components.TrainingUnitControl;
 import de.bsommerfeld.neverlose.fx.messages.Messages;
 import de.bsommerfeld.neverlose.fx.messages.MessagesResourceBundle;
 import de.bsommerfeld.neverlose.fx.service.NotificationService;
+import de.bsommerfeld.neverlose.fx.service.PdfPreviewService;
 import de.bsommerfeld.neverlose.fx.view.View;
 import de.bsommerfeld.neverlose.fx.view.ViewProvider;
 import de.bsommerfeld.neverlose.fx.view.ViewWrapper;
@@ -15,13 +19,26 @@ import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
 import de.bsommerfeld.neverlose.persistence.model.PlanSummary;
 import de.bsommerfeld.neverlose.persistence.service.PlanStorageService;
 import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.change.ModelChange;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemAdded;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemMoved;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemRemoved;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.PropertyChanged;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeListener;
+import de.bsommerfeld.neverlose.plan.components.TrainingDuration;
 import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
 import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
 import de.bsommerfeld.neverlose.plan.components.Weekday;
 import de.bsommerfeld.neverlose.plan.components.collection.TrainingExercises;
+import de.bsommerfeld.neverlose.plan.history.UndoHistory;
+import de.bsommerfeld.neverlose.plan.snapshot.TrainingStats;
 import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
 import javafx.animation.Timeline;
+import javafx.beans.binding.Bindings;
+import javafx.beans.value.ObservableValue;
 import javafx.application.Platform;
+import javafx.css.PseudoClass;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -31,14 +48,23 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
+import javafx.scene.control.TextInputControl;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
@@ -47,20 +73,11 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 import javafx.util.Duration;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
 
-import javax.imageio.ImageIO;
 import java.awt.Desktop;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -68,6 +85,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -77,20 +95,48 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @View
 public class TrainingPlanEditorController implements ControlsProvider {
 
+    private static final PseudoClass DIRTY = PseudoClass.getPseudoClass("dirty");
+    // Sharp on high-density screens, the pages are scaled down to the overlay's width
+    private static final float PREVIEW_DPI = 144f;
+    // Long enough that typing a word re-exports the plan only once
+    private static final Duration LIVE_PREVIEW_DELAY = Duration.millis(400);
+    private static final double LIVE_PREVIEW_WIDTH = 420;
+    private static final KeyCombination UNDO = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination REDO = new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination REDO_ALTERNATIVE =
+            new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN);
+
     private final LogFacade log = LogFacadeFactory.getLogger();
 
     private final PlanStorageService planStorageService;
     private final ExportService exportService;
+    private final CalendarExportService calendarExportService;
+    private final PdfPreviewService previewService;
     private final NotificationService notificationService;
     private final ViewProvider viewProvider;
+    private final UndoHistory undoHistory;
     // Map to store the expanded state of each unit, keyed by the unit's ID
     private final Map<UUID, Boolean> unitExpandedStates = new HashMap<>();
+    // Controls of the units in trainingUnitsContainer, keyed by the unit's ID
+    private final Map<UUID, TrainingUnitControl> unitControls = new HashMap<>();
     // Timeline for throttling scroll events to improve performance
     private final Timeline scrollThrottleTimeline = new Timeline();
     // Flag to track if a scroll update is pending
     private final AtomicBoolean scrollUpdatePending = new AtomicBoolean(false);
-    // Track overlays to support cleanup
-    private final Map<StackPane, File> overlayMap = new HashMap<>();
+    // Re-exports the live preview once the plan has not changed for a moment
+    private final PauseTransition livePreviewDelay = new PauseTransition(LIVE_PREVIEW_DELAY);
+    // Whether the editor is part of a showing window; held here so that the derived binding stays observed
+    private ObservableValue<Boolean> shown;
+    // The node that has the keyboard focus; held here so that the derived binding stays observed
+    private ObservableValue<Node> focusOwner;
+    // Marks the save button whenever the plan differs from its last saved state, refreshes the
+    // figures in the header and schedules a refresh of the live preview
+    private final ModelChangeListener planTracker = change -> {
+        updateDirtyState();
+        updateUndoButtons();
+        updateStatsLabel();
+        scheduleLivePreviewRefresh();
+    };
     @FXML
     private BorderPane rootPane;
     @FXML
@@ -98,14 +144,26 @@ public class TrainingPlanEditorController implements ControlsProvider {
     @FXML
     private TextField planDescriptionField;
     @FXML
+    private Label planStatsLabel;
+    @FXML
     private VBox trainingUnitsContainer;
     private TrainingPlan trainingPlan;
+    // Content hash of the plan as it was loaded or last saved
+    private long savedContentHash;
     private ScrollPane editorScrollPane;
     // Buttons for the TopBar
     private Button saveButton;
     private Button exportButton;
     private HBox buttonsContainer;
     private Button previewButton;
+    private Button seasonButton;
+    private Button undoButton;
+    private Button redoButton;
+    private ToggleButton livePreviewButton;
+    // Shown next to the editor while the live preview is on, otherwise null
+    private PdfPreviewPane livePreviewPane;
+    // Content hash of the plan as it is shown in the live preview
+    private long livePreviewContentHash;
 
     /**
      * Constructor for Guice injection.
@@ -113,17 +171,25 @@ public class TrainingPlanEditorController implements ControlsProvider {
      * @param planStorageService  the service for saving and loading training plans
      * @param exportService       the service for exporting training plans to PDF
      * @param notificationService the service for displaying notifications
+     * @param previewService      the service rendering the PDF preview
+     * @param neverloseConfig     the application configuration, providing the undo history's memory cap
      */
     @Inject
     public TrainingPlanEditorController(
             PlanStorageService planStorageService,
             ExportService exportService,
+            CalendarExportService calendarExportService,
             NotificationService notificationService,
-            ViewProvider viewProvider) {
+            ViewProvider viewProvider,
+            PdfPreviewService previewService,
+            NeverloseConfig neverloseConfig) {
         this.planStorageService = planStorageService;
         this.exportService = exportService;
+        this.calendarExportService = calendarExportService;
         this.notificationService = notificationService;
         this.viewProvider = viewProvider;
+        this.previewService = previewService;
+        this.undoHistory = new UndoHistory(neverloseConfig.getUndoHistoryMaxKb() * 1024L);
     }
 
     @Override
@@ -152,12 +218,43 @@ public class TrainingPlanEditorController implements ControlsProvider {
                             Messages.getString("general.defaultPlanDescription"));
         }
 
+        // The history records a change before the tracker asks it whether there is something to undo
+        undoHistory.attach(trainingPlan);
+        trainingPlan.addChangeListener(planTracker);
+        savedContentHash = trainingPlan.contentHash();
+
+        // Undo/redo of the plan's history, unless a text field has the focus and uses its own undo
+        rootPane.addEventFilter(KeyEvent.KEY_PRESSED, this::handleUndoShortcuts);
+
+        // Typing in a field is undone in steps of its own, not merged with typing in the next field
+        focusOwner = rootPane.sceneProperty().flatMap(Scene::focusOwnerProperty);
+        focusOwner.addListener((obs, oldOwner, newOwner) -> undoHistory.seal());
+
         // Create the action buttons for the TopBar
         createActionButtons();
+        updateUndoButtons();
+
+        // Keep the plan name and description in the model while typing, like the unit controls do
+        planNameField.textProperty().addListener((obs, oldVal, newVal) -> trainingPlan.setName(newVal));
+        planDescriptionField.textProperty().addListener(
+                (obs, oldVal, newVal) -> trainingPlan.setDescription(newVal));
 
         // Set up scroll throttling
         setupScrollThrottling();
 
+        livePreviewDelay.setOnFinished(event -> refreshLivePreview());
+
+        // The editor is not reused once it is replaced by another view or its window is closed
+        shown = rootPane.sceneProperty()
+                .flatMap(Scene::windowProperty)
+                .flatMap(Window::showingProperty)
+                .orElse(false);
+        shown.addListener((obs, wasShown, isShown) -> {
+            if (!isShown) {
+                releaseHiddenResources();
+            }
+        });
+
         // Bind the training plan properties to the UI
         updateUIFromModel();
     }
@@ -244,8 +341,140 @@ public class TrainingPlanEditorController implements ControlsProvider {
      * @param trainingPlan the training plan to edit
      */
     public void setTrainingPlan(TrainingPlan trainingPlan) {
+        if (this.trainingPlan != null) {
+            this.trainingPlan.removeChangeListener(planTracker);
+        }
         this.trainingPlan = trainingPlan;
         updateUIFromModel();
+        undoHistory.attach(trainingPlan);
+        trainingPlan.addChangeListener(planTracker);
+        savedContentHash = trainingPlan.contentHash();
+        updateDirtyState();
+        updateUndoButtons();
+        if (livePreviewPane != null) {
+            showLivePreview();
+        }
+    }
+
+    private void handleUndoShortcuts(KeyEvent event) {
+        boolean undo = UNDO.match(event);
+        if (!undo && !REDO.match(event) && !REDO_ALTERNATIVE.match(event)) {
+            return;
+        }
+        // Typing in a text field is recorded in the history as well, so its own undo stays consistent with it
+        Scene scene = rootPane.getScene();
+        if (scene != null && scene.getFocusOwner() instanceof TextInputControl) {
+            return;
+        }
+        event.consume();
+        replayHistory(undo);
+    }
+
+    /**
+     * Undoes or redoes the last step of the plan's history and shows the restored values.
+     *
+     * @param undo {@code true} to undo, {@code false} to redo
+     */
+    private void replayHistory(boolean undo) {
+        List<ModelChange> replayed = new ArrayList<>();
+        ModelChangeListener collector = replayed::add;
+        trainingPlan.addChangeListener(collector);
+        try {
+            if (undo) {
+                undoHistory.undo();
+            } else {
+                undoHistory.redo();
+            }
+        } finally {
+            trainingPlan.removeChangeListener(collector);
+        }
+        // The controls only write to the model, so show the restored values in the affected controls only
+        replayed.forEach(this::showReplayedChange);
+        updateUndoButtons();
+    }
+
+    /** Enables the undo and redo buttons only while the history has a step to replay. */
+    private void updateUndoButtons() {
+        if (undoButton == null) {
+            return;
+        }
+        undoButton.setDisable(!undoHistory.canUndo());
+        redoButton.setDisable(!undoHistory.canRedo());
+    }
+
+    /**
+     * Shows a change that was replayed by the undo history in the controls it affects, keeping the focus, scroll
+     * position and expanded state of all other controls.
+     *
+     * @param change the replayed change
+     */
+    private void showReplayedChange(ModelChange change) {
+        if (change.source() != trainingPlan) {
+            for (TrainingUnitControl unitControl : unitControls.values()) {
+                if (unitControl.showChange(change)) {
+                    return;
+                }
+            }
+            return;
+        }
+        switch (change) {
+            case PropertyChanged property -> {
+                switch (property.property()) {
+                    case NAME -> planNameField.setText(trainingPlan.getName());
+                    case DESCRIPTION -> planDescriptionField.setText(trainingPlan.getDescription());
+                    default -> {
+                        // Not a property of plans
+                    }
+                }
+            }
+            case ItemAdded added -> showAddedUnit((TrainingUnit) added.item(), added.index());
+            case ItemRemoved removed -> hideRemovedUnit((TrainingUnit) removed.item());
+            case ItemMoved moved -> {
+                TrainingUnitControl unitControl = unitControls.get(((TrainingUnit) moved.item()).getId());
+                if (unitControl != null) {
+                    trainingUnitsContainer.getChildren().remove(unitControl);
+                    trainingUnitsContainer.getChildren().add(moved.toIndex(), unitControl);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the plan has changed since it was loaded or last saved. This compares content hashes
+     * that are maintained incrementally by the model, so it is cheap enough to call on every edit.
+     *
+     * @return true if there are unsaved changes
+     */
+    public boolean hasUnsavedChanges() {
+        return trainingPlan != null && trainingPlan.contentHash() != savedContentHash;
+    }
+
+    private void updateDirtyState() {
+        if (saveButton != null) {
+            saveButton.pseudoClassStateChanged(DIRTY, hasUnsavedChanges());
+        }
+    }
+
+    /**
+     * Shows the number of units, the total time, sets and ball-bucket exercises of the plan. The
+     * figures are aggregated incrementally by the model, so this is cheap enough to call on every
+     * edit.
+     */
+    private void updateStatsLabel() {
+        if (trainingPlan == null) {
+            return;
+        }
+        TrainingStats stats = trainingPlan.stats();
+        List<String> parts = new ArrayList<>();
+        parts.add(Messages.getString("editor.stats.units", trainingPlan.getTrainingUnits().size()));
+        if (stats.exercises() > stats.unparsedDurations()) {
+            parts.add(TrainingDuration.format(stats.totalDuration()));
+        }
+        parts.add(Messages.getString("editor.stats.sets", stats.totalSets()));
+        if (stats.ballBucketExercises() > 0) {
+            parts.add(Messages.getString("editor.stats.ballBucket", stats.ballBucketExercises()));
+        }
+        planStatsLabel.setText(String.join(" \u00B7 ", parts));
     }
 
     /** Updates the UI components with the current state of the training plan model. */
@@ -253,18 +482,14 @@ public class TrainingPlanEditorController implements ControlsProvider {
         if (trainingPlan != null) {
             planNameField.setText(trainingPlan.getName());
             planDescriptionField.setText(trainingPlan.getDescription());
+            updateStatsLabel();
 
             // Store the expanded state of each unit before clearing
-            for (Node node : trainingUnitsContainer.getChildren()) {
-                if (node instanceof TrainingUnitControl unitControl) {
-                    TrainingUnit unit = unitControl.getTrainingUnit();
-                    // Store whether this unit is expanded or collapsed
-                    unitExpandedStates.put(unit.getId(), unitControl.isExpanded());
-                }
-            }
+            unitControls.forEach((unitId, unitControl) -> unitExpandedStates.put(unitId, unitControl.isExpanded()));
 
             // Clear existing units
             trainingUnitsContainer.getChildren().clear();
+            unitControls.clear();
 
             // Check if there are any training units
             List<TrainingUnit> units = trainingPlan.getTrainingUnits().getAll();
@@ -284,17 +509,28 @@ public class TrainingPlanEditorController implements ControlsProvider {
     }
 
     /**
-     * Adds a training unit to the UI.
+     * Adds a training unit to the end of the UI.
      *
      * @param unit the training unit to add
      */
     private void addTrainingUnitToUI(TrainingUnit unit) {
+        addTrainingUnitToUI(unit, trainingUnitsContainer.getChildren().size());
+    }
+
+    /**
+     * Adds a training unit to the UI at the given position within the units container.
+     *
+     * @param unit     the training unit to add
+     * @param position the index in the units container
+     */
+    private void addTrainingUnitToUI(TrainingUnit unit, int position) {
         TrainingUnitControl unitControl =
                 new TrainingUnitControl(
                         unit,
                         planStorageService,
                         this::saveUnitAsTemplate,
                         this::removeTrainingUnit,
+                        this::copyUnitToPlans,
                         notificationService);
 
         // Apply the stored expanded state if available
@@ -303,7 +539,34 @@ public class TrainingPlanEditorController implements ControlsProvider {
             unitControl.setExpanded(expandedState);
         }
 
-        trainingUnitsContainer.getChildren().add(unitControl);
+        trainingUnitsContainer.getChildren().add(position, unitControl);
+        unitControls.put(unit.getId(), unitControl);
+    }
+
+    /**
+     * Shows a unit that was appended to the plan. The UI is only rebuilt if the unit replaces the placeholder.
+     *
+     * @param unit the appended training unit
+     */
+    private void showAddedUnit(TrainingUnit unit) {
+        // Insert in front of the "Add Unit" button, which is always the last child
+        showAddedUnit(unit, unitControls.size());
+    }
+
+    /**
+     * Shows a unit that was inserted into the plan at the given index. The UI is only rebuilt if the unit replaces the
+     * placeholder.
+     *
+     * @param unit  the inserted training unit
+     * @param index the index of the unit within the plan
+     */
+    private void showAddedUnit(TrainingUnit unit, int index) {
+        if (unitControls.isEmpty()) {
+            updateUIFromModel();
+        } else {
+            // The unit controls are the first children of the units container
+            addTrainingUnitToUI(unit, index);
+        }
     }
 
     /**
@@ -314,9 +577,24 @@ public class TrainingPlanEditorController implements ControlsProvider {
     private void removeTrainingUnit(TrainingUnit unit) {
         // Remove the unit from the training plan
         trainingPlan.getTrainingUnits().remove(unit);
+        unitExpandedStates.remove(unit.getId());
 
-        // Update the UI
-        updateUIFromModel();
+        hideRemovedUnit(unit);
+    }
+
+    /**
+     * Removes the control of a unit that was removed from the plan. The UI is only rebuilt if the placeholder has to be
+     * shown.
+     *
+     * @param unit the removed training unit
+     */
+    private void hideRemovedUnit(TrainingUnit unit) {
+        TrainingUnitControl unitControl = unitControls.remove(unit.getId());
+        if (unitControl == null || trainingPlan.getTrainingUnits().isEmpty()) {
+            updateUIFromModel();
+        } else {
+            trainingUnitsContainer.getChildren().remove(unitControl);
+        }
     }
 
     /**
@@ -484,7 +762,7 @@ public class TrainingPlanEditorController implements ControlsProvider {
         trainingPlan.getTrainingUnits().add(newUnit);
 
         // Update the UI
-        updateUIFromModel();
+        showAddedUnit(newUnit);
     }
 
     /** Handles the action of adding a unit from a template. */
@@ -576,31 +854,14 @@ public class TrainingPlanEditorController implements ControlsProvider {
         // Save current UI state to model
         updateModelFromUI();
 
-        // Create a new unit with a new ID
-        TrainingUnit newUnit =
-                new TrainingUnit(
-                        templateUnit.getName(), templateUnit.getDescription(), templateUnit.getWeekday());
-
-        // Copy all exercises from the template to the new unit
-        for (TrainingExercise exercise : templateUnit.getTrainingExercises().getAll()) {
-            // Create a copy of each exercise
-            TrainingExercise newExercise =
-                    new TrainingExercise(
-                            exercise.getName(),
-                            exercise.getDescription(),
-                            exercise.getDuration(),
-                            exercise.getSets(),
-                            exercise.isBallBucket());
-
-            // Add it to the new unit
-            newUnit.getTrainingExercises().add(newExercise);
-        }
+        // Create a deep copy with new IDs for the unit and its exercises
+        TrainingUnit newUnit = templateUnit.copy();
 
         // Add the new unit to the training plan
         trainingPlan.getTrainingUnits().add(newUnit);
 
         // Update the UI
-        updateUIFromModel();
+        showAddedUnit(newUnit);
 
         log.info(Messages.getString("log.template.added", templateUnit.getName()));
     }
@@ -733,6 +994,8 @@ public class TrainingPlanEditorController implements ControlsProvider {
         try {
             String identifier = planStorageService.savePlan(plan);
             log.info(Messages.getString("log.plan.saved", identifier));
+            savedContentHash = trainingPlan.contentHash();
+            updateDirtyState();
 
             // Show success message
             showStyledAlert(
@@ -831,6 +1094,115 @@ public class TrainingPlanEditorController implements ControlsProvider {
         }
     }
 
+    /**
+     * Lets the user pick other plans and adds a copy of the given unit to each of them. The plans are updated and
+     * saved in a single batch, see {@link PlanStorageService#applyUnitToPlans}.
+     *
+     * @param unit the unit to copy
+     */
+    private void copyUnitToPlans(TrainingUnit unit) {
+        updateModelFromUI();
+
+        List<PlanSummary> otherPlans;
+        try {
+            otherPlans = planStorageService.loadPlanSummaries().stream()
+                    .filter(summary -> !summary.identifier().equals(trainingPlan.getId()))
+                    .toList();
+        } catch (IOException e) {
+            log.error("Failed to load plan summaries for copying unit {}", unit.getName(), e);
+            notificationService.showError(
+                    Messages.getString("copyUnit.failed.title"),
+                    Messages.getString("copyUnit.failed.text", e.getMessage()));
+            return;
+        }
+        if (otherPlans.isEmpty()) {
+            notificationService.showInfo(Messages.getString("copyUnit.noPlans"));
+            return;
+        }
+
+        ListView<PlanSummary> planList = new ListView<>();
+        planList.getItems().setAll(otherPlans);
+        planList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        planList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(PlanSummary item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.name());
+            }
+        });
+        VBox.setVgrow(planList, Priority.ALWAYS);
+
+        Stage copyStage = new Stage();
+        Button confirmButton = new Button(Messages.getString("ui.button.confirm"));
+        confirmButton.getStyleClass().add("editor-action-button");
+        confirmButton.disableProperty().bind(Bindings.isEmpty(planList.getSelectionModel().getSelectedItems()));
+        confirmButton.setOnAction(event -> {
+            List<UUID> planIds = planList.getSelectionModel().getSelectedItems().stream()
+                    .map(PlanSummary::identifier)
+                    .toList();
+            copyStage.close();
+            // Loading and saving the plans runs in the background on a copy, as the unit may be edited meanwhile
+            TrainingUnit copy = unit.copy();
+            String unitName = unit.getName();
+            CompletableFuture
+                    .supplyAsync(() -> {
+                        try {
+                            return planStorageService.applyUnitToPlans(copy, planIds).size();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .whenComplete((updated, error) -> Platform.runLater(() -> {
+                        if (error != null) {
+                            Throwable cause = error.getCause() != null ? error.getCause() : error;
+                            log.error("Failed to copy unit {} to {} plans", unitName, planIds.size(), cause);
+                            notificationService.showError(
+                                    Messages.getString("copyUnit.failed.title"),
+                                    Messages.getString("copyUnit.failed.text", cause.getMessage()));
+                        } else {
+                            notificationService.showSuccess(
+                                    Messages.getString("copyUnit.done.title"),
+                                    Messages.getString("copyUnit.done.text", updated));
+                        }
+                    }));
+        });
+        Button cancelButton = new Button(Messages.getString("ui.button.cancel"));
+        cancelButton.getStyleClass().add("editor-action-button");
+        cancelButton.setOnAction(event -> copyStage.close());
+
+        HBox buttons = new HBox(10, cancelButton, confirmButton);
+        buttons.setAlignment(Pos.CENTER_RIGHT);
+        VBox content = new VBox(10, new Label(Messages.getString("copyUnit.hint")), planList, buttons);
+        content.setPadding(new Insets(15));
+
+        copyStage.setTitle(Messages.getString("copyUnit.title", unit.getName()));
+        copyStage.initModality(Modality.APPLICATION_MODAL);
+        copyStage.initOwner(rootPane.getScene().getWindow());
+
+        Scene scene = new Scene(content, 420, 460);
+        scene.getStylesheets().addAll(rootPane.getScene().getStylesheets());
+        copyStage.setScene(scene);
+        copyStage.showAndWait();
+    }
+
+    /** Shows the plan projected onto the dates of a season in a modal dialog. */
+    private void handleSeasonSchedule() {
+        updateModelFromUI();
+
+        SeasonScheduleControl scheduleControl =
+                new SeasonScheduleControl(trainingPlan.snapshot(), calendarExportService, notificationService);
+
+        Stage seasonStage = new Stage();
+        seasonStage.setTitle(Messages.getString("season.title"));
+        seasonStage.initModality(Modality.APPLICATION_MODAL);
+        seasonStage.initOwner(rootPane.getScene().getWindow());
+
+        Scene scene = new Scene(scheduleControl, 640, 620);
+        scene.getStylesheets().addAll(rootPane.getScene().getStylesheets());
+        seasonStage.setScene(scene);
+        seasonStage.showAndWait();
+    }
+
     /** Creates the action buttons that will be registered with the TopBar. */
     private void createActionButtons() {
         // Create buttons container
@@ -838,6 +1210,14 @@ public class TrainingPlanEditorController implements ControlsProvider {
         buttonsContainer.setSpacing(10);
         buttonsContainer.setAlignment(Pos.CENTER_RIGHT);
 
+        // Create undo and redo buttons
+        undoButton = new Button(Messages.getString("ui.button.undo"));
+        undoButton.getStyleClass().add("editor-action-button");
+        undoButton.setOnAction(event -> replayHistory(true));
+        redoButton = new Button(Messages.getString("ui.button.redo"));
+        redoButton.getStyleClass().add("editor-action-button");
+        redoButton.setOnAction(event -> replayHistory(false));
+
         // Create save button
         saveButton = new Button(Messages.getString("ui.button.save"));
         saveButton.getStyleClass().add("editor-action-button");
@@ -848,110 +1228,124 @@ public class TrainingPlanEditorController implements ControlsProvider {
         previewButton.getStyleClass().add("editor-action-button");
         previewButton.setOnAction(event -> handlePreview());
 
+        // Create live preview toggle
+        livePreviewButton = new ToggleButton(Messages.getString("ui.button.livePreview"));
+        livePreviewButton.getStyleClass().add("editor-action-button");
+        livePreviewButton.selectedProperty().addListener((obs, wasSelected, isSelected) -> setLivePreview(isSelected));
+
         // Create export button
         exportButton = new Button(Messages.getString("fxml.trainingPlanEditor.export"));
         exportButton.getStyleClass().add("editor-action-button");
         exportButton.setOnAction(event -> handleExport());
 
+        // Create season button
+        seasonButton = new Button(Messages.getString("ui.button.season"));
+        seasonButton.getStyleClass().add("editor-action-button");
+        seasonButton.setOnAction(event -> handleSeasonSchedule());
+
         // Add buttons to container
-        buttonsContainer.getChildren().addAll(saveButton, previewButton, exportButton);
+        buttonsContainer.getChildren().addAll(
+                undoButton, redoButton, saveButton, previewButton, livePreviewButton, exportButton, seasonButton);
     }
 
-    /** Handles the preview button action by generating a temp PDF and showing it in an overlay. */
+    /**
+     * Handles the preview button action. The overlay opens right away; the plan is exported and its pages are rendered
+     * in the background as they scroll into view.
+     */
     @FXML
     private void handlePreview() {
         updateModelFromUI();
 
-        // Determine base directory for neverlose temp
-        Path baseDir = LogDirectorySetup.getApplicationDataBaseDirectory();
-        Path neverloseDir = (baseDir != null ? baseDir.resolve("neverlose") : Paths.get("neverlose"));
-        Path tempDir = neverloseDir.resolve("temp");
-        try {
-            Files.createDirectories(tempDir);
-        } catch (Exception e) {
-            log.error("Failed to create temp directory for preview: " + tempDir, e);
+        PdfPreviewPane previewPane = new PdfPreviewPane(previewService, PREVIEW_DPI);
+        Runnable closePreview = showPdfOverlay(previewPane);
+        previewPane.setOnError(cause -> {
+            log.error("Failed to render PDF preview", cause);
+            closePreview.run();
             showStyledAlert(Alert.AlertType.ERROR,
                     Messages.getString("error.preview.failed.title"),
                     null,
-                    Messages.getString("error.preview.failed.createTempDir", String.valueOf(tempDir)));
-            return;
-        }
+                    Messages.getString("error.preview.failed.render", cause.getMessage()));
+        });
+        previewPane.show(trainingPlan.snapshot());
+    }
 
-        String safeName = trainingPlan.getName() == null ? "plan" : trainingPlan.getName().replaceAll("\\s+", "_");
-        File tempFile;
-        try {
-            tempFile = Files.createTempFile(tempDir, safeName + "_preview_", ".pdf").toFile();
-            tempFile.deleteOnExit();
-        } catch (Exception e) {
-            log.error("Failed to create temp file for preview in " + tempDir, e);
-            showStyledAlert(Alert.AlertType.ERROR,
-                    Messages.getString("error.preview.failed.title"),
-                    null,
-                    Messages.getString("error.preview.failed.createTempFile", String.valueOf(tempDir)));
+    /**
+     * Shows or hides the live preview next to the editor. While it is shown, the plan is re-exported in the
+     * background whenever it has changed and then not changed for {@link #LIVE_PREVIEW_DELAY}.
+     *
+     * @param enabled whether to show the live preview
+     */
+    private void setLivePreview(boolean enabled) {
+        if (enabled == (livePreviewPane != null)) {
             return;
         }
-
-        try {
-            // Export current plan to the temp PDF
-            exportService.export(trainingPlan, tempFile);
-        } catch (Exception e) {
-            log.error("Failed to export PDF for preview", e);
-            showStyledAlert(Alert.AlertType.ERROR,
-                    Messages.getString("error.preview.failed.title"),
-                    null,
-                    Messages.getString("error.preview.failed.export", e.getMessage()));
-            // Best effort cleanup
-            try { tempFile.delete(); } catch (Exception ignored) {}
-            return;
+        if (enabled) {
+            livePreviewPane = new PdfPreviewPane(previewService, PREVIEW_DPI);
+            livePreviewPane.getStyleClass().add("live-preview");
+            livePreviewPane.setPrefWidth(LIVE_PREVIEW_WIDTH);
+            // Shown again after the next change, an alert on every keystroke would get in the way
+            livePreviewPane.setOnError(cause -> log.error("Failed to render live PDF preview", cause));
+            rootPane.setRight(livePreviewPane);
+            showLivePreview();
+        } else {
+            livePreviewDelay.stop();
+            rootPane.setRight(null);
+            livePreviewPane.dispose();
+            livePreviewPane = null;
         }
+    }
 
-        // Build and show overlay with rendered PDF pages
-        try {
-            showPdfOverlay(tempFile);
-        } catch (Exception e) {
-            log.error("Failed to show PDF preview overlay", e);
-            showStyledAlert(Alert.AlertType.ERROR,
-                    Messages.getString("error.preview.failed.title"),
-                    null,
-                    Messages.getString("error.preview.failed.render", e.getMessage()));
-            try { tempFile.delete(); } catch (Exception ignored) {}
+    /**
+     * Turns the live preview off, disposing its pages and cancelling a pending or running export, and stops the
+     * timers. Called when the editor is no longer shown.
+     */
+    private void releaseHiddenResources() {
+        if (livePreviewButton != null) {
+            livePreviewButton.setSelected(false);
         }
+        setLivePreview(false);
+        livePreviewDelay.stop();
+        scrollThrottleTimeline.stop();
     }
 
-    private void showPdfOverlay(File pdfFile) throws Exception {
-        // Render PDF pages to JavaFX ImageViews
-        List<ImageView> pageViews = new ArrayList<>();
-        try (PDDocument doc = Loader.loadPDF(pdfFile)) {
-            PDFRenderer renderer = new PDFRenderer(doc);
-            int pageCount = doc.getNumberOfPages();
-            for (int i = 0; i < pageCount; i++) {
-                BufferedImage bim = renderer.renderImageWithDPI(i, 144f); // 144 DPI for clarity
-                ByteArrayOutputStream os = new ByteArrayOutputStream();
-                ImageIO.write(bim, "png", os);
-                Image fxImg = new Image(new ByteArrayInputStream(os.toByteArray()));
-                ImageView imageView = new ImageView(fxImg);
-                imageView.setPreserveRatio(true);
-                pageViews.add(imageView);
-            }
+    private void scheduleLivePreviewRefresh() {
+        if (livePreviewPane != null) {
+            livePreviewDelay.playFromStart();
         }
+    }
 
-        VBox pagesBox = new VBox(10);
-        pagesBox.getChildren().addAll(pageViews);
-        pagesBox.setAlignment(Pos.CENTER);
+    /** Re-exports the live preview if the plan differs from the version shown. */
+    private void refreshLivePreview() {
+        if (livePreviewPane != null && trainingPlan.contentHash() != livePreviewContentHash) {
+            showLivePreview();
+        }
+    }
 
-        ScrollPane sp = new ScrollPane(pagesBox);
-        sp.setFitToWidth(true);
-        sp.setPannable(true);
-        sp.getStyleClass().add("preview-scrollpane");
+    private void showLivePreview() {
+        livePreviewDelay.stop();
+        livePreviewContentHash = trainingPlan.contentHash();
+        livePreviewPane.show(trainingPlan.snapshot());
+    }
 
+    /**
+     * Shows the preview in an overlay above the editor.
+     *
+     * @return an action closing the overlay and disposing the preview
+     */
+    private Runnable showPdfOverlay(PdfPreviewPane previewPane) {
         // Container for the white content area (centered)
-        BorderPane content = new BorderPane(sp);
+        BorderPane content = new BorderPane(previewPane);
         content.getStyleClass().add("preview-content");
 
         // Close button and top bar
         Button closeBtn = new Button(Messages.getString("ui.button.close"));
         closeBtn.getStyleClass().add("editor-action-button");
-        closeBtn.setOnAction(e -> removeOverlayAndDelete(pdfFile));
+        StackPane overlay = new StackPane();
+        Runnable closeOverlay = () -> {
+            removeOverlay(overlay);
+            previewPane.dispose();
+        };
+        closeBtn.setOnAction(e -> closeOverlay.run());
         HBox topBar = new HBox();
         topBar.setAlignment(Pos.CENTER_RIGHT);
         topBar.getChildren().add(closeBtn);
@@ -959,7 +1353,6 @@ public class TrainingPlanEditorController implements ControlsProvider {
         content.setTop(topBar);
 
         // Dimmed full-screen overlay with centered content
-        StackPane overlay = new StackPane();
         overlay.getStyleClass().add("preview-overlay");
         overlay.getChildren().add(content);
         StackPane.setAlignment(content, Pos.CENTER);
@@ -973,22 +1366,16 @@ public class TrainingPlanEditorController implements ControlsProvider {
             content.maxHeightProperty().bind(scene.heightProperty().multiply(0.9));
             content.prefHeightProperty().bind(scene.heightProperty().multiply(0.9));
 
-            // Make images scale with the available width inside the scrollpane
-            for (ImageView iv : pageViews) {
-                iv.setPreserveRatio(true);
-                iv.fitWidthProperty().bind(sp.widthProperty().subtract(40)); // subtract padding/scrollbar
-            }
-
             paneRoot.getChildren().add(overlay);
             // Clicking outside closes overlay
             overlay.addEventHandler(MouseEvent.MOUSE_CLICKED, ev -> {
                 if (ev.getTarget() == overlay) {
-                    removeOverlayAndDelete(pdfFile);
+                    closeOverlay.run();
                 }
             });
             // Store overlay reference for removal
             overlay.setUserData(paneRoot);
-            overlayMap.put(overlay, pdfFile);
+            return closeOverlay;
         } else {
             // Fallback: modal stage that feels like an overlay
             Stage stage = new Stage();
@@ -1003,12 +1390,6 @@ public class TrainingPlanEditorController implements ControlsProvider {
             Scene s = new Scene(overlay, initW, initH);
             s.getStylesheets().addAll(rootPane.getScene().getStylesheets());
 
-            // Also scale images with the scene width
-            for (ImageView iv : pageViews) {
-                iv.setPreserveRatio(true);
-                iv.fitWidthProperty().bind(s.widthProperty().subtract(40));
-            }
-
             // Keep stage sized relative to owner when owner resizes
             if (owner != null) {
                 owner.widthProperty().addListener((o, oldV, newV) -> stage.setWidth(newV.doubleValue() * 0.7));
@@ -1017,31 +1398,18 @@ public class TrainingPlanEditorController implements ControlsProvider {
 
             // Close button should close the stage in this fallback
             closeBtn.setOnAction(ev -> stage.close());
+            stage.setOnHidden(ev -> previewPane.dispose());
 
             stage.setScene(s);
-            stage.setOnCloseRequest(e -> { try { pdfFile.delete(); } catch (Exception ignored) {} });
             stage.show();
+            return stage::close;
         }
     }
 
-    private void removeOverlayAndDelete(File pdfFile) {
-        Scene scene = rootPane.getScene();
-        // find overlay in overlayMap to remove
-        StackPane toRemove = null;
-        for (var entry : overlayMap.entrySet()) {
-            if (entry.getValue().equals(pdfFile)) {
-                toRemove = entry.getKey();
-                break;
-            }
-        }
-        if (toRemove != null) {
-            Object parent = toRemove.getUserData();
-            if (parent instanceof Pane pane) {
-                pane.getChildren().remove(toRemove);
-            }
-            overlayMap.remove(toRemove);
+    private void removeOverlay(StackPane overlay) {
+        if (overlay.getUserData() instanceof Pane pane) {
+            pane.getChildren().remove(overlay);
         }
-        try { pdfFile.delete(); } catch (Exception ignored) {}
     }
 
     /** Updates the training plan model with the current state of the UI. */
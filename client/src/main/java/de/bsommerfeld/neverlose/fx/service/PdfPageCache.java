@@ -0,0 +1,413 @@
+package de.bsommerfeld.neverlose.fx.service;
+
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Caches rendered preview pages in memory and on disk, so that previewing a plan that did not change since is instant,
+ * even after a restart.
+ * <p>
+ * Pages are keyed by the content hash of the plan, the page index and the resolution. Besides the pages, the cache
+ * keeps the {@link PdfPageLayout} of every plan, so a preview can be laid out without exporting the plan. The memory
+ * level holds the most recently used pages up to a byte budget. The disk level stores every page as deflated pixels,
+ * without an image format in between, and drops the least recently used files once they exceed their budget. Files
+ * are written on a background thread of their own.
+ * <p>
+ * A content hash identifies a plan, not the pages the export draws for it, so the files are kept in a directory per
+ * application build and file format. The directories of other builds are deleted when the cache is first used.
+ * <p>
+ * All methods may be called from any thread.
+ */
+public class PdfPageCache {
+
+    // Changes whenever the file format changes, so that outdated files are never read
+    private static final int FORMAT_VERSION = 2;
+    private static final String PAGE_SUFFIX = ".page";
+    private static final String LAYOUT_SUFFIX = ".layout";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAX_CACHED_LAYOUTS = 64;
+    // A page of 7000 x 7000 pixels is far beyond any preview resolution
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    private final LogFacade log = LogFacadeFactory.getLogger();
+    private final Path rootDirectory;
+    private final Path directory;
+    private final long memoryBudget;
+    private final long diskBudget;
+    // Access-ordered, so the least recently used entry is evicted first
+    private final LinkedHashMap<PageKey, Image> memoryPages = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<Long, PdfPageLayout> memoryLayouts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, PdfPageLayout> eldest) {
+            return size() > MAX_CACHED_LAYOUTS;
+        }
+    };
+    // Sizes of the files on disk, least recently used first; loaded on first use
+    private final LinkedHashMap<Path, Long> diskFiles = new LinkedHashMap<>(64, 0.75f, true);
+    private final ExecutorService diskWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pdf-preview-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long memoryBytes;
+    private long diskBytes;
+    private boolean diskIndexed;
+
+    /**
+     * Creates a cache.
+     *
+     * @param rootDirectory the directory of the disk level; it is created when the first file is written
+     * @param buildVersion  the version of the application build, which determines how plans are exported
+     * @param memoryBudget  the bytes of pixels to keep in memory
+     * @param diskBudget    the bytes of files to keep on disk; 0 disables the disk level
+     */
+    public PdfPageCache(Path rootDirectory, String buildVersion, long memoryBudget, long diskBudget) {
+        this.rootDirectory = rootDirectory;
+        this.directory = rootDirectory.resolve(versionDirectoryName(buildVersion));
+        this.memoryBudget = memoryBudget;
+        this.diskBudget = diskBudget;
+    }
+
+    /**
+     * Returns a page from memory, without touching the disk.
+     *
+     * @return the page, or null if it is not in memory
+     */
+    public Image getPage(long contentHash, int pageIndex, float dpi) {
+        synchronized (memoryPages) {
+            return memoryPages.get(new PageKey(contentHash, pageIndex, dpi));
+        }
+    }
+
+    /**
+     * Returns a page from memory or, failing that, from disk. Reading from disk blocks, so this must not be called on
+     * the JavaFX application thread.
+     *
+     * @return the page, or null if it is not cached
+     */
+    public Image loadPage(long contentHash, int pageIndex, float dpi) {
+        Image page = getPage(contentHash, pageIndex, dpi);
+        if (page != null) {
+            return page;
+        }
+        Path file = readableFile(pageFileName(contentHash, pageIndex, dpi));
+        if (file == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new InflaterInputStream(Files.newInputStream(file))))) {
+            page = readPage(in);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Dropping unreadable preview cache file {}", file, e);
+            deleteFile(file);
+            return null;
+        }
+        putInMemory(new PageKey(contentHash, pageIndex, dpi), page);
+        return page;
+    }
+
+    /**
+     * Caches a page in memory and, in the background, on disk.
+     *
+     * @param page a page whose pixels are not changed afterwards
+     */
+    public void putPage(long contentHash, int pageIndex, float dpi, Image page) {
+        putInMemory(new PageKey(contentHash, pageIndex, dpi), page);
+        writeInBackground(pageFileName(contentHash, pageIndex, dpi), out -> writePage(out, page));
+    }
+
+    /**
+     * Returns the layout of a plan's document from memory or disk. Like {@link #loadPage}, this may block.
+     *
+     * @return the layout, or null if it is not cached
+     */
+    public PdfPageLayout loadLayout(long contentHash) {
+        synchronized (memoryLayouts) {
+            PdfPageLayout layout = memoryLayouts.get(contentHash);
+            if (layout != null) {
+                return layout;
+            }
+        }
+        Path file = readableFile(layoutFileName(contentHash));
+        if (file == null) {
+            return null;
+        }
+        PdfPageLayout layout;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            layout = PdfPageLayout.readFrom(in);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Dropping unreadable preview cache file {}", file, e);
+            deleteFile(file);
+            return null;
+        }
+        synchronized (memoryLayouts) {
+            memoryLayouts.put(contentHash, layout);
+        }
+        return layout;
+    }
+
+    /** Caches the layout of a plan's document in memory and, in the background, on disk. */
+    public void putLayout(long contentHash, PdfPageLayout layout) {
+        synchronized (memoryLayouts) {
+            memoryLayouts.put(contentHash, layout);
+        }
+        writeInBackground(layoutFileName(contentHash), layout::writeTo);
+    }
+
+    private void putInMemory(PageKey key, Image page) {
+        synchronized (memoryPages) {
+            Image previous = memoryPages.put(key, page);
+            if (previous != null) {
+                memoryBytes -= imageBytes(previous);
+            }
+            memoryBytes += imageBytes(page);
+            Iterator<Image> eldestFirst = memoryPages.values().iterator();
+            while (memoryBytes > memoryBudget && eldestFirst.hasNext()) {
+                memoryBytes -= imageBytes(eldestFirst.next());
+                eldestFirst.remove();
+            }
+        }
+    }
+
+    /** Returns the file if it is on disk, marking it as used. */
+    private Path readableFile(String fileName) {
+        if (diskBudget <= 0) {
+            return null;
+        }
+        Path file = directory.resolve(fileName);
+        synchronized (diskFiles) {
+            indexDisk();
+            if (diskFiles.get(file) == null) {
+                return null;
+            }
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects the order of eviction
+            log.debug("Failed to touch preview cache file {}", file, e);
+        }
+        return file;
+    }
+
+    private void writeInBackground(String fileName, FileWriter writer) {
+        if (diskBudget <= 0) {
+            return;
+        }
+        Path file = directory.resolve(fileName);
+        synchronized (diskFiles) {
+            indexDisk();
+            if (diskFiles.containsKey(file)) {
+                return;
+            }
+        }
+        diskWriter.execute(() -> {
+            Path tempFile = directory.resolve(fileName + TEMP_SUFFIX);
+            try {
+                Files.createDirectories(directory);
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(tempFile)))) {
+                    writer.write(out);
+                }
+                // Readers never see a partly written file
+                try {
+                    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                addToDisk(file, Files.size(file));
+            } catch (IOException e) {
+                log.warn("Failed to write preview cache file {}", file, e);
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // Removed with the other temporary files the next time the cache is indexed
+                }
+            }
+        });
+    }
+
+    private void addToDisk(Path file, long size) {
+        List<Path> evicted = new ArrayList<>();
+        synchronized (diskFiles) {
+            Long previous = diskFiles.put(file, size);
+            diskBytes += size - (previous != null ? previous : 0);
+            Iterator<Map.Entry<Path, Long>> eldestFirst = diskFiles.entrySet().iterator();
+            while (diskBytes > diskBudget && eldestFirst.hasNext()) {
+                Map.Entry<Path, Long> eldest = eldestFirst.next();
+                diskBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                eldestFirst.remove();
+            }
+        }
+        for (Path evictedFile : evicted) {
+            try {
+                Files.deleteIfExists(evictedFile);
+            } catch (IOException e) {
+                log.warn("Failed to delete preview cache file {}", evictedFile, e);
+            }
+        }
+    }
+
+    private void deleteFile(Path file) {
+        synchronized (diskFiles) {
+            Long size = diskFiles.remove(file);
+            if (size != null) {
+                diskBytes -= size;
+            }
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete preview cache file {}", file, e);
+        }
+    }
+
+    /** Lists the files on disk once, least recently used first. Must hold the lock of {@link #diskFiles}. */
+    private void indexDisk() {
+        if (diskIndexed) {
+            return;
+        }
+        diskIndexed = true;
+        pruneOtherVersions();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted(Comparator.comparing(PdfPageCache::lastModified)).toList()) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(TEMP_SUFFIX)) {
+                    // Left behind by a crash
+                    Files.deleteIfExists(file);
+                } else {
+                    long size = Files.size(file);
+                    diskFiles.put(file, size);
+                    diskBytes += size;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to index preview cache directory {}", directory, e);
+        }
+    }
+
+    /** Deletes everything in the root directory but the directory of this build. */
+    private void pruneOtherVersions() {
+        if (!Files.isDirectory(rootDirectory)) {
+            return;
+        }
+        try (Stream<Path> entries = Files.list(rootDirectory)) {
+            for (Path entry : entries.filter(entry -> !entry.equals(directory)).toList()) {
+                log.info("Deleting preview cache of another version: {}", entry);
+                deleteRecursively(entry);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to prune preview cache directory {}", rootDirectory, e);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> tree = Files.walk(path)) {
+            // Children before their parents
+            for (Path file : tree.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static String versionDirectoryName(String buildVersion) {
+        String build = buildVersion == null || buildVersion.isBlank() ? "unknown" : buildVersion;
+        return "v" + FORMAT_VERSION + "-" + build.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String pageFileName(long contentHash, int pageIndex, float dpi) {
+        return String.format(Locale.ROOT, "%016x-%d-%s%s", contentHash, pageIndex, Float.toString(dpi), PAGE_SUFFIX);
+    }
+
+    private static String layoutFileName(long contentHash) {
+        return String.format(Locale.ROOT, "%016x%s", contentHash, LAYOUT_SUFFIX);
+    }
+
+    private static void writePage(OutputStream target, Image page) throws IOException {
+        int width = (int) page.getWidth();
+        int height = (int) page.getHeight();
+        int[] pixels = new int[width * height];
+        page.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+        ByteBuffer bytes = ByteBuffer.allocate(pixels.length * 4);
+        bytes.asIntBuffer().put(pixels);
+
+        // Pages are mostly white, the fastest compression already shrinks them a lot
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(target, deflater))) {
+            out.writeInt(width);
+            out.writeInt(height);
+            out.write(bytes.array());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static Image readPage(DataInputStream in) throws IOException {
+        int width = in.readInt();
+        int height = in.readInt();
+        if (width <= 0 || height <= 0 || (long) width * height > MAX_PIXELS) {
+            throw new IOException("Invalid page size: " + width + " x " + height);
+        }
+        byte[] bytes = new byte[width * height * 4];
+        in.readFully(bytes);
+        int[] pixels = new int[width * height];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(pixels);
+
+        WritableImage page = new WritableImage(width, height);
+        page.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+        return page;
+    }
+
+    private static long imageBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    @FunctionalInterface
+    private interface FileWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private record PageKey(long contentHash, int pageIndex, float dpi) {
+    }
+}
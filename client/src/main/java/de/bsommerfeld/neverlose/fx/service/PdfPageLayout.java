@@ -0,0 +1,143 @@
+package de.bsommerfeld.neverlose.fx.service;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The pages of an exported document: their proportions and a digest of what is drawn on them. A preview needs the
+ * layout to size its pages before any of them is rendered, and compares the digests of two versions of a plan to find
+ * the pages that changed.
+ */
+public final class PdfPageLayout {
+
+    private final double[] aspectRatios;
+    private final byte[][] digests;
+
+    private PdfPageLayout(double[] aspectRatios, byte[][] digests) {
+        this.aspectRatios = aspectRatios;
+        this.digests = digests;
+    }
+
+    /**
+     * Reads the layout of a document.
+     *
+     * @param document the document
+     * @return the layout
+     * @throws IOException if the pages of the document cannot be read
+     */
+    public static PdfPageLayout of(PDDocument document) throws IOException {
+        int pageCount = document.getNumberOfPages();
+        double[] aspectRatios = new double[pageCount];
+        byte[][] digests = new byte[pageCount][];
+        for (int i = 0; i < pageCount; i++) {
+            PDPage page = document.getPage(i);
+            PDRectangle cropBox = page.getCropBox();
+            aspectRatios[i] = cropBox.getHeight() / cropBox.getWidth();
+            digests[i] = digest(page);
+        }
+        return new PdfPageLayout(aspectRatios, digests);
+    }
+
+    /**
+     * Reads a layout written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the source
+     * @return the layout
+     * @throws IOException if the layout cannot be read
+     */
+    public static PdfPageLayout readFrom(DataInput in) throws IOException {
+        int pageCount = in.readInt();
+        if (pageCount < 0) {
+            throw new IOException("Invalid page count: " + pageCount);
+        }
+        double[] aspectRatios = new double[pageCount];
+        byte[][] digests = new byte[pageCount][];
+        for (int i = 0; i < pageCount; i++) {
+            aspectRatios[i] = in.readDouble();
+            digests[i] = new byte[in.readUnsignedByte()];
+            in.readFully(digests[i]);
+        }
+        return new PdfPageLayout(aspectRatios, digests);
+    }
+
+    /**
+     * Writes the layout, see {@link #readFrom(DataInput)}.
+     *
+     * @param out the target
+     * @throws IOException if the layout cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(aspectRatios.length);
+        for (int i = 0; i < aspectRatios.length; i++) {
+            out.writeDouble(aspectRatios[i]);
+            out.writeByte(digests[i].length);
+            out.write(digests[i]);
+        }
+    }
+
+    /** Returns the number of pages. */
+    public int pageCount() {
+        return aspectRatios.length;
+    }
+
+    /**
+     * Returns the height of a page relative to its width.
+     *
+     * @param pageIndex the zero-based index of the page
+     */
+    public double aspectRatio(int pageIndex) {
+        return aspectRatios[pageIndex];
+    }
+
+    /**
+     * Whether a page looks the same as the page with the same index in another layout. Pages are compared by their
+     * size, content stream and resources, not by their pixels.
+     *
+     * @param other     the other layout
+     * @param pageIndex the zero-based index of the page
+     */
+    public boolean hasSamePage(PdfPageLayout other, int pageIndex) {
+        return pageIndex < digests.length && pageIndex < other.digests.length
+                && MessageDigest.isEqual(digests[pageIndex], other.digests[pageIndex]);
+    }
+
+    private static byte[] digest(PDPage page) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+        digest.update(page.getCropBox().toString().getBytes(StandardCharsets.UTF_8));
+        try (InputStream contents = page.getContents()) {
+            digest.update(contents.readAllBytes());
+        }
+
+        // The content stream refers to fonts and shared graphics by name only
+        PDResources resources = page.getResources();
+        if (resources != null) {
+            for (COSName name : resources.getFontNames()) {
+                digest.update((name.getName() + "=" + resources.getFont(name).getName())
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            for (COSName name : resources.getXObjectNames()) {
+                digest.update(name.getName().getBytes(StandardCharsets.UTF_8));
+                try (InputStream xObject = resources.getXObject(name).getCOSObject().createRawInputStream()) {
+                    digest.update(xObject.readAllBytes());
+                }
+            }
+        }
+        return digest.digest();
+    }
+}
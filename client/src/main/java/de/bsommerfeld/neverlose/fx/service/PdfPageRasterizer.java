@@ -0,0 +1,166 @@
+package de.bsommerfeld.neverlose.fx.service;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+
+/**
+ * Renders the pages of a plan's PDF export into JavaFX images.
+ * <p>
+ * Pages are drawn into an image in JavaFX's native premultiplied ARGB format, whose pixels are copied into a
+ * {@link WritableImage} as they are, without encoding and decoding an image file in between.
+ * <p>
+ * Rendered pages are kept in a {@link PdfPageCache}. A rasterizer may be created from a cached {@link PdfPageLayout}
+ * alone; the plan is then only exported once a page is missing from the cache, so a plan whose pages are all cached
+ * is not exported at all.
+ * <p>
+ * Rendering is synchronized, as PDFBox cannot render a document on several threads at once. The rasterizer owns the
+ * document and closes it when it is closed itself.
+ */
+public class PdfPageRasterizer implements AutoCloseable {
+
+    private static final float POINTS_PER_INCH = 72f;
+
+    private final long contentHash;
+    private final PdfPageLayout layout;
+    private final DocumentSource source;
+    private final PdfPageCache cache;
+    private PDDocument document;
+    private PDFRenderer renderer;
+    private boolean closed;
+
+    /**
+     * Creates a rasterizer for an exported document and caches the document's layout.
+     *
+     * @param contentHash the content hash of the exported plan
+     * @param document    the document; it is closed together with the rasterizer
+     * @param cache       the cache of rendered pages
+     * @throws IOException if the pages of the document cannot be read
+     */
+    public PdfPageRasterizer(long contentHash, PDDocument document, PdfPageCache cache) throws IOException {
+        this(contentHash, PdfPageLayout.of(document), () -> document, cache);
+        this.document = document;
+        this.renderer = new PDFRenderer(document);
+        cache.putLayout(contentHash, layout);
+    }
+
+    /**
+     * Creates a rasterizer for a plan whose layout is cached, without exporting the plan yet.
+     *
+     * @param contentHash the content hash of the plan
+     * @param layout      the cached layout of the plan's document
+     * @param source      exports the plan once a page is not cached
+     * @param cache       the cache of rendered pages
+     */
+    public PdfPageRasterizer(long contentHash, PdfPageLayout layout, DocumentSource source, PdfPageCache cache) {
+        this.contentHash = contentHash;
+        this.layout = layout;
+        this.source = source;
+        this.cache = cache;
+    }
+
+    /** Returns the number of pages of the document. */
+    public int pageCount() {
+        return layout.pageCount();
+    }
+
+    /**
+     * Returns the height of a page relative to its width.
+     *
+     * @param pageIndex the zero-based index of the page
+     */
+    public double pageAspectRatio(int pageIndex) {
+        return layout.aspectRatio(pageIndex);
+    }
+
+    /**
+     * Whether a page looks the same as the page with the same index in another document, see
+     * {@link PdfPageLayout#hasSamePage(PdfPageLayout, int)}.
+     *
+     * @param other     the other document, which may already be closed
+     * @param pageIndex the zero-based index of the page
+     */
+    public boolean hasSamePage(PdfPageRasterizer other, int pageIndex) {
+        return layout.hasSamePage(other.layout, pageIndex);
+    }
+
+    /**
+     * Returns a page if it is cached in memory. Unlike {@link #renderPage}, this never blocks and may be called on the
+     * JavaFX application thread.
+     *
+     * @param pageIndex the zero-based index of the page
+     * @param dpi       the resolution in dots per inch
+     * @return the page, or null if it is not in memory
+     */
+    public Image cachedPage(int pageIndex, float dpi) {
+        return cache.getPage(contentHash, pageIndex, dpi);
+    }
+
+    /**
+     * Returns a page from the cache, or renders it on a white background.
+     *
+     * @param pageIndex the zero-based index of the page
+     * @param dpi       the resolution in dots per inch
+     * @return the page
+     * @throws IOException if the page cannot be rendered or the rasterizer was closed
+     */
+    public synchronized Image renderPage(int pageIndex, float dpi) throws IOException {
+        if (closed) {
+            throw new IOException("The document was closed.");
+        }
+        Image cached = cache.loadPage(contentHash, pageIndex, dpi);
+        if (cached != null) {
+            return cached;
+        }
+        if (document == null) {
+            document = source.open();
+            renderer = new PDFRenderer(document);
+        }
+
+        PDRectangle cropBox = document.getPage(pageIndex).getCropBox();
+        float scale = dpi / POINTS_PER_INCH;
+        // Sized like PDFRenderer#renderImageWithDPI
+        int width = (int) Math.max(1, Math.floor(cropBox.getWidth() * scale));
+        int height = (int) Math.max(1, Math.floor(cropBox.getHeight() * scale));
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, width, height);
+            renderer.renderPageToGraphics(pageIndex, graphics, scale);
+        } finally {
+            graphics.dispose();
+        }
+
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        WritableImage fxImage = new WritableImage(width, height);
+        fxImage.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+        cache.putPage(contentHash, pageIndex, dpi, fxImage);
+        return fxImage;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (document != null) {
+            document.close();
+        }
+    }
+
+    /** Exports the document of a plan; called at most once per rasterizer. */
+    @FunctionalInterface
+    public interface DocumentSource {
+
+        PDDocument open() throws IOException;
+    }
+}
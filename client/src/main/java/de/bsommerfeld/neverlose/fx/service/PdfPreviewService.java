@@ -0,0 +1,93 @@
+package de.bsommerfeld.neverlose.fx.service;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import de.bsommerfeld.neverlose.export.PdfExportService;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the PDF preview of a plan in the background. The plan is exported into an in-memory document, which is
+ * rasterized directly, see {@link PdfPageRasterizer}. Rendered pages are cached by the plan's content hash, see
+ * {@link PdfPageCache}; a plan whose pages are cached is not exported again.
+ * <p>
+ * Exports and page renders of all previews share a small pool of background threads.
+ */
+@Singleton
+public class PdfPreviewService {
+
+    private static final int RENDER_THREADS = 2;
+
+    private final PdfExportService exportService;
+    private final PdfPageCache pageCache;
+    private final ExecutorService renderExecutor = Executors.newFixedThreadPool(RENDER_THREADS, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "pdf-preview-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    @Inject
+    public PdfPreviewService(PdfExportService exportService, PdfPageCache pageCache) {
+        this.exportService = exportService;
+        this.pageCache = pageCache;
+    }
+
+    /**
+     * Exports a plan into an in-memory document, off the JavaFX application thread. Cancelling the returned future
+     * skips the export if it has not started yet, and discards the document otherwise.
+     *
+     * @param plan the plan to preview
+     * @return a rasterizer for the exported document; the caller must close it
+     */
+    public CompletableFuture<PdfPageRasterizer> open(PlanSnapshot plan) {
+        CompletableFuture<PdfPageRasterizer> opening = new CompletableFuture<>();
+        renderExecutor.execute(() -> {
+            if (opening.isDone()) {
+                return;
+            }
+            try {
+                PdfPageRasterizer rasterizer = rasterize(plan);
+                if (!opening.complete(rasterizer)) {
+                    // Cancelled while exporting
+                    rasterizer.close();
+                }
+            } catch (IOException | RuntimeException e) {
+                opening.completeExceptionally(e);
+            }
+        });
+        return opening;
+    }
+
+    /** Returns the executor that page renders should run on. */
+    public Executor renderExecutor() {
+        return renderExecutor;
+    }
+
+    private PdfPageRasterizer rasterize(PlanSnapshot plan) throws IOException {
+        long contentHash = plan.contentHash();
+        PdfPageLayout layout = pageCache.loadLayout(contentHash);
+        if (layout != null) {
+            return new PdfPageRasterizer(contentHash, layout, () -> exportService.exportToDocument(plan), pageCache);
+        }
+        PDDocument document = exportService.exportToDocument(plan);
+        try {
+            return new PdfPageRasterizer(contentHash, document, pageCache);
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package de.bsommerfeld.neverlose.export;
+
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A running export of several plans, started by {@link BatchExporter#exportAll}. It reports progress to its
+ * {@link Listener}, can be cancelled and completes with a {@link Result} once every plan was either exported, failed
+ * or skipped.
+ */
+public final class BatchExport {
+
+    private static final Logger LOGGER = Logger.getLogger(BatchExport.class.getName());
+
+    private final int total;
+    private final Listener listener;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final AtomicInteger finished = new AtomicInteger();
+    private final List<Path> exportedFiles = Collections.synchronizedList(new ArrayList<>());
+    private final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+    private final CompletableFuture<Result> result = new CompletableFuture<>();
+
+    BatchExport(int total, Listener listener) {
+        this.total = total;
+        this.listener = listener;
+    }
+
+    /** Returns the number of plans in this export. */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * Cancels the export. Plans that are being exported right now are still written completely, all others are
+     * skipped.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /** Returns whether {@link #cancel()} was called. */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /** Returns a future that completes once all plans were processed. It never completes exceptionally. */
+    public CompletableFuture<Result> result() {
+        return result;
+    }
+
+    /** Exports a single plan, unless the export was cancelled in the meantime. */
+    void run(PlanSnapshot plan, Path targetFile, ExportService exportService) {
+        if (cancelled.get()) {
+            return;
+        }
+        try {
+            exportService.exportOnce(plan, targetFile.toFile());
+            exportedFiles.add(targetFile);
+            notifyListener(() -> listener.onExported(plan, targetFile));
+        } catch (Exception e) {
+            failures.add(new Failure(plan, e));
+            notifyListener(() -> listener.onFailed(plan, e));
+        }
+        int processed = finished.incrementAndGet();
+        notifyListener(() -> listener.onProgress(processed, total));
+    }
+
+    /** Calls the listener; a failing listener must not change the outcome of the export. */
+    private static void notifyListener(Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Batch export listener failed.", e);
+        }
+    }
+
+    void complete() {
+        List<Path> exported = List.copyOf(exportedFiles);
+        List<Failure> failed = List.copyOf(failures);
+        result.complete(new Result(exported, failed, total - exported.size() - failed.size()));
+    }
+
+    /**
+     * Receives the progress of a batch export. All methods are called on the export's worker threads, possibly at
+     * the same time. An exception thrown by a listener is logged and does not affect the export.
+     */
+    public interface Listener {
+
+        /** Does nothing; for callers that only wait for the {@link #result()}. */
+        Listener NONE = new Listener() {};
+
+        /**
+         * Called after a plan was written.
+         *
+         * @param plan the exported plan
+         * @param file the written file
+         */
+        default void onExported(PlanSnapshot plan, Path file) {}
+
+        /**
+         * Called if a plan could not be exported. The other plans are exported nevertheless.
+         *
+         * @param plan the plan that failed
+         * @param error the cause
+         */
+        default void onFailed(PlanSnapshot plan, Exception error) {}
+
+        /**
+         * Called after every processed plan, whether it was exported or failed.
+         *
+         * @param finished the number of processed plans
+         * @param total the number of plans in the export
+         */
+        default void onProgress(int finished, int total) {}
+    }
+
+    /**
+     * A plan that could not be exported.
+     *
+     * @param plan the plan
+     * @param error the cause
+     */
+    public record Failure(PlanSnapshot plan, Exception error) {}
+
+    /**
+     * The outcome of a batch export.
+     *
+     * @param exportedFiles the written files, in the order they were finished
+     * @param failures the plans that could not be exported
+     * @param skipped the number of plans skipped after the export was cancelled
+     */
+    public record Result(List<Path> exportedFiles, List<Failure> failures, int skipped) {
+
+        /** Returns whether every plan was exported. */
+        public boolean isComplete() {
+            return failures.isEmpty() && skipped == 0;
+        }
+    }
+}
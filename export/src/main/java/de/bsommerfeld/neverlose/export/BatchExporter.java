@@ -0,0 +1,128 @@
+package de.bsommerfeld.neverlose.export;
+
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Exports many plans into a directory, one file per plan, e.g. the plans of all teams at the start of a season.
+ * <p>
+ * The plans are exported on a bounded pool of worker threads that lives as long as the export. Every plan is
+ * rendered into a document of its own, so the worker threads only share immutable state. A plan that cannot be
+ * exported is reported and does not stop the others.
+ */
+public class BatchExporter {
+
+    private static final Logger LOGGER = Logger.getLogger(BatchExporter.class.getName());
+    private static final int MAX_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // Characters that are not allowed in file names on at least one platform
+    private static final String ILLEGAL_FILE_NAME_CHARS = "[\\\\/:*?\"<>|\\p{Cntrl}]";
+    private static final int MAX_FILE_NAME_LENGTH = 100;
+
+    private final ExportService exportService;
+    private final String fileExtension;
+
+    /**
+     * Creates a batch exporter.
+     *
+     * @param exportService the service exporting each plan; it must be thread-safe
+     * @param fileExtension the extension of the written files without the dot, e.g. {@code pdf}
+     */
+    public BatchExporter(ExportService exportService, String fileExtension) {
+        this.exportService = Objects.requireNonNull(exportService, "Export service cannot be null.");
+        this.fileExtension = Objects.requireNonNull(fileExtension, "File extension cannot be null.");
+    }
+
+    /**
+     * Starts exporting the given plans into a directory and returns immediately. Each file is named after its plan;
+     * plans with the same name are numbered. Existing files with the same names are replaced.
+     *
+     * @param plans the plans to export
+     * @param directory the target directory; it is created if necessary
+     * @param listener receives the progress, see {@link BatchExport.Listener}
+     * @return the running export
+     * @throws IOException if the directory cannot be created
+     */
+    public BatchExport exportAll(Collection<PlanSnapshot> plans, Path directory, BatchExport.Listener listener)
+            throws IOException {
+        Objects.requireNonNull(listener, "Listener cannot be null.");
+        List<PlanSnapshot> planList = List.copyOf(plans);
+        Files.createDirectories(directory);
+
+        BatchExport export = new BatchExport(planList.size(), listener);
+        if (planList.isEmpty()) {
+            export.complete();
+            return export;
+        }
+
+        ExecutorService workers =
+                Executors.newFixedThreadPool(Math.min(MAX_WORKERS, planList.size()), workerThreadFactory());
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(planList.size());
+        Set<String> fileNames = new HashSet<>();
+        for (PlanSnapshot plan : planList) {
+            Path targetFile = targetFile(directory, plan, fileNames);
+            tasks.add(CompletableFuture.runAsync(() -> export.run(plan, targetFile, exportService), workers));
+        }
+        workers.shutdown();
+
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+            LOGGER.fine(() -> "Batch export of " + planList.size() + " plans into " + directory + " finished.");
+            export.complete();
+        });
+        return export;
+    }
+
+    private Path targetFile(Path directory, PlanSnapshot plan, Set<String> fileNames) {
+        String baseName = fileName(plan.name());
+        try {
+            directory.resolve(baseName);
+        } catch (InvalidPathException e) {
+            // The file system cannot represent some characters of the name
+            baseName = fileName(baseName.replaceAll("[^\\p{ASCII}]", ""));
+        }
+        String fileName = baseName + "." + fileExtension;
+        // File systems may be case-insensitive
+        for (int i = 2; !fileNames.add(fileName.toLowerCase(Locale.ROOT)); i++) {
+            fileName = baseName + "_" + i + "." + fileExtension;
+        }
+        return directory.resolve(fileName);
+    }
+
+    /** Turns a plan name into a file name the same way the single export suggests it. */
+    private static String fileName(String planName) {
+        String name = planName == null ? "" : planName.strip()
+                .replaceAll(ILLEGAL_FILE_NAME_CHARS, "")
+                .replaceAll("\\s+", "_");
+        // Leading dots would hide the file on some platforms
+        name = name.replaceFirst("^\\.+", "");
+        if (name.length() > MAX_FILE_NAME_LENGTH) {
+            name = name.substring(0, MAX_FILE_NAME_LENGTH);
+        }
+        return name.isEmpty() ? "plan" : name;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "batch-export-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package de.bsommerfeld.neverlose.export;
+
+import de.bsommerfeld.neverlose.plan.components.TrainingDuration;
+import de.bsommerfeld.neverlose.plan.schedule.ScheduledSession;
+import de.bsommerfeld.neverlose.plan.schedule.SeasonSchedule;
+import de.bsommerfeld.neverlose.plan.snapshot.ExerciseSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exports the sessions of a {@link SeasonSchedule} as an iCalendar file (RFC 5545), so that a
+ * season can be imported into any calendar application.
+ * <p>
+ * Every session becomes an all-day event named after its unit, with the exercises in the
+ * description. The sessions are written while the stream is consumed, so the schedules of a whole
+ * club (see {@link SeasonSchedule#mergeByDate}) can be exported without holding them in memory.
+ */
+public class CalendarExportService {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_LENGTH = 75;
+
+    /**
+     * Exports all sessions of a season.
+     *
+     * @param schedule the season to export
+     * @param targetFile the .ics file to write
+     */
+    public void export(SeasonSchedule schedule, File targetFile) throws IOException {
+        export(schedule.sessions(), targetFile);
+    }
+
+    /**
+     * Exports the given sessions, e.g. the merged schedules of several teams.
+     *
+     * @param sessions the sessions to export; the stream is closed afterwards
+     * @param targetFile the .ics file to write
+     */
+    public void export(Stream<ScheduledSession> sessions, File targetFile) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(targetFile.toPath(), StandardCharsets.UTF_8)) {
+            export(sessions, writer);
+        }
+    }
+
+    /**
+     * Writes the given sessions as an iCalendar document.
+     *
+     * @param sessions the sessions to export; the stream is closed afterwards
+     * @param writer the target; it is flushed but not closed
+     */
+    public void export(Stream<ScheduledSession> sessions, Writer writer) throws IOException {
+        BufferedWriter out =
+                writer instanceof BufferedWriter buffered ? buffered : new BufferedWriter(writer);
+        String timestamp = TIMESTAMP.format(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+        writeLine(out, "BEGIN:VCALENDAR");
+        writeLine(out, "VERSION:2.0");
+        writeLine(out, "PRODID:-//bsommerfeld//Neverlose//EN");
+        writeLine(out, "CALSCALE:GREGORIAN");
+        try (sessions) {
+            Iterator<ScheduledSession> iterator = sessions.iterator();
+            while (iterator.hasNext()) {
+                writeEvent(out, iterator.next(), timestamp);
+            }
+        }
+        writeLine(out, "END:VCALENDAR");
+        out.flush();
+    }
+
+    private void writeEvent(BufferedWriter out, ScheduledSession session, String timestamp)
+            throws IOException {
+        UnitSnapshot unit = session.unit();
+        writeLine(out, "BEGIN:VEVENT");
+        writeLine(out, "UID:" + unit.id() + "-" + DATE.format(session.date()) + "@neverlose");
+        writeLine(out, "DTSTAMP:" + timestamp);
+        writeLine(out, "DTSTART;VALUE=DATE:" + DATE.format(session.date()));
+        writeLine(out, "DTEND;VALUE=DATE:" + DATE.format(session.date().plusDays(1)));
+        writeLine(out, "SUMMARY:" + escape(summary(session)));
+        writeLine(out, "DESCRIPTION:" + escape(description(unit)));
+        writeLine(out, "END:VEVENT");
+    }
+
+    private static String summary(ScheduledSession session) {
+        String unitName = session.unit().name() != null ? session.unit().name() : "Training";
+        String planName = session.plan().name();
+        return planName == null || planName.isBlank() ? unitName : unitName + " (" + planName + ")";
+    }
+
+    private static String description(UnitSnapshot unit) {
+        StringBuilder description = new StringBuilder();
+        if (unit.description() != null && !unit.description().isBlank()) {
+            description.append(unit.description()).append('\n');
+        }
+        for (ExerciseSnapshot exercise : unit.exercises()) {
+            List<String> details = new ArrayList<>();
+            // Exercises without a name are still listed with their details
+            if (exercise.name() != null && !exercise.name().isBlank()) {
+                details.add(exercise.name());
+            }
+            if (exercise.parsedDuration() != null) {
+                details.add(TrainingDuration.format(exercise.parsedDuration()));
+            }
+            details.add(exercise.sets() + " x");
+            if (exercise.ballBucket()) {
+                details.add("ball bucket");
+            }
+            description.append("- ").append(String.join(", ", details)).append('\n');
+        }
+        return description.toString().strip();
+    }
+
+    /** Escapes a text value as required by RFC 5545, section 3.3.11. */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> {
+                    // Line breaks are written as \n only
+                }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Writes a content line, folding it after 75 characters (including the leading space of
+     * continuation lines). Folding counts characters rather than octets, which calendar applications
+     * accept for non-ASCII text as well.
+     */
+    private static void writeLine(BufferedWriter out, String line) throws IOException {
+        int position = 0;
+        int limit = MAX_LINE_LENGTH;
+        while (line.length() - position > limit) {
+            int next = position + limit;
+            if (Character.isHighSurrogate(line.charAt(next - 1))) {
+                next--;
+            }
+            out.write(line, position, next - position);
+            out.write("\r\n ");
+            position = next;
+            limit = MAX_LINE_LENGTH - 1;
+        }
+        out.write(line, position, line.length() - position);
+        out.write("\r\n");
+    }
+}
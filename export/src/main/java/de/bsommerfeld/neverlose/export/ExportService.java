@@ -1,13 +1,23 @@
 package de.bsommerfeld.neverlose.export;
 
 import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
 
 /**
  * Provides export functionality for training plans into various file formats. This service is
  * responsible for converting a {@link TrainingPlan} into a specific file format supported by the
  * implementing class.
+ *
+ * <p>Besides files, a plan can be exported to a stream, a channel or into memory, so that previews,
+ * the clipboard or network transfers do not need a temporary file.
  */
 public interface ExportService {
 
@@ -17,5 +27,63 @@ public interface ExportService {
    * @param trainingPlan the training plan to be exported, which contains details about training
    *     units and their exercises
    */
-  void export(TrainingPlan trainingPlan, File targetFile) throws IOException;
+  default void export(TrainingPlan trainingPlan, File targetFile) throws IOException {
+    export(trainingPlan.snapshot(), targetFile);
+  }
+
+  /**
+   * Exports an immutable snapshot of a training plan. As the snapshot cannot change, this may be
+   * called from any thread while the plan is still being edited.
+   *
+   * @param planSnapshot the snapshot to be exported
+   */
+  default void export(PlanSnapshot planSnapshot, File targetFile) throws IOException {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(targetFile.toPath()))) {
+      export(planSnapshot, out);
+    }
+  }
+
+  /**
+   * Exports a snapshot that is not expected to be exported again soon, e.g. as part of a batch.
+   * Implementations that keep recent exports in memory should not keep this one, so that a large
+   * batch does not evict the plans that are being edited or previewed.
+   *
+   * @param planSnapshot the snapshot to be exported
+   */
+  default void exportOnce(PlanSnapshot planSnapshot, File targetFile) throws IOException {
+    export(planSnapshot, targetFile);
+  }
+
+  /**
+   * Writes the exported snapshot to a stream.
+   *
+   * @param planSnapshot the snapshot to be exported
+   * @param out the target; it is not closed
+   */
+  void export(PlanSnapshot planSnapshot, OutputStream out) throws IOException;
+
+  /**
+   * Writes the exported snapshot to a channel.
+   *
+   * @param planSnapshot the snapshot to be exported
+   * @param channel the target; it is not closed
+   */
+  default void export(PlanSnapshot planSnapshot, WritableByteChannel channel) throws IOException {
+    ByteBuffer buffer = exportToBuffer(planSnapshot);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Exports the snapshot into memory.
+   *
+   * @param planSnapshot the snapshot to be exported
+   * @return a read-only buffer holding the exported document
+   */
+  default ByteBuffer exportToBuffer(PlanSnapshot planSnapshot) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    export(planSnapshot, out);
+    return ByteBuffer.wrap(out.toByteArray()).asReadOnlyBuffer();
+  }
 }
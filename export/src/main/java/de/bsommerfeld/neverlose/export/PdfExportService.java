@@ -2,16 +2,20 @@ package de.bsommerfeld.neverlose.export;
 
 import de.bsommerfeld.neverlose.export.pdf.PdfContentRenderer;
 import de.bsommerfeld.neverlose.export.pdf.PdfDocumentManager;
-import de.bsommerfeld.neverlose.export.pdf.PdfStyle;
-import de.bsommerfeld.neverlose.plan.TrainingPlan;
-import de.bsommerfeld.neverlose.theme.Theme;
+import de.bsommerfeld.neverlose.export.pdf.PdfStyleSheet;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -19,101 +23,141 @@ import java.util.logging.Logger;
 /**
  * Generates a PDF representation of a TrainingPlan, aiming for a clean, modern, and readable layout suitable for screen
  * and print.
+ * <p>
+ * The last few rendered documents are kept in memory, keyed by the exported snapshot. Exporting or previewing a plan
+ * that did not change since is a content hash lookup followed by a plain write, to a file, a stream or into memory.
+ * <p>
+ * Exports are thread-safe: every document is rendered with fonts of its own, see {@link PdfStyleSheet}.
  */
 public class PdfExportService implements ExportService {
 
     private static final Logger LOGGER = Logger.getLogger(PdfExportService.class.getName());
+    private static final int RENDERED_CACHE_SIZE = 4;
 
-    // PDF Fonts - initialized safely to avoid font cache building errors
-    private static PDFont FONT_BOLD;
-    private static PDFont FONT_REGULAR;
-    private static PDFont FONT_ITALIC;
-    // Styles using the centralized Theme - initialized safely
-    private static PdfStyle STYLE_PREVIEW_TITLE;
-    private static PdfStyle STYLE_PREVIEW_DESC;
-    private static PdfStyle STYLE_UNIT_HEADER;
-    private static PdfStyle STYLE_UNIT_WEEKDAY;
-    private static PdfStyle STYLE_UNIT_DESC;
-    private static PdfStyle STYLE_EXERCISE_NAME;
-    private static PdfStyle STYLE_EXERCISE_DESC;
-    private static PdfStyle STYLE_EXERCISE_DETAILS;
-    private static PdfStyle STYLE_PLACEHOLDER;
-    private static PdfStyle STYLE_FOOTER;
-
-    // Initialize fonts safely
-    static {
-        try {
-            FONT_BOLD = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-            FONT_REGULAR = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-            FONT_ITALIC = new PDType1Font(Standard14Fonts.FontName.HELVETICA_OBLIQUE);
-        } catch (Exception e) {
-            // Log the error but don't crash the application
-            LOGGER.log(Level.WARNING, "Error initializing PDF fonts. PDF export may not work correctly.", e);
+    // Checked once, so a missing font fails every export with the same message
+    private static final boolean FONTS_AVAILABLE = checkFonts();
+
+    // Access-ordered, so the least recently exported plan is evicted first
+    private final Map<PlanSnapshot, byte[]> renderedDocuments = Collections.synchronizedMap(
+            new LinkedHashMap<>(RENDERED_CACHE_SIZE * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PlanSnapshot, byte[]> eldest) {
+                    return size() > RENDERED_CACHE_SIZE;
+                }
+            });
+
+    @Override
+    public void export(PlanSnapshot trainingPlan, File targetFile) throws IOException {
+        Objects.requireNonNull(targetFile, "Target file cannot be null.");
+        Files.write(targetFile.toPath(), renderedDocument(trainingPlan));
+    }
 
-            // Set default fonts to null - we'll check for null before using them
-            FONT_BOLD = null;
-            FONT_REGULAR = null;
-            FONT_ITALIC = null;
+    /** Reuses a cached document, but does not cache a newly rendered one and writes it straight to the file. */
+    @Override
+    public void exportOnce(PlanSnapshot trainingPlan, File targetFile) throws IOException {
+        Objects.requireNonNull(targetFile, "Target file cannot be null.");
+        checkAvailable(trainingPlan);
+        byte[] document = renderedDocuments.get(trainingPlan);
+        if (document != null) {
+            Files.write(targetFile.toPath(), document);
+            return;
+        }
+        try (PDDocument doc = renderDocument(trainingPlan)) {
+            doc.save(targetFile);
         }
     }
 
-    // Initialize styles safely
-    static {
-        try {
-            // Only initialize styles if fonts were loaded successfully
-            if (FONT_BOLD != null && FONT_REGULAR != null && FONT_ITALIC != null) {
-                STYLE_PREVIEW_TITLE = new PdfStyle(FONT_BOLD, Theme.Fonts.SIZE_TITLE, Theme.Colors.TEXT_DARKEST);
-                STYLE_PREVIEW_DESC = new PdfStyle(FONT_REGULAR, Theme.Fonts.SIZE_SUBTITLE, Theme.Colors.TEXT_MEDIUM);
-                STYLE_UNIT_HEADER = new PdfStyle(FONT_BOLD, Theme.Fonts.SIZE_UNIT_HEADER, Theme.Colors.TEXT_DARKER);
-                STYLE_UNIT_WEEKDAY = new PdfStyle(FONT_REGULAR, Theme.Fonts.SIZE_UNIT_WEEKDAY, Theme.Colors.TEXT_LIGHTER);
-                STYLE_UNIT_DESC = new PdfStyle(FONT_REGULAR, Theme.Fonts.SIZE_UNIT_DESC, Theme.Colors.TEXT_LIGHT);
-                STYLE_EXERCISE_NAME = new PdfStyle(FONT_BOLD, Theme.Fonts.SIZE_EXERCISE_NAME, Theme.Colors.TEXT_DARK);
-                STYLE_EXERCISE_DESC = new PdfStyle(FONT_REGULAR, Theme.Fonts.SIZE_EXERCISE_DESC, Theme.Colors.TEXT_LIGHT);
-                STYLE_EXERCISE_DETAILS = new PdfStyle(FONT_REGULAR, Theme.Fonts.SIZE_EXERCISE_DETAILS, Theme.Colors.TEXT_LIGHTER);
-                STYLE_PLACEHOLDER = new PdfStyle(FONT_ITALIC, Theme.Fonts.SIZE_PLACEHOLDER, Theme.Colors.TEXT_LIGHT);
-                STYLE_FOOTER = new PdfStyle(FONT_REGULAR, 8f, Theme.Colors.TEXT_LIGHTER);
+    @Override
+    public void export(PlanSnapshot trainingPlan, OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "Target stream cannot be null.");
+        out.write(renderedDocument(trainingPlan));
+    }
+
+    /** Returns a read-only view of the rendered document, without copying it. */
+    @Override
+    public ByteBuffer exportToBuffer(PlanSnapshot trainingPlan) throws IOException {
+        return ByteBuffer.wrap(renderedDocument(trainingPlan)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Exports a snapshot into a document held in memory, e.g. to render its pages or to post-process it before
+     * saving. Every call returns a new document, which the caller must close.
+     *
+     * @param trainingPlan the snapshot to be exported
+     * @return the document
+     */
+    public PDDocument exportToDocument(PlanSnapshot trainingPlan) throws IOException {
+        checkAvailable(trainingPlan);
+        byte[] document = renderedDocuments.get(trainingPlan);
+        if (document != null) {
+            return Loader.loadPDF(document);
+        }
+        return renderDocument(trainingPlan);
+    }
+
+    /** Returns the saved document of a snapshot, rendering it unless it is cached. */
+    private byte[] renderedDocument(PlanSnapshot trainingPlan) throws IOException {
+        checkAvailable(trainingPlan);
+        byte[] document = renderedDocuments.get(trainingPlan);
+        if (document == null) {
+            try (PDDocument doc = renderDocument(trainingPlan)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                doc.save(out);
+                document = out.toByteArray();
             }
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error initializing PDF styles. PDF export may not work correctly.", e);
+            renderedDocuments.put(trainingPlan, document);
+        } else {
+            LOGGER.fine("Plan unchanged since it was last exported, reusing rendered document.");
         }
+        return document;
     }
 
-    @Override
-    public void export(TrainingPlan trainingPlan, File targetFile) throws IOException {
+    private static void checkAvailable(PlanSnapshot trainingPlan) throws IOException {
         Objects.requireNonNull(trainingPlan, "Training plan cannot be null.");
-        Objects.requireNonNull(targetFile, "Target file cannot be null.");
-
-        // Check if fonts and styles were initialized properly
-        if (FONT_BOLD == null || FONT_REGULAR == null || FONT_ITALIC == null ||
-                STYLE_PREVIEW_TITLE == null || STYLE_PREVIEW_DESC == null ||
-                STYLE_UNIT_HEADER == null || STYLE_UNIT_WEEKDAY == null ||
-                STYLE_UNIT_DESC == null || STYLE_EXERCISE_NAME == null ||
-                STYLE_EXERCISE_DESC == null || STYLE_EXERCISE_DETAILS == null ||
-                STYLE_PLACEHOLDER == null || STYLE_FOOTER == null) {
 
+        if (!FONTS_AVAILABLE) {
             LOGGER.log(Level.SEVERE, "Cannot export PDF: fonts or styles were not initialized properly.");
             throw new IOException("PDF export is not available due to font initialization issues.");
         }
+    }
 
-        try (PDDocument doc = new PDDocument()) {
-            PdfDocumentManager documentManager = new PdfDocumentManager(doc, STYLE_FOOTER);
+    private PDDocument renderDocument(PlanSnapshot trainingPlan) throws IOException {
+        // Fonts are per document, so plans can be rendered on several threads at once
+        PdfStyleSheet styles = PdfStyleSheet.create();
+        PDDocument doc = new PDDocument();
+        try {
+            PdfDocumentManager documentManager = new PdfDocumentManager(doc, styles.footer());
 
             PdfContentRenderer contentRenderer = new PdfContentRenderer(
                     documentManager,
-                    STYLE_PREVIEW_TITLE,
-                    STYLE_PREVIEW_DESC,
-                    STYLE_UNIT_HEADER,
-                    STYLE_UNIT_WEEKDAY,
-                    STYLE_UNIT_DESC,
-                    STYLE_EXERCISE_NAME,
-                    STYLE_EXERCISE_DESC,
-                    STYLE_EXERCISE_DETAILS,
-                    STYLE_PLACEHOLDER);
+                    styles.planTitle(),
+                    styles.planDescription(),
+                    styles.unitHeader(),
+                    styles.unitWeekday(),
+                    styles.unitDescription(),
+                    styles.exerciseName(),
+                    styles.exerciseDescription(),
+                    styles.exerciseDetails(),
+                    styles.placeholder());
 
             contentRenderer.renderTrainingPlan(trainingPlan);
-            documentManager.saveAndClose(targetFile);
+            documentManager.closeCurrentContentStream();
+            return doc;
+        } catch (IOException | RuntimeException e) {
+            doc.close();
+            throw e;
         }
     }
 
+    private static boolean checkFonts() {
+        try {
+            PdfStyleSheet.create();
+            return true;
+        } catch (Exception e) {
+            // Log the error but don't crash the application
+            LOGGER.log(Level.WARNING, "Error initializing PDF fonts. PDF export may not work correctly.", e);
+            return false;
+        }
+    }
 
 }
@@ -0,0 +1,21 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import java.awt.Color;
+
+/**
+ * An element positioned on a page, in PDF coordinates with the origin at the bottom left. Boxes
+ * are painted in order, so containers precede the content they hold.
+ */
+public sealed interface PdfBox {
+
+  /** A single line of text, starting at {@code x} on the baseline {@code baselineY}. */
+  record TextBox(String text, float x, float baselineY, PdfStyle style) implements PdfBox {}
+
+  /** A filled container with rounded corners; {@code y} is its lower edge. */
+  record ContainerBox(
+      float x, float y, float width, float height, float borderRadius, Color backgroundColor)
+      implements PdfBox {}
+
+  /** A horizontal separator across the content width. */
+  record SeparatorBox(float y) implements PdfBox {}
+}
@@ -2,6 +2,8 @@ package de.bsommerfeld.neverlose.export.pdf;
 
 import de.bsommerfeld.neverlose.theme.Theme;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
 
 import java.awt.Color;
 import java.io.IOException;
@@ -10,17 +12,32 @@ import java.io.IOException;
  * Handles container rendering operations for PDF documents.
  * This class encapsulates the logic for drawing containers, separators,
  * and other graphical elements in a PDF document.
+ * <p>
+ * With a {@link PdfFormLibrary}, the footer and shared container shapes are drawn once per document
+ * and only referenced on every page.
  */
 public class PdfContainerRenderer {
     private final PDPageContentStream contentStream;
+    private final PdfFormLibrary forms;
 
     /**
-     * Creates a new PdfContainerRenderer.
+     * Creates a new PdfContainerRenderer that draws everything inline.
      *
      * @param contentStream The content stream to write to
      */
     public PdfContainerRenderer(PDPageContentStream contentStream) {
+        this(contentStream, null);
+    }
+
+    /**
+     * Creates a new PdfContainerRenderer that references repeated graphics from a library.
+     *
+     * @param contentStream The content stream to write to
+     * @param forms The library of the document's repeated graphics, or null to draw everything inline
+     */
+    public PdfContainerRenderer(PDPageContentStream contentStream, PdfFormLibrary forms) {
         this.contentStream = contentStream;
+        this.forms = forms;
     }
 
     /**
@@ -37,6 +54,15 @@ public class PdfContainerRenderer {
     public void drawContainer(
             float x, float y, float width, float height, float borderRadius, Color backgroundColor)
             throws IOException {
+        PDFormXObject form = forms != null ? forms.container(width, height, borderRadius, backgroundColor) : null;
+        if (form != null) {
+            contentStream.saveGraphicsState();
+            contentStream.transform(Matrix.getTranslateInstance(x, y));
+            contentStream.drawForm(form);
+            contentStream.restoreGraphicsState();
+            return;
+        }
+
         // Save the current graphics state
         contentStream.saveGraphicsState();
 
@@ -119,6 +145,11 @@ public class PdfContainerRenderer {
      * @throws IOException If there's an error drawing to the PDF
      */
     public void drawFooter(float pageWidth, PdfStyle style) throws IOException {
+        if (forms != null) {
+            contentStream.drawForm(forms.footer(pageWidth, style));
+            return;
+        }
+
         String footerText = "Made with Neverlose";
         float textWidth = style.font().getStringWidth(footerText) / 1000f * style.size();
         float x = (pageWidth - textWidth) / 2; // Center horizontally
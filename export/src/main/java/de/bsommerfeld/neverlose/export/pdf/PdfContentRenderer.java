@@ -1,16 +1,26 @@
 package de.bsommerfeld.neverlose.export.pdf;
 
-import de.bsommerfeld.neverlose.plan.TrainingPlan;
-import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
-import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
-import de.bsommerfeld.neverlose.theme.Theme;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.ExerciseNode;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.Item;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.PlanNode;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.Space;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.TextBlock;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.UnitNode;
+import de.bsommerfeld.neverlose.export.pdf.PdfTextLayout.WrappedText;
+import de.bsommerfeld.neverlose.plan.components.TrainingDuration;
+import de.bsommerfeld.neverlose.plan.snapshot.ExerciseSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.TrainingStats;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 /**
- * Handles rendering of training plan content to PDF. This class encapsulates the logic for
- * rendering training plans, units, and exercises.
+ * Handles rendering of training plan content to PDF. Rendering runs in three phases: this class
+ * measures the plan into a {@link PdfLayoutTree}, {@link PdfPaginator} distributes it over pages
+ * and {@link PdfPainter} paints the positioned boxes.
  */
 public class PdfContentRenderer {
   // Default values for empty fields
@@ -21,6 +31,7 @@ public class PdfContentRenderer {
   private static final String DEFAULT_DURATION = "-";
   private static final String PLACEHOLDER_NO_UNITS = "[No training units defined]";
   private static final String PLACEHOLDER_NO_EXERCISES = "[No exercises in this unit]";
+  private static final String STATS_SEPARATOR = " \u00B7 ";
 
   // Styles
   private final PdfStyle stylePlanTitle;
@@ -34,7 +45,7 @@ public class PdfContentRenderer {
   private final PdfStyle stylePlaceholder;
 
   private final PdfDocumentManager documentManager;
-  private PdfTextRenderer textRenderer; // Keep a reference to the current text renderer
+  private final PdfTextLayout textLayout;
 
   public PdfContentRenderer(
       PdfDocumentManager documentManager,
@@ -48,7 +59,7 @@ public class PdfContentRenderer {
       PdfStyle styleExerciseDetails,
       PdfStyle stylePlaceholder) {
     this.documentManager = documentManager;
-    this.textRenderer = documentManager.getTextRenderer(); // Initialize
+    this.textLayout = documentManager.getTextLayout();
     this.stylePlanTitle = stylePlanTitle;
     this.stylePlanDesc = stylePlanDesc;
     this.styleUnitHeader = styleUnitHeader;
@@ -60,367 +71,234 @@ public class PdfContentRenderer {
     this.stylePlaceholder = stylePlaceholder;
   }
 
-  public void renderTrainingPlan(TrainingPlan plan) throws IOException {
-    documentManager.startNewPage();
-    this.textRenderer = documentManager.getTextRenderer(); // Reset renderer on new page
-    renderPlanHeader(plan);
-    renderSeparator();
-    renderUnitsSection(plan);
-
-    // No need for extra spacing at the end, handled by margins.
-  }
-
-  private void renderPlanHeader(TrainingPlan plan) throws IOException {
-    String planName = Objects.toString(plan.getName(), DEFAULT_PLAN_NAME);
-    textRenderer.writeStyledWrappedText(planName, PdfLayout.INDENT_UNIT_LEVEL, stylePlanTitle);
-    textRenderer.addSpacing(PdfLayout.SPACING_AFTER_TITLE);
-
-    String description = plan.getDescription();
-    if (description != null && !description.trim().isEmpty()) {
-      textRenderer.writeStyledWrappedText(
-          description, PdfLayout.INDENT_UNIT_LEVEL, stylePlanDesc, PdfLayout.EXTRA_LINE_SPACING);
-      textRenderer.addSpacing(PdfLayout.SPACING_AFTER_PREVIEW_DESC);
-    }
+  public void renderTrainingPlan(PlanSnapshot plan) throws IOException {
+    PdfPainter.paint(layout(plan), documentManager);
   }
 
   /**
-   * Checks if a page break is needed for a unit's content. If so, it creates a new page and draws
-   * the continuing unit background on it before content is added.
+   * Lays out a plan without painting it: measures all elements and distributes them over pages.
    *
-   * @param neededHeight The height of the content that needs to be rendered next.
-   * @throws IOException if writing to the PDF fails.
+   * @param plan The plan to lay out
+   * @return The positioned boxes of all pages
+   * @throws IOException If text measurement fails
    */
-  private void handleUnitPageBreak(float neededHeight) throws IOException {
-    if (textRenderer.getCurrentY() - neededHeight < PdfLayout.MARGIN) {
-      // Seitenumbruch ist nötig.
-      float newPageY = documentManager.startNewPage();
-      this.textRenderer = documentManager.getTextRenderer();
-
-      // Zeichne den Hintergrund auf der kompletten neuen Seite.
-      documentManager
-          .getContainerRenderer()
-          .drawContainer(
-              PdfLayout.MARGIN,
-              PdfLayout.MARGIN,
-              PdfLayout.CONTENT_WIDTH,
-              newPageY - PdfLayout.MARGIN, // Füllt die gesamte neue Seite
-              PdfLayout.UNIT_BORDER_RADIUS,
-              Theme.Colors.TRAINING_UNIT_BG);
-
-      // Füge einen Innenabstand oben auf der neuen Seite hinzu.
-      textRenderer.addSpacing(PdfLayout.PADDING_UNIT_VERTICAL);
-    }
+  public PdfDocumentLayout layout(PlanSnapshot plan) throws IOException {
+    return PdfPaginator.paginate(measurePlan(plan));
   }
 
-  private void renderSeparator() throws IOException {
-    float separatorHeight = 1f;
-    float totalSpaceNeeded = PdfLayout.SPACING_SEPARATOR + separatorHeight;
-    if (textRenderer.getCurrentY() - totalSpaceNeeded < PdfLayout.MARGIN) {
-      documentManager.startNewPage();
-      this.textRenderer = documentManager.getTextRenderer();
-    }
-    textRenderer.addSpacing(PdfLayout.SPACING_SEPARATOR / 2);
-    documentManager.getContainerRenderer().drawSeparator(textRenderer.getCurrentY());
-    textRenderer.setCurrentY(textRenderer.getCurrentY() - separatorHeight);
-    textRenderer.addSpacing(PdfLayout.SPACING_SEPARATOR / 2);
-  }
+  private PlanNode measurePlan(PlanSnapshot plan) throws IOException {
+    float headerWidth = PdfLayout.CONTENT_WIDTH - (2 * PdfLayout.INDENT_UNIT_LEVEL);
+    List<Item> header = new ArrayList<>();
 
-  private void renderUnitsSection(TrainingPlan plan) throws IOException {
-    List<TrainingUnit> units =
-        plan.getTrainingUnits() != null ? plan.getTrainingUnits().getAll() : List.of();
+    String planName = Objects.toString(plan.name(), DEFAULT_PLAN_NAME);
+    header.add(text(planName, PdfLayout.INDENT_UNIT_LEVEL, stylePlanTitle, 0, headerWidth));
+    header.add(new Space(PdfLayout.SPACING_AFTER_TITLE));
 
-    if (units.isEmpty()) {
-      textRenderer.addSpacing(PdfLayout.SPACING_BETWEEN_UNITS);
-      textRenderer.writeStyledTextLine(
-          PLACEHOLDER_NO_UNITS, PdfLayout.INDENT_UNIT_LEVEL, stylePlaceholder);
-      return;
+    String description = plan.description();
+    if (description != null && !description.trim().isEmpty()) {
+      header.add(
+          text(
+              description,
+              PdfLayout.INDENT_UNIT_LEVEL,
+              stylePlanDesc,
+              PdfLayout.EXTRA_LINE_SPACING,
+              headerWidth));
+      header.add(new Space(PdfLayout.SPACING_AFTER_PREVIEW_DESC));
     }
 
-    boolean firstUnit = true;
-    for (TrainingUnit unit : units) {
-      if (!firstUnit) {
+    if (!plan.units().isEmpty()) {
+      header.add(
+          text(formatSummary(plan), PdfLayout.INDENT_UNIT_LEVEL, styleUnitWeekday, 0, headerWidth));
+      header.add(new Space(PdfLayout.SPACING_AFTER_PREVIEW_DESC));
+    }
 
-        float minHeightForNextUnit = calculateMinimumUnitHeight(unit);
+    List<UnitNode> units = new ArrayList<>(plan.units().size());
+    for (UnitSnapshot unit : plan.units()) {
+      units.add(measureUnit(unit));
+    }
 
-        if (textRenderer.getCurrentY() - (PdfLayout.SPACING_BETWEEN_UNITS + minHeightForNextUnit)
-            < PdfLayout.MARGIN) {
-          documentManager.startNewPage();
-          this.textRenderer = documentManager.getTextRenderer();
-        } else {
-          textRenderer.addSpacing(PdfLayout.SPACING_BETWEEN_UNITS);
-        }
-      }
+    // A single line, as wide as the content area allows
+    TextBlock noUnitsPlaceholder =
+        line(PLACEHOLDER_NO_UNITS, PdfLayout.INDENT_UNIT_LEVEL, stylePlaceholder);
+    return new PlanNode(header, units, noUnitsPlaceholder);
+  }
 
-      renderUnit(unit);
-      firstUnit = false;
+  /** Builds the weekday line of a unit, followed by its total time if known. */
+  private static String formatWeekdayLine(UnitSnapshot unit) {
+    String weekday = Objects.toString(unit.weekday(), DEFAULT_WEEKDAY);
+    TrainingStats stats = unit.stats();
+    if (stats.exercises() > stats.unparsedDurations()) {
+      weekday += STATS_SEPARATOR + TrainingDuration.format(stats.totalDuration());
     }
+    return weekday;
   }
 
-  /**
-   * Calculates the minimum height required to start rendering a unit in a visually appealing way.
-   * This is defined as the height of the unit's header plus its first exercise. This prevents the
-   * unit header from being orphaned at the bottom of a page.
-   *
-   * @param unit The training unit to measure.
-   * @return The minimum required height in points.
-   * @throws IOException If there is an error calculating text dimensions.
-   */
-  private float calculateMinimumUnitHeight(TrainingUnit unit) throws IOException {
-    float minHeight = calculateUnitHeaderHeight(unit);
-
-    List<TrainingExercise> exercises =
-        unit.getTrainingExercises() != null ? unit.getTrainingExercises().getAll() : List.of();
+  /** Builds the details line of an exercise. */
+  private static String formatDetails(ExerciseSnapshot exercise) {
+    String duration = Objects.toString(exercise.duration(), DEFAULT_DURATION);
+    return String.format(
+        "Duration: %s  •  Sets: %d  •  Ball Bucket: %s",
+        duration, exercise.sets(), (exercise.ballBucket() ? "Yes" : "No"));
+  }
 
-    if (!exercises.isEmpty()) {
-      minHeight += PdfLayout.SPACING_BEFORE_EXERCISES;
-      minHeight += calculateExerciseHeight(exercises.getFirst());
+  /** Builds the summary line of the plan header, e.g. "3 units · 2 h 15 min · 24 sets". */
+  private static String formatSummary(PlanSnapshot plan) {
+    TrainingStats stats = plan.stats();
+    StringBuilder summary = new StringBuilder();
+    summary.append(plan.units().size()).append(plan.units().size() == 1 ? " unit" : " units");
+    if (stats.exercises() > stats.unparsedDurations()) {
+      summary.append(STATS_SEPARATOR).append(TrainingDuration.format(stats.totalDuration()));
     }
-
-    return minHeight;
+    summary.append(STATS_SEPARATOR).append(stats.totalSets()).append(" sets");
+    if (stats.ballBucketExercises() > 0) {
+      summary
+          .append(STATS_SEPARATOR)
+          .append(stats.ballBucketExercises())
+          .append(" with ball bucket");
+    }
+    return summary.toString();
   }
 
   /**
-   * Calculates the TOTAL height of a given training unit, including its header, description, all
-   * exercises, and all vertical spacing and padding.
-   *
-   * @param unit The TrainingUnit to measure.
-   * @return The total height in points.
-   * @throws IOException If text measurement fails.
+   * Measures a unit. The height of its container includes the header, all exercises and all
+   * vertical spacing and padding; the minimum height is that of the header and the first
+   * exercise, which the paginator keeps together.
    */
-  private float calculateUnitHeight(TrainingUnit unit) throws IOException {
-    float totalHeight = PdfLayout.PADDING_UNIT_VERTICAL;
+  private UnitNode measureUnit(UnitSnapshot unit) throws IOException {
+    float headerWidth = PdfLayout.CONTENT_WIDTH - (2 * PdfLayout.INDENT_UNIT_LEVEL);
+    List<Item> header = new ArrayList<>();
+    header.add(new Space(PdfLayout.PADDING_UNIT_VERTICAL));
 
-    totalHeight += calculateUnitHeaderHeight(unit);
+    String unitName = Objects.toString(unit.name(), DEFAULT_UNIT_NAME);
+    header.add(text(unitName, PdfLayout.INDENT_UNIT_LEVEL, styleUnitHeader, 0, headerWidth));
+    header.add(new Space(PdfLayout.SPACING_AFTER_UNIT_HEADER));
 
-    List<TrainingExercise> exercises =
-        unit.getTrainingExercises() != null ? unit.getTrainingExercises().getAll() : List.of();
+    String weekday = formatWeekdayLine(unit);
+    header.add(text(weekday, PdfLayout.INDENT_UNIT_LEVEL, styleUnitWeekday, 0, headerWidth));
+    header.add(new Space(PdfLayout.SPACING_AFTER_UNIT_WEEKDAY));
 
-    if (!exercises.isEmpty()) {
-      totalHeight += PdfLayout.SPACING_BEFORE_EXERCISES;
+    String description = unit.description();
+    if (description != null && !description.trim().isEmpty()) {
+      header.add(
+          text(
+              description,
+              PdfLayout.INDENT_UNIT_LEVEL,
+              styleUnitDesc,
+              PdfLayout.EXTRA_LINE_SPACING,
+              headerWidth));
+      header.add(new Space(PdfLayout.SPACING_AFTER_UNIT_DESC));
+    }
+    float headerHeight = height(header);
 
+    List<ExerciseNode> exercises = new ArrayList<>(unit.exercises().size());
+    for (ExerciseSnapshot exercise : unit.exercises()) {
+      exercises.add(measureExercise(exercise));
+    }
+    TextBlock noExercisesPlaceholder =
+        text(
+            PLACEHOLDER_NO_EXERCISES,
+            PdfLayout.INDENT_EXERCISE_CONTAINER + PdfLayout.INDENT_EXERCISE_INTERNAL,
+            stylePlaceholder,
+            0,
+            PdfLayout.CONTENT_WIDTH
+                - (2 * (PdfLayout.INDENT_EXERCISE_CONTAINER + PdfLayout.INDENT_EXERCISE_INTERNAL)));
+
+    float height = PdfLayout.PADDING_UNIT_VERTICAL + headerHeight;
+    float minimumHeight = headerHeight;
+    if (!exercises.isEmpty()) {
+      height += PdfLayout.SPACING_BEFORE_EXERCISES;
+      minimumHeight += PdfLayout.SPACING_BEFORE_EXERCISES + exercises.getFirst().height();
       boolean firstExercise = true;
-      for (TrainingExercise exercise : exercises) {
+      for (ExerciseNode exercise : exercises) {
         if (!firstExercise) {
-          totalHeight += PdfLayout.SPACING_BETWEEN_EXERCISES;
+          height += PdfLayout.SPACING_BETWEEN_EXERCISES;
         }
-        totalHeight += calculateExerciseHeight(exercise);
+        height += exercise.height();
         firstExercise = false;
       }
     } else {
-      totalHeight +=
-          textRenderer.calculateWrappedTextHeight(
-              PLACEHOLDER_NO_EXERCISES,
-              stylePlaceholder,
-              PdfLayout.CONTENT_WIDTH
-                  - (2
-                      * (PdfLayout.INDENT_EXERCISE_CONTAINER
-                          + PdfLayout.INDENT_EXERCISE_INTERNAL)));
+      height += noExercisesPlaceholder.height();
     }
+    height += PdfLayout.PADDING_UNIT_VERTICAL;
 
-    totalHeight += PdfLayout.PADDING_UNIT_VERTICAL;
-
-    return totalHeight;
+    return new UnitNode(header, exercises, noExercisesPlaceholder, height, minimumHeight);
   }
 
-  private void renderUnit(TrainingUnit unit) throws IOException {
-    float totalUnitHeight = calculateUnitHeight(unit);
-    PdfContainerRenderer containerRenderer = documentManager.getContainerRenderer();
-
-    // Fall A: The whole unit fits into the page
-    if (textRenderer.getCurrentY() - totalUnitHeight >= PdfLayout.MARGIN) {
-      // Zeichne einen einzigen, passgenauen Container.
-      containerRenderer.drawContainer(
-          PdfLayout.MARGIN,
-          textRenderer.getCurrentY() - totalUnitHeight,
-          PdfLayout.CONTENT_WIDTH,
-          totalUnitHeight,
-          PdfLayout.UNIT_BORDER_RADIUS,
-          Theme.Colors.TRAINING_UNIT_BG);
-
-      renderUnitContent(unit);
-
-    } else { // Fall B: The unit is too big and will break the page
-      float availableHeight = textRenderer.getCurrentY() - PdfLayout.MARGIN;
-      containerRenderer.drawContainer(
-          PdfLayout.MARGIN,
-          PdfLayout.MARGIN,
-          PdfLayout.CONTENT_WIDTH,
-          availableHeight,
-          PdfLayout.UNIT_BORDER_RADIUS,
-          Theme.Colors.TRAINING_UNIT_BG);
-
-      renderUnitContent(unit);
-    }
-  }
-
-  /**
-   * Renders the actual content (text and exercises) of a unit, assuming the background container
-   * has already been drawn. It handles internal page breaks for exercises.
-   *
-   * @param unit The unit whose content should be rendered.
-   * @throws IOException If writing to the PDF fails.
-   */
-  private void renderUnitContent(TrainingUnit unit) throws IOException {
-    textRenderer.addSpacing(PdfLayout.PADDING_UNIT_VERTICAL);
-
-    String unitName = Objects.toString(unit.getName(), DEFAULT_UNIT_NAME);
-    textRenderer.writeStyledWrappedText(unitName, PdfLayout.INDENT_UNIT_LEVEL, styleUnitHeader);
-    textRenderer.addSpacing(PdfLayout.SPACING_AFTER_UNIT_HEADER);
+  private ExerciseNode measureExercise(ExerciseSnapshot exercise) throws IOException {
+    float contentWidth =
+        PdfLayout.CONTENT_WIDTH
+            - (2 * PdfLayout.INDENT_EXERCISE_CONTAINER)
+            - (2 * PdfLayout.PADDING_EXERCISE_HORIZONTAL);
+    float indent = PdfLayout.INDENT_EXERCISE_CONTAINER + PdfLayout.PADDING_EXERCISE_HORIZONTAL;
+    List<Item> content = new ArrayList<>();
+    content.add(new Space(PdfLayout.PADDING_EXERCISE_VERTICAL));
 
-    String weekday = Objects.toString(unit.getWeekday(), DEFAULT_WEEKDAY);
-    textRenderer.writeStyledWrappedText(weekday, PdfLayout.INDENT_UNIT_LEVEL, styleUnitWeekday);
-    textRenderer.addSpacing(PdfLayout.SPACING_AFTER_UNIT_WEEKDAY);
+    String exerciseName = Objects.toString(exercise.name(), DEFAULT_EXERCISE_NAME);
+    content.add(text(exerciseName, indent, styleExerciseName, 0, contentWidth));
+    content.add(new Space(PdfLayout.SPACING_AFTER_EXERCISE_NAME));
 
-    String description = unit.getDescription();
+    String description = exercise.description();
     if (description != null && !description.trim().isEmpty()) {
-      textRenderer.writeStyledWrappedText(
-          description, PdfLayout.INDENT_UNIT_LEVEL, styleUnitDesc, PdfLayout.EXTRA_LINE_SPACING);
-      textRenderer.addSpacing(PdfLayout.SPACING_AFTER_UNIT_DESC);
+      content.add(
+          text(
+              description,
+              indent,
+              styleExerciseDesc,
+              PdfLayout.EXTRA_LINE_SPACING,
+              contentWidth));
+      content.add(new Space(PdfLayout.SPACING_AFTER_EXERCISE_DESC));
     }
 
-    renderExercisesSection(unit);
+    content.add(text(formatDetails(exercise), indent, styleExerciseDetails, 0, contentWidth));
 
-    textRenderer.addSpacing(PdfLayout.PADDING_UNIT_VERTICAL);
+    float height = height(content) + PdfLayout.PADDING_EXERCISE_VERTICAL; // Bottom padding
+    return new ExerciseNode(content, height);
   }
 
-  private void renderExercisesSection(TrainingUnit unit) throws IOException {
-    List<TrainingExercise> exercises =
-        unit.getTrainingExercises() != null ? unit.getTrainingExercises().getAll() : List.of();
-
-    if (exercises.isEmpty()) {
-      handleUnitPageBreak(stylePlaceholder.size() * 2);
-      textRenderer.writeStyledWrappedText(
-          PLACEHOLDER_NO_EXERCISES,
-          PdfLayout.INDENT_EXERCISE_CONTAINER + PdfLayout.INDENT_EXERCISE_INTERNAL,
-          stylePlaceholder);
-      return;
-    }
-
-    textRenderer.addSpacing(PdfLayout.SPACING_BEFORE_EXERCISES);
-
-    boolean firstExercise = true;
-    for (TrainingExercise exercise : exercises) {
-      float exerciseHeight = calculateExerciseHeight(exercise);
-      float spaceNeeded = exerciseHeight;
-
-      if (!firstExercise) {
-        spaceNeeded += PdfLayout.SPACING_BETWEEN_EXERCISES;
-      }
-
-      handleUnitPageBreak(spaceNeeded);
-
-      if (!firstExercise) {
-        textRenderer.addSpacing(PdfLayout.SPACING_BETWEEN_EXERCISES);
-      }
-
-      renderExercise(exercise, exerciseHeight);
-      firstExercise = false;
+  /** Wraps a text block, see {@link #fit}. */
+  private TextBlock text(
+      String text, float indent, PdfStyle style, float extraLeading, float wrapWidth)
+      throws IOException {
+    float leading = style.size() * PdfLayout.BASE_LINE_SPACING_FACTOR + extraLeading;
+    if (text == null || text.trim().isEmpty()) {
+      return new TextBlock(List.of(), indent, style, leading);
     }
+    WrappedText wrapped = textLayout.wrapText(text, style.font(), style.size(), wrapWidth);
+    return fit(wrapped, indent, style, leading);
   }
 
-  private void renderExercise(TrainingExercise exercise, float exerciseHeight) throws IOException {
-    float exerciseStartY = textRenderer.getCurrentY();
-
-    // Draw the container background
-    documentManager
-        .getContainerRenderer()
-        .drawContainer(
-            PdfLayout.MARGIN + PdfLayout.INDENT_EXERCISE_CONTAINER,
-            exerciseStartY - exerciseHeight,
-            PdfLayout.CONTENT_WIDTH - (2 * PdfLayout.INDENT_EXERCISE_CONTAINER),
-            exerciseHeight,
-            PdfLayout.EXERCISE_BORDER_RADIUS,
-            Theme.Colors.EXERCISE_BG);
-
-    // Add top padding
-    textRenderer.addSpacing(PdfLayout.PADDING_EXERCISE_VERTICAL);
-
-    // Write the exercise content
-    float indent = PdfLayout.INDENT_EXERCISE_CONTAINER + PdfLayout.PADDING_EXERCISE_HORIZONTAL;
-
-    String exerciseName = Objects.toString(exercise.getName(), DEFAULT_EXERCISE_NAME);
-    textRenderer.writeStyledWrappedText(exerciseName, indent, styleExerciseName);
-    textRenderer.addSpacing(PdfLayout.SPACING_AFTER_EXERCISE_NAME);
-
-    String description = exercise.getDescription();
-    if (description != null && !description.trim().isEmpty()) {
-      textRenderer.writeStyledWrappedText(
-          description, indent, styleExerciseDesc, PdfLayout.EXTRA_LINE_SPACING);
-      textRenderer.addSpacing(PdfLayout.SPACING_AFTER_EXERCISE_DESC);
-    }
-
-    String duration = Objects.toString(exercise.getDuration(), DEFAULT_DURATION);
-    String details =
-        String.format(
-            "Duration: %s  •  Sets: %d  •  Ball Bucket: %s",
-            duration, exercise.getSets(), (exercise.isBallBucket() ? "Yes" : "No"));
-    textRenderer.writeStyledWrappedText(details, indent, styleExerciseDetails);
-
-    // Set cursor to the correct position after rendering content within the pre-calculated box
-    textRenderer.setCurrentY(exerciseStartY - exerciseHeight);
+  /** Lays out a text as a single line without wrapping it, see {@link #fit}. */
+  private TextBlock line(String text, float indent, PdfStyle style) throws IOException {
+    float leading = style.size() * PdfLayout.BASE_LINE_SPACING_FACTOR;
+    return fit(textLayout.singleLine(text, style.font(), style.size()), indent, style, leading);
   }
 
-  private float calculateUnitHeaderHeight(TrainingUnit unit) throws IOException {
-    float totalHeight = 0;
-    totalHeight += PdfLayout.PADDING_UNIT_VERTICAL; // Top padding
-
-    String unitName = Objects.toString(unit.getName(), DEFAULT_UNIT_NAME);
-    totalHeight +=
-        textRenderer.calculateWrappedTextHeight(
-            unitName, styleUnitHeader, PdfLayout.CONTENT_WIDTH - (2 * PdfLayout.INDENT_UNIT_LEVEL));
-    totalHeight += PdfLayout.SPACING_AFTER_UNIT_HEADER;
-
-    String weekday = Objects.toString(unit.getWeekday(), DEFAULT_WEEKDAY);
-    totalHeight +=
-        textRenderer.calculateWrappedTextHeight(
-            weekday, styleUnitWeekday, PdfLayout.CONTENT_WIDTH - (2 * PdfLayout.INDENT_UNIT_LEVEL));
-    totalHeight += PdfLayout.SPACING_AFTER_UNIT_WEEKDAY;
-
-    String description = unit.getDescription();
-    if (description != null && !description.trim().isEmpty()) {
-      totalHeight +=
-          textRenderer.calculateWrappedTextHeight(
-              description,
-              styleUnitDesc,
-              PdfLayout.CONTENT_WIDTH - (2 * PdfLayout.INDENT_UNIT_LEVEL),
-              PdfLayout.EXTRA_LINE_SPACING);
-      totalHeight += PdfLayout.SPACING_AFTER_UNIT_DESC;
+  /**
+   * Truncates the lines that are wider than the content area right of the indentation, e.g. a
+   * single character in a very narrow column.
+   */
+  private TextBlock fit(WrappedText wrapped, float indent, PdfStyle style, float leading)
+      throws IOException {
+    List<String> lines = wrapped.lines();
+    float availableWidth = PdfLayout.CONTENT_WIDTH - indent;
+    List<String> fitted = null;
+    for (int i = 0; i < lines.size(); i++) {
+      if (wrapped.lineWidths()[i] > availableWidth) {
+        if (fitted == null) {
+          fitted = new ArrayList<>(lines);
+        }
+        fitted.set(
+            i, textLayout.truncateText(lines.get(i), style.font(), style.size(), availableWidth));
+      }
     }
-
-    return totalHeight;
+    return new TextBlock(fitted != null ? fitted : lines, indent, style, leading);
   }
 
-  private float calculateExerciseHeight(TrainingExercise exercise) throws IOException {
-    float totalHeight = 0;
-    float contentWidth =
-        PdfLayout.CONTENT_WIDTH
-            - (2 * PdfLayout.INDENT_EXERCISE_CONTAINER)
-            - (2 * PdfLayout.PADDING_EXERCISE_HORIZONTAL);
-
-    totalHeight += PdfLayout.PADDING_EXERCISE_VERTICAL; // Top padding
-
-    String exerciseName = Objects.toString(exercise.getName(), DEFAULT_EXERCISE_NAME);
-    totalHeight +=
-        textRenderer.calculateWrappedTextHeight(exerciseName, styleExerciseName, contentWidth);
-    totalHeight += PdfLayout.SPACING_AFTER_EXERCISE_NAME;
-
-    String description = exercise.getDescription();
-    if (description != null && !description.trim().isEmpty()) {
-      totalHeight +=
-          textRenderer.calculateWrappedTextHeight(
-              description, styleExerciseDesc, contentWidth, PdfLayout.EXTRA_LINE_SPACING);
-      totalHeight += PdfLayout.SPACING_AFTER_EXERCISE_DESC;
+  private static float height(List<Item> items) {
+    float height = 0;
+    for (Item item : items) {
+      height += item.height();
     }
-
-    String duration = Objects.toString(exercise.getDuration(), DEFAULT_DURATION);
-    String details =
-        String.format(
-            "Duration: %s  •  Sets: %d  •  Ball Bucket: %s",
-            duration, exercise.getSets(), (exercise.isBallBucket() ? "Yes" : "No"));
-    totalHeight +=
-        textRenderer.calculateWrappedTextHeight(details, styleExerciseDetails, contentWidth);
-
-    totalHeight += PdfLayout.PADDING_EXERCISE_VERTICAL; // Bottom padding
-    return totalHeight;
+    return height;
   }
 }
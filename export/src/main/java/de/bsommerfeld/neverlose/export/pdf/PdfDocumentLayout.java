@@ -0,0 +1,18 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import java.util.List;
+
+/**
+ * The paginated layout of a whole document. It holds no reference to a PDF document, so it can be
+ * kept and painted again, see {@link PdfPainter}.
+ */
+public record PdfDocumentLayout(List<PdfPageLayout> pages) {
+
+  public PdfDocumentLayout {
+    pages = List.copyOf(pages);
+  }
+
+  public int pageCount() {
+    return pages.size();
+  }
+}
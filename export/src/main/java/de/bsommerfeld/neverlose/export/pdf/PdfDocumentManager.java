@@ -6,6 +6,7 @@ import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * Manages PDF document operations such as page creation and content stream management.
@@ -18,6 +19,10 @@ public class PdfDocumentManager {
     private PdfTextRenderer textRenderer;
     private PdfContainerRenderer containerRenderer;
     private final PdfStyle footerStyle;
+    // Shared by the layout phase and the text renderers of all pages
+    private final PdfTextLayout textLayout = new PdfTextLayout();
+    // Footer and container shapes drawn once and referenced by every page
+    private final PdfFormLibrary formLibrary;
 
     /**
      * Creates a new PdfDocumentManager.
@@ -28,6 +33,7 @@ public class PdfDocumentManager {
     public PdfDocumentManager(PDDocument document, PdfStyle footerStyle) {
         this.document = document;
         this.footerStyle = footerStyle;
+        this.formLibrary = new PdfFormLibrary(document);
     }
 
     /**
@@ -57,6 +63,25 @@ public class PdfDocumentManager {
         return textRenderer;
     }
 
+    /**
+     * Gets the text layout shared by all pages of the document. Unlike the renderers it is available
+     * before the first page is created.
+     *
+     * @return The text layout
+     */
+    public PdfTextLayout getTextLayout() {
+        return textLayout;
+    }
+
+    /**
+     * Gets the library of graphics that repeat throughout the document.
+     *
+     * @return The form library
+     */
+    public PdfFormLibrary getFormLibrary() {
+        return formLibrary;
+    }
+
     /**
      * Gets the container renderer for the current page.
      *
@@ -79,8 +104,8 @@ public class PdfDocumentManager {
         contentStream = new PDPageContentStream(document, currentPage);
         
         float startY = currentPage.getMediaBox().getHeight() - PdfLayout.MARGIN;
-        textRenderer = new PdfTextRenderer(contentStream, startY);
-        containerRenderer = new PdfContainerRenderer(contentStream);
+        textRenderer = new PdfTextRenderer(contentStream);
+        containerRenderer = new PdfContainerRenderer(contentStream, formLibrary);
         
         return startY;
     }
@@ -110,4 +135,15 @@ public class PdfDocumentManager {
         closeCurrentContentStream();
         document.save(targetFile);
     }
+
+    /**
+     * Saves the document to the specified stream and closes all resources. The stream is not closed.
+     *
+     * @param out The stream to write to
+     * @throws IOException If there's an error saving the document
+     */
+    public void saveAndClose(OutputStream out) throws IOException {
+        closeCurrentContentStream();
+        document.save(out);
+    }
 }
\ No newline at end of file
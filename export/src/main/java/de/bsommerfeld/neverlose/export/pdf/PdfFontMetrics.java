@@ -0,0 +1,115 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+/**
+ * Caches the advance widths of a font, so that text can be measured without going through the
+ * font's encoding for every character.
+ *
+ * <p>The widths of the first 256 characters, which covers everything the standard fonts can encode
+ * except a few typographic symbols, are kept in a primitive table that is filled on first use of a
+ * font. Other characters are measured once and remembered. Characters the font cannot encode are
+ * not cached, so measuring them fails exactly like {@link PDFont#getStringWidth(String)}.
+ *
+ * <p>Metrics are shared by all instances of the same standard font, so documents with fonts of their
+ * own (see {@link PdfStyleSheet}) measure with the same tables. They measure with a font instance of
+ * their own, which belongs to no document. Metrics of other fonts live as long as their font and
+ * do not keep it alive. Metrics are safe to use from several threads.
+ *
+ * <p>All widths are in glyph space, i.e. in thousandths of the font size.
+ */
+public final class PdfFontMetrics {
+
+  private static final int TABLE_SIZE = 256;
+  private static final Map<String, PdfFontMetrics> STANDARD_METRICS = new ConcurrentHashMap<>();
+  private static final Map<PDFont, PdfFontMetrics> EMBEDDED_METRICS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  // Weak for embedded fonts, as their metrics are the value of the font's own weak key
+  private final Supplier<PDFont> font;
+  // NaN marks characters the font cannot encode
+  private final float[] advances = new float[TABLE_SIZE];
+  private final Map<Character, Float> otherAdvances = new ConcurrentHashMap<>();
+
+  private PdfFontMetrics(PDFont font, boolean weak) {
+    this.font = weak ? new WeakReference<>(font)::get : () -> font;
+    Arrays.fill(advances, Float.NaN);
+    for (char c = 0; c < TABLE_SIZE; c++) {
+      try {
+        advances[c] = font.getStringWidth(String.valueOf(c));
+      } catch (IOException | IllegalArgumentException e) {
+        // Not encodable, see advance(char)
+      }
+    }
+  }
+
+  /**
+   * Returns the metrics of the given font. They are computed once per font and shared by all
+   * styles using it.
+   */
+  public static PdfFontMetrics of(PDFont font) {
+    if (font.isStandard14()) {
+      return STANDARD_METRICS.computeIfAbsent(
+          font.getName(),
+          name ->
+              new PdfFontMetrics(
+                  new PDType1Font(Standard14Fonts.getMappedFontName(name)), false));
+    }
+    return EMBEDDED_METRICS.computeIfAbsent(font, key -> new PdfFontMetrics(key, true));
+  }
+
+  /**
+   * Returns the advance width of a character in glyph space.
+   *
+   * @throws IOException If the font cannot provide the width
+   * @throws IllegalArgumentException If the font cannot encode the character
+   */
+  public float advance(char c) throws IOException {
+    if (c < TABLE_SIZE) {
+      float advance = advances[c];
+      if (!Float.isNaN(advance)) {
+        return advance;
+      }
+    }
+    Float advance = otherAdvances.get(c);
+    if (advance == null) {
+      PDFont measured = font.get();
+      if (measured == null) {
+        throw new IOException("The font of these metrics was discarded");
+      }
+      // The font fills caches of its own while measuring
+      synchronized (measured) {
+        advance = measured.getStringWidth(String.valueOf(c));
+      }
+      otherAdvances.put(c, advance);
+    }
+    return advance;
+  }
+
+  /**
+   * Returns the width of a range of characters in glyph space.
+   *
+   * @param text The text to measure
+   * @param from The index of the first character, inclusive
+   * @param to The index of the last character, exclusive
+   * @return The summed advance widths
+   * @throws IOException If the font cannot provide a width
+   */
+  public float width(CharSequence text, int from, int to) throws IOException {
+    float width = 0;
+    for (int i = from; i < to; i++) {
+      width += advance(text.charAt(i));
+    }
+    return width;
+  }
+}
@@ -0,0 +1,129 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import de.bsommerfeld.neverlose.export.pdf.PdfBox.ContainerBox;
+import java.awt.Color;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+
+/**
+ * Graphics that repeat throughout a document, drawn once as Form XObjects and referenced wherever
+ * they appear: the footer of every page and containers of the same shape, such as exercises with
+ * the same number of lines.
+ *
+ * <p>A reference takes a few bytes of a page's content stream, where the operators drawing a
+ * rounded container take a few hundred. A container shape that appears only once is still drawn
+ * inline, as a form of its own would only add an object to the file.
+ */
+public final class PdfFormLibrary {
+
+  private final PDDocument document;
+  private final Set<ContainerShape> sharedShapes = new HashSet<>();
+  private final Map<ContainerShape, PDFormXObject> containers = new HashMap<>();
+  private final Map<Float, PDFormXObject> footers = new HashMap<>();
+
+  /**
+   * Creates an empty library.
+   *
+   * @param document the document the forms are added to
+   */
+  public PdfFormLibrary(PDDocument document) {
+    this.document = document;
+  }
+
+  /**
+   * Shares the container shapes that appear more than once in a layout. Containers painted before
+   * are not affected.
+   *
+   * @param layout the layout about to be painted
+   */
+  public void shareRepeatedContainers(PdfDocumentLayout layout) {
+    Map<ContainerShape, Integer> counts = new HashMap<>();
+    for (PdfPageLayout page : layout.pages()) {
+      for (PdfBox box : page.boxes()) {
+        if (box instanceof ContainerBox container) {
+          counts.merge(
+              new ContainerShape(
+                  container.width(),
+                  container.height(),
+                  container.borderRadius(),
+                  container.backgroundColor()),
+              1,
+              Integer::sum);
+        }
+      }
+    }
+    counts.forEach(
+        (shape, count) -> {
+          if (count > 1) {
+            sharedShapes.add(shape);
+          }
+        });
+  }
+
+  /**
+   * Returns the form of a container shape, drawn with its bottom-left corner at the origin.
+   *
+   * @return the form, or null if the shape is not shared and should be drawn inline
+   * @throws IOException If there's an error drawing the form
+   */
+  PDFormXObject container(
+      float width, float height, float borderRadius, Color backgroundColor) throws IOException {
+    ContainerShape shape = new ContainerShape(width, height, borderRadius, backgroundColor);
+    if (!sharedShapes.contains(shape)) {
+      return null;
+    }
+    PDFormXObject form = containers.get(shape);
+    if (form == null) {
+      // The border is stroked on the outline, half of it lies outside
+      float border = PdfLayout.BORDER_WIDTH;
+      PDAppearanceStream newForm =
+          newForm(new PDRectangle(-border, -border, width + 2 * border, height + 2 * border));
+      try (PDPageContentStream contentStream = new PDPageContentStream(document, newForm)) {
+        new PdfContainerRenderer(contentStream)
+            .drawContainer(0, 0, width, height, borderRadius, backgroundColor);
+      }
+      containers.put(shape, newForm);
+      form = newForm;
+    }
+    return form;
+  }
+
+  /**
+   * Returns the form of the footer, drawn in page coordinates.
+   *
+   * @throws IOException If there's an error drawing the form
+   */
+  PDFormXObject footer(float pageWidth, PdfStyle style) throws IOException {
+    PDFormXObject form = footers.get(pageWidth);
+    if (form == null) {
+      PDAppearanceStream newForm = newForm(new PDRectangle(0, 0, pageWidth, PdfLayout.MARGIN));
+      try (PDPageContentStream contentStream = new PDPageContentStream(document, newForm)) {
+        new PdfContainerRenderer(contentStream).drawFooter(pageWidth, style);
+      }
+      footers.put(pageWidth, newForm);
+      form = newForm;
+    }
+    return form;
+  }
+
+  private PDAppearanceStream newForm(PDRectangle boundingBox) {
+    // PDFBox only writes to forms with the page content stream API through appearance streams,
+    // which are plain forms
+    PDAppearanceStream form = new PDAppearanceStream(document);
+    form.setBBox(boundingBox);
+    form.setResources(new PDResources());
+    return form;
+  }
+
+  private record ContainerShape(
+      float width, float height, float borderRadius, Color backgroundColor) {}
+}
@@ -12,6 +12,7 @@ public class PdfLayout {
   // Page Layout
   public static final float MARGIN = Theme.Layout.MARGIN;
   public static final float PAGE_WIDTH = PDRectangle.A4.getWidth();
+  public static final float PAGE_HEIGHT = PDRectangle.A4.getHeight();
   public static final float CONTENT_WIDTH = PAGE_WIDTH - 2 * MARGIN;
   public static final float BASE_LINE_SPACING_FACTOR = Theme.Layout.BASE_LINE_SPACING_FACTOR;
   public static final float EXTRA_LINE_SPACING = Theme.Layout.EXTRA_LINE_SPACING;
@@ -0,0 +1,36 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import de.bsommerfeld.neverlose.export.pdf.PdfTextLayout.WrappedText;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Remembers the wrapped lines and their widths of every text block of a single export. A block is measured to
+ * decide on page breaks and container heights and painted later on; with this cache it is only
+ * wrapped once, no matter how often it is measured.
+ *
+ * <p>A cache lives as long as its {@link PdfTextLayout}, i.e. one export. It is not thread-safe,
+ * just like the rest of the rendering.
+ */
+public final class PdfLayoutCache {
+
+  private final Map<Key, WrappedText> wrappedTexts = new HashMap<>();
+
+  /**
+   * Returns the previously wrapped lines of a text block.
+   *
+   * @return The lines, or null if the block was not wrapped yet
+   */
+  public WrappedText getWrappedText(String text, PDFont font, float fontSize, float maxWidth) {
+    return wrappedTexts.get(new Key(text, font, fontSize, maxWidth));
+  }
+
+  /** Remembers the wrapped lines of a text block. */
+  public void putWrappedText(
+      String text, PDFont font, float fontSize, float maxWidth, WrappedText wrapped) {
+    wrappedTexts.put(new Key(text, font, fontSize, maxWidth), wrapped);
+  }
+
+  private record Key(String text, PDFont font, float fontSize, float maxWidth) {}
+}
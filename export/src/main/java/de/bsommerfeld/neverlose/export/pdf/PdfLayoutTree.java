@@ -0,0 +1,74 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import java.util.List;
+
+/**
+ * The measured but not yet positioned layout of a training plan, the result of the first phase of
+ * an export. Every text is already wrapped and every element knows its height, so that {@link
+ * PdfPaginator} can distribute the elements over pages without measuring anything.
+ */
+public final class PdfLayoutTree {
+
+  private PdfLayoutTree() {}
+
+  /** An element of a vertical flow: either text or vertical space. */
+  public sealed interface Item permits TextBlock, Space {
+
+    /** Returns the height the item takes up in the flow. */
+    float height();
+  }
+
+  /**
+   * Wrapped text. Each line takes up {@code leading}; empty lines stand for paragraph breaks.
+   *
+   * @param lines the wrapped lines, each fitting into the available width
+   * @param indent the indentation from the left margin
+   * @param style the style of the text
+   * @param leading the height of a single line
+   */
+  public record TextBlock(List<String> lines, float indent, PdfStyle style, float leading)
+      implements Item {
+
+    @Override
+    public float height() {
+      return lines.size() * leading;
+    }
+  }
+
+  /** Vertical space. It is dropped at the bottom of a page instead of causing a page break. */
+  public record Space(float height) implements Item {}
+
+  /**
+   * An exercise. Its container is kept together on one page unless it is taller than a page.
+   *
+   * @param content the content, including the inner padding
+   * @param height the height of the container
+   */
+  public record ExerciseNode(List<Item> content, float height) {}
+
+  /**
+   * A unit. Its container continues over as many pages as needed.
+   *
+   * @param header the name, weekday and description of the unit, including the inner top padding
+   * @param exercises the exercises of the unit
+   * @param noExercisesPlaceholder the text shown instead of the exercises if there are none
+   * @param height the height of the container if it fits on one page
+   * @param minimumHeight the height of the header and the first exercise, which must not be
+   *     separated by a page break
+   */
+  public record UnitNode(
+      List<Item> header,
+      List<ExerciseNode> exercises,
+      TextBlock noExercisesPlaceholder,
+      float height,
+      float minimumHeight) {}
+
+  /**
+   * A plan.
+   *
+   * @param header the title, description and summary, followed by a separator
+   * @param units the units of the plan
+   * @param noUnitsPlaceholder the text shown instead of the units if there are none
+   */
+  public record PlanNode(List<Item> header, List<UnitNode> units, TextBlock noUnitsPlaceholder) {}
+}
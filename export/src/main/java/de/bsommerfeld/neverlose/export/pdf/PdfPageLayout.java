@@ -0,0 +1,11 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import java.util.List;
+
+/** The positioned boxes of a single page, in painting order. */
+public record PdfPageLayout(List<PdfBox> boxes) {
+
+  public PdfPageLayout {
+    boxes = List.copyOf(boxes);
+  }
+}
@@ -0,0 +1,219 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import de.bsommerfeld.neverlose.export.pdf.PdfBox.ContainerBox;
+import de.bsommerfeld.neverlose.export.pdf.PdfBox.SeparatorBox;
+import de.bsommerfeld.neverlose.export.pdf.PdfBox.TextBox;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.ExerciseNode;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.Item;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.PlanNode;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.Space;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.TextBlock;
+import de.bsommerfeld.neverlose.export.pdf.PdfLayoutTree.UnitNode;
+import de.bsommerfeld.neverlose.theme.Theme;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distributes a measured {@link PdfLayoutTree} over pages, the second phase of an export. It is a
+ * pure function of the tree: the same plan always results in the same pages.
+ *
+ * <p>The following rules apply:
+ *
+ * <ul>
+ *   <li>A unit starts on a new page unless its header and its first exercise fit on the current
+ *       one, so that a unit header is never orphaned at the bottom of a page.
+ *   <li>An exercise is kept together on one page. Only an exercise taller than a page is split.
+ *   <li>A unit that does not fit on the rest of the page continues on the next one; its background
+ *       is repeated on every page it covers.
+ *   <li>Vertical space that does not fit at the bottom of a page is dropped.
+ * </ul>
+ */
+public final class PdfPaginator {
+
+  private static final float PAGE_TOP = PdfLayout.PAGE_HEIGHT - PdfLayout.MARGIN;
+  private static final float SEPARATOR_HEIGHT = 1f;
+
+  private final List<PdfPageLayout> pages = new ArrayList<>();
+  private List<PdfBox> boxes;
+  private float y;
+  // Whether the content being placed lies within a unit or exercise container
+  private boolean inUnit;
+  private boolean inExercise;
+  // Lower edge of the exercise being placed; below the margin while it continues on the next page
+  private float exerciseBottom;
+
+  private PdfPaginator() {}
+
+  /**
+   * Paginates the layout of a plan.
+   *
+   * @param plan the measured plan
+   * @return the positioned boxes of all pages
+   */
+  public static PdfDocumentLayout paginate(PlanNode plan) {
+    return new PdfPaginator().layout(plan);
+  }
+
+  private PdfDocumentLayout layout(PlanNode plan) {
+    newPage();
+    plan.header().forEach(this::place);
+    placeSeparator();
+
+    if (plan.units().isEmpty()) {
+      space(PdfLayout.SPACING_BETWEEN_UNITS);
+      place(plan.noUnitsPlaceholder());
+    } else {
+      boolean firstUnit = true;
+      for (UnitNode unit : plan.units()) {
+        placeUnit(unit, firstUnit);
+        firstUnit = false;
+      }
+    }
+
+    pages.add(new PdfPageLayout(boxes));
+    return new PdfDocumentLayout(pages);
+  }
+
+  private void placeSeparator() {
+    if (y - (PdfLayout.SPACING_SEPARATOR + SEPARATOR_HEIGHT) < PdfLayout.MARGIN) {
+      newPage();
+    }
+    space(PdfLayout.SPACING_SEPARATOR / 2);
+    boxes.add(new SeparatorBox(y));
+    y -= SEPARATOR_HEIGHT;
+    space(PdfLayout.SPACING_SEPARATOR / 2);
+  }
+
+  private void placeUnit(UnitNode unit, boolean firstUnit) {
+    float spacing = firstUnit ? 0 : PdfLayout.SPACING_BETWEEN_UNITS;
+    if (y - (spacing + unit.minimumHeight()) < PdfLayout.MARGIN && y < PAGE_TOP) {
+      newPage();
+    } else {
+      space(spacing);
+    }
+
+    if (y - unit.height() >= PdfLayout.MARGIN) {
+      addUnitContainer(y - unit.height(), unit.height());
+    } else {
+      addUnitContainer(PdfLayout.MARGIN, y - PdfLayout.MARGIN);
+    }
+    inUnit = true;
+
+    unit.header().forEach(this::place);
+    List<ExerciseNode> exercises = unit.exercises();
+    if (exercises.isEmpty()) {
+      keepTogether(unit.noExercisesPlaceholder().style().size() * 2);
+      place(unit.noExercisesPlaceholder());
+    } else {
+      space(PdfLayout.SPACING_BEFORE_EXERCISES);
+      boolean firstExercise = true;
+      for (ExerciseNode exercise : exercises) {
+        float spaceNeeded = exercise.height();
+        if (!firstExercise) {
+          spaceNeeded += PdfLayout.SPACING_BETWEEN_EXERCISES;
+        }
+        keepTogether(spaceNeeded);
+        if (!firstExercise) {
+          space(PdfLayout.SPACING_BETWEEN_EXERCISES);
+        }
+        placeExercise(exercise);
+        firstExercise = false;
+      }
+    }
+    space(PdfLayout.PADDING_UNIT_VERTICAL);
+
+    inUnit = false;
+  }
+
+  private void placeExercise(ExerciseNode exercise) {
+    exerciseBottom = y - exercise.height();
+    addExerciseContainer();
+    inExercise = true;
+
+    exercise.content().forEach(this::place);
+
+    inExercise = false;
+    // The content is laid out within the measured container, continue below it
+    y = Math.max(exerciseBottom, PdfLayout.MARGIN);
+  }
+
+  private void place(Item item) {
+    switch (item) {
+      case Space space -> space(space.height());
+      case TextBlock text -> {
+        for (String line : text.lines()) {
+          if (line.isEmpty()) {
+            space(text.leading());
+            continue;
+          }
+          if (y - text.leading() < PdfLayout.MARGIN) {
+            breakPage();
+          }
+          boxes.add(
+              new TextBox(
+                  line, PdfLayout.MARGIN + text.indent(), y - text.style().size(), text.style()));
+          y -= text.leading();
+        }
+      }
+    }
+  }
+
+  private void space(float height) {
+    if (height > 0 && y - height >= PdfLayout.MARGIN) {
+      y -= height;
+    }
+  }
+
+  /** Moves to the next page unless the given height fits on the current one. */
+  private void keepTogether(float height) {
+    if (y - height < PdfLayout.MARGIN) {
+      breakPage();
+    }
+  }
+
+  /** Starts a new page, continuing the containers that are open. */
+  private void breakPage() {
+    float exerciseRest = y - exerciseBottom;
+    newPage();
+    if (inUnit) {
+      addUnitContainer(PdfLayout.MARGIN, y - PdfLayout.MARGIN);
+      space(PdfLayout.PADDING_UNIT_VERTICAL);
+    }
+    if (inExercise) {
+      exerciseBottom = y - exerciseRest;
+      addExerciseContainer();
+    }
+  }
+
+  private void newPage() {
+    if (boxes != null) {
+      pages.add(new PdfPageLayout(boxes));
+    }
+    boxes = new ArrayList<>();
+    y = PAGE_TOP;
+  }
+
+  private void addUnitContainer(float bottom, float height) {
+    boxes.add(
+        new ContainerBox(
+            PdfLayout.MARGIN,
+            bottom,
+            PdfLayout.CONTENT_WIDTH,
+            height,
+            PdfLayout.UNIT_BORDER_RADIUS,
+            Theme.Colors.TRAINING_UNIT_BG));
+  }
+
+  /** Adds the container of the current exercise, from the cursor down to its lower edge. */
+  private void addExerciseContainer() {
+    float bottom = Math.max(exerciseBottom, PdfLayout.MARGIN);
+    boxes.add(
+        new ContainerBox(
+            PdfLayout.MARGIN + PdfLayout.INDENT_EXERCISE_CONTAINER,
+            bottom,
+            PdfLayout.CONTENT_WIDTH - (2 * PdfLayout.INDENT_EXERCISE_CONTAINER),
+            y - bottom,
+            PdfLayout.EXERCISE_BORDER_RADIUS,
+            Theme.Colors.EXERCISE_BG));
+  }
+}
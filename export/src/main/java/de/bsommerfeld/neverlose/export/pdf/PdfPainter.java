@@ -0,0 +1,47 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import de.bsommerfeld.neverlose.export.pdf.PdfBox.ContainerBox;
+import de.bsommerfeld.neverlose.export.pdf.PdfBox.SeparatorBox;
+import de.bsommerfeld.neverlose.export.pdf.PdfBox.TextBox;
+import java.io.IOException;
+
+/**
+ * Streams a paginated {@link PdfDocumentLayout} into a PDF document, the last phase of an export.
+ * Nothing is measured or decided here anymore; every box is painted where the layout put it.
+ */
+public final class PdfPainter {
+
+  private PdfPainter() {}
+
+  /**
+   * Paints all pages of the layout as new pages of the managed document.
+   *
+   * @param layout the layout to paint
+   * @param documentManager the manager of the target document
+   * @throws IOException If there's an error writing to the PDF
+   */
+  public static void paint(PdfDocumentLayout layout, PdfDocumentManager documentManager)
+      throws IOException {
+    documentManager.getFormLibrary().shareRepeatedContainers(layout);
+    for (PdfPageLayout page : layout.pages()) {
+      documentManager.startNewPage();
+      PdfTextRenderer textRenderer = documentManager.getTextRenderer();
+      PdfContainerRenderer containerRenderer = documentManager.getContainerRenderer();
+      for (PdfBox box : page.boxes()) {
+        switch (box) {
+          case TextBox text ->
+              textRenderer.drawText(text.text(), text.x(), text.baselineY(), text.style());
+          case ContainerBox container ->
+              containerRenderer.drawContainer(
+                  container.x(),
+                  container.y(),
+                  container.width(),
+                  container.height(),
+                  container.borderRadius(),
+                  container.backgroundColor());
+          case SeparatorBox separator -> containerRenderer.drawSeparator(separator.y());
+        }
+      }
+    }
+  }
+}
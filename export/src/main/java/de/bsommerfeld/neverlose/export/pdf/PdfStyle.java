@@ -1,10 +1,28 @@
 package de.bsommerfeld.neverlose.export.pdf;
 
 import java.awt.Color;
+import java.io.IOException;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 
 /**
  * Represents a text style in a PDF document, combining font, size, and color.
  * This is used to maintain consistent styling throughout the PDF.
  */
-public record PdfStyle(PDFont font, float size, Color color) {}
\ No newline at end of file
+public record PdfStyle(PDFont font, float size, Color color) {
+
+  /** Returns the cached advance widths of this style's font, see {@link PdfFontMetrics}. */
+  public PdfFontMetrics metrics() {
+    return PdfFontMetrics.of(font);
+  }
+
+  /**
+   * Calculates the width of text in this style.
+   *
+   * @param text The text to measure
+   * @return The width of the text in points
+   * @throws IOException If there's an error calculating the width
+   */
+  public float textWidth(String text) throws IOException {
+    return metrics().width(text, 0, text.length()) / 1000f * size;
+  }
+}
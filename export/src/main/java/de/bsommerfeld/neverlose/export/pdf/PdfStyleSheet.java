@@ -0,0 +1,52 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import de.bsommerfeld.neverlose.theme.Theme;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+/**
+ * The text styles of an exported plan, based on the centralized {@link Theme}.
+ *
+ * <p>A style sheet belongs to a single document. PDFBox fonts fill internal caches while text is
+ * encoded and are assigned object numbers while a document is saved, so documents rendered in
+ * parallel must not share them. Creating a style sheet is cheap: the standard fonts are not
+ * embedded, and their glyph widths are shared through {@link PdfFontMetrics}.
+ */
+public record PdfStyleSheet(
+    PdfStyle planTitle,
+    PdfStyle planDescription,
+    PdfStyle unitHeader,
+    PdfStyle unitWeekday,
+    PdfStyle unitDescription,
+    PdfStyle exerciseName,
+    PdfStyle exerciseDescription,
+    PdfStyle exerciseDetails,
+    PdfStyle placeholder,
+    PdfStyle footer) {
+
+  private static final float SIZE_FOOTER = 8f;
+
+  /**
+   * Creates the styles for a new document, with fonts of its own.
+   *
+   * @return The style sheet
+   */
+  public static PdfStyleSheet create() {
+    PDFont bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+    PDFont regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    PDFont italic = new PDType1Font(Standard14Fonts.FontName.HELVETICA_OBLIQUE);
+
+    return new PdfStyleSheet(
+        new PdfStyle(bold, Theme.Fonts.SIZE_TITLE, Theme.Colors.TEXT_DARKEST),
+        new PdfStyle(regular, Theme.Fonts.SIZE_SUBTITLE, Theme.Colors.TEXT_MEDIUM),
+        new PdfStyle(bold, Theme.Fonts.SIZE_UNIT_HEADER, Theme.Colors.TEXT_DARKER),
+        new PdfStyle(regular, Theme.Fonts.SIZE_UNIT_WEEKDAY, Theme.Colors.TEXT_LIGHTER),
+        new PdfStyle(regular, Theme.Fonts.SIZE_UNIT_DESC, Theme.Colors.TEXT_LIGHT),
+        new PdfStyle(bold, Theme.Fonts.SIZE_EXERCISE_NAME, Theme.Colors.TEXT_DARK),
+        new PdfStyle(regular, Theme.Fonts.SIZE_EXERCISE_DESC, Theme.Colors.TEXT_LIGHT),
+        new PdfStyle(regular, Theme.Fonts.SIZE_EXERCISE_DETAILS, Theme.Colors.TEXT_LIGHTER),
+        new PdfStyle(italic, Theme.Fonts.SIZE_PLACEHOLDER, Theme.Colors.TEXT_LIGHT),
+        new PdfStyle(regular, SIZE_FOOTER, Theme.Colors.TEXT_LIGHTER));
+  }
+}
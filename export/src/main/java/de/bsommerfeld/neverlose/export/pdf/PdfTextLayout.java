@@ -0,0 +1,219 @@
+package de.bsommerfeld.neverlose.export.pdf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Measures, wraps and truncates text for PDF documents without writing anything. The layout phase
+ * of an export uses it to build the layout before any page exists; every text block is wrapped
+ * once per export, see {@link PdfLayoutCache}.
+ */
+public class PdfTextLayout {
+  private final PdfLayoutCache layoutCache = new PdfLayoutCache();
+  // Prefix sums of the advance widths of the paragraph being wrapped, reused between paragraphs
+  private float[] prefixWidths = new float[128];
+
+  /**
+   * Calculates the width of text with the specified font and size.
+   *
+   * @param text The text to measure
+   * @param font The font to use
+   * @param fontSize The font size
+   * @return The width of the text in points
+   * @throws IOException If there's an error calculating the width
+   */
+  public float calculateTextWidth(String text, PDFont font, float fontSize) throws IOException {
+    return PdfFontMetrics.of(font).width(text, 0, text.length()) / 1000f * fontSize;
+  }
+
+  /**
+   * Truncates text to fit within the specified width.
+   *
+   * @param text The text to truncate
+   * @param font The font to use
+   * @param fontSize The font size
+   * @param maxWidth The maximum width
+   * @return The truncated text
+   * @throws IOException If there's an error calculating the width
+   */
+  public String truncateText(String text, PDFont font, float fontSize, float maxWidth)
+      throws IOException {
+    PdfFontMetrics metrics = PdfFontMetrics.of(font);
+    float limit = maxWidth * 1000f / fontSize;
+    float width = 0;
+    for (int i = 0; i < text.length(); i++) {
+      width += metrics.advance(text.charAt(i));
+      if (width > limit) {
+        return text.substring(0, i);
+      }
+    }
+    return text;
+  }
+
+  /**
+   * Wraps text to fit within the specified width.
+   *
+   * @param text The text to wrap
+   * @param font The font to use
+   * @param fontSize The font size
+   * @param maxWidth The maximum width
+   * @return The wrapped lines and their widths
+   * @throws IOException If there's an error calculating the width
+   */
+  public WrappedText wrapText(String text, PDFont font, float fontSize, float maxWidth)
+      throws IOException {
+    WrappedText wrapped = layoutCache.getWrappedText(text, font, fontSize, maxWidth);
+    if (wrapped == null) {
+      List<String> lines = new ArrayList<>();
+      List<Float> widths = new ArrayList<>();
+      wrap(text, font, fontSize, maxWidth, lines, widths);
+      float[] lineWidths = new float[widths.size()];
+      for (int i = 0; i < lineWidths.length; i++) {
+        lineWidths[i] = widths.get(i) / 1000f * fontSize;
+      }
+      wrapped = new WrappedText(List.copyOf(lines), lineWidths);
+      layoutCache.putWrappedText(text, font, fontSize, maxWidth, wrapped);
+    }
+    return wrapped;
+  }
+
+  /**
+   * Measures text as a single line, without wrapping it.
+   *
+   * @param text The text
+   * @param font The font to use
+   * @param fontSize The font size
+   * @return The line and its width
+   * @throws IOException If there's an error calculating the width
+   */
+  public WrappedText singleLine(String text, PDFont font, float fontSize) throws IOException {
+    return new WrappedText(List.of(text), new float[] {calculateTextWidth(text, font, fontSize)});
+  }
+
+  /**
+   * Wraps text paragraph by paragraph. Lines break after the last whitespace that fits, or within
+   * a word if a single word is wider than the available width.
+   *
+   * @param lines The list receiving the lines
+   * @param widths The list receiving the width of every line in glyph space
+   */
+  private void wrap(
+      String text,
+      PDFont font,
+      float fontSize,
+      float maxWidth,
+      List<String> lines,
+      List<Float> widths)
+      throws IOException {
+    PdfFontMetrics metrics = PdfFontMetrics.of(font);
+    float limit = maxWidth * 1000f / fontSize;
+    String normalized = text.trim().replace("\r\n", "\n");
+
+    int paragraphStart = 0;
+    while (paragraphStart <= normalized.length()) {
+      int paragraphEnd = normalized.indexOf('\n', paragraphStart);
+      if (paragraphEnd < 0) {
+        paragraphEnd = normalized.length();
+      }
+      wrapParagraph(normalized, paragraphStart, paragraphEnd, metrics, limit, lines, widths);
+      paragraphStart = paragraphEnd + 1;
+    }
+  }
+
+  /**
+   * Wraps a single paragraph. The advance widths are summed up once, so that the end of every line
+   * is found by a binary search over the prefix sums instead of measuring the line character by
+   * character.
+   */
+  private void wrapParagraph(
+      String text,
+      int from,
+      int to,
+      PdfFontMetrics metrics,
+      float limit,
+      List<String> lines,
+      List<Float> widths)
+      throws IOException {
+    if (from == to) {
+      lines.add("");
+      widths.add(0f);
+      return;
+    }
+    while (from < to && text.charAt(from) <= ' ') {
+      from++;
+    }
+    while (to > from && text.charAt(to - 1) <= ' ') {
+      to--;
+    }
+
+    if (prefixWidths.length < to - from + 1) {
+      prefixWidths = new float[Math.max(to - from + 1, prefixWidths.length * 2)];
+    }
+    float width = 0;
+    for (int i = from; i < to; i++) {
+      prefixWidths[i - from] = width;
+      width += metrics.advance(text.charAt(i));
+    }
+    prefixWidths[to - from] = width;
+
+    int start = from;
+    while (start < to) {
+      int breakIndex = findBreakIndex(text, from, start, to, limit);
+      int lineEnd = breakIndex;
+      while (lineEnd > start && text.charAt(lineEnd - 1) <= ' ') {
+        lineEnd--;
+      }
+      lines.add(text.substring(start, lineEnd));
+      widths.add(prefixWidths[lineEnd - from] - prefixWidths[start - from]);
+      start = breakIndex;
+      while (start < to && text.charAt(start) <= ' ') {
+        start++;
+      }
+    }
+  }
+
+  /**
+   * Finds the index at which to break a line, using the prefix sums of the paragraph's advance
+   * widths.
+   *
+   * @param text The text containing the paragraph
+   * @param paragraphStart The index of the paragraph's first character
+   * @param start The index of the line's first character
+   * @param end The end of the paragraph
+   * @param limit The maximum width in glyph space
+   * @return The index at which to break the line
+   */
+  private int findBreakIndex(String text, int paragraphStart, int start, int end, float limit) {
+    // Largest index whose preceding characters still fit
+    float base = prefixWidths[start - paragraphStart];
+    int low = start;
+    int high = end;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (prefixWidths[mid - paragraphStart] - base <= limit) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    if (low == end) {
+      return end;
+    }
+    for (int i = low - 1; i >= start; i--) {
+      if (Character.isWhitespace(text.charAt(i))) {
+        return i + 1;
+      }
+    }
+    return Math.max(start + 1, low);
+  }
+
+  /**
+   * The lines of a text block and their widths in points.
+   *
+   * @param lines The lines, unmodifiable
+   * @param lineWidths The width of every line; must not be modified
+   */
+  public record WrappedText(List<String> lines, float[] lineWidths) {}
+}
@@ -1,17 +1,37 @@
 package de.bsommerfeld.neverlose.plan;
 
+import de.bsommerfeld.neverlose.plan.change.ModelChange.PropertyChanged;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeListener;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeSupport;
+import de.bsommerfeld.neverlose.plan.change.ModelProperty;
+import de.bsommerfeld.neverlose.plan.change.ObservableModel;
+import de.bsommerfeld.neverlose.plan.collection.Identifiable;
+import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
 import de.bsommerfeld.neverlose.plan.components.collection.TrainingUnits;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.SnapshotCache;
+import de.bsommerfeld.neverlose.plan.snapshot.Snapshottable;
+import de.bsommerfeld.neverlose.plan.snapshot.TrainingStats;
 import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Represents a training plan that consists of a collection of training units. A training plan is
  * identified by a unique ID and contains a name and description.
+ *
+ * <p>{@link #snapshot()} returns an immutable copy of the whole plan that can safely be handed to
+ * other threads, e.g. for exporting or saving in the background. The plan is not thread-safe: it
+ * is edited on a single thread, and snapshots and content hashes must be requested on that thread
+ * as well. Only the snapshots themselves may be used on other threads.
  */
-public class TrainingPlan {
+public class TrainingPlan implements Identifiable, Snapshottable<PlanSnapshot>, ObservableModel {
 
   private final UUID id;
   private final TrainingUnits trainingUnits;
+  private final SnapshotCache<PlanSnapshot> snapshotCache = new SnapshotCache<>();
+  private final ModelChangeSupport changeSupport = new ModelChangeSupport();
+  // Forwards the changes of the collection; only registered while this object has listeners
+  private final ModelChangeListener collectionChanged;
   private String name;
   private String description;
 
@@ -24,8 +44,14 @@ public class TrainingPlan {
     this.name = name;
     this.description = description;
     this.trainingUnits = trainingUnits;
+    trainingUnits.addInvalidationListener(snapshotCache::invalidate);
+    this.collectionChanged =
+        change ->
+            changeSupport.fire(
+                change.source() == trainingUnits ? change.withSource(this) : change);
   }
 
+  @Override
   public UUID getId() {
     return id;
   }
@@ -35,7 +61,9 @@ public class TrainingPlan {
   }
 
   public void setName(String name) {
+    String oldName = this.name;
     this.name = name;
+    changed(ModelProperty.NAME, oldName, name);
   }
 
   public String getDescription() {
@@ -43,26 +71,105 @@ public class TrainingPlan {
   }
 
   public void setDescription(String description) {
+    String oldDescription = this.description;
     this.description = description;
+    changed(ModelProperty.DESCRIPTION, oldDescription, description);
   }
 
   public TrainingUnits getTrainingUnits() {
     return trainingUnits;
   }
 
+  /**
+   * Creates a deep copy of this plan with fresh identifiers for the plan and all of its units and
+   * exercises, e.g. to duplicate a plan. The copy shares no mutable state with this plan.
+   *
+   * @param name the name of the copy
+   * @return the copy, not observed by anyone
+   */
+  public TrainingPlan copy(String name) {
+    TrainingUnits units = new TrainingUnits();
+    for (TrainingUnit unit : trainingUnits.getAll()) {
+      units.add(unit.copy());
+    }
+    return new TrainingPlan(UUID.randomUUID(), name, description, units);
+  }
+
+  /**
+   * Creates a deep copy of this plan under the same name, see {@link #copy(String)}.
+   *
+   * @return the copy, not observed by anyone
+   */
+  public TrainingPlan copy() {
+    return copy(name);
+  }
+
+  @Override
+  public PlanSnapshot snapshot() {
+    return snapshotCache.get(
+        () -> new PlanSnapshot(id, name, description, trainingUnits.snapshot()));
+  }
+
+  @Override
+  public void addInvalidationListener(Runnable listener) {
+    snapshotCache.addListener(listener);
+  }
+
+  @Override
+  public void removeInvalidationListener(Runnable listener) {
+    snapshotCache.removeListener(listener);
+  }
+
+  @Override
+  public void addChangeListener(ModelChangeListener listener) {
+    if (!changeSupport.hasListeners()) {
+      trainingUnits.addChangeListener(collectionChanged);
+    }
+    changeSupport.addListener(listener);
+  }
+
+  @Override
+  public void removeChangeListener(ModelChangeListener listener) {
+    changeSupport.removeListener(listener);
+    if (!changeSupport.hasListeners()) {
+      trainingUnits.removeChangeListener(collectionChanged);
+    }
+  }
+
+  private void changed(ModelProperty property, Object oldValue, Object newValue) {
+    if (Objects.equals(oldValue, newValue)) {
+      return;
+    }
+    snapshotCache.invalidate();
+    changeSupport.fire(() -> new PropertyChanged(this, property, oldValue, newValue));
+  }
+
+  /**
+   * Returns the content hash of the current state. Equal training plans always have the same hash;
+   * it is maintained incrementally, see {@link PlanSnapshot#contentHash()}.
+   */
+  public long contentHash() {
+    return snapshot().contentHash();
+  }
+
+  /**
+   * Returns the total time, sets and ball-bucket exercises of the plan. Like the content hash they
+   * are maintained incrementally, so this does not walk all exercises after every edit.
+   */
+  public TrainingStats stats() {
+    return snapshot().stats();
+  }
+
   @Override
   public boolean equals(Object o) {
+    if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
-    TrainingPlan that = (TrainingPlan) o;
-    return Objects.equals(id, that.id)
-        && Objects.equals(name, that.name)
-        && Objects.equals(description, that.description)
-        && Objects.equals(trainingUnits, that.trainingUnits);
+    return snapshot().equals(((TrainingPlan) o).snapshot());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, name, description, trainingUnits);
+    return snapshot().hashCode();
   }
 
   @Override
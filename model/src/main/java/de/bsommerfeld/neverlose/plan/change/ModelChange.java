@@ -0,0 +1,58 @@
+package de.bsommerfeld.neverlose.plan.change;
+
+/**
+ * A single change of the training model.
+ *
+ * <p>The {@link #source()} is the model object whose state changed: the plan, unit or exercise
+ * for property changes, and the plan or unit owning the collection for item changes. Changes
+ * bubble up from exercises to their unit and from units to their plan, so a listener on a plan
+ * sees every change within it.
+ */
+public sealed interface ModelChange
+    permits ModelChange.PropertyChanged,
+        ModelChange.ItemAdded,
+        ModelChange.ItemRemoved,
+        ModelChange.ItemMoved {
+
+  Object source();
+
+  /** Returns the same change reported for another source. */
+  ModelChange withSource(Object source);
+
+  /** A scalar property changed from {@code oldValue} to {@code newValue}. */
+  record PropertyChanged(Object source, ModelProperty property, Object oldValue, Object newValue)
+      implements ModelChange {
+
+    @Override
+    public PropertyChanged withSource(Object source) {
+      return new PropertyChanged(source, property, oldValue, newValue);
+    }
+  }
+
+  /** An item was inserted at {@code index}. */
+  record ItemAdded(Object source, Object item, int index) implements ModelChange {
+
+    @Override
+    public ItemAdded withSource(Object source) {
+      return new ItemAdded(source, item, index);
+    }
+  }
+
+  /** An item was removed from {@code index}. */
+  record ItemRemoved(Object source, Object item, int index) implements ModelChange {
+
+    @Override
+    public ItemRemoved withSource(Object source) {
+      return new ItemRemoved(source, item, index);
+    }
+  }
+
+  /** An item was moved from {@code fromIndex} to {@code toIndex}. */
+  record ItemMoved(Object source, Object item, int fromIndex, int toIndex) implements ModelChange {
+
+    @Override
+    public ItemMoved withSource(Object source) {
+      return new ItemMoved(source, item, fromIndex, toIndex);
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package de.bsommerfeld.neverlose.plan.change;
+
+/** Receives the changes of an {@link ObservableModel}. Called on the thread that made the change. */
+@FunctionalInterface
+public interface ModelChangeListener {
+
+  void modelChanged(ModelChange change);
+}
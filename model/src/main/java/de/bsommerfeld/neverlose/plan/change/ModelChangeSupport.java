@@ -0,0 +1,44 @@
+package de.bsommerfeld.neverlose.plan.change;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Manages the listeners of an {@link ObservableModel} and dispatches changes to them, similar to
+ * {@link java.beans.PropertyChangeSupport}.
+ */
+public final class ModelChangeSupport {
+
+  private final List<ModelChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+  public void addListener(ModelChangeListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(ModelChangeListener listener) {
+    listeners.remove(listener);
+  }
+
+  public boolean hasListeners() {
+    return !listeners.isEmpty();
+  }
+
+  /**
+   * Dispatches a change to all listeners. The change is only created if there is a listener.
+   *
+   * @param change creates the change
+   */
+  public void fire(Supplier<? extends ModelChange> change) {
+    if (listeners.isEmpty()) {
+      return;
+    }
+    fire(change.get());
+  }
+
+  public void fire(ModelChange change) {
+    for (ModelChangeListener listener : listeners) {
+      listener.modelChanged(change);
+    }
+  }
+}
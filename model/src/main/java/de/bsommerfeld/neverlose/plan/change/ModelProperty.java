@@ -0,0 +1,11 @@
+package de.bsommerfeld.neverlose.plan.change;
+
+/** The editable scalar properties of the training model. */
+public enum ModelProperty {
+  NAME,
+  DESCRIPTION,
+  WEEKDAY,
+  DURATION,
+  SETS,
+  BALL_BUCKET
+}
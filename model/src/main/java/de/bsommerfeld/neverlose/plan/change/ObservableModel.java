@@ -0,0 +1,13 @@
+package de.bsommerfeld.neverlose.plan.change;
+
+/**
+ * A model object that reports its changes, including those of its children, to registered
+ * listeners. Observation is opt-in: containers only subscribe to their children while they have
+ * listeners themselves, so an unobserved model does no event work at all.
+ */
+public interface ObservableModel {
+
+  void addChangeListener(ModelChangeListener listener);
+
+  void removeChangeListener(ModelChangeListener listener);
+}
@@ -1,44 +1,300 @@
 package de.bsommerfeld.neverlose.plan.collection;
 
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemAdded;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemMoved;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemRemoved;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeListener;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeSupport;
+import de.bsommerfeld.neverlose.plan.change.ObservableModel;
+import de.bsommerfeld.neverlose.plan.snapshot.SnapshotCache;
+import de.bsommerfeld.neverlose.plan.snapshot.Snapshottable;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
 
-public abstract class BaseCollectionObject<T> implements CollectionObject<T> {
+/**
+ * Ordered collection of model objects with an index by identifier.
+ * <p>
+ * The elements are kept in a doubly linked list, and a hash map from identifier to list node makes lookups by
+ * identifier, {@link #contains(Object)}, {@link #remove(Object)}, {@link #moveBefore(Object, Object)} and
+ * {@link #moveAfter(Object, Object)} constant-time. Membership is based on identity: an element is only found if it is
+ * the very instance that was added, so no deep {@code equals} is ever evaluated. Identifiers must be unique within a
+ * collection.
+ * <p>
+ * {@link #getAll()} returns an immutable copy that is cached until the order changes. Positions are only computed (in
+ * linear time) for {@link #move(Object, int)} and for change events while someone observes the collection.
+ */
+public abstract class BaseCollectionObject<T extends Identifiable & Snapshottable<?> & ObservableModel>
+        implements CollectionObject<T>, ObservableModel {
 
-    protected final List<T> list;
+    private final Map<UUID, Node<T>> nodesById = new HashMap<>();
+    private Node<T> head;
+    private Node<T> tail;
+    // Immutable copy of the elements in order, null after a structural change
+    private List<T> elements = List.of();
+
+    private final SnapshotCache<List<?>> snapshotCache = new SnapshotCache<>();
+    private final Runnable elementInvalidated = snapshotCache::invalidate;
+    private final ModelChangeSupport changeSupport = new ModelChangeSupport();
+    private final ModelChangeListener elementChanged = changeSupport::fire;
 
     protected BaseCollectionObject() {
-        this.list = new ArrayList<>();
     }
 
+    /**
+     * Appends an element. Null elements are ignored.
+     *
+     * @throws IllegalArgumentException if an element with the same identifier is already part of this collection
+     */
     @Override
     public void add(T object) {
-        if (object != null) {
-            this.list.add(object);
+        if (object == null) {
+            return;
+        }
+        if (nodesById.containsKey(object.getId())) {
+            throw new IllegalArgumentException("An element with id " + object.getId() + " is already in the collection");
         }
+        Node<T> node = new Node<>(object);
+        nodesById.put(object.getId(), node);
+        linkBefore(node, null);
+        object.addInvalidationListener(elementInvalidated);
+        if (changeSupport.hasListeners()) {
+            object.addChangeListener(elementChanged);
+        }
+        structureChanged();
+        int index = nodesById.size() - 1;
+        changeSupport.fire(() -> new ItemAdded(this, object, index));
     }
 
     @Override
     public boolean remove(T object) {
-        return this.list.remove(object);
+        Node<T> node = nodeOf(object);
+        if (node == null) {
+            return false;
+        }
+        int index = changeSupport.hasListeners() ? indexOf(node) : -1;
+        unlink(node);
+        nodesById.remove(object.getId());
+        object.removeInvalidationListener(elementInvalidated);
+        object.removeChangeListener(elementChanged);
+        structureChanged();
+        changeSupport.fire(() -> new ItemRemoved(this, object, index));
+        return true;
+    }
+
+    /**
+     * Moves an element to another position, shifting the elements in between. Takes linear time to find the position;
+     * prefer {@link #moveBefore(Object, Object)} or {@link #moveAfter(Object, Object)} when the neighbour is known.
+     *
+     * @return true if the element was found and its position changed
+     * @throws IndexOutOfBoundsException if toIndex is not a valid position
+     */
+    @Override
+    public boolean move(T object, int toIndex) {
+        Node<T> node = nodeOf(object);
+        if (node == null) {
+            return false;
+        }
+        Objects.checkIndex(toIndex, nodesById.size());
+        int fromIndex = indexOf(node);
+        if (fromIndex == toIndex) {
+            return false;
+        }
+        // Find the node that will follow the element once it is at toIndex
+        Node<T> successor = head;
+        for (int i = 0; i < toIndex; i++) {
+            successor = successor.next;
+        }
+        if (toIndex > fromIndex) {
+            successor = successor.next;
+        }
+        relink(node, successor, fromIndex, toIndex);
+        return true;
+    }
+
+    /**
+     * Moves an element directly in front of another element of this collection.
+     *
+     * @return true if both elements were found and the position changed
+     */
+    @Override
+    public boolean moveBefore(T object, T successor) {
+        Node<T> node = nodeOf(object);
+        Node<T> successorNode = nodeOf(successor);
+        if (node == null || successorNode == null || node == successorNode || node.next == successorNode) {
+            return false;
+        }
+        int fromIndex = changeSupport.hasListeners() ? indexOf(node) : -1;
+        relink(node, successorNode, fromIndex, -1);
+        return true;
     }
 
+    /**
+     * Moves an element directly behind another element of this collection.
+     *
+     * @return true if both elements were found and the position changed
+     */
+    @Override
+    public boolean moveAfter(T object, T predecessor) {
+        Node<T> node = nodeOf(object);
+        Node<T> predecessorNode = nodeOf(predecessor);
+        if (node == null || predecessorNode == null || node == predecessorNode || predecessorNode.next == node) {
+            return false;
+        }
+        int fromIndex = changeSupport.hasListeners() ? indexOf(node) : -1;
+        relink(node, predecessorNode.next, fromIndex, -1);
+        return true;
+    }
+
+    @Override
+    public Optional<T> findById(UUID id) {
+        Node<T> node = nodesById.get(id);
+        return node == null ? Optional.empty() : Optional.of(node.element);
+    }
+
+    /** Returns an immutable list of all elements in order. The list does not reflect later changes. */
     @Override
     public List<T> getAll() {
-        // Return an unmodifiable view for safe external reading
-        return Collections.unmodifiableList(list);
+        List<T> all = elements;
+        if (all == null) {
+            List<T> ordered = new ArrayList<>(nodesById.size());
+            for (Node<T> node = head; node != null; node = node.next) {
+                ordered.add(node.element);
+            }
+            all = List.copyOf(ordered);
+            elements = all;
+        }
+        return all;
     }
 
     @Override
     public boolean isEmpty() {
-        return list.isEmpty();
+        return nodesById.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return nodesById.size();
     }
 
     @Override
     public boolean contains(T object) {
-        return this.list.contains(object);
+        return nodeOf(object) != null;
+    }
+
+    /**
+     * Returns the snapshots of all elements in order. The list is cached until an element is added,
+     * removed, moved or changed; unchanged element snapshots are reused when it is rebuilt.
+     */
+    @SuppressWarnings("unchecked")
+    protected <S> List<S> snapshotElements(Function<T, S> snapshotter) {
+        return (List<S>) snapshotCache.get(() -> {
+            List<S> snapshots = new ArrayList<>(nodesById.size());
+            for (Node<T> node = head; node != null; node = node.next) {
+                snapshots.add(snapshotter.apply(node.element));
+            }
+            return List.copyOf(snapshots);
+        });
+    }
+
+    /** Registers a listener that is run when the cached element snapshots become outdated. */
+    public void addInvalidationListener(Runnable listener) {
+        snapshotCache.addListener(listener);
+    }
+
+    public void removeInvalidationListener(Runnable listener) {
+        snapshotCache.removeListener(listener);
+    }
+
+    /**
+     * Registers a listener for items being added, removed or moved, and for changes of the items
+     * themselves. The collection only subscribes to its elements while it has listeners.
+     */
+    @Override
+    public void addChangeListener(ModelChangeListener listener) {
+        if (!changeSupport.hasListeners()) {
+            for (Node<T> node = head; node != null; node = node.next) {
+                node.element.addChangeListener(elementChanged);
+            }
+        }
+        changeSupport.addListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ModelChangeListener listener) {
+        changeSupport.removeListener(listener);
+        if (!changeSupport.hasListeners()) {
+            for (Node<T> node = head; node != null; node = node.next) {
+                node.element.removeChangeListener(elementChanged);
+            }
+        }
+    }
+
+    private Node<T> nodeOf(T object) {
+        if (object == null) {
+            return null;
+        }
+        Node<T> node = nodesById.get(object.getId());
+        return node != null && node.element == object ? node : null;
+    }
+
+    private int indexOf(Node<T> target) {
+        int index = 0;
+        for (Node<T> node = head; node != target; node = node.next) {
+            index++;
+        }
+        return index;
+    }
+
+    /** Moves a node in front of successor (or to the end if successor is null) and reports the move. */
+    private void relink(Node<T> node, Node<T> successor, int fromIndex, int knownToIndex) {
+        unlink(node);
+        linkBefore(node, successor);
+        structureChanged();
+        T moved = node.element;
+        changeSupport.fire(() -> new ItemMoved(this, moved, fromIndex,
+                knownToIndex >= 0 ? knownToIndex : indexOf(node)));
+    }
+
+    private void linkBefore(Node<T> node, Node<T> successor) {
+        Node<T> predecessor = successor == null ? tail : successor.previous;
+        node.previous = predecessor;
+        node.next = successor;
+        if (predecessor == null) {
+            head = node;
+        } else {
+            predecessor.next = node;
+        }
+        if (successor == null) {
+            tail = node;
+        } else {
+            successor.previous = node;
+        }
+    }
+
+    private void unlink(Node<T> node) {
+        if (node.previous == null) {
+            head = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+    }
+
+    private void structureChanged() {
+        elements = null;
+        snapshotCache.invalidate();
     }
 
     @Override
@@ -46,11 +302,21 @@ public abstract class BaseCollectionObject<T> implements CollectionObject<T> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         BaseCollectionObject<?> that = (BaseCollectionObject<?>) o;
-        return Objects.equals(list, that.list);
+        return Objects.equals(getAll(), that.getAll());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(list);
+        return Objects.hash(getAll());
+    }
+
+    private static final class Node<T> {
+        private final T element;
+        private Node<T> previous;
+        private Node<T> next;
+
+        private Node(T element) {
+            this.element = element;
+        }
     }
 }
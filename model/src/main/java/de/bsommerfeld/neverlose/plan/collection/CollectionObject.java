@@ -1,11 +1,18 @@
 package de.bsommerfeld.neverlose.plan.collection;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 public interface CollectionObject<T> {
     void add(T object);
     boolean remove(T object);
+    boolean move(T object, int toIndex);
+    boolean moveBefore(T object, T successor);
+    boolean moveAfter(T object, T predecessor);
+    Optional<T> findById(UUID id);
     List<T> getAll();
     boolean contains(T object);
     boolean isEmpty();
+    int size();
 }
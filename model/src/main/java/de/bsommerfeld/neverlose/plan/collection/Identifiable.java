@@ -0,0 +1,8 @@
+package de.bsommerfeld.neverlose.plan.collection;
+
+import java.util.UUID;
+
+/** A model object with a stable unique identifier. */
+public interface Identifiable {
+    UUID getId();
+}
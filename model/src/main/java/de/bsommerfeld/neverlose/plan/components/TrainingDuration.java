@@ -0,0 +1,123 @@
+package de.bsommerfeld.neverlose.plan.components;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the free-text duration of a {@link TrainingExercise} (e.g. "30 min", "1h 15min", "1:30",
+ * "3x10 min", "45 Sek.") into a {@link Duration}.
+ * <p>
+ * A number standing on its own is interpreted as minutes, as that is what coaches enter most of the
+ * time; a number followed by any other word counts something else ("2 sets of 10 min") and is
+ * ignored. A unit only counts as a whole word, so "Sätze" is not read as seconds. A clock value is
+ * read like a stopwatch: "m:ss" is minutes and seconds ("1:30" is 90 seconds) and "h:mm:ss" adds
+ * hours. An amount is multiplied by an explicit factor before or after it ("3x10 min",
+ * "10 mal 1 min", "5 min x 3"). For ranges such as "10-15 min" the upper bound is used, so that
+ * plans are never calculated too short. Anything that cannot be interpreted yields an empty result
+ * and is left out of totals.
+ * <p>
+ * Parsing is not free, so {@link TrainingExercise#getParsedDuration()} caches the result per
+ * exercise.
+ */
+public final class TrainingDuration {
+
+    private static final Pattern CLOCK = Pattern.compile("^(?:(\\d{1,2}):)?(\\d{1,3}):([0-5]\\d)$");
+    private static final Pattern MALFORMED_CLOCK = Pattern.compile("\\d\\s*:\\s*\\d");
+    private static final Pattern RANGE = Pattern.compile("(\\d+)\\s*(?:-|–|bis|to)\\s*(\\d+)");
+    private static final String UNIT =
+            "h|hrs?|hours?|std|stunden?|m|mins?|minutes?|minuten?|s|secs?|seconds?|sek|sekunden?";
+    private static final String FACTOR = "(?:[x×*]|mal|times)(?!\\p{L})";
+    // An optional leading factor ("3x"), the amount, and its unit with an optional trailing factor
+    // ("min x 3"); a factor without an amount is ignored
+    private static final Pattern AMOUNT = Pattern.compile(
+            "(?:(\\d+)\\s*" + FACTOR + "\\s*)?"
+                    + "(\\d+(?:[.,]\\d+)?)(?![.,]?\\d|\\s*" + FACTOR + ")"
+                    + "(?:\\s*(" + UNIT + ")(?!\\p{L})\\.?(?:\\s*" + FACTOR + "\\s*(\\d+)(?![.,]?\\d))?)?");
+    private static final Pattern WORD = Pattern.compile("\\s*\\p{L}");
+
+    private TrainingDuration() {
+    }
+
+    /**
+     * Parses the given duration text.
+     *
+     * @param text the duration as entered by the user, may be null
+     * @return the parsed duration, or an empty Optional if the text could not be interpreted
+     */
+    public static Optional<Duration> parse(String text) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+        String normalized = text.trim().toLowerCase(Locale.ROOT);
+
+        Matcher clock = CLOCK.matcher(normalized);
+        if (clock.matches()) {
+            long hours = clock.group(1) == null ? 0 : Long.parseLong(clock.group(1));
+            return Optional.of(Duration.ofHours(hours)
+                    .plusMinutes(Long.parseLong(clock.group(2)))
+                    .plusSeconds(Long.parseLong(clock.group(3))));
+        }
+        if (MALFORMED_CLOCK.matcher(normalized).find()) {
+            return Optional.empty();
+        }
+
+        // Replace "10-15" by its upper bound, keeping any unit that follows
+        normalized = RANGE.matcher(normalized).replaceAll("$2");
+
+        Matcher amount = AMOUNT.matcher(normalized);
+        Duration total = Duration.ZERO;
+        boolean found = false;
+        while (amount.find()) {
+            String unit = amount.group(3);
+            if (unit == null && WORD.matcher(normalized).region(amount.end(), normalized.length()).lookingAt()) {
+                continue; // Counts something else, e.g. "2 sets of 10 min"
+            }
+            double value = Double.parseDouble(amount.group(2).replace(',', '.'));
+            long factor = factor(amount.group(1)) * factor(amount.group(4));
+            total = total.plus(toDuration(value, unit).multipliedBy(factor));
+            found = true;
+        }
+        return found ? Optional.of(total) : Optional.empty();
+    }
+
+    /**
+     * Formats a duration compactly, e.g. "1 h 25 min", "45 min" or "30 s". The units are the same
+     * in all supported languages.
+     *
+     * @param duration the duration to format
+     * @return the formatted duration
+     */
+    public static String format(Duration duration) {
+        long hours = duration.toHours();
+        int minutes = duration.toMinutesPart();
+        int seconds = duration.toSecondsPart();
+        StringBuilder text = new StringBuilder();
+        if (hours > 0) {
+            text.append(hours).append(" h");
+        }
+        if (minutes > 0) {
+            text.append(text.isEmpty() ? "" : " ").append(minutes).append(" min");
+        }
+        if (seconds > 0 || text.isEmpty()) {
+            text.append(text.isEmpty() ? "" : " ").append(seconds).append(" s");
+        }
+        return text.toString();
+    }
+
+    private static long factor(String text) {
+        return text == null ? 1 : Long.parseLong(text);
+    }
+
+    private static Duration toDuration(double value, String unit) {
+        if (unit == null || unit.startsWith("m")) {
+            return Duration.ofSeconds(Math.round(value * 60));
+        }
+        if (unit.startsWith("h") || unit.startsWith("st")) {
+            return Duration.ofSeconds(Math.round(value * 3600));
+        }
+        return Duration.ofSeconds(Math.round(value));
+    }
+}
@@ -1,6 +1,17 @@
 package de.bsommerfeld.neverlose.plan.components;
 
+import de.bsommerfeld.neverlose.plan.change.ModelChange.PropertyChanged;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeListener;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeSupport;
+import de.bsommerfeld.neverlose.plan.change.ModelProperty;
+import de.bsommerfeld.neverlose.plan.change.ObservableModel;
+import de.bsommerfeld.neverlose.plan.collection.Identifiable;
+import de.bsommerfeld.neverlose.plan.snapshot.ExerciseSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.SnapshotCache;
+import de.bsommerfeld.neverlose.plan.snapshot.Snapshottable;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -18,15 +29,19 @@ import java.util.UUID;
  * This class provides methods to access and modify these properties,
  * as well as methods to compare and represent the exercise as a string.
  */
-public class TrainingExercise {
+public class TrainingExercise implements Identifiable, Snapshottable<ExerciseSnapshot>, ObservableModel {
 
     private final UUID id;
+    private final SnapshotCache<ExerciseSnapshot> snapshotCache = new SnapshotCache<>();
+    private final ModelChangeSupport changeSupport = new ModelChangeSupport();
 
     private String name;
     private String description;
     private String duration;
     private int sets;
     private boolean ballBucket;
+    // Parsed lazily from duration and reset whenever it changes; null until parsed
+    private Optional<Duration> parsedDuration;
 
     public TrainingExercise(String name, String description, String duration, int sets, boolean ballBucket) {
         this(UUID.randomUUID(), name, description, duration, sets, ballBucket);
@@ -41,6 +56,7 @@ public class TrainingExercise {
         this.ballBucket = ballBucket;
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -50,7 +66,9 @@ public class TrainingExercise {
     }
 
     public void setName(String name) {
+        String oldName = this.name;
         this.name = name;
+        changed(ModelProperty.NAME, oldName, name);
     }
 
     public String getDescription() {
@@ -58,7 +76,9 @@ public class TrainingExercise {
     }
 
     public void setDescription(String description) {
+        String oldDescription = this.description;
         this.description = description;
+        changed(ModelProperty.DESCRIPTION, oldDescription, description);
     }
 
     public String getDuration() {
@@ -66,7 +86,23 @@ public class TrainingExercise {
     }
 
     public void setDuration(String duration) {
+        String oldDuration = this.duration;
         this.duration = duration;
+        this.parsedDuration = null;
+        changed(ModelProperty.DURATION, oldDuration, duration);
+    }
+
+    /**
+     * Returns the duration interpreted by {@link TrainingDuration}. It is parsed once and cached
+     * until the duration text changes.
+     *
+     * @return the parsed duration, or an empty Optional if the text could not be interpreted
+     */
+    public Optional<Duration> getParsedDuration() {
+        if (parsedDuration == null) {
+            parsedDuration = TrainingDuration.parse(duration);
+        }
+        return parsedDuration;
     }
 
     public int getSets() {
@@ -74,7 +110,9 @@ public class TrainingExercise {
     }
 
     public void setSets(int sets) {
+        int oldSets = this.sets;
         this.sets = sets;
+        changed(ModelProperty.SETS, oldSets, sets);
     }
 
     public boolean isBallBucket() {
@@ -82,24 +120,76 @@ public class TrainingExercise {
     }
 
     public void setBallBucket(boolean ballBucket) {
+        boolean oldBallBucket = this.ballBucket;
         this.ballBucket = ballBucket;
+        changed(ModelProperty.BALL_BUCKET, oldBallBucket, ballBucket);
+    }
+
+    /**
+     * Creates a deep copy of this exercise with a fresh identifier, e.g. to add it from a template
+     * or to another unit. The parsed duration is carried over instead of being parsed again.
+     *
+     * @return the copy, not observed by anyone
+     */
+    public TrainingExercise copy() {
+        TrainingExercise copy = new TrainingExercise(name, description, duration, sets, ballBucket);
+        copy.parsedDuration = parsedDuration;
+        return copy;
+    }
+
+    @Override
+    public ExerciseSnapshot snapshot() {
+        return snapshotCache.get(
+                () -> new ExerciseSnapshot(id, name, description, duration,
+                        getParsedDuration().orElse(null), sets, ballBucket));
+    }
+
+    @Override
+    public void addInvalidationListener(Runnable listener) {
+        snapshotCache.addListener(listener);
+    }
+
+    @Override
+    public void removeInvalidationListener(Runnable listener) {
+        snapshotCache.removeListener(listener);
+    }
+
+    @Override
+    public void addChangeListener(ModelChangeListener listener) {
+        changeSupport.addListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ModelChangeListener listener) {
+        changeSupport.removeListener(listener);
+    }
+
+    private void changed(ModelProperty property, Object oldValue, Object newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        snapshotCache.invalidate();
+        changeSupport.fire(() -> new PropertyChanged(this, property, oldValue, newValue));
+    }
+
+    /**
+     * Returns the content hash of the current state. Equal training exercises always have the same
+     * hash; it is maintained incrementally, see {@link ExerciseSnapshot#contentHash()}.
+     */
+    public long contentHash() {
+        return snapshot().contentHash();
     }
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        TrainingExercise that = (TrainingExercise) o;
-        return sets == that.sets &&
-                ballBucket == that.ballBucket &&
-                Objects.equals(id, that.id) &&
-                Objects.equals(name, that.name) &&
-                Objects.equals(description, that.description) &&
-                Objects.equals(duration, that.duration);
+        return snapshot().equals(((TrainingExercise) o).snapshot());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, description, duration, sets, ballBucket);
+        return snapshot().hashCode();
     }
 
     @Override
@@ -1,6 +1,16 @@
 package de.bsommerfeld.neverlose.plan.components;
 
+import de.bsommerfeld.neverlose.plan.change.ModelChange.PropertyChanged;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeListener;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeSupport;
+import de.bsommerfeld.neverlose.plan.change.ModelProperty;
+import de.bsommerfeld.neverlose.plan.change.ObservableModel;
+import de.bsommerfeld.neverlose.plan.collection.Identifiable;
 import de.bsommerfeld.neverlose.plan.components.collection.TrainingExercises;
+import de.bsommerfeld.neverlose.plan.snapshot.SnapshotCache;
+import de.bsommerfeld.neverlose.plan.snapshot.Snapshottable;
+import de.bsommerfeld.neverlose.plan.snapshot.TrainingStats;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -10,10 +20,14 @@ import java.util.UUID;
  * <p>
  * A training unit is designed to organize and group specific exercises for a particular day.
  */
-public class TrainingUnit {
+public class TrainingUnit implements Identifiable, Snapshottable<UnitSnapshot>, ObservableModel {
 
     private final UUID id;
     private final TrainingExercises trainingExercises;
+    private final SnapshotCache<UnitSnapshot> snapshotCache = new SnapshotCache<>();
+    private final ModelChangeSupport changeSupport = new ModelChangeSupport();
+    // Forwards the changes of the collection; only registered while this object has listeners
+    private final ModelChangeListener collectionChanged;
     private String name;
     private String description;
     private Weekday weekday;
@@ -28,8 +42,12 @@ public class TrainingUnit {
         this.description = description;
         this.weekday = weekday;
         this.trainingExercises = trainingExercises;
+        trainingExercises.addInvalidationListener(snapshotCache::invalidate);
+        this.collectionChanged = change -> changeSupport.fire(
+                change.source() == trainingExercises ? change.withSource(this) : change);
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -39,7 +57,9 @@ public class TrainingUnit {
     }
 
     public void setName(String name) {
+        String oldName = this.name;
         this.name = name;
+        changed(ModelProperty.NAME, oldName, name);
     }
 
     public String getDescription() {
@@ -47,7 +67,9 @@ public class TrainingUnit {
     }
 
     public void setDescription(String description) {
+        String oldDescription = this.description;
         this.description = description;
+        changed(ModelProperty.DESCRIPTION, oldDescription, description);
     }
 
     public Weekday getWeekday() {
@@ -55,27 +77,94 @@ public class TrainingUnit {
     }
 
     public void setWeekday(Weekday weekday) {
+        Weekday oldWeekday = this.weekday;
         this.weekday = weekday;
+        changed(ModelProperty.WEEKDAY, oldWeekday, weekday);
     }
 
     public TrainingExercises getTrainingExercises() {
         return trainingExercises;
     }
 
+    /**
+     * Creates a deep copy of this unit with fresh identifiers for the unit and all of its exercises,
+     * so that the copy can be added to any plan, including the one this unit belongs to.
+     *
+     * @return the copy, not observed by anyone
+     */
+    public TrainingUnit copy() {
+        TrainingExercises exercises = new TrainingExercises();
+        for (TrainingExercise exercise : trainingExercises.getAll()) {
+            exercises.add(exercise.copy());
+        }
+        return new TrainingUnit(UUID.randomUUID(), name, description, weekday, exercises);
+    }
+
+    @Override
+    public UnitSnapshot snapshot() {
+        return snapshotCache.get(
+                () -> new UnitSnapshot(id, name, description, weekday, trainingExercises.snapshot()));
+    }
+
+    @Override
+    public void addInvalidationListener(Runnable listener) {
+        snapshotCache.addListener(listener);
+    }
+
+    @Override
+    public void removeInvalidationListener(Runnable listener) {
+        snapshotCache.removeListener(listener);
+    }
+
+    @Override
+    public void addChangeListener(ModelChangeListener listener) {
+        if (!changeSupport.hasListeners()) {
+            trainingExercises.addChangeListener(collectionChanged);
+        }
+        changeSupport.addListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ModelChangeListener listener) {
+        changeSupport.removeListener(listener);
+        if (!changeSupport.hasListeners()) {
+            trainingExercises.removeChangeListener(collectionChanged);
+        }
+    }
+
+    private void changed(ModelProperty property, Object oldValue, Object newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        snapshotCache.invalidate();
+        changeSupport.fire(() -> new PropertyChanged(this, property, oldValue, newValue));
+    }
+
+    /**
+     * Returns the content hash of the current state. Equal training units always have the same
+     * hash; it is maintained incrementally, see {@link UnitSnapshot#contentHash()}.
+     */
+    public long contentHash() {
+        return snapshot().contentHash();
+    }
+
+    /**
+     * Returns the total time, sets and ball-bucket exercises of this unit, see {@link TrainingStats}.
+     */
+    public TrainingStats stats() {
+        return snapshot().stats();
+    }
+
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        TrainingUnit that = (TrainingUnit) o;
-        return Objects.equals(id, that.id) &&
-                Objects.equals(name, that.name) &&
-                Objects.equals(description, that.description) &&
-                weekday == that.weekday &&
-                Objects.equals(trainingExercises, that.trainingExercises);
+        return snapshot().equals(((TrainingUnit) o).snapshot());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, description, weekday, trainingExercises);
+        return snapshot().hashCode();
     }
 
     @Override
@@ -1,5 +1,7 @@
 package de.bsommerfeld.neverlose.plan.components;
 
+import java.time.DayOfWeek;
+
 /**
  * Represents the days of the week as an enumeration.
  * Each constant corresponds to a day, with an associated display name.
@@ -20,6 +22,15 @@ public enum Weekday {
         this.displayName = displayName;
     }
 
+    /**
+     * Returns the corresponding {@link DayOfWeek}, e.g. to project a unit onto calendar dates.
+     *
+     * @return the day of the week
+     */
+    public DayOfWeek toDayOfWeek() {
+        return DayOfWeek.valueOf(name());
+    }
+
     @Override
     public String toString() {
         return displayName;
@@ -2,6 +2,14 @@ package de.bsommerfeld.neverlose.plan.components.collection;
 
 import de.bsommerfeld.neverlose.plan.collection.BaseCollectionObject;
 import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
+import de.bsommerfeld.neverlose.plan.snapshot.ExerciseSnapshot;
+import java.util.List;
 
 /** A class that manages a collection of training exercises. */
-public class TrainingExercises extends BaseCollectionObject<TrainingExercise> {}
+public class TrainingExercises extends BaseCollectionObject<TrainingExercise> {
+
+  /** Returns the snapshots of all exercises in order. */
+  public List<ExerciseSnapshot> snapshot() {
+    return snapshotElements(TrainingExercise::snapshot);
+  }
+}
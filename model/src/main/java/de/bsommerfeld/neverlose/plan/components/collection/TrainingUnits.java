@@ -2,6 +2,14 @@ package de.bsommerfeld.neverlose.plan.components.collection;
 
 import de.bsommerfeld.neverlose.plan.collection.BaseCollectionObject;
 import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
+import java.util.List;
 
 /** A class that manages a collection of training units. */
-public class TrainingUnits extends BaseCollectionObject<TrainingUnit> {}
+public class TrainingUnits extends BaseCollectionObject<TrainingUnit> {
+
+  /** Returns the snapshots of all units in order. */
+  public List<UnitSnapshot> snapshot() {
+    return snapshotElements(TrainingUnit::snapshot);
+  }
+}
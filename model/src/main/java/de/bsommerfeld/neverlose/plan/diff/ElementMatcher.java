@@ -0,0 +1,206 @@
+package de.bsommerfeld.neverlose.plan.diff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Pairs the elements of two versions of a list: first by ID, then by equal name and finally by
+ * name similarity, so that elements of copies with fresh IDs are still recognized.
+ *
+ * <p>The first two passes are hash lookups. The similarity pass only scores elements that share a
+ * distinctive character bigram, i.e. one that does not occur in too many names, which keeps
+ * matching near-linear even for lists with hundreds of elements.
+ */
+final class ElementMatcher {
+
+  /** The minimum Dice coefficient over the name bigrams for two elements to be matched. */
+  private static final double MIN_SIMILARITY = 0.6;
+
+  /** Bigrams shared by more candidates than this are not used to find candidates. */
+  private static final int MAX_BIGRAM_CANDIDATES = 64;
+
+  private ElementMatcher() {}
+
+  /**
+   * Matches the elements of two lists.
+   *
+   * @param left the elements of one version
+   * @param right the elements of the other version
+   * @param id the ID of an element
+   * @param name the name of an element, may return null
+   * @return a map from every matched right element to its left element, compared by identity
+   */
+  static <T> Map<T, T> match(
+      List<T> left, List<T> right, Function<T, UUID> id, Function<T, String> name) {
+    Map<T, T> matches = new IdentityHashMap<>();
+    Set<T> unmatchedLeft = identitySet(left);
+
+    Map<UUID, T> leftById = new HashMap<>();
+    for (T element : left) {
+      leftById.putIfAbsent(id.apply(element), element);
+    }
+    List<T> unmatchedRight = new ArrayList<>();
+    for (T element : right) {
+      T partner = leftById.get(id.apply(element));
+      if (partner != null && unmatchedLeft.remove(partner)) {
+        matches.put(element, partner);
+      } else {
+        unmatchedRight.add(element);
+      }
+    }
+    if (unmatchedLeft.isEmpty() || unmatchedRight.isEmpty()) {
+      return matches;
+    }
+
+    Map<String, Deque<T>> leftByName = new HashMap<>();
+    for (T element : unmatchedLeft) {
+      leftByName
+          .computeIfAbsent(normalize(name.apply(element)), key -> new ArrayDeque<>())
+          .add(element);
+    }
+    List<T> stillUnmatched = new ArrayList<>();
+    for (T element : unmatchedRight) {
+      Deque<T> sameName = leftByName.get(normalize(name.apply(element)));
+      T partner = sameName != null ? sameName.poll() : null;
+      if (partner != null) {
+        unmatchedLeft.remove(partner);
+        matches.put(element, partner);
+      } else {
+        stillUnmatched.add(element);
+      }
+    }
+    if (!unmatchedLeft.isEmpty() && !stillUnmatched.isEmpty()) {
+      matchSimilar(unmatchedLeft, stillUnmatched, name, matches);
+    }
+    return matches;
+  }
+
+  private static <T> void matchSimilar(
+      Set<T> unmatchedLeft, List<T> right, Function<T, String> name, Map<T, T> matches) {
+    Map<String, List<T>> leftByBigram = new HashMap<>();
+    Map<T, Set<String>> leftBigrams = new IdentityHashMap<>();
+    for (T element : unmatchedLeft) {
+      Set<String> bigrams = bigrams(name.apply(element));
+      leftBigrams.put(element, bigrams);
+      for (String bigram : bigrams) {
+        leftByBigram.computeIfAbsent(bigram, key -> new ArrayList<>()).add(element);
+      }
+    }
+
+    for (T element : right) {
+      Set<String> bigrams = bigrams(name.apply(element));
+      Set<T> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+      List<T> rarest = List.of();
+      for (String bigram : bigrams) {
+        List<T> posting = leftByBigram.get(bigram);
+        if (posting == null) {
+          continue;
+        }
+        if (posting.size() <= MAX_BIGRAM_CANDIDATES) {
+          candidates.addAll(posting);
+        } else if (rarest.isEmpty() || posting.size() < rarest.size()) {
+          rarest = posting;
+        }
+      }
+      if (candidates.isEmpty()) {
+        // Only common bigrams: fall back to the candidates of the least common one
+        candidates.addAll(rarest);
+      }
+
+      T best = null;
+      double bestScore = MIN_SIMILARITY;
+      for (T candidate : candidates) {
+        if (!unmatchedLeft.contains(candidate)) {
+          continue;
+        }
+        double score = similarity(bigrams, leftBigrams.get(candidate));
+        if (score >= bestScore) {
+          best = candidate;
+          bestScore = score;
+        }
+      }
+      if (best != null) {
+        unmatchedLeft.remove(best);
+        matches.put(element, best);
+      }
+    }
+  }
+
+  /** The Dice coefficient of two bigram sets. */
+  private static double similarity(Set<String> a, Set<String> b) {
+    int shared = 0;
+    for (String bigram : a) {
+      if (b.contains(bigram)) {
+        shared++;
+      }
+    }
+    return 2.0 * shared / (a.size() + b.size());
+  }
+
+  private static String normalize(String name) {
+    return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+  }
+
+  private static Set<String> bigrams(String name) {
+    String normalized = normalize(name);
+    Set<String> bigrams = new LinkedHashSet<>();
+    for (int i = 0; i + 1 < normalized.length(); i++) {
+      bigrams.add(normalized.substring(i, i + 2));
+    }
+    return bigrams;
+  }
+
+  private static <T> Set<T> identitySet(List<T> elements) {
+    Set<T> set = Collections.newSetFromMap(new IdentityHashMap<>());
+    set.addAll(elements);
+    return set;
+  }
+
+  /**
+   * Finds the elements that keep their relative order, i.e. a longest increasing subsequence of
+   * the given positions. All other elements have to be moved; this yields the fewest moves.
+   *
+   * @param positions the positions in the old version, in the order of the new version
+   * @return for every entry whether it keeps its place
+   */
+  static boolean[] keptInOrder(int[] positions) {
+    int n = positions.length;
+    int[] tails = new int[n];
+    int[] previous = new int[n];
+    int length = 0;
+    for (int i = 0; i < n; i++) {
+      int low = 0;
+      int high = length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (positions[tails[middle]] < positions[i]) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      previous[i] = low > 0 ? tails[low - 1] : -1;
+      tails[low] = i;
+      if (low == length) {
+        length++;
+      }
+    }
+
+    boolean[] kept = new boolean[n];
+    for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+      kept[i] = true;
+    }
+    return kept;
+  }
+}
@@ -0,0 +1,35 @@
+package de.bsommerfeld.neverlose.plan.diff;
+
+import de.bsommerfeld.neverlose.plan.change.ModelProperty;
+import java.util.UUID;
+
+/**
+ * A change that {@link PlanMerge} could not merge automatically.
+ *
+ * @param type what kind of conflict this is
+ * @param elementId the ID of the plan, unit or exercise in the merged plan
+ * @param elementName the name of the element, for display
+ * @param property the conflicting property, or null if the conflict is about a deleted element
+ * @param oursValue our value of the property, or null
+ * @param theirsValue their value of the property, or null
+ */
+public record MergeConflict(
+    Type type,
+    UUID elementId,
+    String elementName,
+    ModelProperty property,
+    Object oursValue,
+    Object theirsValue) {
+
+  public enum Type {
+    /**
+     * Both sides changed a property to different values. Text properties contain both values
+     * between conflict markers, other properties keep our value.
+     */
+    PROPERTY,
+    /** We deleted an element that they modified; their version was kept. */
+    DELETED_BY_OURS,
+    /** They deleted an element that we modified; our version was kept. */
+    DELETED_BY_THEIRS
+  }
+}
@@ -0,0 +1,49 @@
+package de.bsommerfeld.neverlose.plan.diff;
+
+import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
+import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+import de.bsommerfeld.neverlose.plan.components.collection.TrainingExercises;
+import de.bsommerfeld.neverlose.plan.components.collection.TrainingUnits;
+import de.bsommerfeld.neverlose.plan.snapshot.ExerciseSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
+import java.util.List;
+
+/**
+ * The outcome of a three-way merge.
+ *
+ * @param plan the merged plan
+ * @param conflicts the changes that could not be merged automatically, in plan order
+ */
+public record MergeResult(PlanSnapshot plan, List<MergeConflict> conflicts) {
+
+  public MergeResult {
+    conflicts = List.copyOf(conflicts);
+  }
+
+  public boolean hasConflicts() {
+    return !conflicts.isEmpty();
+  }
+
+  /** Creates an editable plan from the merged snapshot. */
+  public TrainingPlan toTrainingPlan() {
+    TrainingUnits units = new TrainingUnits();
+    for (UnitSnapshot unit : plan.units()) {
+      TrainingExercises exercises = new TrainingExercises();
+      for (ExerciseSnapshot exercise : unit.exercises()) {
+        exercises.add(
+            new TrainingExercise(
+                exercise.id(),
+                exercise.name(),
+                exercise.description(),
+                exercise.duration(),
+                exercise.sets(),
+                exercise.ballBucket()));
+      }
+      units.add(
+          new TrainingUnit(unit.id(), unit.name(), unit.description(), unit.weekday(), exercises));
+    }
+    return new TrainingPlan(plan.id(), plan.name(), plan.description(), units);
+  }
+}
@@ -0,0 +1,171 @@
+package de.bsommerfeld.neverlose.plan.diff;
+
+import de.bsommerfeld.neverlose.plan.change.ModelProperty;
+import de.bsommerfeld.neverlose.plan.diff.PlanEdit.ExerciseDeleted;
+import de.bsommerfeld.neverlose.plan.diff.PlanEdit.ExerciseInserted;
+import de.bsommerfeld.neverlose.plan.diff.PlanEdit.ExerciseMoved;
+import de.bsommerfeld.neverlose.plan.diff.PlanEdit.PropertyEdit;
+import de.bsommerfeld.neverlose.plan.diff.PlanEdit.UnitDeleted;
+import de.bsommerfeld.neverlose.plan.diff.PlanEdit.UnitInserted;
+import de.bsommerfeld.neverlose.plan.diff.PlanEdit.UnitMoved;
+import de.bsommerfeld.neverlose.plan.snapshot.ExerciseSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Computes the structural difference between two versions of a plan.
+ *
+ * <p>Units and exercises are matched by ID and, failing that, by name (see {@link ElementMatcher}),
+ * so that two copies of a plan can be compared as well. The resulting edit script is minimal in the
+ * number of moves: only elements outside a longest run of unchanged relative order are reported as
+ * moved. Matched units with the same content hash are not descended into, so comparing two
+ * versions that differ in a few places costs little more than walking the units once.
+ */
+public final class PlanDiff {
+
+  private PlanDiff() {}
+
+  /**
+   * Computes the edits that turn {@code base} into {@code other}.
+   *
+   * @param base the old version
+   * @param other the new version
+   * @return the edit script; empty if both versions have the same content
+   */
+  public static List<PlanEdit> diff(PlanSnapshot base, PlanSnapshot other) {
+    List<PlanEdit> edits = new ArrayList<>();
+    if (base.contentHash() == other.contentHash() && base.equals(other)) {
+      return edits;
+    }
+    property(edits, base.id(), ModelProperty.NAME, base.name(), other.name());
+    property(edits, base.id(), ModelProperty.DESCRIPTION, base.description(), other.description());
+    diffUnits(edits, base.units(), other.units());
+    return edits;
+  }
+
+  private static void diffUnits(
+      List<PlanEdit> edits, List<UnitSnapshot> base, List<UnitSnapshot> other) {
+    Map<UnitSnapshot, UnitSnapshot> matches =
+        ElementMatcher.match(base, other, UnitSnapshot::id, UnitSnapshot::name);
+    Map<UnitSnapshot, Integer> baseIndexes = indexes(base);
+
+    Map<UnitSnapshot, Boolean> matchedBase = new IdentityHashMap<>();
+    matches.values().forEach(unit -> matchedBase.put(unit, true));
+    for (UnitSnapshot unit : base) {
+      if (!matchedBase.containsKey(unit)) {
+        edits.add(new UnitDeleted(unit));
+      }
+    }
+
+    List<UnitSnapshot> matchedOther = new ArrayList<>();
+    for (UnitSnapshot unit : other) {
+      UnitSnapshot baseUnit = matches.get(unit);
+      if (baseUnit != null) {
+        matchedOther.add(unit);
+        diffUnit(edits, baseUnit, unit);
+      }
+    }
+
+    boolean[] kept = ElementMatcher.keptInOrder(positions(matchedOther, matches, baseIndexes));
+    int matchedIndex = 0;
+    for (int index = 0; index < other.size(); index++) {
+      UnitSnapshot unit = other.get(index);
+      UnitSnapshot baseUnit = matches.get(unit);
+      if (baseUnit == null) {
+        edits.add(new UnitInserted(unit, index));
+      } else if (!kept[matchedIndex++]) {
+        edits.add(new UnitMoved(baseUnit.id(), index));
+      }
+    }
+  }
+
+  private static void diffUnit(List<PlanEdit> edits, UnitSnapshot base, UnitSnapshot other) {
+    if (base.contentHash() == other.contentHash() && base.equals(other)) {
+      return;
+    }
+    UUID id = base.id();
+    property(edits, id, ModelProperty.NAME, base.name(), other.name());
+    property(edits, id, ModelProperty.DESCRIPTION, base.description(), other.description());
+    property(edits, id, ModelProperty.WEEKDAY, base.weekday(), other.weekday());
+    diffExercises(edits, id, base.exercises(), other.exercises());
+  }
+
+  private static void diffExercises(
+      List<PlanEdit> edits, UUID unitId, List<ExerciseSnapshot> base, List<ExerciseSnapshot> other) {
+    Map<ExerciseSnapshot, ExerciseSnapshot> matches =
+        ElementMatcher.match(base, other, ExerciseSnapshot::id, ExerciseSnapshot::name);
+    Map<ExerciseSnapshot, Integer> baseIndexes = indexes(base);
+
+    Map<ExerciseSnapshot, Boolean> matchedBase = new IdentityHashMap<>();
+    matches.values().forEach(exercise -> matchedBase.put(exercise, true));
+    for (ExerciseSnapshot exercise : base) {
+      if (!matchedBase.containsKey(exercise)) {
+        edits.add(new ExerciseDeleted(unitId, exercise));
+      }
+    }
+
+    List<ExerciseSnapshot> matchedOther = new ArrayList<>();
+    for (ExerciseSnapshot exercise : other) {
+      ExerciseSnapshot baseExercise = matches.get(exercise);
+      if (baseExercise != null) {
+        matchedOther.add(exercise);
+        diffExercise(edits, baseExercise, exercise);
+      }
+    }
+
+    boolean[] kept = ElementMatcher.keptInOrder(positions(matchedOther, matches, baseIndexes));
+    int matchedIndex = 0;
+    for (int index = 0; index < other.size(); index++) {
+      ExerciseSnapshot exercise = other.get(index);
+      ExerciseSnapshot baseExercise = matches.get(exercise);
+      if (baseExercise == null) {
+        edits.add(new ExerciseInserted(unitId, exercise, index));
+      } else if (!kept[matchedIndex++]) {
+        edits.add(new ExerciseMoved(unitId, baseExercise.id(), index));
+      }
+    }
+  }
+
+  private static void diffExercise(
+      List<PlanEdit> edits, ExerciseSnapshot base, ExerciseSnapshot other) {
+    if (base.contentHash() == other.contentHash() && base.equals(other)) {
+      return;
+    }
+    UUID id = base.id();
+    property(edits, id, ModelProperty.NAME, base.name(), other.name());
+    property(edits, id, ModelProperty.DESCRIPTION, base.description(), other.description());
+    property(edits, id, ModelProperty.DURATION, base.duration(), other.duration());
+    property(edits, id, ModelProperty.SETS, base.sets(), other.sets());
+    property(edits, id, ModelProperty.BALL_BUCKET, base.ballBucket(), other.ballBucket());
+  }
+
+  private static void property(
+      List<PlanEdit> edits, UUID id, ModelProperty property, Object oldValue, Object newValue) {
+    if (!Objects.equals(oldValue, newValue)) {
+      edits.add(new PropertyEdit(id, property, oldValue, newValue));
+    }
+  }
+
+  static <T> Map<T, Integer> indexes(List<T> elements) {
+    Map<T, Integer> indexes = new IdentityHashMap<>();
+    for (int i = 0; i < elements.size(); i++) {
+      indexes.put(elements.get(i), i);
+    }
+    return indexes;
+  }
+
+  private static <T> int[] positions(
+      List<T> matchedOther, Map<T, T> matches, Map<T, Integer> baseIndexes) {
+    int[] positions = new int[matchedOther.size()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = baseIndexes.get(matches.get(matchedOther.get(i)));
+    }
+    return positions;
+  }
+}
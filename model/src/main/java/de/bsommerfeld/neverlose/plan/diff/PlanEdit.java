@@ -0,0 +1,35 @@
+package de.bsommerfeld.neverlose.plan.diff;
+
+import de.bsommerfeld.neverlose.plan.change.ModelProperty;
+import de.bsommerfeld.neverlose.plan.snapshot.ExerciseSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
+import java.util.UUID;
+
+/**
+ * A single step of the edit script produced by {@link PlanDiff}. Units and exercises that exist in
+ * the base version are referred to by their base ID, even if they were matched by name.
+ */
+public sealed interface PlanEdit {
+
+  /** A property of the plan, a unit or an exercise changed. */
+  record PropertyEdit(UUID targetId, ModelProperty property, Object oldValue, Object newValue)
+      implements PlanEdit {}
+
+  /** A unit was added at the given position of the other version. */
+  record UnitInserted(UnitSnapshot unit, int index) implements PlanEdit {}
+
+  /** A unit of the base version was removed. */
+  record UnitDeleted(UnitSnapshot unit) implements PlanEdit {}
+
+  /** A unit was moved to the given position of the other version. */
+  record UnitMoved(UUID unitId, int toIndex) implements PlanEdit {}
+
+  /** An exercise was added to a unit at the given position of the other version. */
+  record ExerciseInserted(UUID unitId, ExerciseSnapshot exercise, int index) implements PlanEdit {}
+
+  /** An exercise of the base version was removed from its unit. */
+  record ExerciseDeleted(UUID unitId, ExerciseSnapshot exercise) implements PlanEdit {}
+
+  /** An exercise was moved to the given position within its unit. */
+  record ExerciseMoved(UUID unitId, UUID exerciseId, int toIndex) implements PlanEdit {}
+}
@@ -0,0 +1,368 @@
+package de.bsommerfeld.neverlose.plan.diff;
+
+import de.bsommerfeld.neverlose.plan.change.ModelProperty;
+import de.bsommerfeld.neverlose.plan.components.Weekday;
+import de.bsommerfeld.neverlose.plan.diff.MergeConflict.Type;
+import de.bsommerfeld.neverlose.plan.snapshot.ExerciseSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Merges two versions of a plan that were both derived from a common base version, e.g. two
+ * copies of a plan edited by different coaches.
+ *
+ * <p>Every property takes the value of the side that changed it. If both sides changed it to
+ * different values, a {@link MergeConflict} is reported; text properties then contain both values
+ * between git-style conflict markers, all other properties keep our value. Units and exercises are
+ * matched like in {@link PlanDiff}. Additions of both sides are kept, deletions are applied unless
+ * the other side modified the element. The order follows our version, except for elements that
+ * only they moved or added, which are placed after their predecessor in their version.
+ */
+public final class PlanMerge {
+
+  static final String OURS_MARKER = "<<<<<<< ours";
+  static final String SEPARATOR = "=======";
+  static final String THEIRS_MARKER = ">>>>>>> theirs";
+
+  private final List<MergeConflict> conflicts = new ArrayList<>();
+
+  private final ElementKind<UnitSnapshot> units =
+      new ElementKind<>(UnitSnapshot::id, UnitSnapshot::name) {
+        @Override
+        boolean sameContent(UnitSnapshot a, UnitSnapshot b) {
+          if (a.contentHash() == b.contentHash() && a.equals(b)) {
+            return true;
+          }
+          if (!Objects.equals(a.name(), b.name())
+              || !Objects.equals(a.description(), b.description())
+              || a.weekday() != b.weekday()
+              || a.exercises().size() != b.exercises().size()) {
+            return false;
+          }
+          for (int i = 0; i < a.exercises().size(); i++) {
+            if (!exercises.sameContent(a.exercises().get(i), b.exercises().get(i))) {
+              return false;
+            }
+          }
+          return true;
+        }
+
+        @Override
+        UnitSnapshot merge(UnitSnapshot base, UnitSnapshot ours, UnitSnapshot theirs) {
+          return mergeUnit(base, ours, theirs);
+        }
+      };
+
+  private final ElementKind<ExerciseSnapshot> exercises =
+      new ElementKind<>(ExerciseSnapshot::id, ExerciseSnapshot::name) {
+        @Override
+        boolean sameContent(ExerciseSnapshot a, ExerciseSnapshot b) {
+          return a.sets() == b.sets()
+              && a.ballBucket() == b.ballBucket()
+              && Objects.equals(a.name(), b.name())
+              && Objects.equals(a.description(), b.description())
+              && Objects.equals(a.duration(), b.duration());
+        }
+
+        @Override
+        ExerciseSnapshot merge(ExerciseSnapshot base, ExerciseSnapshot ours, ExerciseSnapshot theirs) {
+          return mergeExercise(base, ours, theirs);
+        }
+      };
+
+  private PlanMerge() {}
+
+  /**
+   * Merges our and their version of a plan.
+   *
+   * @param base the version both sides started from
+   * @param ours our version; its IDs are kept for matched elements
+   * @param theirs their version
+   * @return the merged plan and the conflicts that need attention
+   */
+  public static MergeResult merge(PlanSnapshot base, PlanSnapshot ours, PlanSnapshot theirs) {
+    PlanMerge merge = new PlanMerge();
+    PlanSnapshot merged = merge.mergePlan(base, ours, theirs);
+    return new MergeResult(merged, merge.conflicts);
+  }
+
+  private PlanSnapshot mergePlan(PlanSnapshot base, PlanSnapshot ours, PlanSnapshot theirs) {
+    if (ours.equals(theirs) || base.equals(theirs)) {
+      return ours;
+    }
+    if (base.equals(ours)) {
+      return theirs;
+    }
+    UUID id = ours.id();
+    String name = ours.name();
+    return new PlanSnapshot(
+        id,
+        text(id, name, ModelProperty.NAME, base.name(), ours.name(), theirs.name()),
+        text(id, name, ModelProperty.DESCRIPTION, base.description(), ours.description(),
+            theirs.description()),
+        mergeList(base.units(), ours.units(), theirs.units(), units));
+  }
+
+  private UnitSnapshot mergeUnit(UnitSnapshot base, UnitSnapshot ours, UnitSnapshot theirs) {
+    if (ours.equals(theirs) || (base != null && base.equals(theirs))) {
+      return ours;
+    }
+    if (base != null && base.equals(ours)) {
+      return theirs;
+    }
+    UUID id = ours.id();
+    String name = ours.name();
+    return new UnitSnapshot(
+        id,
+        text(id, name, ModelProperty.NAME, baseValue(base, UnitSnapshot::name), ours.name(),
+            theirs.name()),
+        text(id, name, ModelProperty.DESCRIPTION, baseValue(base, UnitSnapshot::description),
+            ours.description(), theirs.description()),
+        (Weekday) value(id, name, ModelProperty.WEEKDAY, baseValue(base, UnitSnapshot::weekday),
+            ours.weekday(), theirs.weekday()),
+        mergeList(base != null ? base.exercises() : List.of(), ours.exercises(),
+            theirs.exercises(), exercises));
+  }
+
+  private ExerciseSnapshot mergeExercise(
+      ExerciseSnapshot base, ExerciseSnapshot ours, ExerciseSnapshot theirs) {
+    if (ours.equals(theirs) || (base != null && base.equals(theirs))) {
+      return ours;
+    }
+    if (base != null && base.equals(ours)) {
+      return theirs;
+    }
+    UUID id = ours.id();
+    String name = ours.name();
+    return new ExerciseSnapshot(
+        id,
+        text(id, name, ModelProperty.NAME, baseValue(base, ExerciseSnapshot::name), ours.name(),
+            theirs.name()),
+        text(id, name, ModelProperty.DESCRIPTION, baseValue(base, ExerciseSnapshot::description),
+            ours.description(), theirs.description()),
+        text(id, name, ModelProperty.DURATION, baseValue(base, ExerciseSnapshot::duration),
+            ours.duration(), theirs.duration()),
+        (Integer) value(id, name, ModelProperty.SETS, baseValue(base, ExerciseSnapshot::sets),
+            ours.sets(), theirs.sets()),
+        (Boolean) value(id, name, ModelProperty.BALL_BUCKET,
+            baseValue(base, ExerciseSnapshot::ballBucket), ours.ballBucket(), theirs.ballBucket()));
+  }
+
+  private static <S> Object baseValue(S base, Function<S, Object> property) {
+    return base != null ? property.apply(base) : null;
+  }
+
+  private Object value(
+      UUID id, String name, ModelProperty property, Object base, Object ours, Object theirs) {
+    if (Objects.equals(ours, theirs) || Objects.equals(base, theirs)) {
+      return ours;
+    }
+    if (Objects.equals(base, ours)) {
+      return theirs;
+    }
+    conflicts.add(new MergeConflict(Type.PROPERTY, id, name, property, ours, theirs));
+    return ours;
+  }
+
+  private String text(
+      UUID id, String name, ModelProperty property, Object base, String ours, String theirs) {
+    int conflictCount = conflicts.size();
+    String merged = (String) value(id, name, property, base, ours, theirs);
+    if (conflicts.size() == conflictCount) {
+      return merged;
+    }
+    return String.join(
+        "\n",
+        OURS_MARKER,
+        Objects.requireNonNullElse(ours, ""),
+        SEPARATOR,
+        Objects.requireNonNullElse(theirs, ""),
+        THEIRS_MARKER);
+  }
+
+  /**
+   * Merges the units of a plan or the exercises of a unit.
+   *
+   * <p>Walks our version, merging every element with its counterparts, then walks their version
+   * and places the elements that only they contribute (additions, their moves, and elements we
+   * deleted but they modified) after their predecessor in their version. Placements are recorded
+   * per predecessor and the list is built in one final pass, so merging takes linear time.
+   */
+  private <T> List<T> mergeList(List<T> base, List<T> ours, List<T> theirs, ElementKind<T> kind) {
+    Map<T, T> oursToBase = ElementMatcher.match(base, ours, kind.id, kind.name);
+    Map<T, T> theirsToBase = ElementMatcher.match(base, theirs, kind.id, kind.name);
+    Map<T, T> baseToOurs = invert(oursToBase);
+    Map<T, T> baseToTheirs = invert(theirsToBase);
+    Map<T, T> theirsToOursAdded =
+        ElementMatcher.match(
+            unmatched(ours, oursToBase), unmatched(theirs, theirsToBase), kind.id, kind.name);
+    Map<T, T> oursToTheirsAdded = invert(theirsToOursAdded);
+    Set<T> movedByOurs = moved(ours, oursToBase, base);
+    Set<T> movedByTheirs = moved(theirs, theirsToBase, base);
+
+    List<T> result = new ArrayList<>();
+    // Their elements whose merged counterpart is in the result, or still has to be placed
+    Map<T, T> mergedOfTheirs = new IdentityHashMap<>();
+    Set<T> placeAfterTheirPredecessor = identitySet();
+    for (T element : ours) {
+      T baseElement = oursToBase.get(element);
+      T theirElement =
+          baseElement != null ? baseToTheirs.get(baseElement) : oursToTheirsAdded.get(element);
+      T merged;
+      if (baseElement != null && theirElement == null) {
+        if (kind.sameContent(baseElement, element)) {
+          continue;
+        }
+        conflicts.add(deletionConflict(Type.DELETED_BY_THEIRS, element, kind));
+        merged = element;
+      } else if (theirElement == null) {
+        merged = element;
+      } else {
+        merged = kind.merge(baseElement, element, theirElement);
+        mergedOfTheirs.put(theirElement, merged);
+        if (movedByTheirs.contains(theirElement) && !movedByOurs.contains(element)) {
+          placeAfterTheirPredecessor.add(theirElement);
+          continue;
+        }
+      }
+      result.add(merged);
+    }
+
+    // The elements placed directly after an element of the result or a placed element, in the
+    // order they were placed; the null key holds the elements placed at the start
+    Map<T, List<T>> placedAfter = new IdentityHashMap<>();
+    T anchor = null;
+    for (T element : theirs) {
+      T baseElement = theirsToBase.get(element);
+      T toPlace = null;
+      if (placeAfterTheirPredecessor.contains(element)) {
+        toPlace = mergedOfTheirs.get(element);
+      } else if (baseElement != null && !baseToOurs.containsKey(baseElement)) {
+        if (!kind.sameContent(baseElement, element)) {
+          conflicts.add(deletionConflict(Type.DELETED_BY_OURS, element, kind));
+          toPlace = element;
+        }
+      } else if (baseElement == null && !theirsToOursAdded.containsKey(element)) {
+        toPlace = element;
+      }
+
+      if (toPlace != null) {
+        placedAfter.computeIfAbsent(anchor, key -> new ArrayList<>()).add(toPlace);
+        anchor = toPlace;
+      } else if (mergedOfTheirs.containsKey(element)) {
+        anchor = mergedOfTheirs.get(element);
+      }
+    }
+    return placedAfter.isEmpty() ? result : insertPlaced(result, placedAfter);
+  }
+
+  /**
+   * Builds the merged list from our merged elements and the elements placed after them. An element
+   * placed after an anchor goes directly behind it, i.e. in front of the elements placed after the
+   * same anchor before, and is followed by the elements placed after itself.
+   */
+  private static <T> List<T> insertPlaced(List<T> result, Map<T, List<T>> placedAfter) {
+    List<T> merged = new ArrayList<>(result.size() + placedAfter.size());
+    Deque<T> pending = new ArrayDeque<>();
+    appendPlaced(null, placedAfter, pending, merged);
+    for (T element : result) {
+      merged.add(element);
+      appendPlaced(element, placedAfter, pending, merged);
+    }
+    return merged;
+  }
+
+  private static <T> void appendPlaced(
+      T anchor, Map<T, List<T>> placedAfter, Deque<T> pending, List<T> merged) {
+    // Depth first; the element placed last after an anchor is popped first
+    pushAll(placedAfter.get(anchor), pending);
+    while (!pending.isEmpty()) {
+      T element = pending.pop();
+      merged.add(element);
+      pushAll(placedAfter.get(element), pending);
+    }
+  }
+
+  private static <T> void pushAll(List<T> elements, Deque<T> pending) {
+    if (elements != null) {
+      elements.forEach(pending::push);
+    }
+  }
+
+  private static <T> MergeConflict deletionConflict(Type type, T element, ElementKind<T> kind) {
+    return new MergeConflict(type, kind.id.apply(element), kind.name.apply(element), null, null,
+        null);
+  }
+
+  /** Returns the elements of a version that do not keep their relative order from the base. */
+  private static <T> Set<T> moved(List<T> version, Map<T, T> toBase, List<T> base) {
+    Map<T, Integer> baseIndexes = PlanDiff.indexes(base);
+    List<T> matched = new ArrayList<>();
+    for (T element : version) {
+      if (toBase.containsKey(element)) {
+        matched.add(element);
+      }
+    }
+    int[] positions = new int[matched.size()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = baseIndexes.get(toBase.get(matched.get(i)));
+    }
+    boolean[] kept = ElementMatcher.keptInOrder(positions);
+    Set<T> moved = identitySet();
+    for (int i = 0; i < kept.length; i++) {
+      if (!kept[i]) {
+        moved.add(matched.get(i));
+      }
+    }
+    return moved;
+  }
+
+  private static <T> List<T> unmatched(List<T> version, Map<T, T> toBase) {
+    List<T> unmatched = new ArrayList<>();
+    for (T element : version) {
+      if (!toBase.containsKey(element)) {
+        unmatched.add(element);
+      }
+    }
+    return unmatched;
+  }
+
+  private static <T> Map<T, T> invert(Map<T, T> map) {
+    Map<T, T> inverted = new IdentityHashMap<>();
+    map.forEach((key, value) -> inverted.put(value, key));
+    return inverted;
+  }
+
+  private static <T> Set<T> identitySet() {
+    return Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  /** How elements of one level of the plan are identified, compared and merged. */
+  private abstract static class ElementKind<T> {
+
+    private final Function<T, UUID> id;
+    private final Function<T, String> name;
+
+    private ElementKind(Function<T, UUID> id, Function<T, String> name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    /** Whether two elements have the same content, ignoring their IDs. */
+    abstract boolean sameContent(T a, T b);
+
+    /** Merges an element; {@code base} is null if both sides added it. */
+    abstract T merge(T base, T ours, T theirs);
+  }
+}
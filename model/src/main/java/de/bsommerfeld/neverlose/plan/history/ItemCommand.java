@@ -0,0 +1,65 @@
+package de.bsommerfeld.neverlose.plan.history;
+
+import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.collection.CollectionObject;
+import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+
+/**
+ * Insertion, removal or move of a unit or exercise.
+ *
+ * <p>The size is estimated once when the command is recorded: the item may still be edited
+ * afterwards, and the history must subtract exactly what it added when it drops the command.
+ */
+record ItemCommand(
+    Kind kind, Object owner, Object item, int fromIndex, int toIndex, long estimatedBytes)
+    implements UndoableCommand {
+
+  ItemCommand(Kind kind, Object owner, Object item, int fromIndex, int toIndex) {
+    // Only a removed item is kept alive solely by the history
+    this(
+        kind, owner, item, fromIndex, toIndex, 48 + (kind == Kind.REMOVE ? ModelSizes.of(item) : 0));
+  }
+
+  enum Kind {
+    ADD,
+    REMOVE,
+    MOVE
+  }
+
+  @Override
+  public void undo() {
+    switch (kind) {
+      case ADD -> collection().remove(item);
+      case REMOVE -> insert(fromIndex);
+      case MOVE -> collection().move(item, fromIndex);
+    }
+  }
+
+  @Override
+  public void redo() {
+    switch (kind) {
+      case ADD -> insert(toIndex);
+      case REMOVE -> collection().remove(item);
+      case MOVE -> collection().move(item, toIndex);
+    }
+  }
+
+  private void insert(int index) {
+    CollectionObject<Object> collection = collection();
+    collection.add(item);
+    collection.move(item, index);
+  }
+
+  @SuppressWarnings("unchecked")
+  private CollectionObject<Object> collection() {
+    CollectionObject<?> collection =
+        switch (owner) {
+          case TrainingPlan plan -> plan.getTrainingUnits();
+          case TrainingUnit unit -> unit.getTrainingExercises();
+          default ->
+              throw new IllegalStateException(
+                  "Unexpected owner " + owner.getClass().getSimpleName());
+        };
+    return (CollectionObject<Object>) collection;
+  }
+}
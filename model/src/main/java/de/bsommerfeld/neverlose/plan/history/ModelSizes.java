@@ -0,0 +1,35 @@
+package de.bsommerfeld.neverlose.plan.history;
+
+import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
+import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+
+/** Rough heap size estimates for values and model objects held by the undo history. */
+final class ModelSizes {
+
+  private static final long OBJECT_OVERHEAD = 16;
+  private static final long STRING_OVERHEAD = 40;
+  private static final long EXERCISE_OVERHEAD = 96;
+  private static final long UNIT_OVERHEAD = 160;
+
+  private ModelSizes() {}
+
+  static long of(Object value) {
+    return switch (value) {
+      case null -> 0;
+      case String string -> STRING_OVERHEAD + string.length();
+      case TrainingExercise exercise ->
+          EXERCISE_OVERHEAD
+              + of(exercise.getName())
+              + of(exercise.getDescription())
+              + of(exercise.getDuration());
+      case TrainingUnit unit -> {
+        long size = UNIT_OVERHEAD + of(unit.getName()) + of(unit.getDescription());
+        for (TrainingExercise exercise : unit.getTrainingExercises().getAll()) {
+          size += of(exercise);
+        }
+        yield size;
+      }
+      default -> OBJECT_OVERHEAD;
+    };
+  }
+}
@@ -0,0 +1,72 @@
+package de.bsommerfeld.neverlose.plan.history;
+
+import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.change.ModelProperty;
+import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
+import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+import de.bsommerfeld.neverlose.plan.components.Weekday;
+
+/** Change of a scalar property, e.g. a name, a weekday or the number of sets. */
+record PropertyCommand(Object target, ModelProperty property, Object oldValue, Object newValue)
+    implements UndoableCommand {
+
+  @Override
+  public void undo() {
+    apply(oldValue);
+  }
+
+  @Override
+  public void redo() {
+    apply(newValue);
+  }
+
+  @Override
+  public long estimatedBytes() {
+    return 32 + ModelSizes.of(oldValue) + ModelSizes.of(newValue);
+  }
+
+  /** Whether the next change of the same property can be folded into this command. */
+  boolean canMerge(PropertyCommand next) {
+    return target == next.target && property == next.property;
+  }
+
+  PropertyCommand merge(PropertyCommand next) {
+    return new PropertyCommand(target, property, oldValue, next.newValue);
+  }
+
+  private void apply(Object value) {
+    switch (target) {
+      case TrainingPlan plan -> {
+        switch (property) {
+          case NAME -> plan.setName((String) value);
+          case DESCRIPTION -> plan.setDescription((String) value);
+          default -> throw unsupported();
+        }
+      }
+      case TrainingUnit unit -> {
+        switch (property) {
+          case NAME -> unit.setName((String) value);
+          case DESCRIPTION -> unit.setDescription((String) value);
+          case WEEKDAY -> unit.setWeekday((Weekday) value);
+          default -> throw unsupported();
+        }
+      }
+      case TrainingExercise exercise -> {
+        switch (property) {
+          case NAME -> exercise.setName((String) value);
+          case DESCRIPTION -> exercise.setDescription((String) value);
+          case DURATION -> exercise.setDuration((String) value);
+          case SETS -> exercise.setSets((Integer) value);
+          case BALL_BUCKET -> exercise.setBallBucket((Boolean) value);
+          default -> throw unsupported();
+        }
+      }
+      default -> throw unsupported();
+    }
+  }
+
+  private IllegalStateException unsupported() {
+    return new IllegalStateException(
+        "Cannot apply " + property + " to " + target.getClass().getSimpleName());
+  }
+}
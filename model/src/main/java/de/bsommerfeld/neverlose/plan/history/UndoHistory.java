@@ -0,0 +1,203 @@
+package de.bsommerfeld.neverlose.plan.history;
+
+import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.change.ModelChange;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemAdded;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemMoved;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.ItemRemoved;
+import de.bsommerfeld.neverlose.plan.change.ModelChange.PropertyChanged;
+import de.bsommerfeld.neverlose.plan.change.ModelChangeListener;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Undo/redo history of the edits made to a training plan.
+ *
+ * <p>The history listens to the {@link ModelChange model changes} of the attached plan and records
+ * each one as a small command holding only the old and new value (or the affected unit or
+ * exercise), instead of copying the plan. Consecutive changes of the same property within the
+ * coalescing window, i.e. typing in one field, are merged into a single command. The estimated
+ * memory held by the history is capped; once the cap is exceeded, the oldest commands are dropped.
+ *
+ * <p>Like the model itself, the history must only be used from the thread that edits the plan.
+ */
+public class UndoHistory {
+
+  /** Default window in which consecutive changes of the same property are merged. */
+  public static final Duration DEFAULT_COALESCE_WINDOW = Duration.ofMillis(1000);
+
+  private final long maxBytes;
+  private final long coalesceWindowNanos;
+  private final LongSupplier clock;
+  private final Deque<UndoableCommand> undoStack = new ArrayDeque<>();
+  private final Deque<UndoableCommand> redoStack = new ArrayDeque<>();
+  private final ModelChangeListener recorder = this::record;
+
+  private TrainingPlan plan;
+  private long usedBytes;
+  private long lastRecordedAt;
+  private boolean replaying;
+  private boolean sealed;
+
+  public UndoHistory(long maxBytes) {
+    this(maxBytes, DEFAULT_COALESCE_WINDOW, System::nanoTime);
+  }
+
+  /**
+   * @param maxBytes upper bound for the estimated memory held by undo and redo commands.
+   * @param coalesceWindow consecutive changes of the same property closer than this are merged.
+   * @param clock nanosecond clock, replaceable for tests.
+   */
+  public UndoHistory(long maxBytes, Duration coalesceWindow, LongSupplier clock) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive");
+    }
+    this.maxBytes = maxBytes;
+    this.coalesceWindowNanos = coalesceWindow.toNanos();
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  /** Starts recording the edits of the given plan, discarding the history of the previous plan. */
+  public void attach(TrainingPlan plan) {
+    detach();
+    this.plan = Objects.requireNonNull(plan);
+    plan.addChangeListener(recorder);
+  }
+
+  /** Stops recording and discards the history. */
+  public void detach() {
+    if (plan != null) {
+      plan.removeChangeListener(recorder);
+      plan = null;
+    }
+    clear();
+  }
+
+  public void clear() {
+    undoStack.clear();
+    redoStack.clear();
+    usedBytes = 0;
+  }
+
+  /**
+   * Ends the current coalescing run, so that the next change starts a new command even if it
+   * happens within the coalescing window (e.g., when the focus moves to another field).
+   */
+  public void seal() {
+    sealed = true;
+  }
+
+  public boolean canUndo() {
+    return !undoStack.isEmpty();
+  }
+
+  public boolean canRedo() {
+    return !redoStack.isEmpty();
+  }
+
+  /**
+   * Reverts the most recent command.
+   *
+   * @return true if there was something to undo
+   */
+  public boolean undo() {
+    UndoableCommand command = undoStack.pollLast();
+    if (command == null) {
+      return false;
+    }
+    replay(command::undo);
+    redoStack.addLast(command);
+    return true;
+  }
+
+  /**
+   * Applies the most recently undone command again.
+   *
+   * @return true if there was something to redo
+   */
+  public boolean redo() {
+    UndoableCommand command = redoStack.pollLast();
+    if (command == null) {
+      return false;
+    }
+    replay(command::redo);
+    undoStack.addLast(command);
+    return true;
+  }
+
+  /** The estimated number of bytes currently held by the history. */
+  public long usedBytes() {
+    return usedBytes;
+  }
+
+  private void replay(Runnable action) {
+    replaying = true;
+    try {
+      action.run();
+    } finally {
+      replaying = false;
+      sealed = true;
+    }
+  }
+
+  private void record(ModelChange change) {
+    if (replaying) {
+      return;
+    }
+    UndoableCommand command =
+        switch (change) {
+          case PropertyChanged property ->
+              new PropertyCommand(
+                  property.source(), property.property(), property.oldValue(), property.newValue());
+          case ItemAdded added ->
+              new ItemCommand(
+                  ItemCommand.Kind.ADD, added.source(), added.item(), -1, added.index());
+          case ItemRemoved removed ->
+              new ItemCommand(
+                  ItemCommand.Kind.REMOVE, removed.source(), removed.item(), removed.index(), -1);
+          case ItemMoved moved ->
+              new ItemCommand(
+                  ItemCommand.Kind.MOVE,
+                  moved.source(),
+                  moved.item(),
+                  moved.fromIndex(),
+                  moved.toIndex());
+        };
+    push(command);
+  }
+
+  private void push(UndoableCommand command) {
+    // A new edit invalidates everything that was undone
+    for (UndoableCommand undone : redoStack) {
+      usedBytes -= undone.estimatedBytes();
+    }
+    redoStack.clear();
+
+    long now = clock.getAsLong();
+    boolean withinWindow = !sealed && now - lastRecordedAt < coalesceWindowNanos;
+    lastRecordedAt = now;
+    sealed = false;
+
+    if (withinWindow
+        && command instanceof PropertyCommand next
+        && undoStack.peekLast() instanceof PropertyCommand previous
+        && previous.canMerge(next)) {
+      undoStack.pollLast();
+      usedBytes -= previous.estimatedBytes();
+      PropertyCommand merged = previous.merge(next);
+      if (Objects.equals(merged.oldValue(), merged.newValue())) {
+        return; // Typed and deleted again, nothing left to undo
+      }
+      command = merged;
+    }
+
+    undoStack.addLast(command);
+    usedBytes += command.estimatedBytes();
+    while (usedBytes > maxBytes && undoStack.size() > 1) {
+      usedBytes -= undoStack.pollFirst().estimatedBytes();
+    }
+  }
+}
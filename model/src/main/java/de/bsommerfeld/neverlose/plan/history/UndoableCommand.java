@@ -0,0 +1,12 @@
+package de.bsommerfeld.neverlose.plan.history;
+
+/** A recorded model mutation that can be reverted and applied again. */
+interface UndoableCommand {
+
+  void undo();
+
+  void redo();
+
+  /** Rough number of bytes this command keeps alive, used to enforce the history's memory cap. */
+  long estimatedBytes();
+}
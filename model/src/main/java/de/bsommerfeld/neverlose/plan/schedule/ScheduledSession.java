@@ -0,0 +1,14 @@
+package de.bsommerfeld.neverlose.plan.schedule;
+
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
+import java.time.LocalDate;
+
+/**
+ * A training unit taking place on a concrete date of a season.
+ *
+ * @param date the date of the session
+ * @param plan the plan the unit belongs to
+ * @param unit the unit to be trained
+ */
+public record ScheduledSession(LocalDate date, PlanSnapshot plan, UnitSnapshot unit) {}
@@ -0,0 +1,217 @@
+package de.bsommerfeld.neverlose.plan.schedule;
+
+import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
+import de.bsommerfeld.neverlose.plan.snapshot.UnitSnapshot;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Projects the weekly units of a plan onto the dates of a season.
+ *
+ * <p>Sessions are never materialized: {@link #sessions()} walks the season day by day and yields
+ * the units of each day that is not excluded (holidays, tournaments, ...), so even the schedules of
+ * a whole club can be streamed into a week view or an export with constant memory. Several
+ * schedules can be combined with {@link #mergeByDate(List)}, which merges their streams lazily.
+ *
+ * <p>Units without a weekday are not scheduled. The schedule works on a snapshot of the plan, so
+ * later edits of the plan do not affect it.
+ */
+public final class SeasonSchedule {
+
+  private final PlanSnapshot plan;
+  private final LocalDate start;
+  private final LocalDate end;
+  private final Set<LocalDate> exclusions;
+  private final Map<DayOfWeek, List<UnitSnapshot>> unitsByDay = new EnumMap<>(DayOfWeek.class);
+
+  /**
+   * Creates the schedule of a plan.
+   *
+   * @param plan the plan whose units are trained every week
+   * @param start the first day of the season
+   * @param end the last day of the season (inclusive)
+   * @param exclusions the days on which no training takes place
+   * @throws IllegalArgumentException if the season ends before it starts
+   */
+  public SeasonSchedule(
+      PlanSnapshot plan, LocalDate start, LocalDate end, Collection<LocalDate> exclusions) {
+    this.plan = Objects.requireNonNull(plan, "plan cannot be null");
+    this.start = Objects.requireNonNull(start, "start cannot be null");
+    this.end = Objects.requireNonNull(end, "end cannot be null");
+    if (end.isBefore(start)) {
+      throw new IllegalArgumentException("Season ends before it starts: " + start + " - " + end);
+    }
+    this.exclusions = Set.copyOf(exclusions);
+
+    for (UnitSnapshot unit : plan.units()) {
+      if (unit.weekday() != null) {
+        unitsByDay
+            .computeIfAbsent(unit.weekday().toDayOfWeek(), day -> new ArrayList<>())
+            .add(unit);
+      }
+    }
+  }
+
+  /** Creates the schedule of the current state of a plan. */
+  public static SeasonSchedule of(
+      TrainingPlan plan, LocalDate start, LocalDate end, Collection<LocalDate> exclusions) {
+    return new SeasonSchedule(plan.snapshot(), start, end, exclusions);
+  }
+
+  public PlanSnapshot getPlan() {
+    return plan;
+  }
+
+  public LocalDate getStart() {
+    return start;
+  }
+
+  public LocalDate getEnd() {
+    return end;
+  }
+
+  /**
+   * Streams all sessions of the season, ordered by date and, within a day, by the order of the
+   * units in the plan.
+   */
+  public Stream<ScheduledSession> sessions() {
+    return sessions(start, end);
+  }
+
+  /**
+   * Streams the sessions between two dates (both inclusive), e.g. for a calendar page. Dates
+   * outside the season yield no sessions.
+   */
+  public Stream<ScheduledSession> sessions(LocalDate from, LocalDate to) {
+    LocalDate first = from.isAfter(start) ? from : start;
+    LocalDate last = to.isBefore(end) ? to : end;
+    if (first.isAfter(last)) {
+      return Stream.empty();
+    }
+    return first
+        .datesUntil(last.plusDays(1))
+        .filter(date -> !exclusions.contains(date))
+        .flatMap(
+            date ->
+                unitsOn(date.getDayOfWeek()).stream()
+                    .map(unit -> new ScheduledSession(date, plan, unit)));
+  }
+
+  /** Streams the sessions of the week (Monday to Sunday) containing the given date. */
+  public Stream<ScheduledSession> week(LocalDate date) {
+    LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    return sessions(monday, monday.plusDays(6));
+  }
+
+  /**
+   * Counts the sessions of the season. The count is calculated per weekday, without walking the
+   * season.
+   */
+  public long sessionCount() {
+    long count = 0;
+    for (Map.Entry<DayOfWeek, List<UnitSnapshot>> entry : unitsByDay.entrySet()) {
+      LocalDate first = start.with(TemporalAdjusters.nextOrSame(entry.getKey()));
+      if (!first.isAfter(end)) {
+        long occurrences = ChronoUnit.DAYS.between(first, end) / 7 + 1;
+        count += occurrences * entry.getValue().size();
+      }
+    }
+    for (LocalDate excluded : exclusions) {
+      if (!excluded.isBefore(start) && !excluded.isAfter(end)) {
+        count -= unitsOn(excluded.getDayOfWeek()).size();
+      }
+    }
+    return count;
+  }
+
+  private List<UnitSnapshot> unitsOn(DayOfWeek day) {
+    return unitsByDay.getOrDefault(day, List.of());
+  }
+
+  /**
+   * Merges session streams that are each ordered by date into one stream ordered by date, e.g.
+   * the schedules of all teams of a club. Only the next session of every stream is held in memory.
+   * Sessions on the same date keep the order of the given streams.
+   *
+   * @param streams the streams to merge, each ordered by date
+   * @return the merged stream; closing it closes all given streams
+   */
+  public static Stream<ScheduledSession> mergeByDate(List<Stream<ScheduledSession>> streams) {
+    MergingIterator iterator = new MergingIterator(streams);
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(() -> streams.forEach(Stream::close));
+  }
+
+  /** K-way merge over the iterators of several date-ordered streams. */
+  private static final class MergingIterator implements Iterator<ScheduledSession> {
+
+    private static final Comparator<Head> ORDER =
+        Comparator.comparing((Head head) -> head.session().date())
+            .thenComparingInt(Head::source);
+
+    private final List<Iterator<ScheduledSession>> sources = new ArrayList<>();
+    private PriorityQueue<Head> heads;
+
+    private MergingIterator(List<Stream<ScheduledSession>> streams) {
+      for (Stream<ScheduledSession> stream : streams) {
+        sources.add(stream.iterator());
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads().isEmpty();
+    }
+
+    @Override
+    public ScheduledSession next() {
+      Head head = heads().poll();
+      if (head == null) {
+        throw new NoSuchElementException();
+      }
+      advance(head.source());
+      return head.session();
+    }
+
+    // The sources are only pulled once the merged stream is consumed
+    private PriorityQueue<Head> heads() {
+      if (heads == null) {
+        heads = new PriorityQueue<>(Math.max(1, sources.size()), ORDER);
+        for (int source = 0; source < sources.size(); source++) {
+          advance(source);
+        }
+      }
+      return heads;
+    }
+
+    private void advance(int source) {
+      Iterator<ScheduledSession> iterator = sources.get(source);
+      if (iterator.hasNext()) {
+        heads.add(new Head(iterator.next(), source));
+      }
+    }
+
+    private record Head(ScheduledSession session, int source) {}
+  }
+}
@@ -0,0 +1,73 @@
+package de.bsommerfeld.neverlose.plan.snapshot;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+/**
+ * 64-bit content hashes for snapshots.
+ *
+ * <p>Each snapshot hashes its own fields together with the already computed hashes of its children
+ * (a Merkle tree). As unchanged children are shared between snapshots, an edit only re-hashes the
+ * snapshots on the path from the changed exercise to the plan.
+ */
+public final class ContentHash {
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final long NULL_HASH = 0x6a09e667f3bcc909L;
+
+  private ContentHash() {}
+
+  /** Combines the given values in order into a single hash. */
+  public static long combine(long... values) {
+    long hash = FNV_OFFSET;
+    for (long value : values) {
+      hash = mix(hash ^ value) * FNV_PRIME;
+    }
+    return mix(hash ^ values.length);
+  }
+
+  public static long of(String value) {
+    if (value == null) {
+      return NULL_HASH;
+    }
+    long hash = FNV_OFFSET;
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+    }
+    return mix(hash ^ value.length());
+  }
+
+  public static long of(UUID value) {
+    if (value == null) {
+      return NULL_HASH;
+    }
+    return combine(value.getMostSignificantBits(), value.getLeastSignificantBits());
+  }
+
+  public static long of(Enum<?> value) {
+    return value == null ? NULL_HASH : mix(value.ordinal() + 1L);
+  }
+
+  /** Combines the hashes of the given children in order. */
+  public static <T> long ofAll(List<T> children, ToLongFunction<T> childHash) {
+    long hash = FNV_OFFSET;
+    for (T child : children) {
+      hash = mix(hash ^ childHash.applyAsLong(child)) * FNV_PRIME;
+    }
+    return mix(hash ^ children.size());
+  }
+
+  /** Folds a 64-bit hash into the 32 bits required by {@link Object#hashCode()}. */
+  public static int fold(long hash) {
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  // Finalizer of SplitMix64, spreads every input bit over the whole word
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
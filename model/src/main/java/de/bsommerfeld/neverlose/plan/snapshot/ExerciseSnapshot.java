@@ -0,0 +1,79 @@
+package de.bsommerfeld.neverlose.plan.snapshot;
+
+import de.bsommerfeld.neverlose.plan.components.TrainingDuration;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable state of a training exercise at the time the snapshot was taken.
+ *
+ * @param parsedDuration the duration interpreted by {@link TrainingDuration}, or null if it could
+ *     not be interpreted
+ * @param contentHash hash over all other components, see {@link ContentHash}
+ */
+public record ExerciseSnapshot(
+    UUID id,
+    String name,
+    String description,
+    String duration,
+    Duration parsedDuration,
+    int sets,
+    boolean ballBucket,
+    long contentHash) {
+
+  public ExerciseSnapshot(
+      UUID id, String name, String description, String duration, int sets, boolean ballBucket) {
+    this(
+        id,
+        name,
+        description,
+        duration,
+        TrainingDuration.parse(duration).orElse(null),
+        sets,
+        ballBucket);
+  }
+
+  public ExerciseSnapshot(
+      UUID id,
+      String name,
+      String description,
+      String duration,
+      Duration parsedDuration,
+      int sets,
+      boolean ballBucket) {
+    this(
+        id,
+        name,
+        description,
+        duration,
+        parsedDuration,
+        sets,
+        ballBucket,
+        ContentHash.combine(
+            ContentHash.of(id),
+            ContentHash.of(name),
+            ContentHash.of(description),
+            ContentHash.of(duration),
+            sets,
+            ballBucket ? 1 : 0));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    return o instanceof ExerciseSnapshot that
+        && contentHash == that.contentHash
+        && sets == that.sets
+        && ballBucket == that.ballBucket
+        && Objects.equals(id, that.id)
+        && Objects.equals(name, that.name)
+        && Objects.equals(description, that.description)
+        && Objects.equals(duration, that.duration);
+  }
+
+  @Override
+  public int hashCode() {
+    return ContentHash.fold(contentHash);
+  }
+}
@@ -0,0 +1,59 @@
+package de.bsommerfeld.neverlose.plan.snapshot;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable state of a training plan at the time the snapshot was taken. Unit snapshots that did
+ * not change are shared with earlier plan snapshots, so snapshotting after an edit only rebuilds
+ * the changed units.
+ *
+ * <p>Two snapshots with different {@link #contentHash()} are never equal, so comparing a plan with
+ * its last saved or exported state is a single {@code long} comparison in the common case.
+ *
+ * @param stats the figures of all units, see {@link TrainingStats}
+ * @param contentHash hash over all other components, see {@link ContentHash}
+ */
+public record PlanSnapshot(
+    UUID id,
+    String name,
+    String description,
+    List<UnitSnapshot> units,
+    TrainingStats stats,
+    long contentHash) {
+
+  public PlanSnapshot {
+    units = List.copyOf(units);
+  }
+
+  public PlanSnapshot(UUID id, String name, String description, List<UnitSnapshot> units) {
+    this(
+        id,
+        name,
+        description,
+        units,
+        TrainingStats.sum(units, UnitSnapshot::stats),
+        ContentHash.combine(
+            ContentHash.of(id),
+            ContentHash.of(name),
+            ContentHash.of(description),
+            ContentHash.ofAll(units, UnitSnapshot::contentHash)));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    return o instanceof PlanSnapshot that
+        && contentHash == that.contentHash
+        && Objects.equals(id, that.id)
+        && Objects.equals(name, that.name)
+        && Objects.equals(description, that.description)
+        && units.equals(that.units);
+  }
+
+  @Override
+  public int hashCode() {
+    return ContentHash.fold(contentHash);
+  }
+}
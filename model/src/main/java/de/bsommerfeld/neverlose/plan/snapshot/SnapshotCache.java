@@ -0,0 +1,74 @@
+package de.bsommerfeld.neverlose.plan.snapshot;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the cached snapshot of a model object and the listeners to notify when it becomes outdated.
+ *
+ * <p>Invalidation only propagates if a snapshot was cached or is being created: a container can
+ * only hold a snapshot if all of its children hold one, so an already invalidated child has nothing
+ * left to propagate. Repeated edits of the same field therefore cost O(1) instead of walking up to
+ * the plan each time.
+ *
+ * <p>Snapshots must be requested on the thread that edits the model (see {@link Snapshottable});
+ * creating one walks the live children, which is not synchronized. Every invalidation still starts
+ * a new version, and a snapshot is only cached if no invalidation happened while it was created.
+ *
+ * @param <S> the snapshot type
+ */
+public final class SnapshotCache<S> {
+
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+  private final AtomicReference<Entry<S>> current =
+      new AtomicReference<>(new Entry<>(0, null, false));
+
+  /**
+   * Returns the cached snapshot, creating it with the given factory if there is none.
+   *
+   * @param factory creates a snapshot of the current state
+   * @return the cached or newly created snapshot
+   */
+  public S get(Supplier<S> factory) {
+    Entry<S> pending;
+    while (true) {
+      Entry<S> entry = current.get();
+      if (entry.snapshot() != null) {
+        return entry.snapshot();
+      }
+      pending = entry.pending() ? entry : new Entry<>(entry.version(), null, true);
+      // Fails if the cache was invalidated or filled in the meantime
+      if (pending == entry || current.compareAndSet(entry, pending)) {
+        break;
+      }
+    }
+    S snapshot = factory.get();
+    current.compareAndSet(pending, new Entry<>(pending.version(), snapshot, false));
+    return snapshot;
+  }
+
+  /** Drops the cached snapshot and notifies the listeners if there was one or one is pending. */
+  public void invalidate() {
+    Entry<S> previous =
+        current.getAndUpdate(entry -> new Entry<>(entry.version() + 1, null, false));
+    if (previous.snapshot() == null && !previous.pending()) {
+      return;
+    }
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+
+  public void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  /** A version of the cache: its snapshot, if one was created, or whether one is being created. */
+  private record Entry<S>(long version, S snapshot, boolean pending) {}
+}
@@ -0,0 +1,36 @@
+package de.bsommerfeld.neverlose.plan.snapshot;
+
+/**
+ * A mutable model object that can hand out immutable snapshots of its current state.
+ *
+ * <p>Snapshots are cached until the object (or one of its children) changes, so taking a snapshot of
+ * an unchanged object is O(1) and unchanged children are shared between successive snapshots. The
+ * model is owned by a single thread (the FX thread in the client); snapshots must be taken on that
+ * thread, but the snapshots themselves can be handed to any thread without further synchronization.
+ *
+ * @param <S> the snapshot type
+ */
+public interface Snapshottable<S> {
+
+  /**
+   * Returns an immutable snapshot of the current state.
+   *
+   * @return the cached snapshot if nothing changed since the last call, otherwise a new one
+   */
+  S snapshot();
+
+  /**
+   * Registers a listener that is run when a previously taken snapshot becomes outdated. Used by
+   * containers to invalidate their own snapshots.
+   *
+   * @param listener the listener to add
+   */
+  void addInvalidationListener(Runnable listener);
+
+  /**
+   * Removes a previously registered invalidation listener.
+   *
+   * @param listener the listener to remove
+   */
+  void removeInvalidationListener(Runnable listener);
+}
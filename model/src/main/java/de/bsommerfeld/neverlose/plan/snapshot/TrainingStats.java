@@ -0,0 +1,56 @@
+package de.bsommerfeld.neverlose.plan.snapshot;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Aggregated figures of a training unit or plan. They are part of the unit and plan snapshots and
+ * are derived from the figures of the child snapshots when those are built, so a snapshot taken
+ * after an edit only sums up the changed unit and the (already aggregated) units of the plan.
+ *
+ * @param totalDuration sum of all exercise durations that could be parsed
+ * @param totalSets sum of the sets of all exercises
+ * @param ballBucketExercises number of exercises that need a ball bucket
+ * @param exercises number of exercises
+ * @param unparsedDurations number of exercises whose duration could not be interpreted and is
+ *     therefore missing in {@code totalDuration}
+ */
+public record TrainingStats(
+    Duration totalDuration,
+    int totalSets,
+    int ballBucketExercises,
+    int exercises,
+    int unparsedDurations) {
+
+  public static final TrainingStats EMPTY = new TrainingStats(Duration.ZERO, 0, 0, 0, 0);
+
+  /** Returns the figures of a single exercise. */
+  public static TrainingStats of(ExerciseSnapshot exercise) {
+    Duration duration = exercise.parsedDuration();
+    return new TrainingStats(
+        duration != null ? duration : Duration.ZERO,
+        exercise.sets(),
+        exercise.ballBucket() ? 1 : 0,
+        1,
+        duration != null ? 0 : 1);
+  }
+
+  /** Sums up the figures of all elements. */
+  public static <T> TrainingStats sum(List<T> elements, Function<T, TrainingStats> stats) {
+    TrainingStats total = EMPTY;
+    for (T element : elements) {
+      total = total.plus(stats.apply(element));
+    }
+    return total;
+  }
+
+  public TrainingStats plus(TrainingStats other) {
+    return new TrainingStats(
+        totalDuration.plus(other.totalDuration),
+        totalSets + other.totalSets,
+        ballBucketExercises + other.ballBucketExercises,
+        exercises + other.exercises,
+        unparsedDurations + other.unparsedDurations);
+  }
+}
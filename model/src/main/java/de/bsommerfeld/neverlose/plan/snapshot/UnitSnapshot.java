@@ -0,0 +1,61 @@
+package de.bsommerfeld.neverlose.plan.snapshot;
+
+import de.bsommerfeld.neverlose.plan.components.Weekday;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable state of a training unit at the time the snapshot was taken. Exercise snapshots that
+ * did not change are shared with earlier unit snapshots.
+ *
+ * @param stats the figures of all exercises, see {@link TrainingStats}
+ * @param contentHash hash over all other components, see {@link ContentHash}
+ */
+public record UnitSnapshot(
+    UUID id,
+    String name,
+    String description,
+    Weekday weekday,
+    List<ExerciseSnapshot> exercises,
+    TrainingStats stats,
+    long contentHash) {
+
+  public UnitSnapshot {
+    exercises = List.copyOf(exercises);
+  }
+
+  public UnitSnapshot(
+      UUID id, String name, String description, Weekday weekday, List<ExerciseSnapshot> exercises) {
+    this(
+        id,
+        name,
+        description,
+        weekday,
+        exercises,
+        TrainingStats.sum(exercises, TrainingStats::of),
+        ContentHash.combine(
+            ContentHash.of(id),
+            ContentHash.of(name),
+            ContentHash.of(description),
+            ContentHash.of(weekday),
+            ContentHash.ofAll(exercises, ExerciseSnapshot::contentHash)));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    return o instanceof UnitSnapshot that
+        && contentHash == that.contentHash
+        && weekday == that.weekday
+        && Objects.equals(id, that.id)
+        && Objects.equals(name, that.name)
+        && Objects.equals(description, that.description)
+        && exercises.equals(that.exercises);
+  }
+
+  @Override
+  public int hashCode() {
+    return ContentHash.fold(contentHash);
+  }
+}
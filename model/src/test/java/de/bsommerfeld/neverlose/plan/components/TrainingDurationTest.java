@@ -0,0 +1,43 @@
+package de.bsommerfeld.neverlose.plan.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TrainingDurationTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            // Counts of something else are not minutes, and units only match whole words
+            "2 sets of 10 min     | PT10M",
+            "3 Sätze à 10 min     | PT10M",
+            "4 Stationen je 5 min | PT5M",
+            // Explicit factors before or after the amount
+            "10 mal 1 min         | PT10M",
+            "5 min x 3            | PT15M",
+            "3x10 min             | PT30M",
+            "2 × 45 s             | PT1M30S",
+            // Clock values are minutes and seconds, optionally with hours
+            "1:30                 | PT1M30S",
+            "1:30:00              | PT1H30M",
+            // Plain amounts, units and ranges
+            "30                   | PT30M",
+            "1h 15min             | PT1H15M",
+            "45 Sek.              | PT45S",
+            "1,5 Std.             | PT1H30M",
+            "10-15 min            | PT15M"
+    })
+    void parsesDurations(String text, String expected) {
+        assertEquals(Duration.parse(expected), TrainingDuration.parse(text).orElseThrow());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "1:75", "2x", "1,5x"})
+    void rejectsUninterpretableText(String text) {
+        assertTrue(TrainingDuration.parse(text).isEmpty());
+    }
+}
@@ -7,6 +7,7 @@ import java.util.UUID;
 /**
  * DTO (Data Transfer Object) for persisting TrainingExercise data.
  * Designed for easy JSON serialization/deserialization with Jackson.
+ * The schema version is only stored at the root of a file, see SchemaMigrator.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record TrainingExerciseDTO(
@@ -9,6 +9,7 @@ import java.util.UUID;
 /**
  * DTO for persisting TrainingPlan data, including its list of unit DTOs.
  * This typically represents the root object saved in a JSON file.
+ * The schema version is only stored at the root of a file, see SchemaMigrator.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record TrainingPlanDTO(
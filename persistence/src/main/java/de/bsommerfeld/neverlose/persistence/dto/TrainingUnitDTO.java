@@ -6,7 +6,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
-/** DTO for persisting TrainingUnit data, including its list of exercise DTOs. */
+/**
+ * DTO for persisting TrainingUnit data, including its list of exercise DTOs. The schema version is
+ * only stored at the root of a file, see SchemaMigrator.
+ */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record TrainingUnitDTO(
     UUID id,
@@ -8,17 +8,22 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.Singleton;
+import com.google.inject.multibindings.OptionalBinder;
 import com.google.inject.name.Named;
 import de.bsommerfeld.neverlose.logger.LogFacade;
 import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
 import de.bsommerfeld.neverlose.persistence.mapper.DefaultPlanMapper;
 import de.bsommerfeld.neverlose.persistence.mapper.PlanMapper;
+import de.bsommerfeld.neverlose.persistence.migration.SchemaMigrator;
+import de.bsommerfeld.neverlose.persistence.service.CachingPlanStorageService;
+import de.bsommerfeld.neverlose.persistence.service.CompositePlanStorageService;
 import de.bsommerfeld.neverlose.persistence.service.JsonPlanStorageService;
 import de.bsommerfeld.neverlose.persistence.service.PlanStorageService;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 public class PersistenceModule extends AbstractModule {
 
@@ -28,7 +33,58 @@ public class PersistenceModule extends AbstractModule {
   @Override
   protected void configure() {
     bind(PlanMapper.class).to(DefaultPlanMapper.class).in(Scopes.SINGLETON);
-    bind(PlanStorageService.class).to(JsonPlanStorageService.class).in(Scopes.SINGLETON);
+    bind(JsonPlanStorageService.class).in(Scopes.SINGLETON);
+    OptionalBinder.newOptionalBinder(binder(), StorageSettings.class)
+        .setDefault()
+        .toInstance(StorageSettings.localOnly());
+  }
+
+  /**
+   * Provides the storage service used by the application. Without a shared library this is the
+   * local JSON storage; otherwise the local and the (cached, read-only) shared library are
+   * federated, with writes always going to the local library.
+   */
+  @Provides
+  @Singleton
+  PlanStorageService providePlanStorageService(
+      JsonPlanStorageService localStorage,
+      ObjectMapper objectMapper,
+      PlanMapper planMapper,
+      SchemaMigrator schemaMigrator,
+      StorageSettings settings) {
+    if (!settings.hasSharedLibrary()) {
+      return localStorage;
+    }
+
+    Path sharedPath = settings.sharedLibraryPath();
+    if (!Files.isDirectory(sharedPath)) {
+      log.warn("Shared library {} is not reachable, using the local library only", sharedPath);
+      return localStorage;
+    }
+
+    JsonPlanStorageService sharedStorage;
+    try {
+      // The shared library is read-only: nothing is created, upgraded or written below it
+      sharedStorage =
+          new JsonPlanStorageService(objectMapper, planMapper, schemaMigrator, sharedPath, false);
+    } catch (RuntimeException e) {
+      log.warn("Could not open shared library {}, using the local library only", sharedPath, e);
+      return localStorage;
+    }
+
+    PlanStorageService cachedShared =
+        new CachingPlanStorageService(sharedStorage, planMapper, settings.sharedCacheTtl());
+    List<PlanStorageService> roots =
+        switch (settings.precedence()) {
+          case LOCAL_FIRST -> List.of(localStorage, cachedShared);
+          case SHARED_FIRST -> List.of(cachedShared, localStorage);
+        };
+    log.info(
+        "Federating local library {} with shared library {} ({})",
+        localStorage.getStoragePath(),
+        sharedPath,
+        settings.precedence());
+    return new CompositePlanStorageService(roots, localStorage);
   }
 
   /** Provides a pre-configured, singleton ObjectMapper instance for JSON handling. */
@@ -0,0 +1,50 @@
+package de.bsommerfeld.neverlose.persistence.guice;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Describes which storage roots the persistence layer federates. The local library is always
+ * present and is the only root that receives writes; an optional shared library (e.g., a club-wide
+ * drill collection on a network share) is mounted read-only next to it.
+ *
+ * @param sharedLibraryPath root directory of the shared library, or null if none is configured.
+ * @param precedence which library wins when both contain an object with the same name.
+ * @param sharedCacheTtl how long listings and objects of the shared library are served from memory
+ *     before they are refreshed.
+ */
+public record StorageSettings(
+    Path sharedLibraryPath, Precedence precedence, Duration sharedCacheTtl) {
+
+  private static final Duration DEFAULT_SHARED_CACHE_TTL = Duration.ofMinutes(5);
+
+  public StorageSettings {
+    Objects.requireNonNull(precedence, "precedence cannot be null");
+    if (sharedCacheTtl == null || sharedCacheTtl.isNegative()) {
+      sharedCacheTtl = DEFAULT_SHARED_CACHE_TTL;
+    }
+  }
+
+  /** Settings that use the local library only. */
+  public static StorageSettings localOnly() {
+    return new StorageSettings(null, Precedence.LOCAL_FIRST, DEFAULT_SHARED_CACHE_TTL);
+  }
+
+  /** Whether a shared library is configured. */
+  public boolean hasSharedLibrary() {
+    return sharedLibraryPath != null;
+  }
+
+  /**
+   * Defines which library wins when objects are looked up by name, e.g. when a template is
+   * resolved by the name of a unit. An object with the same identifier in both libraries is always
+   * taken from the local library, as the local copy is the user's own edit of the shared one.
+   */
+  public enum Precedence {
+    /** Local objects shadow shared ones with the same name. */
+    LOCAL_FIRST,
+    /** Shared objects shadow local ones with the same name, keeping the club library leading. */
+    SHARED_FIRST
+  }
+}
@@ -0,0 +1,326 @@
+package de.bsommerfeld.neverlose.persistence.index;
+
+import de.bsommerfeld.neverlose.persistence.dto.TrainingExerciseDTO;
+import de.bsommerfeld.neverlose.persistence.dto.TrainingPlanDTO;
+import de.bsommerfeld.neverlose.persistence.dto.TrainingUnitDTO;
+import de.bsommerfeld.neverlose.persistence.migration.DocumentType;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseMatch;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseQuery;
+import de.bsommerfeld.neverlose.persistence.query.UnitMatch;
+import de.bsommerfeld.neverlose.persistence.query.UnitQuery;
+import de.bsommerfeld.neverlose.plan.components.TrainingDuration;
+import de.bsommerfeld.neverlose.plan.components.Weekday;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary indexes over the units and exercises of all stored documents, so that structured
+ * queries ({@link UnitQuery}, {@link ExerciseQuery}) can be answered without decoding any plan.
+ *
+ * <p>Units are indexed by weekday and ball-bucket requirement, exercises by ball-bucket
+ * requirement, number of sets and parsed duration. A query starts from the most specific index it
+ * constrains and filters the remaining criteria on the indexed attributes. Every stored document
+ * (plan, unit template or exercise template) contributes a set of entries that is replaced as a
+ * whole when the document is saved again or removed.
+ */
+public class AttributeIndex {
+
+  private static final Comparator<UnitMatch> UNIT_ORDER =
+      Comparator.comparing((UnitMatch unit) -> SummaryIndex.collationKey(unit.name()))
+          .thenComparing(UnitMatch::unitId);
+  private static final Comparator<ExerciseMatch> EXERCISE_ORDER =
+      Comparator.comparing((ExerciseMatch exercise) -> SummaryIndex.collationKey(exercise.name()))
+          .thenComparing(ExerciseMatch::exerciseId);
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<DocumentKey, Contribution> contributions = new HashMap<>();
+
+  private final Set<UnitMatch> allUnits = identitySet();
+  private final Set<UnitMatch> unitsWithBallBucket = identitySet();
+  private final Map<Weekday, Set<UnitMatch>> unitsByWeekday = new EnumMap<>(Weekday.class);
+
+  private final Set<ExerciseMatch> allExercises = identitySet();
+  private final Set<ExerciseMatch> exercisesWithBallBucket = identitySet();
+  private final NavigableMap<Integer, Set<ExerciseMatch>> exercisesBySets = new TreeMap<>();
+  private final NavigableMap<Duration, Set<ExerciseMatch>> exercisesByDuration = new TreeMap<>();
+
+  private static <T> Set<T> identitySet() {
+    return Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  /** Indexes (or re-indexes) all units and exercises of a plan. */
+  public void indexPlan(TrainingPlanDTO plan) {
+    replace(new DocumentKey(DocumentType.PLAN, plan.id()), contributionOf(plan));
+  }
+
+  /** Indexes (or re-indexes) a unit template and its exercises. */
+  public void indexUnit(TrainingUnitDTO unit) {
+    replace(new DocumentKey(DocumentType.UNIT, unit.id()), contributionOf(unit));
+  }
+
+  /** Indexes (or re-indexes) an exercise template. */
+  public void indexExercise(TrainingExerciseDTO exercise) {
+    replace(new DocumentKey(DocumentType.EXERCISE, exercise.id()), contributionOf(exercise));
+  }
+
+  /** Removes everything a stored document contributed. */
+  public void remove(DocumentType type, UUID documentId) {
+    lock.writeLock().lock();
+    try {
+      Contribution removed = contributions.remove(new DocumentKey(type, documentId));
+      if (removed != null) {
+        unlink(removed);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces all documents of the given type, e.g. after the storage directory was rescanned.
+   *
+   * @param type the type of the documents.
+   * @param documents the DTOs of all documents of that type.
+   */
+  public void replaceAll(DocumentType type, Collection<?> documents) {
+    Map<DocumentKey, Contribution> rebuilt = new HashMap<>();
+    for (Object document : documents) {
+      rebuilt.put(new DocumentKey(type, documentId(document)), contributionOf(document));
+    }
+
+    lock.writeLock().lock();
+    try {
+      contributions.entrySet().removeIf(
+          entry -> {
+            if (entry.getKey().type() != type) {
+              return false;
+            }
+            unlink(entry.getValue());
+            return true;
+          });
+      rebuilt.forEach(this::store);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Finds all indexed units matching the query.
+   *
+   * @return the matches, ordered by name (case-insensitive).
+   */
+  public List<UnitMatch> findUnits(UnitQuery query) {
+    List<UnitMatch> result = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      Collection<UnitMatch> candidates;
+      if (query.weekday() != null) {
+        candidates = unitsByWeekday.getOrDefault(query.weekday(), Set.of());
+      } else if (Boolean.TRUE.equals(query.ballBucket())) {
+        candidates = unitsWithBallBucket;
+      } else {
+        candidates = allUnits;
+      }
+      for (UnitMatch unit : candidates) {
+        if (query.matches(unit)) {
+          result.add(unit);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    result.sort(UNIT_ORDER);
+    return result;
+  }
+
+  /**
+   * Finds all indexed exercises matching the query.
+   *
+   * @return the matches, ordered by name (case-insensitive).
+   */
+  public List<ExerciseMatch> findExercises(ExerciseQuery query) {
+    List<ExerciseMatch> result = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      Iterable<Set<ExerciseMatch>> candidates;
+      if (query.hasSetsBound()) {
+        candidates =
+            range(
+                exercisesBySets,
+                query.minSets(),
+                query.maxSets(),
+                Integer.MIN_VALUE,
+                Integer.MAX_VALUE);
+      } else if (query.hasDurationBound()) {
+        candidates =
+            range(
+                exercisesByDuration,
+                query.minDuration(),
+                query.maxDuration(),
+                Duration.ZERO,
+                Duration.ofSeconds(Long.MAX_VALUE));
+      } else if (Boolean.TRUE.equals(query.ballBucket())) {
+        candidates = List.of(exercisesWithBallBucket);
+      } else {
+        candidates = List.of(allExercises);
+      }
+      for (Set<ExerciseMatch> bucket : candidates) {
+        for (ExerciseMatch exercise : bucket) {
+          if (query.matches(exercise)) {
+            result.add(exercise);
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    result.sort(EXERCISE_ORDER);
+    return result;
+  }
+
+  private static <K extends Comparable<K>> Collection<Set<ExerciseMatch>> range(
+      NavigableMap<K, Set<ExerciseMatch>> index, K min, K max, K lowest, K highest) {
+    K from = min != null ? min : lowest;
+    K to = max != null ? max : highest;
+    if (from.compareTo(to) > 0) {
+      return List.of();
+    }
+    return index.subMap(from, true, to, true).values();
+  }
+
+  private static UUID documentId(Object document) {
+    return switch (document) {
+      case TrainingPlanDTO plan -> plan.id();
+      case TrainingUnitDTO unit -> unit.id();
+      case TrainingExerciseDTO exercise -> exercise.id();
+      default -> throw new IllegalArgumentException("Unsupported document: " + document);
+    };
+  }
+
+  private Contribution contributionOf(Object document) {
+    Contribution contribution = new Contribution();
+    switch (document) {
+      case TrainingPlanDTO plan -> {
+        for (TrainingUnitDTO unit : plan.trainingUnits()) {
+          collectUnit(unit, plan.id(), plan.name(), contribution);
+        }
+      }
+      case TrainingUnitDTO unit -> collectUnit(unit, null, null, contribution);
+      case TrainingExerciseDTO exercise ->
+          contribution.exercises.add(toMatch(exercise, null, null));
+      default -> throw new IllegalArgumentException("Unsupported document: " + document);
+    }
+    return contribution;
+  }
+
+  private void collectUnit(
+      TrainingUnitDTO unit, UUID planId, String planName, Contribution contribution) {
+    boolean ballBucket = false;
+    for (TrainingExerciseDTO exercise : unit.trainingExercises()) {
+      contribution.exercises.add(toMatch(exercise, unit.id(), planId));
+      ballBucket |= exercise.ballBucket();
+    }
+    contribution.units.add(
+        new UnitMatch(unit.id(), unit.name(), unit.weekday(), ballBucket, planId, planName));
+  }
+
+  private static ExerciseMatch toMatch(TrainingExerciseDTO exercise, UUID unitId, UUID planId) {
+    return new ExerciseMatch(
+        exercise.id(),
+        exercise.name(),
+        exercise.sets(),
+        exercise.ballBucket(),
+        exercise.duration(),
+        TrainingDuration.parse(exercise.duration()).orElse(null),
+        unitId,
+        planId);
+  }
+
+  private void replace(DocumentKey key, Contribution contribution) {
+    lock.writeLock().lock();
+    try {
+      Contribution previous = contributions.remove(key);
+      if (previous != null) {
+        unlink(previous);
+      }
+      store(key, contribution);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void store(DocumentKey key, Contribution contribution) {
+    contributions.put(key, contribution);
+    for (UnitMatch unit : contribution.units) {
+      allUnits.add(unit);
+      if (unit.ballBucket()) {
+        unitsWithBallBucket.add(unit);
+      }
+      if (unit.weekday() != null) {
+        unitsByWeekday.computeIfAbsent(unit.weekday(), day -> identitySet()).add(unit);
+      }
+    }
+    for (ExerciseMatch exercise : contribution.exercises) {
+      allExercises.add(exercise);
+      if (exercise.ballBucket()) {
+        exercisesWithBallBucket.add(exercise);
+      }
+      exercisesBySets.computeIfAbsent(exercise.sets(), sets -> identitySet()).add(exercise);
+      if (exercise.parsedDuration() != null) {
+        exercisesByDuration
+            .computeIfAbsent(exercise.parsedDuration(), duration -> identitySet())
+            .add(exercise);
+      }
+    }
+  }
+
+  private void unlink(Contribution contribution) {
+    for (UnitMatch unit : contribution.units) {
+      allUnits.remove(unit);
+      unitsWithBallBucket.remove(unit);
+      if (unit.weekday() != null) {
+        removeFromBucket(unitsByWeekday, unit.weekday(), unit);
+      }
+    }
+    for (ExerciseMatch exercise : contribution.exercises) {
+      allExercises.remove(exercise);
+      exercisesWithBallBucket.remove(exercise);
+      removeFromBucket(exercisesBySets, exercise.sets(), exercise);
+      if (exercise.parsedDuration() != null) {
+        removeFromBucket(exercisesByDuration, exercise.parsedDuration(), exercise);
+      }
+    }
+  }
+
+  private static <K, V> void removeFromBucket(Map<K, Set<V>> index, K key, V value) {
+    Set<V> bucket = index.get(key);
+    if (bucket != null) {
+      bucket.remove(value);
+      if (bucket.isEmpty()) {
+        index.remove(key);
+      }
+    }
+  }
+
+  private record DocumentKey(DocumentType type, UUID id) {}
+
+  /** The entries a single stored document added to the indexes. */
+  private static final class Contribution {
+    private final List<UnitMatch> units = new ArrayList<>();
+    private final List<ExerciseMatch> exercises = new ArrayList<>();
+  }
+}
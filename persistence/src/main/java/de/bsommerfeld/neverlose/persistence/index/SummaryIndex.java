@@ -0,0 +1,145 @@
+package de.bsommerfeld.neverlose.persistence.index;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * In-memory, always-sorted index of summaries for a single entity type (plans, units or exercises).
+ *
+ * <p>Entries are ordered by a normalized collation key derived from the summary name, with the UUID
+ * as tie-breaker. The key is computed once per update, so listing is a plain snapshot iteration and
+ * saves, renames and deletes are O(log n) operations instead of a full re-sort.
+ *
+ * @param <S> the summary type (e.g., PlanSummary)
+ */
+public class SummaryIndex<S> {
+
+  private static final UUID LOWEST_UUID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+  private static final UUID HIGHEST_UUID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+  private final ConcurrentSkipListMap<SortKey, S> entries = new ConcurrentSkipListMap<>();
+  private final ConcurrentHashMap<UUID, SortKey> keysById = new ConcurrentHashMap<>();
+  private final Function<S, UUID> idExtractor;
+  private final Function<S, String> nameExtractor;
+
+  /**
+   * Creates a new, empty index.
+   *
+   * @param idExtractor extracts the unique identifier of a summary
+   * @param nameExtractor extracts the display name of a summary
+   */
+  public SummaryIndex(Function<S, UUID> idExtractor, Function<S, String> nameExtractor) {
+    this.idExtractor = Objects.requireNonNull(idExtractor);
+    this.nameExtractor = Objects.requireNonNull(nameExtractor);
+  }
+
+  /**
+   * Normalizes a name into the key used for ordering and case-insensitive lookups.
+   *
+   * @param name the name to normalize, may be null
+   * @return the collation key, never null
+   */
+  public static String collationKey(String name) {
+    if (name == null) {
+      return "";
+    }
+    return Normalizer.normalize(name, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Inserts or updates a summary. If a summary with the same identifier is already indexed (e.g.,
+   * after a rename), its previous entry is replaced.
+   *
+   * @param summary the summary to index
+   */
+  public void put(S summary) {
+    Objects.requireNonNull(summary, "summary cannot be null");
+    UUID id = idExtractor.apply(summary);
+    SortKey newKey = new SortKey(collationKey(nameExtractor.apply(summary)), id);
+    keysById.compute(
+        id,
+        (key, oldKey) -> {
+          if (oldKey != null && !oldKey.equals(newKey)) {
+            entries.remove(oldKey);
+          }
+          entries.put(newKey, summary);
+          return newKey;
+        });
+  }
+
+  /**
+   * Removes the summary with the given identifier, if present.
+   *
+   * @param id the identifier of the summary to remove
+   */
+  public void remove(UUID id) {
+    keysById.computeIfPresent(
+        id,
+        (key, oldKey) -> {
+          entries.remove(oldKey);
+          return null;
+        });
+  }
+
+  /**
+   * Replaces the whole content of the index with the given summaries.
+   *
+   * @param summaries the summaries to index
+   */
+  public synchronized void replaceAll(Collection<S> summaries) {
+    entries.clear();
+    keysById.clear();
+    summaries.forEach(this::put);
+  }
+
+  /**
+   * Returns an immutable, sorted snapshot of all indexed summaries.
+   *
+   * @return the summaries ordered by name (case-insensitive), then by identifier
+   */
+  public List<S> snapshot() {
+    return List.copyOf(entries.values());
+  }
+
+  /**
+   * Finds the first summary (in index order) whose name is exactly equal to the given name. Only
+   * entries sharing the same collation key are inspected.
+   *
+   * @param name the exact name to look for
+   * @return the first matching summary, or Optional.empty() if none matches
+   */
+  public Optional<S> findFirstByName(String name) {
+    String key = collationKey(name);
+    return entries
+        .subMap(new SortKey(key, LOWEST_UUID), true, new SortKey(key, HIGHEST_UUID), true)
+        .values()
+        .stream()
+        .filter(summary -> Objects.equals(nameExtractor.apply(summary), name))
+        .findFirst();
+  }
+
+  /**
+   * Returns the number of indexed summaries.
+   *
+   * @return the index size
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private record SortKey(String collationKey, UUID id) implements Comparable<SortKey> {
+    @Override
+    public int compareTo(SortKey other) {
+      int byName = collationKey.compareTo(other.collationKey);
+      return byName != 0 ? byName : id.compareTo(other.id);
+    }
+  }
+}
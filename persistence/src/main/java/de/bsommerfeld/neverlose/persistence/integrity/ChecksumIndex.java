@@ -0,0 +1,96 @@
+package de.bsommerfeld.neverlose.persistence.integrity;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sidecar file recording the size, modification time and CRC32 of every verified storage file,
+ * keyed by the path relative to the storage directory. Only accessed by the verification thread.
+ */
+class ChecksumIndex {
+
+  private static final LogFacade log = LogFacadeFactory.getLogger();
+
+  private final ObjectMapper objectMapper;
+  private final Path indexFile;
+  private final Map<String, FileRecord> records = new HashMap<>();
+  private boolean dirty;
+
+  ChecksumIndex(ObjectMapper objectMapper, Path indexFile) {
+    this.objectMapper = objectMapper;
+    this.indexFile = indexFile;
+  }
+
+  void load() {
+    records.clear();
+    dirty = false;
+    if (!Files.isRegularFile(indexFile)) {
+      return;
+    }
+    try {
+      records.putAll(
+          objectMapper.readValue(indexFile.toFile(), new TypeReference<Map<String, FileRecord>>() {}));
+    } catch (IOException e) {
+      // The index is only an optimization; losing it means every file is verified once more
+      log.warn("Could not read integrity index {}, starting with an empty one", indexFile, e);
+    }
+  }
+
+  FileRecord get(String key) {
+    return records.get(key);
+  }
+
+  void put(String key, FileRecord record) {
+    if (!record.equals(records.put(key, record))) {
+      dirty = true;
+    }
+  }
+
+  void remove(String key) {
+    if (records.remove(key) != null) {
+      dirty = true;
+    }
+  }
+
+  /** Drops records of files that no longer exist. */
+  void retainAll(Set<String> existingKeys) {
+    if (records.keySet().retainAll(existingKeys)) {
+      dirty = true;
+    }
+  }
+
+  void saveIfDirty() throws IOException {
+    if (!dirty) {
+      return;
+    }
+    Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+    objectMapper.writeValue(tempFile.toFile(), records);
+    try {
+      Files.move(
+          tempFile,
+          indexFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+    dirty = false;
+  }
+
+  /**
+   * @param size file size in bytes at verification time.
+   * @param modifiedMillis last modification time at verification time.
+   * @param crc32 CRC32 of the file content.
+   */
+  record FileRecord(long size, long modifiedMillis, long crc32) {}
+}
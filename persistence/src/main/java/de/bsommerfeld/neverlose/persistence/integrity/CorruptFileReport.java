@@ -0,0 +1,12 @@
+package de.bsommerfeld.neverlose.persistence.integrity;
+
+import java.nio.file.Path;
+
+/**
+ * Describes a storage file that failed verification and was moved out of the library.
+ *
+ * @param originalPath The path the file was found at.
+ * @param quarantinedPath The path the file was moved to, so it can be inspected or restored.
+ * @param reason A short, human-readable description of the problem.
+ */
+public record CorruptFileReport(Path originalPath, Path quarantinedPath, String reason) {}
@@ -0,0 +1,16 @@
+package de.bsommerfeld.neverlose.persistence.integrity;
+
+/**
+ * Listener notified by the {@link IntegrityService} whenever a corrupt file has been quarantined.
+ * Called from the background verification thread.
+ */
+@FunctionalInterface
+public interface IntegrityListener {
+
+  /**
+   * Called after a corrupt file has been moved to the quarantine directory.
+   *
+   * @param report details about the quarantined file.
+   */
+  void onCorruptFile(CorruptFileReport report);
+}
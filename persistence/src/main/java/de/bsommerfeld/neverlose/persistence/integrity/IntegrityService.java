@@ -0,0 +1,268 @@
+package de.bsommerfeld.neverlose.persistence.integrity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import de.bsommerfeld.neverlose.persistence.dto.TrainingExerciseDTO;
+import de.bsommerfeld.neverlose.persistence.dto.TrainingPlanDTO;
+import de.bsommerfeld.neverlose.persistence.dto.TrainingUnitDTO;
+import de.bsommerfeld.neverlose.persistence.integrity.ChecksumIndex.FileRecord;
+import de.bsommerfeld.neverlose.persistence.migration.DocumentType;
+import de.bsommerfeld.neverlose.persistence.migration.SchemaMigrator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Verifies the files of the local library in the background and quarantines corrupt ones before a
+ * coach stumbles over them.
+ *
+ * <p>Every verified file is recorded with its size, modification time and CRC32 in a sidecar index.
+ * A verification pass only reads files whose size or modification time changed since they were
+ * last recorded, and it reads them on a single minimum-priority daemon thread throttled to a fixed
+ * byte rate, so regular loads and saves are not slowed down. Files that cannot be parsed into their
+ * DTO are moved to the quarantine directory and reported to all registered {@link
+ * IntegrityListener}s.
+ */
+@Singleton
+public class IntegrityService {
+
+  private static final LogFacade log = LogFacadeFactory.getLogger();
+
+  private static final String INDEX_FILE_NAME = "integrity-index.json";
+  private static final String QUARANTINE_DIR = "quarantine";
+  private static final String JSON_FILE_EXTENSION = ".json";
+  private static final List<VerifiedDirectory> VERIFIED_DIRECTORIES =
+      List.of(
+          new VerifiedDirectory("plans", DocumentType.PLAN, TrainingPlanDTO.class),
+          new VerifiedDirectory("units", DocumentType.UNIT, TrainingUnitDTO.class),
+          new VerifiedDirectory("exercises", DocumentType.EXERCISE, TrainingExerciseDTO.class));
+
+  private static final long INITIAL_DELAY_SECONDS = 20;
+  private static final long PASS_INTERVAL_SECONDS = 300;
+  private static final long MAX_BYTES_PER_SECOND = 512 * 1024;
+  private static final long MIN_CHARGED_BYTES = 4 * 1024;
+  // Files modified more recently than this may still be in the middle of being written
+  private static final long WRITE_GRACE_MILLIS = 10_000;
+  private static final DateTimeFormatter QUARANTINE_SUFFIX =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private final ObjectMapper objectMapper;
+  private final SchemaMigrator schemaMigrator;
+  private final Path storageDirectory;
+  private final ChecksumIndex checksumIndex;
+  private final List<IntegrityListener> listeners = new CopyOnWriteArrayList<>();
+
+  private ScheduledExecutorService executor;
+
+  @Inject
+  public IntegrityService(
+      ObjectMapper objectMapper,
+      SchemaMigrator schemaMigrator,
+      @Named("storage.directory.path") Path storageDirectory) {
+    this.objectMapper = Objects.requireNonNull(objectMapper);
+    this.schemaMigrator = Objects.requireNonNull(schemaMigrator);
+    this.storageDirectory = Objects.requireNonNull(storageDirectory);
+    this.checksumIndex = new ChecksumIndex(objectMapper, storageDirectory.resolve(INDEX_FILE_NAME));
+  }
+
+  /**
+   * Registers a listener that is notified about quarantined files.
+   *
+   * @param listener the listener to add.
+   */
+  public void addListener(IntegrityListener listener) {
+    listeners.add(Objects.requireNonNull(listener));
+  }
+
+  /**
+   * Removes a previously registered listener.
+   *
+   * @param listener the listener to remove.
+   */
+  public void removeListener(IntegrityListener listener) {
+    listeners.remove(listener);
+  }
+
+  /** Starts periodic background verification. Calling this more than once has no effect. */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "integrity-scanner");
+              thread.setDaemon(true);
+              thread.setPriority(Thread.MIN_PRIORITY);
+              return thread;
+            });
+    executor.scheduleWithFixedDelay(
+        this::runPass, INITIAL_DELAY_SECONDS, PASS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    log.info("Started background integrity verification of {}", storageDirectory);
+  }
+
+  /** Stops background verification. A pass in progress is interrupted. */
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  private void runPass() {
+    try {
+      checksumIndex.load();
+      Set<String> seenKeys = new HashSet<>();
+      for (VerifiedDirectory directory : VERIFIED_DIRECTORIES) {
+        verifyDirectory(directory, seenKeys);
+      }
+      checksumIndex.retainAll(seenKeys);
+      checksumIndex.saveIfDirty();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      // Never let an exception cancel the periodic task
+      log.error("Integrity verification pass failed", e);
+    }
+  }
+
+  private void verifyDirectory(VerifiedDirectory verifiedDirectory, Set<String> seenKeys)
+      throws IOException, InterruptedException {
+    Path directory = storageDirectory.resolve(verifiedDirectory.name());
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+
+    List<Path> files;
+    try (Stream<Path> stream = Files.list(directory)) {
+      files =
+          stream
+              .filter(Files::isRegularFile)
+              .filter(path -> path.toString().toLowerCase().endsWith(JSON_FILE_EXTENSION))
+              .toList();
+    }
+
+    for (Path file : files) {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedException();
+      }
+      String key = verifiedDirectory.name() + "/" + file.getFileName();
+      seenKeys.add(key);
+      try {
+        verifyFile(file, key, verifiedDirectory);
+      } catch (IOException e) {
+        // Deleted or locked in the meantime; simply try again during the next pass
+        log.debug("Skipping integrity check of {}: {}", file, e.getMessage());
+      }
+    }
+  }
+
+  private void verifyFile(Path file, String key, VerifiedDirectory directory)
+      throws IOException, InterruptedException {
+    BasicFileAttributes before = Files.readAttributes(file, BasicFileAttributes.class);
+    long modifiedMillis = before.lastModifiedTime().toMillis();
+    FileRecord known = checksumIndex.get(key);
+    if (known != null && known.size() == before.size() && known.modifiedMillis() == modifiedMillis) {
+      return; // Unchanged since the last successful verification
+    }
+
+    byte[] content = Files.readAllBytes(file);
+    throttle(content.length);
+    CRC32 crc = new CRC32();
+    crc.update(content);
+    FileRecord current = new FileRecord(content.length, modifiedMillis, crc.getValue());
+
+    if (known != null && known.crc32() == current.crc32() && known.size() == current.size()) {
+      checksumIndex.put(key, current); // Touched, but content identical
+      return;
+    }
+
+    String problem = validate(content, directory);
+    if (problem == null) {
+      checksumIndex.put(key, current);
+      return;
+    }
+
+    BasicFileAttributes after = Files.readAttributes(file, BasicFileAttributes.class);
+    boolean changedWhileReading =
+        after.size() != before.size() || !after.lastModifiedTime().equals(before.lastModifiedTime());
+    boolean recentlyWritten = System.currentTimeMillis() - modifiedMillis < WRITE_GRACE_MILLIS;
+    if (changedWhileReading || recentlyWritten) {
+      log.debug("Deferring integrity check of {} as it is currently being written", file);
+      return;
+    }
+
+    checksumIndex.remove(key);
+    quarantine(file, problem);
+  }
+
+  private String validate(byte[] content, VerifiedDirectory directory) {
+    try {
+      JsonNode root = objectMapper.readTree(content);
+      if (root == null || !root.isObject()) {
+        return "File does not contain a JSON object";
+      }
+      schemaMigrator.migrate(root, directory.documentType());
+      if (!root.path("name").isTextual()) {
+        return "File has no name";
+      }
+      objectMapper.treeToValue(root, directory.dtoType());
+      return null;
+    } catch (IOException | IllegalArgumentException e) {
+      return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+  }
+
+  private void quarantine(Path file, String reason) throws IOException {
+    Path relative = storageDirectory.relativize(file);
+    Path target =
+        storageDirectory
+            .resolve(QUARANTINE_DIR)
+            .resolve(relative.getParent())
+            .resolve(
+                file.getFileName() + "." + LocalDateTime.now().format(QUARANTINE_SUFFIX));
+    Files.createDirectories(target.getParent());
+    Files.move(file, target);
+    log.warn("Quarantined corrupt file {} to {}: {}", file, target, reason);
+
+    CorruptFileReport report = new CorruptFileReport(file, target, reason);
+    for (IntegrityListener listener : listeners) {
+      try {
+        listener.onCorruptFile(report);
+      } catch (RuntimeException e) {
+        log.error("Integrity listener failed", e);
+      }
+    }
+  }
+
+  /**
+   * Sleeps long enough to keep the average read rate below {@link #MAX_BYTES_PER_SECOND}. Small
+   * files are charged a minimum cost, since opening a file is not free either.
+   */
+  private void throttle(long bytesRead) throws InterruptedException {
+    long sleepMillis = Math.max(bytesRead, MIN_CHARGED_BYTES) * 1000 / MAX_BYTES_PER_SECOND;
+    if (sleepMillis > 0) {
+      Thread.sleep(sleepMillis);
+    }
+  }
+
+  private record VerifiedDirectory(String name, DocumentType documentType, Class<?> dtoType) {}
+}
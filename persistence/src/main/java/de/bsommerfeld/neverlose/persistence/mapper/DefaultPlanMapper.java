@@ -1,5 +1,7 @@
 package de.bsommerfeld.neverlose.persistence.mapper;
 
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
 import de.bsommerfeld.neverlose.persistence.dto.TrainingExerciseDTO;
 import de.bsommerfeld.neverlose.persistence.dto.TrainingPlanDTO;
 import de.bsommerfeld.neverlose.persistence.dto.TrainingUnitDTO;
@@ -8,13 +10,31 @@ import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
 import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
 import de.bsommerfeld.neverlose.plan.components.collection.TrainingExercises;
 import de.bsommerfeld.neverlose.plan.components.collection.TrainingUnits;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-
-/** Default implementation for mapping between domain objects and persistence DTOs. */
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Default implementation for mapping between domain objects and persistence DTOs.
+ *
+ * <p>When mapping to the domain, equal strings are deduplicated through a {@link StringPool}: within
+ * a single document by default, and across all documents mapped on the same thread while a {@link
+ * LoadSession} is open.
+ *
+ * <p>Collections require unique IDs, but files written by older versions may contain a unit or
+ * exercise ID twice within the same collection. Such duplicates are logged and given a new ID
+ * derived from the original one, so that mapping the same file twice yields the same IDs.
+ */
 public class DefaultPlanMapper implements PlanMapper {
 
+  private static final LogFacade log = LogFacadeFactory.getLogger();
+
+  private final ThreadLocal<StringPool> sessionPool = new ThreadLocal<>();
+
   @Override
   public TrainingPlanDTO toDTO(TrainingPlan plan) {
     Objects.requireNonNull(plan, "Cannot map null TrainingPlan");
@@ -23,7 +43,11 @@ public class DefaultPlanMapper implements PlanMapper {
             ? Collections.emptyList()
             : plan.getTrainingUnits().getAll().stream().map(this::toDTO).toList();
 
-    return new TrainingPlanDTO(plan.getId(), plan.getName(), plan.getDescription(), unitDTOs);
+    return new TrainingPlanDTO(
+        plan.getId(),
+        plan.getName(),
+        plan.getDescription(),
+        unitDTOs);
   }
 
   @Override
@@ -35,7 +59,11 @@ public class DefaultPlanMapper implements PlanMapper {
             : unit.getTrainingExercises().getAll().stream().map(this::toDTO).toList();
 
     return new TrainingUnitDTO(
-        unit.getId(), unit.getName(), unit.getDescription(), unit.getWeekday(), exerciseDTOs);
+        unit.getId(),
+        unit.getName(),
+        unit.getDescription(),
+        unit.getWeekday(),
+        exerciseDTOs);
   }
 
   @Override
@@ -53,39 +81,96 @@ public class DefaultPlanMapper implements PlanMapper {
   @Override
   public TrainingPlan toDomain(TrainingPlanDTO dto) {
     Objects.requireNonNull(dto, "Cannot map null TrainingPlanDTO");
+    StringPool pool = pool();
 
-    List<TrainingUnit> units =
-        (dto.trainingUnits() == null)
-            ? Collections.emptyList()
-            : dto.trainingUnits().stream().map(this::toDomain).toList();
+    List<TrainingUnitDTO> unitDTOs =
+        (dto.trainingUnits() == null) ? Collections.emptyList() : dto.trainingUnits();
 
     TrainingUnits trainingUnits = new TrainingUnits();
-    units.forEach(trainingUnits::add);
+    Set<UUID> unitIds = new HashSet<>();
+    for (TrainingUnitDTO unit : unitDTOs) {
+      trainingUnits.add(toDomain(unit, uniqueId(unit.id(), unitIds, "Unit", dto.id()), pool));
+    }
 
-    return new TrainingPlan(dto.id(), dto.name(), dto.description(), trainingUnits);
+    return new TrainingPlan(
+        dto.id(), pool.intern(dto.name()), pool.intern(dto.description()), trainingUnits);
   }
 
   @Override
   public TrainingUnit toDomain(TrainingUnitDTO dto) {
     Objects.requireNonNull(dto, "Cannot map null TrainingUnitDTO");
+    return toDomain(dto, dto.id(), pool());
+  }
 
-    List<TrainingExercise> exercises =
-        (dto.trainingExercises() == null)
-            ? Collections.emptyList()
-            : dto.trainingExercises().stream().map(this::toDomain).toList();
+  private TrainingUnit toDomain(TrainingUnitDTO dto, UUID id, StringPool pool) {
+    List<TrainingExerciseDTO> exerciseDTOs =
+        (dto.trainingExercises() == null) ? Collections.emptyList() : dto.trainingExercises();
 
     TrainingExercises trainingExercises = new TrainingExercises();
-    exercises.forEach(trainingExercises::add);
+    Set<UUID> exerciseIds = new HashSet<>();
+    for (TrainingExerciseDTO exercise : exerciseDTOs) {
+      trainingExercises.add(
+          toDomain(exercise, uniqueId(exercise.id(), exerciseIds, "Exercise", id), pool));
+    }
 
     return new TrainingUnit(
-        dto.id(), dto.name(), dto.description(), dto.weekday(), trainingExercises);
+        id,
+        pool.intern(dto.name()),
+        pool.intern(dto.description()),
+        dto.weekday(),
+        trainingExercises);
   }
 
   @Override
   public TrainingExercise toDomain(TrainingExerciseDTO dto) {
     Objects.requireNonNull(dto, "Cannot map null TrainingExerciseDTO");
+    return toDomain(dto, dto.id(), pool());
+  }
 
+  private TrainingExercise toDomain(TrainingExerciseDTO dto, UUID id, StringPool pool) {
     return new TrainingExercise(
-        dto.id(), dto.name(), dto.description(), dto.duration(), dto.sets(), dto.ballBucket());
+        id,
+        pool.intern(dto.name()),
+        pool.intern(dto.description()),
+        pool.intern(dto.duration()),
+        dto.sets(),
+        dto.ballBucket());
+  }
+
+  @Override
+  public LoadSession openLoadSession() {
+    if (sessionPool.get() != null) {
+      return () -> {};
+    }
+    sessionPool.set(new StringPool());
+    return sessionPool::remove;
+  }
+
+  /**
+   * Returns the given ID, or a replacement if it was already used within the same collection. The
+   * replacement is derived from the ID and its occurrence, so it is stable across loads.
+   */
+  private static UUID uniqueId(UUID id, Set<UUID> usedIds, String typeName, UUID parentId) {
+    if (id == null || usedIds.add(id)) {
+      return id;
+    }
+    UUID replacement = id;
+    for (int occurrence = 1; !usedIds.add(replacement); occurrence++) {
+      replacement =
+          UUID.nameUUIDFromBytes((id + "#" + occurrence).getBytes(StandardCharsets.UTF_8));
+    }
+    log.warn(
+        "{} ID {} occurs more than once in {}, the duplicate was given the ID {}",
+        typeName,
+        id,
+        parentId,
+        replacement);
+    return replacement;
+  }
+
+  /** Returns the pool of the current load session, or a pool for a single document. */
+  private StringPool pool() {
+    StringPool pool = sessionPool.get();
+    return pool != null ? pool : new StringPool();
   }
 }
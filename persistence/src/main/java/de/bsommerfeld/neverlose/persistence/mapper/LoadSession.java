@@ -0,0 +1,19 @@
+package de.bsommerfeld.neverlose.persistence.mapper;
+
+import java.io.IOException;
+
+/**
+ * A bulk load during which a {@link PlanMapper} shares equal strings between all mapped objects,
+ * see {@link PlanMapper#openLoadSession()}. Closing the session releases the shared strings.
+ */
+public interface LoadSession extends AutoCloseable {
+
+  @Override
+  void close();
+
+  /** A bulk load run within a session, see {@link PlanMapper#inLoadSession(Load)}. */
+  @FunctionalInterface
+  interface Load<T> {
+    T run() throws IOException;
+  }
+}
@@ -6,6 +6,7 @@ import de.bsommerfeld.neverlose.persistence.dto.TrainingUnitDTO;
 import de.bsommerfeld.neverlose.plan.TrainingPlan;
 import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
 import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+import java.io.IOException;
 
 /** Maps between TrainingPlan domain objects and TrainingPlanDTOs for persistence. */
 public interface PlanMapper {
@@ -57,4 +58,32 @@ public interface PlanMapper {
    * @return The corresponding TrainingExercise domain object.
    */
   TrainingExercise toDomain(TrainingExerciseDTO dto);
+
+  /**
+   * Starts a bulk load on the current thread. Until the returned session is closed, every {@code
+   * toDomain} call on this thread shares equal strings (names, descriptions, durations) with the
+   * objects mapped before, which saves a lot of heap when e.g. the whole library is loaded.
+   * Sessions may be nested; only the outermost one has an effect.
+   *
+   * @return the session, to be closed when the bulk load is finished
+   */
+  default LoadSession openLoadSession() {
+    return () -> {};
+  }
+
+  /**
+   * Runs a bulk load on the current thread within a session, see {@link #openLoadSession()}.
+   *
+   * @param load the bulk load
+   * @return the result of the load
+   * @throws IOException if the load fails
+   */
+  default <T> T inLoadSession(LoadSession.Load<T> load) throws IOException {
+    LoadSession session = openLoadSession();
+    try {
+      return load.run();
+    } finally {
+      session.close();
+    }
+  }
 }
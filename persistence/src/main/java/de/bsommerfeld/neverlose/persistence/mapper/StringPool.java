@@ -0,0 +1,64 @@
+package de.bsommerfeld.neverlose.persistence.mapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deduplicates equal strings while many documents are mapped, so that e.g. the exercise "Warm-up"
+ * with its description and duration is held once instead of once per plan it appears in.
+ *
+ * <p>Unlike {@link String#intern()} the pool is not global: it lives as long as a {@link
+ * LoadSession} and is dropped afterwards, so it never keeps strings alive that no plan references
+ * anymore. It is bounded in the number of entries and only pools strings up to a maximum length;
+ * once full, further strings are passed through unchanged. Not thread-safe.
+ */
+public final class StringPool {
+
+  static final int DEFAULT_MAX_ENTRIES = 16_384;
+  static final int DEFAULT_MAX_LENGTH = 1_024;
+
+  private final Map<String, String> pool = new HashMap<>();
+  private final int maxEntries;
+  private final int maxLength;
+
+  public StringPool() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * @param maxEntries the maximum number of distinct strings held
+   * @param maxLength strings longer than this are never pooled
+   */
+  public StringPool(int maxEntries, int maxLength) {
+    this.maxEntries = maxEntries;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * Returns the pooled instance equal to the given string, adding it if there is room.
+   *
+   * @param value the string, may be null
+   * @return an equal string, shared with earlier calls where possible
+   */
+  public String intern(String value) {
+    if (value == null || value.length() > maxLength) {
+      return value;
+    }
+    if (value.isEmpty()) {
+      return "";
+    }
+    String pooled = pool.get(value);
+    if (pooled != null) {
+      return pooled;
+    }
+    if (pool.size() < maxEntries) {
+      pool.put(value, value);
+    }
+    return value;
+  }
+
+  /** Returns the number of distinct strings held. */
+  public int size() {
+    return pool.size();
+  }
+}
@@ -0,0 +1,8 @@
+package de.bsommerfeld.neverlose.persistence.migration;
+
+/** The kinds of root documents stored as individual JSON files. */
+public enum DocumentType {
+  PLAN,
+  UNIT,
+  EXERCISE
+}
@@ -0,0 +1,27 @@
+package de.bsommerfeld.neverlose.persistence.migration;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A single step in the schema migration chain, upgrading a stored document from {@link
+ * #fromVersion()} to the next version. Steps work on the raw JSON tree, so they can rename, move or
+ * drop fields that no longer exist in the current DTOs.
+ */
+public interface SchemaMigration {
+
+  /**
+   * The schema version this step upgrades from. The step produces version {@code fromVersion() +
+   * 1}.
+   */
+  int fromVersion();
+
+  /**
+   * Upgrades the given document in place. The schema version field is updated by the {@link
+   * SchemaMigrator} afterwards and must not be touched here.
+   *
+   * @param document the root node of the stored document.
+   * @param type the kind of document, as plans embed units and units embed exercises.
+   * @return true if the document was changed, false if the step only bumps the version.
+   */
+  boolean migrate(ObjectNode document, DocumentType type);
+}
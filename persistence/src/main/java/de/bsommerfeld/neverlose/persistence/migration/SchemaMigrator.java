@@ -0,0 +1,99 @@
+package de.bsommerfeld.neverlose.persistence.migration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.inject.Singleton;
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings stored documents up to {@link #CURRENT_VERSION} by applying the registered {@link
+ * SchemaMigration} steps one after another. Documents without a version field are treated as
+ * version 0.
+ *
+ * <p>Migration happens on read and in memory only; whether the upgraded document is written back is
+ * up to the caller. Documents are only reported as changed if a step changed their content, as a
+ * new version stamp alone is not worth a write. Documents newer than {@link #CURRENT_VERSION} are
+ * left untouched and must not be written back, as that would drop the fields this release does not
+ * know.
+ */
+@Singleton
+public class SchemaMigrator {
+
+  /** The schema version written by this release. */
+  public static final int CURRENT_VERSION = 1;
+
+  /** Name of the JSON field holding the schema version of a document. */
+  public static final String VERSION_FIELD = "schemaVersion";
+
+  private static final LogFacade log = LogFacadeFactory.getLogger();
+
+  private final Map<Integer, SchemaMigration> stepsByVersion = new HashMap<>();
+
+  public SchemaMigrator() {
+    this(List.of(new UnversionedToV1Migration()));
+  }
+
+  SchemaMigrator(List<SchemaMigration> steps) {
+    for (SchemaMigration step : steps) {
+      if (stepsByVersion.put(step.fromVersion(), step) != null) {
+        throw new IllegalArgumentException(
+            "Duplicate migration from version " + step.fromVersion());
+      }
+    }
+    for (int version = 0; version < CURRENT_VERSION; version++) {
+      if (!stepsByVersion.containsKey(version)) {
+        throw new IllegalStateException("Missing migration from version " + version);
+      }
+    }
+  }
+
+  /**
+   * Returns the schema version of the given document.
+   *
+   * @param document the root node of a stored document.
+   * @return the stored version, or 0 if the document predates versioning.
+   */
+  public static int versionOf(JsonNode document) {
+    return document.path(VERSION_FIELD).asInt(0);
+  }
+
+  /**
+   * Upgrades the given document in place to the current schema version.
+   *
+   * @param document the root node of a stored document.
+   * @param type the kind of document.
+   * @return true if a step changed the document's content and it should eventually be written
+   *     back.
+   */
+  public boolean migrate(JsonNode document, DocumentType type) {
+    if (!(document instanceof ObjectNode objectNode)) {
+      return false; // Not a document we can migrate, let deserialization report the problem
+    }
+
+    int version = versionOf(objectNode);
+    if (version > CURRENT_VERSION) {
+      log.warn(
+          "{} document has schema version {}, newer than supported version {}. Unknown fields are"
+              + " ignored and the document is not saved.",
+          type,
+          version,
+          CURRENT_VERSION);
+      return false;
+    }
+    if (version == CURRENT_VERSION) {
+      return false;
+    }
+
+    boolean changed = false;
+    while (version < CURRENT_VERSION) {
+      changed |= stepsByVersion.get(version).migrate(objectNode, type);
+      version++;
+      objectNode.put(VERSION_FIELD, version);
+    }
+    return changed;
+  }
+}
@@ -0,0 +1,20 @@
+package de.bsommerfeld.neverlose.persistence.migration;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Upgrades documents written before schema versioning was introduced. The structure of version 1 is
+ * identical, so the only effect is that the document gets stamped with a version.
+ */
+class UnversionedToV1Migration implements SchemaMigration {
+
+  @Override
+  public int fromVersion() {
+    return 0;
+  }
+
+  @Override
+  public boolean migrate(ObjectNode document, DocumentType type) {
+    return false;
+  }
+}
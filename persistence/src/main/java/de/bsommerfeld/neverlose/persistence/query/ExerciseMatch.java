@@ -0,0 +1,33 @@
+package de.bsommerfeld.neverlose.persistence.query;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * A training exercise found by an {@link ExerciseQuery}, carrying the indexed attributes and where
+ * the exercise is stored.
+ *
+ * @param exerciseId identifier of the exercise.
+ * @param name name of the exercise.
+ * @param sets number of sets.
+ * @param ballBucket whether a ball bucket is required.
+ * @param duration the duration as entered by the user.
+ * @param parsedDuration the parsed duration, or null if it could not be interpreted.
+ * @param unitId identifier of the containing unit, or null for an exercise template.
+ * @param planId identifier of the containing plan, or null if the exercise is not part of a plan.
+ */
+public record ExerciseMatch(
+    UUID exerciseId,
+    String name,
+    int sets,
+    boolean ballBucket,
+    String duration,
+    Duration parsedDuration,
+    UUID unitId,
+    UUID planId) {
+
+  /** Whether this is an exercise template rather than an exercise inside a unit. */
+  public boolean isTemplate() {
+    return unitId == null;
+  }
+}
@@ -0,0 +1,88 @@
+package de.bsommerfeld.neverlose.persistence.query;
+
+import java.time.Duration;
+
+/**
+ * Structured query for training exercises, answered from the storage indexes. Criteria that are
+ * null are not applied; bounds are inclusive. Instances are immutable; the {@code with...} methods
+ * return modified copies.
+ *
+ * <pre>{@code
+ * ExerciseQuery.all().withMinSets(5).withBallBucket(true)
+ * }</pre>
+ *
+ * @param minSets minimum number of sets.
+ * @param maxSets maximum number of sets.
+ * @param ballBucket whether a ball bucket is (true) or is not (false) required.
+ * @param minDuration minimum parsed duration. Exercises whose duration cannot be parsed never
+ *     match a duration bound.
+ * @param maxDuration maximum parsed duration.
+ */
+public record ExerciseQuery(
+    Integer minSets,
+    Integer maxSets,
+    Boolean ballBucket,
+    Duration minDuration,
+    Duration maxDuration) {
+
+  /** A query matching every exercise. */
+  public static ExerciseQuery all() {
+    return new ExerciseQuery(null, null, null, null, null);
+  }
+
+  public ExerciseQuery withMinSets(int minSets) {
+    return new ExerciseQuery(minSets, maxSets, ballBucket, minDuration, maxDuration);
+  }
+
+  public ExerciseQuery withMaxSets(int maxSets) {
+    return new ExerciseQuery(minSets, maxSets, ballBucket, minDuration, maxDuration);
+  }
+
+  public ExerciseQuery withBallBucket(boolean ballBucket) {
+    return new ExerciseQuery(minSets, maxSets, ballBucket, minDuration, maxDuration);
+  }
+
+  public ExerciseQuery withMinDuration(Duration minDuration) {
+    return new ExerciseQuery(minSets, maxSets, ballBucket, minDuration, maxDuration);
+  }
+
+  public ExerciseQuery withMaxDuration(Duration maxDuration) {
+    return new ExerciseQuery(minSets, maxSets, ballBucket, minDuration, maxDuration);
+  }
+
+  /** Whether the query restricts the number of sets. */
+  public boolean hasSetsBound() {
+    return minSets != null || maxSets != null;
+  }
+
+  /** Whether the query restricts the duration. */
+  public boolean hasDurationBound() {
+    return minDuration != null || maxDuration != null;
+  }
+
+  /** Evaluates the query against a single indexed exercise. */
+  public boolean matches(ExerciseMatch exercise) {
+    if (minSets != null && exercise.sets() < minSets) {
+      return false;
+    }
+    if (maxSets != null && exercise.sets() > maxSets) {
+      return false;
+    }
+    if (ballBucket != null && ballBucket != exercise.ballBucket()) {
+      return false;
+    }
+    if (hasDurationBound()) {
+      Duration duration = exercise.parsedDuration();
+      if (duration == null) {
+        return false;
+      }
+      if (minDuration != null && duration.compareTo(minDuration) < 0) {
+        return false;
+      }
+      if (maxDuration != null && duration.compareTo(maxDuration) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
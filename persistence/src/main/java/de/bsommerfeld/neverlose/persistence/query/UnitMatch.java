@@ -0,0 +1,24 @@
+package de.bsommerfeld.neverlose.persistence.query;
+
+import de.bsommerfeld.neverlose.plan.components.Weekday;
+import java.util.UUID;
+
+/**
+ * A training unit found by a {@link UnitQuery}, carrying the indexed attributes and where the unit
+ * is stored.
+ *
+ * @param unitId identifier of the unit.
+ * @param name name of the unit.
+ * @param weekday weekday the unit is scheduled on.
+ * @param ballBucket whether any exercise of the unit requires a ball bucket.
+ * @param planId identifier of the plan containing the unit, or null for a unit template.
+ * @param planName name of the plan containing the unit, or null for a unit template.
+ */
+public record UnitMatch(
+    UUID unitId, String name, Weekday weekday, boolean ballBucket, UUID planId, String planName) {
+
+  /** Whether this is a unit template rather than a unit inside a plan. */
+  public boolean isTemplate() {
+    return planId == null;
+  }
+}
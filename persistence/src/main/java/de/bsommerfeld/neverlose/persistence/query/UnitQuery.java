@@ -0,0 +1,37 @@
+package de.bsommerfeld.neverlose.persistence.query;
+
+import de.bsommerfeld.neverlose.plan.components.Weekday;
+
+/**
+ * Structured query for training units, answered from the storage indexes. Criteria that are null
+ * are not applied. Instances are immutable; the {@code with...} methods return modified copies.
+ *
+ * <pre>{@code
+ * UnitQuery.all().onWeekday(Weekday.TUESDAY).withBallBucket(true)
+ * }</pre>
+ *
+ * @param weekday only units scheduled on this weekday.
+ * @param ballBucket only units that do (true) or do not (false) contain an exercise requiring a
+ *     ball bucket.
+ */
+public record UnitQuery(Weekday weekday, Boolean ballBucket) {
+
+  /** A query matching every unit. */
+  public static UnitQuery all() {
+    return new UnitQuery(null, null);
+  }
+
+  public UnitQuery onWeekday(Weekday weekday) {
+    return new UnitQuery(weekday, ballBucket);
+  }
+
+  public UnitQuery withBallBucket(boolean ballBucket) {
+    return new UnitQuery(weekday, ballBucket);
+  }
+
+  /** Evaluates the query against a single indexed unit. */
+  public boolean matches(UnitMatch unit) {
+    return (weekday == null || weekday == unit.weekday())
+        && (ballBucket == null || ballBucket == unit.ballBucket());
+  }
+}
@@ -0,0 +1,370 @@
+package de.bsommerfeld.neverlose.persistence.service;
+
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import de.bsommerfeld.neverlose.persistence.dto.TrainingExerciseDTO;
+import de.bsommerfeld.neverlose.persistence.dto.TrainingPlanDTO;
+import de.bsommerfeld.neverlose.persistence.dto.TrainingUnitDTO;
+import de.bsommerfeld.neverlose.persistence.mapper.PlanMapper;
+import de.bsommerfeld.neverlose.persistence.model.ExerciseSummary;
+import de.bsommerfeld.neverlose.persistence.model.PlanSummary;
+import de.bsommerfeld.neverlose.persistence.model.UnitSummary;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseMatch;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseQuery;
+import de.bsommerfeld.neverlose.persistence.query.UnitMatch;
+import de.bsommerfeld.neverlose.persistence.query.UnitQuery;
+import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
+import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read-through cache in front of a slow {@link PlanStorageService}, typically a library on a
+ * network share.
+ *
+ * <p>Summary listings are served from memory; once they are older than the configured TTL the stale
+ * listing is still returned while a background thread refreshes it, so callers never wait on the
+ * share after the first listing. Loaded objects are cached as immutable DTOs and mapped to fresh
+ * domain objects on every hit, so callers cannot mutate the cache. Writes are passed through and
+ * invalidate the affected entries.
+ */
+public class CachingPlanStorageService implements PlanStorageService {
+
+  private static final LogFacade log = LogFacadeFactory.getLogger();
+  private static final int MAX_CACHED_QUERIES = 64;
+
+  private final PlanStorageService delegate;
+  private final PlanMapper planMapper;
+  private final long ttlNanos;
+  private final ExecutorService refreshExecutor;
+
+  private final RefreshingList<PlanSummary> planSummaries;
+  private final RefreshingList<UnitSummary> unitSummaries;
+  private final RefreshingList<ExerciseSummary> exerciseSummaries;
+  private final Map<UUID, Timed<TrainingPlanDTO>> plans = new ConcurrentHashMap<>();
+  private final Map<UUID, Timed<TrainingUnitDTO>> units = new ConcurrentHashMap<>();
+  private final Map<UUID, Timed<TrainingExerciseDTO>> exercises = new ConcurrentHashMap<>();
+  private final Map<UnitQuery, Timed<List<UnitMatch>>> unitQueries = boundedQueryCache();
+  private final Map<ExerciseQuery, Timed<List<ExerciseMatch>>> exerciseQueries =
+      boundedQueryCache();
+
+  public CachingPlanStorageService(
+      PlanStorageService delegate, PlanMapper planMapper, Duration ttl) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.planMapper = Objects.requireNonNull(planMapper);
+    this.ttlNanos = Objects.requireNonNull(ttl).toNanos();
+    this.refreshExecutor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "storage-cache-refresh");
+              thread.setDaemon(true);
+              thread.setPriority(Thread.MIN_PRIORITY);
+              return thread;
+            });
+
+    this.planSummaries = new RefreshingList<>("plan", delegate::loadPlanSummaries);
+    this.unitSummaries = new RefreshingList<>("unit", delegate::loadAllUnitSummaries);
+    this.exerciseSummaries = new RefreshingList<>("exercise", delegate::loadAllExerciseSummaries);
+  }
+
+  /** Drops every cached listing and object, forcing the next access to hit the delegate. */
+  public void invalidateAll() {
+    planSummaries.invalidate();
+    unitSummaries.invalidate();
+    exerciseSummaries.invalidate();
+    plans.clear();
+    units.clear();
+    exercises.clear();
+    invalidateQueries();
+  }
+
+  private void invalidateQueries() {
+    unitQueries.clear();
+    exerciseQueries.clear();
+  }
+
+  @Override
+  public String savePlan(TrainingPlan plan) throws IOException {
+    String identifier = delegate.savePlan(plan);
+    plans.remove(plan.getId());
+    planSummaries.invalidate();
+    invalidateQueries();
+    return identifier;
+  }
+
+  @Override
+  public List<String> savePlans(Collection<TrainingPlan> plans) throws IOException {
+    try {
+      return delegate.savePlans(plans);
+    } finally {
+      for (TrainingPlan plan : plans) {
+        this.plans.remove(plan.getId());
+      }
+      planSummaries.invalidate();
+      invalidateQueries();
+    }
+  }
+
+  @Override
+  public Optional<TrainingPlan> loadPlan(UUID uuid) throws IOException {
+    Objects.requireNonNull(uuid, "planId cannot be null");
+    Timed<TrainingPlanDTO> cached = plans.get(uuid);
+    if (cached != null && isFresh(cached.loadedAt())) {
+      return Optional.of(planMapper.toDomain(cached.value()));
+    }
+    Optional<TrainingPlan> loaded = delegate.loadPlan(uuid);
+    loaded.ifPresentOrElse(
+        plan -> plans.put(uuid, new Timed<>(planMapper.toDTO(plan), System.nanoTime())),
+        () -> plans.remove(uuid));
+    return loaded;
+  }
+
+  @Override
+  public List<TrainingPlan> loadPlans(Collection<UUID> planIds) throws IOException {
+    // Also covers the misses, as the delegate maps with the same mapper on this thread
+    return planMapper.inLoadSession(() -> PlanStorageService.super.loadPlans(planIds));
+  }
+
+  @Override
+  public List<PlanSummary> loadPlanSummaries() throws IOException {
+    return planSummaries.get();
+  }
+
+  @Override
+  public boolean deletePlan(UUID uuid) throws IOException {
+    boolean deleted = delegate.deletePlan(uuid);
+    plans.remove(uuid);
+    planSummaries.invalidate();
+    invalidateQueries();
+    return deleted;
+  }
+
+  @Override
+  public String getPlanIdentifier(TrainingPlan plan) {
+    return delegate.getPlanIdentifier(plan);
+  }
+
+  @Override
+  public void saveUnit(TrainingUnit unit) throws IOException {
+    delegate.saveUnit(unit);
+    units.remove(unit.getId());
+    unitSummaries.invalidate();
+    invalidateQueries();
+  }
+
+  @Override
+  public Optional<TrainingUnit> loadUnit(UUID unitId) throws IOException {
+    Objects.requireNonNull(unitId, "unitId cannot be null");
+    Timed<TrainingUnitDTO> cached = units.get(unitId);
+    if (cached != null && isFresh(cached.loadedAt())) {
+      return Optional.of(planMapper.toDomain(cached.value()));
+    }
+    Optional<TrainingUnit> loaded = delegate.loadUnit(unitId);
+    loaded.ifPresentOrElse(
+        unit -> units.put(unitId, new Timed<>(planMapper.toDTO(unit), System.nanoTime())),
+        () -> units.remove(unitId));
+    return loaded;
+  }
+
+  @Override
+  public List<UnitSummary> loadAllUnitSummaries() throws IOException {
+    return unitSummaries.get();
+  }
+
+  @Override
+  public List<UnitSummary> loadUnitSummaries() throws IOException {
+    return loadAllUnitSummaries();
+  }
+
+  @Override
+  public boolean deleteUnit(UUID unitId) throws IOException {
+    boolean deleted = delegate.deleteUnit(unitId);
+    units.remove(unitId);
+    unitSummaries.invalidate();
+    invalidateQueries();
+    return deleted;
+  }
+
+  @Override
+  public String getUnitIdentifier(TrainingUnit unit) {
+    return delegate.getUnitIdentifier(unit);
+  }
+
+  @Override
+  public void saveExercise(TrainingExercise exercise) throws IOException {
+    delegate.saveExercise(exercise);
+    exercises.remove(exercise.getId());
+    exerciseSummaries.invalidate();
+    invalidateQueries();
+  }
+
+  @Override
+  public Optional<TrainingExercise> loadExercise(UUID exerciseId) throws IOException {
+    Objects.requireNonNull(exerciseId, "exerciseId cannot be null");
+    Timed<TrainingExerciseDTO> cached = exercises.get(exerciseId);
+    if (cached != null && isFresh(cached.loadedAt())) {
+      return Optional.of(planMapper.toDomain(cached.value()));
+    }
+    Optional<TrainingExercise> loaded = delegate.loadExercise(exerciseId);
+    loaded.ifPresentOrElse(
+        exercise ->
+            exercises.put(exerciseId, new Timed<>(planMapper.toDTO(exercise), System.nanoTime())),
+        () -> exercises.remove(exerciseId));
+    return loaded;
+  }
+
+  @Override
+  public List<ExerciseSummary> loadAllExerciseSummaries() throws IOException {
+    return exerciseSummaries.get();
+  }
+
+  @Override
+  public List<ExerciseSummary> loadExerciseSummaries() throws IOException {
+    return loadAllExerciseSummaries();
+  }
+
+  @Override
+  public boolean deleteExercise(UUID exerciseId) throws IOException {
+    boolean deleted = delegate.deleteExercise(exerciseId);
+    exercises.remove(exerciseId);
+    exerciseSummaries.invalidate();
+    invalidateQueries();
+    return deleted;
+  }
+
+  @Override
+  public String getExerciseIdentifier(TrainingExercise exercise) {
+    return delegate.getExerciseIdentifier(exercise);
+  }
+
+  @Override
+  public Path getStoragePath() {
+    return delegate.getStoragePath();
+  }
+
+  @Override
+  public Optional<UUID> findUnitIdByName(String name) throws IOException {
+    return unitSummaries.get().stream()
+        .filter(summary -> summary.name().equals(name))
+        .map(UnitSummary::identifier)
+        .findFirst();
+  }
+
+  @Override
+  public Optional<UUID> findExerciseIdByName(String name) throws IOException {
+    return exerciseSummaries.get().stream()
+        .filter(summary -> summary.name().equals(name))
+        .map(ExerciseSummary::identifier)
+        .findFirst();
+  }
+
+  @Override
+  public List<UnitMatch> findUnits(UnitQuery query) throws IOException {
+    Timed<List<UnitMatch>> cached = unitQueries.get(query);
+    if (cached != null && isFresh(cached.loadedAt())) {
+      return cached.value();
+    }
+    List<UnitMatch> result = List.copyOf(delegate.findUnits(query));
+    unitQueries.put(query, new Timed<>(result, System.nanoTime()));
+    return result;
+  }
+
+  @Override
+  public List<ExerciseMatch> findExercises(ExerciseQuery query) throws IOException {
+    Timed<List<ExerciseMatch>> cached = exerciseQueries.get(query);
+    if (cached != null && isFresh(cached.loadedAt())) {
+      return cached.value();
+    }
+    List<ExerciseMatch> result = List.copyOf(delegate.findExercises(query));
+    exerciseQueries.put(query, new Timed<>(result, System.nanoTime()));
+    return result;
+  }
+
+  /**
+   * Query results are keyed by every distinct query a user types, so only the most recently used
+   * ones are kept.
+   */
+  private static <Q, R> Map<Q, R> boundedQueryCache() {
+    return Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Q, R> eldest) {
+            return size() > MAX_CACHED_QUERIES;
+          }
+        });
+  }
+
+  private boolean isFresh(long loadedAt) {
+    return System.nanoTime() - loadedAt < ttlNanos;
+  }
+
+  @FunctionalInterface
+  private interface ListLoader<S> {
+    List<S> load() throws IOException;
+  }
+
+  private record Timed<T>(T value, long loadedAt) {}
+
+  /**
+   * A cached listing that is loaded synchronously once and afterwards refreshed in the background
+   * whenever it is accessed after its TTL expired (stale-while-revalidate).
+   */
+  private final class RefreshingList<S> {
+
+    private final String typeName;
+    private final ListLoader<S> loader;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Timed<List<S>> current;
+
+    private RefreshingList(String typeName, ListLoader<S> loader) {
+      this.typeName = typeName;
+      this.loader = loader;
+    }
+
+    private List<S> get() throws IOException {
+      Timed<List<S>> snapshot = current;
+      if (snapshot == null) {
+        return loadNow();
+      }
+      if (!isFresh(snapshot.loadedAt()) && refreshing.compareAndSet(false, true)) {
+        refreshExecutor.execute(this::refreshInBackground);
+      }
+      return snapshot.value();
+    }
+
+    private List<S> loadNow() throws IOException {
+      List<S> loaded = List.copyOf(loader.load());
+      current = new Timed<>(loaded, System.nanoTime());
+      return loaded;
+    }
+
+    private void refreshInBackground() {
+      try {
+        loadNow();
+        log.debug("Refreshed cached {} summaries", typeName);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Could not refresh cached {} summaries, keeping stale listing", typeName, e);
+      } finally {
+        refreshing.set(false);
+      }
+    }
+
+    private void invalidate() {
+      current = null;
+    }
+  }
+}
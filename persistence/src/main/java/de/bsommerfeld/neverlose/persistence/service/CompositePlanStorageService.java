@@ -0,0 +1,349 @@
+package de.bsommerfeld.neverlose.persistence.service;
+
+import de.bsommerfeld.neverlose.logger.LogFacade;
+import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
+import de.bsommerfeld.neverlose.persistence.index.SummaryIndex;
+import de.bsommerfeld.neverlose.persistence.model.ExerciseSummary;
+import de.bsommerfeld.neverlose.persistence.model.PlanSummary;
+import de.bsommerfeld.neverlose.persistence.model.UnitSummary;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseMatch;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseQuery;
+import de.bsommerfeld.neverlose.persistence.query.UnitMatch;
+import de.bsommerfeld.neverlose.persistence.query.UnitQuery;
+import de.bsommerfeld.neverlose.plan.TrainingPlan;
+import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
+import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Federates several storage roots behind a single {@link PlanStorageService}, e.g. a read-only club
+ * library on a network share and the coach's local library.
+ *
+ * <p>All writes and deletes are routed to the single writable root. An object the writable root
+ * knows therefore always shadows objects with the same identifier in other roots, otherwise a saved
+ * edit of a read-only object would be hidden behind the original. The other roots are consulted in
+ * precedence order, which also decides lookups by name. Objects that exist in read-only roots only
+ * cannot be deleted. Failures of read-only roots (e.g., an unreachable share) are logged and
+ * skipped so the local library stays usable.
+ */
+public class CompositePlanStorageService implements PlanStorageService {
+
+  private static final LogFacade log = LogFacadeFactory.getLogger();
+
+  private final List<PlanStorageService> roots;
+  private final List<PlanStorageService> rootsByIdentifier;
+  private final PlanStorageService writableRoot;
+
+  /**
+   * @param rootsInPrecedenceOrder all roots, highest precedence first. Must contain the writable
+   *     root.
+   * @param writableRoot the root receiving all writes and deletes.
+   */
+  public CompositePlanStorageService(
+      List<PlanStorageService> rootsInPrecedenceOrder, PlanStorageService writableRoot) {
+    this.roots = List.copyOf(rootsInPrecedenceOrder);
+    this.writableRoot = Objects.requireNonNull(writableRoot);
+    if (!roots.contains(writableRoot)) {
+      throw new IllegalArgumentException("The writable root must be one of the federated roots");
+    }
+    List<PlanStorageService> byIdentifier = new ArrayList<>(roots);
+    byIdentifier.remove(writableRoot);
+    byIdentifier.addFirst(writableRoot);
+    this.rootsByIdentifier = List.copyOf(byIdentifier);
+  }
+
+  @Override
+  public String savePlan(TrainingPlan plan) throws IOException {
+    return writableRoot.savePlan(plan);
+  }
+
+  @Override
+  public List<String> savePlans(Collection<TrainingPlan> plans) throws IOException {
+    return writableRoot.savePlans(plans);
+  }
+
+  @Override
+  public Optional<TrainingPlan> loadPlan(UUID uuid) throws IOException {
+    return loadFirst(rootsByIdentifier, root -> root.loadPlan(uuid), "plan " + uuid);
+  }
+
+  /**
+   * Loads the plans root by root, writable root first, so that every root can load its share in a
+   * single bulk load.
+   */
+  @Override
+  public List<TrainingPlan> loadPlans(Collection<UUID> planIds) throws IOException {
+    Map<UUID, TrainingPlan> found = new HashMap<>();
+    List<UUID> remaining = new ArrayList<>(planIds);
+    for (PlanStorageService root : rootsByIdentifier) {
+      if (remaining.isEmpty()) {
+        break;
+      }
+      try {
+        for (TrainingPlan plan : root.loadPlans(remaining)) {
+          found.put(plan.getId(), plan);
+        }
+      } catch (IOException e) {
+        if (root == writableRoot) {
+          throw e;
+        }
+        log.warn("Skipping unavailable storage root while loading {} plans", remaining.size(), e);
+      }
+      remaining.removeIf(found::containsKey);
+    }
+    return planIds.stream().map(found::get).filter(Objects::nonNull).toList();
+  }
+
+  @Override
+  public List<PlanSummary> loadPlanSummaries() throws IOException {
+    return mergeSummaries(
+        PlanStorageService::loadPlanSummaries, PlanSummary::identifier, PlanSummary::name);
+  }
+
+  @Override
+  public boolean deletePlan(UUID uuid) throws IOException {
+    return deleteWritable(
+        root -> root.deletePlan(uuid),
+        PlanStorageService::loadPlanSummaries,
+        PlanSummary::identifier,
+        uuid,
+        "plan");
+  }
+
+  @Override
+  public String getPlanIdentifier(TrainingPlan plan) {
+    return writableRoot.getPlanIdentifier(plan);
+  }
+
+  @Override
+  public void saveUnit(TrainingUnit unit) throws IOException {
+    writableRoot.saveUnit(unit);
+  }
+
+  @Override
+  public Optional<TrainingUnit> loadUnit(UUID unitId) throws IOException {
+    return loadFirst(rootsByIdentifier, root -> root.loadUnit(unitId), "unit " + unitId);
+  }
+
+  @Override
+  public List<UnitSummary> loadAllUnitSummaries() throws IOException {
+    return mergeSummaries(
+        PlanStorageService::loadAllUnitSummaries, UnitSummary::identifier, UnitSummary::name);
+  }
+
+  @Override
+  public List<UnitSummary> loadUnitSummaries() throws IOException {
+    return loadAllUnitSummaries();
+  }
+
+  @Override
+  public boolean deleteUnit(UUID unitId) throws IOException {
+    return deleteWritable(
+        root -> root.deleteUnit(unitId),
+        PlanStorageService::loadAllUnitSummaries,
+        UnitSummary::identifier,
+        unitId,
+        "unit");
+  }
+
+  @Override
+  public String getUnitIdentifier(TrainingUnit unit) {
+    return writableRoot.getUnitIdentifier(unit);
+  }
+
+  @Override
+  public void saveExercise(TrainingExercise exercise) throws IOException {
+    writableRoot.saveExercise(exercise);
+  }
+
+  @Override
+  public Optional<TrainingExercise> loadExercise(UUID exerciseId) throws IOException {
+    return loadFirst(
+        rootsByIdentifier, root -> root.loadExercise(exerciseId), "exercise " + exerciseId);
+  }
+
+  @Override
+  public List<ExerciseSummary> loadAllExerciseSummaries() throws IOException {
+    return mergeSummaries(
+        PlanStorageService::loadAllExerciseSummaries,
+        ExerciseSummary::identifier,
+        ExerciseSummary::name);
+  }
+
+  @Override
+  public List<ExerciseSummary> loadExerciseSummaries() throws IOException {
+    return loadAllExerciseSummaries();
+  }
+
+  @Override
+  public boolean deleteExercise(UUID exerciseId) throws IOException {
+    return deleteWritable(
+        root -> root.deleteExercise(exerciseId),
+        PlanStorageService::loadAllExerciseSummaries,
+        ExerciseSummary::identifier,
+        exerciseId,
+        "exercise");
+  }
+
+  @Override
+  public String getExerciseIdentifier(TrainingExercise exercise) {
+    return writableRoot.getExerciseIdentifier(exercise);
+  }
+
+  @Override
+  public Path getStoragePath() {
+    return writableRoot.getStoragePath();
+  }
+
+  @Override
+  public Optional<UUID> findUnitIdByName(String name) throws IOException {
+    return loadFirst(roots, root -> root.findUnitIdByName(name), "unit named '" + name + "'");
+  }
+
+  @Override
+  public Optional<UUID> findExerciseIdByName(String name) throws IOException {
+    return loadFirst(
+        roots, root -> root.findExerciseIdByName(name), "exercise named '" + name + "'");
+  }
+
+  @Override
+  public List<UnitMatch> findUnits(UnitQuery query) throws IOException {
+    return mergeMatches(
+        root -> root.findUnits(query),
+        unit -> List.of(unit.planId() == null ? unit.unitId() : unit.planId(), unit.unitId()),
+        Comparator.comparing((UnitMatch unit) -> SummaryIndex.collationKey(unit.name()))
+            .thenComparing(UnitMatch::unitId));
+  }
+
+  @Override
+  public List<ExerciseMatch> findExercises(ExerciseQuery query) throws IOException {
+    return mergeMatches(
+        root -> root.findExercises(query),
+        exercise -> Arrays.asList(exercise.planId(), exercise.unitId(), exercise.exerciseId()),
+        Comparator.comparing((ExerciseMatch exercise) -> SummaryIndex.collationKey(exercise.name()))
+            .thenComparing(ExerciseMatch::exerciseId));
+  }
+
+  private <T> Optional<T> loadFirst(
+      List<PlanStorageService> order, RootOperation<Optional<T>> operation, String description)
+      throws IOException {
+    for (PlanStorageService root : order) {
+      try {
+        Optional<T> result = operation.apply(root);
+        if (result.isPresent()) {
+          return result;
+        }
+      } catch (IOException e) {
+        if (root == writableRoot) {
+          throw e;
+        }
+        log.warn("Skipping unavailable storage root while looking up {}", description, e);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private <S> List<S> mergeSummaries(
+      RootOperation<List<S>> listing,
+      Function<S, UUID> idExtractor,
+      Function<S, String> nameExtractor)
+      throws IOException {
+    if (roots.size() == 1) {
+      return listing.apply(writableRoot);
+    }
+
+    // Insert the writable root last so that it replaces duplicates
+    SummaryIndex<S> merged = new SummaryIndex<>(idExtractor, nameExtractor);
+    for (PlanStorageService root : rootsByIdentifier.reversed()) {
+      try {
+        listing.apply(root).forEach(merged::put);
+      } catch (IOException e) {
+        if (root == writableRoot) {
+          throw e;
+        }
+        log.warn("Skipping unavailable storage root while listing summaries", e);
+      }
+    }
+    return merged.snapshot();
+  }
+
+  /**
+   * Concatenates the query results of all roots. Matches with the same location (plan, unit and
+   * element identifier) are kept only from the writable root, or else the highest-precedence root.
+   */
+  private <M> List<M> mergeMatches(
+      RootOperation<List<M>> query, Function<M, List<UUID>> locationKey, Comparator<M> order)
+      throws IOException {
+    if (roots.size() == 1) {
+      return query.apply(writableRoot);
+    }
+
+    Map<List<UUID>, M> merged = new LinkedHashMap<>();
+    for (PlanStorageService root : rootsByIdentifier) {
+      try {
+        for (M match : query.apply(root)) {
+          merged.putIfAbsent(locationKey.apply(match), match);
+        }
+      } catch (IOException e) {
+        if (root == writableRoot) {
+          throw e;
+        }
+        log.warn("Skipping unavailable storage root while querying", e);
+      }
+    }
+    List<M> result = new ArrayList<>(merged.values());
+    result.sort(order);
+    return result;
+  }
+
+  /**
+   * Deletes an object from the writable root. If the writable root does not know the object but a
+   * read-only root lists it, the delete is refused instead of silently keeping the object listed.
+   */
+  private <S> boolean deleteWritable(
+      RootOperation<Boolean> delete,
+      RootOperation<List<S>> listing,
+      Function<S, UUID> idExtractor,
+      UUID id,
+      String typeName)
+      throws IOException {
+    if (delete.apply(writableRoot)) {
+      return true;
+    }
+    for (PlanStorageService root : roots) {
+      if (root == writableRoot) {
+        continue;
+      }
+      boolean listed;
+      try {
+        listed = listing.apply(root).stream().map(idExtractor).anyMatch(id::equals);
+      } catch (IOException e) {
+        log.warn("Skipping unavailable storage root while deleting {} {}", typeName, id, e);
+        continue;
+      }
+      if (listed) {
+        throw new IOException(
+            "The " + typeName + " belongs to a read-only library and cannot be deleted");
+      }
+    }
+    return false;
+  }
+
+  @FunctionalInterface
+  private interface RootOperation<R> {
+    R apply(PlanStorageService root) throws IOException;
+  }
+}
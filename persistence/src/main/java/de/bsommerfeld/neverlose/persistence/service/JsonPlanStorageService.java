@@ -3,6 +3,7 @@ package de.bsommerfeld.neverlose.persistence.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import de.bsommerfeld.neverlose.logger.LogFacade;
@@ -10,25 +11,51 @@ import de.bsommerfeld.neverlose.logger.LogFacadeFactory;
 import de.bsommerfeld.neverlose.persistence.dto.TrainingExerciseDTO;
 import de.bsommerfeld.neverlose.persistence.dto.TrainingPlanDTO;
 import de.bsommerfeld.neverlose.persistence.dto.TrainingUnitDTO;
+import de.bsommerfeld.neverlose.persistence.index.AttributeIndex;
+import de.bsommerfeld.neverlose.persistence.index.SummaryIndex;
 import de.bsommerfeld.neverlose.persistence.mapper.PlanMapper;
+import de.bsommerfeld.neverlose.persistence.migration.DocumentType;
+import de.bsommerfeld.neverlose.persistence.migration.SchemaMigrator;
 import de.bsommerfeld.neverlose.persistence.model.ExerciseSummary;
 import de.bsommerfeld.neverlose.persistence.model.PlanSummary;
 import de.bsommerfeld.neverlose.persistence.model.UnitSummary;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseMatch;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseQuery;
+import de.bsommerfeld.neverlose.persistence.query.UnitMatch;
+import de.bsommerfeld.neverlose.persistence.query.UnitQuery;
 import de.bsommerfeld.neverlose.plan.TrainingPlan;
 import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
 import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
+import de.bsommerfeld.neverlose.plan.snapshot.PlanSnapshot;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Service implementation for loading and saving TrainingPlan domain objects as JSON files in a
  * designated storage directory.
+ *
+ * <p>Files are upgraded to the current schema version on read. Upgraded files are written back
+ * lazily on a background thread, unless the service was created for a read-only library. A
+ * read-only service never creates, writes or deletes anything below its storage directory.
+ *
+ * <p>Saving a plan whose content hash matches the state last loaded from or written to its file is
+ * a no-op, as long as the file was not modified by anyone else in the meantime.
  */
 public class JsonPlanStorageService implements PlanStorageService {
 
@@ -37,31 +64,103 @@ public class JsonPlanStorageService implements PlanStorageService {
   private static final String PLANS_DIR = "plans";
   private static final String UNITS_DIR = "units";
   private static final String EXERCISES_DIR = "exercises";
+  // How long a summary index is trusted before the directory is checked for outside changes again
+  private static final long EXTERNAL_CHANGE_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
 
   private final ObjectMapper objectMapper;
   private final PlanMapper planMapper;
+  private final SchemaMigrator schemaMigrator;
+  private final boolean writable;
+  private final Object writeLock = new Object();
+  private final ExecutorService migrationWriter;
   private final Path storageDirectory;
   private final Path plansPath;
   private final Path unitsPath;
   private final Path exercisesPath;
+  private final SummaryDirectory<PlanSummary> planSummaries;
+  private final SummaryDirectory<UnitSummary> unitSummaries;
+  private final SummaryDirectory<ExerciseSummary> exerciseSummaries;
+  private final AttributeIndex attributeIndex = new AttributeIndex();
+  private final Map<UUID, StoredPlanState> storedPlanStates = new ConcurrentHashMap<>();
+  // Files written by a newer release; saving them would drop the fields this release does not know
+  private final Set<Path> newerVersionFiles = ConcurrentHashMap.newKeySet();
 
   @Inject
   public JsonPlanStorageService(
       ObjectMapper objectMapper,
       PlanMapper planMapper,
+      SchemaMigrator schemaMigrator,
       @Named("storage.directory.path") Path storageDirectory) {
+    this(objectMapper, planMapper, schemaMigrator, storageDirectory, true);
+  }
+
+  /**
+   * @param writable whether this application may modify the library. A read-only library (e.g., a
+   *     shared library on a network share) is not created if it is missing, files upgraded on read
+   *     are not written back, and saves and deletes fail.
+   */
+  public JsonPlanStorageService(
+      ObjectMapper objectMapper,
+      PlanMapper planMapper,
+      SchemaMigrator schemaMigrator,
+      Path storageDirectory,
+      boolean writable) {
     this.objectMapper = Objects.requireNonNull(objectMapper);
     this.planMapper = Objects.requireNonNull(planMapper);
+    this.schemaMigrator = Objects.requireNonNull(schemaMigrator);
+    this.writable = writable;
     this.storageDirectory = Objects.requireNonNull(storageDirectory);
+    this.migrationWriter =
+        writable
+            ? Executors.newSingleThreadExecutor(
+                runnable -> {
+                  Thread thread = new Thread(runnable, "schema-migration-writer");
+                  thread.setDaemon(true);
+                  thread.setPriority(Thread.MIN_PRIORITY);
+                  return thread;
+                })
+            : null;
 
     this.plansPath = storageDirectory.resolve(PLANS_DIR);
     this.unitsPath = storageDirectory.resolve(UNITS_DIR);
     this.exercisesPath = storageDirectory.resolve(EXERCISES_DIR);
 
-    ensureStorageDirectoryExists(this.storageDirectory);
-    ensureStorageDirectoryExists(this.plansPath);
-    ensureStorageDirectoryExists(this.unitsPath);
-    ensureStorageDirectoryExists(this.exercisesPath);
+    if (writable) {
+      ensureStorageDirectoryExists(this.storageDirectory);
+      ensureStorageDirectoryExists(this.plansPath);
+      ensureStorageDirectoryExists(this.unitsPath);
+      ensureStorageDirectoryExists(this.exercisesPath);
+    } else if (!Files.isDirectory(this.storageDirectory)) {
+      log.warn("Read-only storage directory does not exist: {}", this.storageDirectory);
+    }
+
+    this.planSummaries =
+        new SummaryDirectory<>(
+            plansPath,
+            "Plan",
+            DocumentType.PLAN,
+            TrainingPlanDTO.class,
+            PlanSummary::new,
+            PlanSummary::identifier,
+            PlanSummary::name);
+    this.unitSummaries =
+        new SummaryDirectory<>(
+            unitsPath,
+            "Unit",
+            DocumentType.UNIT,
+            TrainingUnitDTO.class,
+            UnitSummary::new,
+            UnitSummary::identifier,
+            UnitSummary::name);
+    this.exerciseSummaries =
+        new SummaryDirectory<>(
+            exercisesPath,
+            "Exercise",
+            DocumentType.EXERCISE,
+            TrainingExerciseDTO.class,
+            ExerciseSummary::new,
+            ExerciseSummary::identifier,
+            ExerciseSummary::name);
 
     log.info("Initialized JsonPlanStorageService. Storage Directory: {}", this.storageDirectory);
   }
@@ -100,14 +199,55 @@ public class JsonPlanStorageService implements PlanStorageService {
   public String savePlan(TrainingPlan plan) throws IOException {
     Objects.requireNonNull(plan, "TrainingPlan cannot be null");
     Path filePath = getPlanFilePath(plan.getId());
+    PlanSnapshot snapshot = plan.snapshot();
+    if (isStoredUnchanged(plan.getId(), snapshot.contentHash(), filePath)) {
+      log.debug("Plan '{}' is unchanged on disk, skipping write", plan.getName());
+      return plan.getId().toString();
+    }
     log.debug(
         "Saving plan '{}' with identifier {} to file: {}", plan.getName(), plan.getId(), filePath);
     TrainingPlanDTO dto = planMapper.toDTO(plan);
     saveDtoToFile(dto, filePath);
+    rememberStoredState(plan, snapshot, filePath);
+    planSummaries.recordSave(plan.getId(), plan.getName());
+    attributeIndex.indexPlan(dto);
     log.info("Successfully saved plan '{}' to {}", plan.getName(), filePath.getFileName());
     return plan.getId().toString();
   }
 
+  /**
+   * Writes all changed plans under a single acquisition of the write lock and records their
+   * summaries in one step, instead of refreshing the summary index once per plan.
+   */
+  @Override
+  public List<String> savePlans(Collection<TrainingPlan> plans) throws IOException {
+    List<String> identifiers = new ArrayList<>(plans.size());
+    Map<UUID, String> savedNames = new LinkedHashMap<>();
+    try {
+      synchronized (writeLock) {
+        for (TrainingPlan plan : plans) {
+          Objects.requireNonNull(plan, "TrainingPlan cannot be null");
+          identifiers.add(plan.getId().toString());
+          Path filePath = getPlanFilePath(plan.getId());
+          PlanSnapshot snapshot = plan.snapshot();
+          if (isStoredUnchanged(plan.getId(), snapshot.contentHash(), filePath)) {
+            continue;
+          }
+          TrainingPlanDTO dto = planMapper.toDTO(plan);
+          saveDtoToFile(dto, filePath);
+          rememberStoredState(plan, snapshot, filePath);
+          attributeIndex.indexPlan(dto);
+          savedNames.put(plan.getId(), plan.getName());
+        }
+      }
+    } finally {
+      // Also record the plans written before a failure
+      planSummaries.recordSaves(savedNames);
+    }
+    log.info("Saved {} of {} plans to {}", savedNames.size(), plans.size(), plansPath);
+    return identifiers;
+  }
+
   @Override
   public Optional<TrainingPlan> loadPlan(UUID planId) throws IOException {
     Objects.requireNonNull(planId, "planId cannot be null");
@@ -119,9 +259,12 @@ public class JsonPlanStorageService implements PlanStorageService {
       return Optional.empty();
     }
 
-    try (InputStream in = Files.newInputStream(filePath)) {
-      TrainingPlanDTO dto = objectMapper.readValue(in, TrainingPlanDTO.class);
+    try {
+      FileTime modifiedTime = Files.getLastModifiedTime(filePath);
+      TrainingPlanDTO dto = readDocument(filePath, TrainingPlanDTO.class, DocumentType.PLAN);
       TrainingPlan plan = planMapper.toDomain(dto);
+      // Not yet shared with anyone, so the hash is that of the file's content
+      storedPlanStates.put(planId, new StoredPlanState(plan.contentHash(), modifiedTime));
       log.info("Successfully loaded plan '{}' from {}", plan.getName(), filePath.getFileName());
       return Optional.of(plan);
     } catch (JsonProcessingException e) {
@@ -133,17 +276,26 @@ public class JsonPlanStorageService implements PlanStorageService {
     }
   }
 
+  @Override
+  public List<TrainingPlan> loadPlans(Collection<UUID> planIds) throws IOException {
+    return planMapper.inLoadSession(() -> PlanStorageService.super.loadPlans(planIds));
+  }
+
   @Override
   public List<PlanSummary> loadPlanSummaries() throws IOException {
     log.debug("Loading plan summaries from directory: {}", plansPath);
-    return loadSummaries(plansPath, PlanSummary.class, "Plan");
+    return loadSummaries(planSummaries);
   }
 
   @Override
   public boolean deletePlan(UUID planId) throws IOException {
     Objects.requireNonNull(planId, "planId cannot be null");
     Path filePath = getPlanFilePath(planId);
-    return deleteFile(filePath, "Plan");
+    boolean deleted = deleteFile(filePath, "Plan");
+    storedPlanStates.remove(planId);
+    planSummaries.recordDelete(planId);
+    attributeIndex.remove(DocumentType.PLAN, planId);
+    return deleted;
   }
 
   @Override
@@ -154,6 +306,8 @@ public class JsonPlanStorageService implements PlanStorageService {
         "Saving unit '{}' with identifier {} to file: {}", unit.getName(), unit.getId(), filePath);
     TrainingUnitDTO dto = planMapper.toDTO(unit);
     saveDtoToFile(dto, filePath);
+    unitSummaries.recordSave(unit.getId(), unit.getName());
+    attributeIndex.indexUnit(dto);
     log.info("Successfully saved unit '{}' to {}", unit.getName(), filePath.getFileName());
   }
 
@@ -168,8 +322,8 @@ public class JsonPlanStorageService implements PlanStorageService {
       return Optional.empty();
     }
 
-    try (InputStream in = Files.newInputStream(filePath)) {
-      TrainingUnitDTO dto = objectMapper.readValue(in, TrainingUnitDTO.class);
+    try {
+      TrainingUnitDTO dto = readDocument(filePath, TrainingUnitDTO.class, DocumentType.UNIT);
       TrainingUnit unit = planMapper.toDomain(dto);
       log.info("Successfully loaded unit '{}' from {}", unit.getName(), filePath.getFileName());
       return Optional.of(unit);
@@ -185,7 +339,7 @@ public class JsonPlanStorageService implements PlanStorageService {
   @Override
   public List<UnitSummary> loadAllUnitSummaries() throws IOException {
     log.debug("Loading unit summaries from directory: {}", unitsPath);
-    return loadSummaries(unitsPath, UnitSummary.class, "Unit");
+    return loadSummaries(unitSummaries);
   }
 
   @Override
@@ -198,7 +352,10 @@ public class JsonPlanStorageService implements PlanStorageService {
   public boolean deleteUnit(UUID unitId) throws IOException {
     Objects.requireNonNull(unitId, "unitId cannot be null");
     Path filePath = getUnitFilePath(unitId);
-    return deleteFile(filePath, "Unit");
+    boolean deleted = deleteFile(filePath, "Unit");
+    unitSummaries.recordDelete(unitId);
+    attributeIndex.remove(DocumentType.UNIT, unitId);
+    return deleted;
   }
 
   @Override
@@ -212,6 +369,8 @@ public class JsonPlanStorageService implements PlanStorageService {
         filePath);
     TrainingExerciseDTO dto = planMapper.toDTO(exercise);
     saveDtoToFile(dto, filePath);
+    exerciseSummaries.recordSave(exercise.getId(), exercise.getName());
+    attributeIndex.indexExercise(dto);
     log.info("Successfully saved exercise '{}' to {}", exercise.getName(), filePath.getFileName());
   }
 
@@ -226,8 +385,9 @@ public class JsonPlanStorageService implements PlanStorageService {
       return Optional.empty();
     }
 
-    try (InputStream in = Files.newInputStream(filePath)) {
-      TrainingExerciseDTO dto = objectMapper.readValue(in, TrainingExerciseDTO.class);
+    try {
+      TrainingExerciseDTO dto =
+          readDocument(filePath, TrainingExerciseDTO.class, DocumentType.EXERCISE);
       TrainingExercise exercise = planMapper.toDomain(dto);
       log.info(
           "Successfully loaded exercise '{}' from {}", exercise.getName(), filePath.getFileName());
@@ -244,7 +404,7 @@ public class JsonPlanStorageService implements PlanStorageService {
   @Override
   public List<ExerciseSummary> loadAllExerciseSummaries() throws IOException {
     log.debug("Loading exercise summaries from directory: {}", exercisesPath);
-    return loadSummaries(exercisesPath, ExerciseSummary.class, "Exercise");
+    return loadSummaries(exerciseSummaries);
   }
 
   @Override
@@ -257,7 +417,10 @@ public class JsonPlanStorageService implements PlanStorageService {
   public boolean deleteExercise(UUID exerciseId) throws IOException {
     Objects.requireNonNull(exerciseId, "exerciseId cannot be null");
     Path filePath = getExerciseFilePath(exerciseId);
-    return deleteFile(filePath, "Exercise");
+    boolean deleted = deleteFile(filePath, "Exercise");
+    exerciseSummaries.recordDelete(exerciseId);
+    attributeIndex.remove(DocumentType.EXERCISE, exerciseId);
+    return deleted;
   }
 
   @Override
@@ -267,20 +430,31 @@ public class JsonPlanStorageService implements PlanStorageService {
 
   @Override
   public Optional<UUID> findUnitIdByName(String name) throws IOException {
-    List<UnitSummary> summaries = loadUnitSummaries();
-    return summaries.stream()
-        .filter(summary -> summary.name().equals(name))
-        .map(UnitSummary::identifier)
-        .findFirst();
+    return ensureIndexed(unitSummaries).findFirstByName(name).map(UnitSummary::identifier);
   }
 
   @Override
   public Optional<UUID> findExerciseIdByName(String name) throws IOException {
-    List<ExerciseSummary> summaries = loadExerciseSummaries();
-    return summaries.stream()
-        .filter(summary -> summary.name().equals(name))
-        .map(ExerciseSummary::identifier)
-        .findFirst();
+    return ensureIndexed(exerciseSummaries)
+        .findFirstByName(name)
+        .map(ExerciseSummary::identifier);
+  }
+
+  @Override
+  public List<UnitMatch> findUnits(UnitQuery query) throws IOException {
+    Objects.requireNonNull(query, "query cannot be null");
+    ensureIndexed(planSummaries);
+    ensureIndexed(unitSummaries);
+    return attributeIndex.findUnits(query);
+  }
+
+  @Override
+  public List<ExerciseMatch> findExercises(ExerciseQuery query) throws IOException {
+    Objects.requireNonNull(query, "query cannot be null");
+    ensureIndexed(planSummaries);
+    ensureIndexed(unitSummaries);
+    ensureIndexed(exerciseSummaries);
+    return attributeIndex.findExercises(query);
   }
 
   private void ensureStorageDirectoryExists(Path dirPath) {
@@ -295,91 +469,272 @@ public class JsonPlanStorageService implements PlanStorageService {
     }
   }
 
+  /**
+   * Whether the plan file still holds the content with the given hash, i.e. it was last loaded or
+   * written by this service with that content and has not been modified since.
+   */
+  private boolean isStoredUnchanged(UUID planId, long contentHash, Path filePath) {
+    StoredPlanState stored = storedPlanStates.get(planId);
+    if (stored == null || stored.contentHash() != contentHash) {
+      return false;
+    }
+    try {
+      return Files.getLastModifiedTime(filePath).equals(stored.modifiedTime());
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Remembers the content hash of a written plan. The file holds the state the plan had while it
+   * was mapped, which is only known to be the snapshot's state if the plan still hands out the same
+   * snapshot: any edit in the meantime, even one that was undone again, replaces it.
+   */
+  private void rememberStoredState(TrainingPlan plan, PlanSnapshot written, Path filePath) {
+    if (plan.snapshot() != written) {
+      storedPlanStates.remove(plan.getId());
+      return;
+    }
+    try {
+      storedPlanStates.put(
+          plan.getId(),
+          new StoredPlanState(written.contentHash(), Files.getLastModifiedTime(filePath)));
+    } catch (IOException e) {
+      storedPlanStates.remove(plan.getId());
+    }
+  }
+
+  /**
+   * Writes a document, stamped with the current schema version at its root. The document is written
+   * to a sibling file first and then moved over the original, so a crash during the write never
+   * leaves a truncated file behind.
+   *
+   * @throws IOException if the file was written by a newer release, as saving it would drop the
+   *     fields this release does not know
+   */
   private <T> void saveDtoToFile(T dto, Path filePath) throws IOException {
-    try (OutputStream out =
-        Files.newOutputStream(
+    ensureWritable(filePath);
+    if (newerVersionFiles.contains(filePath)) {
+      throw new IOException(
+          "The file was written by a newer version of NeverLose and cannot be saved: "
+              + filePath.getFileName());
+    }
+    ObjectNode document = objectMapper.createObjectNode();
+    document.put(SchemaMigrator.VERSION_FIELD, SchemaMigrator.CURRENT_VERSION);
+    document.setAll((ObjectNode) objectMapper.valueToTree(dto));
+    Path tempFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+    synchronized (writeLock) {
+      try (OutputStream out = Files.newOutputStream(tempFile)) {
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, document);
+      }
+      try {
+        Files.move(
+            tempFile,
             filePath,
-            StandardOpenOption.CREATE,
-            StandardOpenOption.WRITE,
-            StandardOpenOption.TRUNCATE_EXISTING)) {
-      objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, dto);
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING);
+      }
     }
   }
 
-  private <S> List<S> loadSummaries(Path directoryPath, Class<S> summaryType, String objectTypeName)
+  /**
+   * Reads a stored document, upgrades it to the current schema version and maps it to its DTO. If
+   * the upgrade changed the content of the document, it is scheduled to be written back in the
+   * background; a document whose version was merely stamped is left as it is until it is saved. A
+   * document written by a newer release is read as far as it is understood, but never saved.
+   */
+  private <T> T readDocument(Path filePath, Class<T> dtoType, DocumentType documentType)
       throws IOException {
-    if (!Files.isDirectory(directoryPath)) {
+    FileTime modifiedTime = Files.getLastModifiedTime(filePath);
+    JsonNode rootNode;
+    try (InputStream in = Files.newInputStream(filePath)) {
+      rootNode = objectMapper.readTree(in);
+    }
+    int storedVersion = SchemaMigrator.versionOf(rootNode);
+    if (storedVersion > SchemaMigrator.CURRENT_VERSION) {
+      newerVersionFiles.add(filePath);
+    } else {
+      newerVersionFiles.remove(filePath);
+    }
+    boolean migrated = schemaMigrator.migrate(rootNode, documentType);
+    T dto = objectMapper.treeToValue(rootNode, dtoType);
+    if (migrated) {
+      log.debug(
+          "Upgraded {} from schema version {} to {}",
+          filePath.getFileName(),
+          storedVersion,
+          SchemaMigrator.CURRENT_VERSION);
+      scheduleRewrite(filePath, modifiedTime, rootNode);
+    }
+    return dto;
+  }
+
+  /**
+   * Writes an upgraded document back to disk on the background writer, unless the file was changed
+   * since it was read (e.g., saved by the user in the meantime).
+   */
+  private void scheduleRewrite(Path filePath, FileTime readModifiedTime, JsonNode migratedNode) {
+    if (!writable) {
+      return;
+    }
+    migrationWriter.execute(
+        () -> {
+          synchronized (writeLock) {
+            try {
+              if (!Files.getLastModifiedTime(filePath).equals(readModifiedTime)
+                  || newerVersionFiles.contains(filePath)) {
+                log.debug("Skipping rewrite of {}, it changed since it was read", filePath);
+                return;
+              }
+              saveDtoToFile(migratedNode, filePath);
+              log.info("Rewrote {} with the current schema version", filePath.getFileName());
+            } catch (IOException e) {
+              log.warn("Could not rewrite upgraded file {}", filePath, e);
+            }
+          }
+        });
+  }
+
+  private <S> List<S> loadSummaries(SummaryDirectory<S> directory) throws IOException {
+    if (!Files.isDirectory(directory.path)) {
       log.warn(
           "{} storage directory does not exist or is not a directory: {}",
-          objectTypeName,
-          directoryPath);
+          directory.typeName,
+          directory.path);
       return Collections.emptyList();
     }
+    return ensureIndexed(directory).snapshot();
+  }
 
-    try (Stream<Path> stream = Files.list(directoryPath)) {
-      return stream
-          .filter(Files::isRegularFile)
-          .filter(path -> path.toString().toLowerCase().endsWith(JSON_FILE_EXTENSION))
-          .map(path -> pathToSummary(path, summaryType, objectTypeName))
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .sorted(
-              Comparator.comparing(
-                  summary -> getSummaryName(summary, objectTypeName),
-                  String.CASE_INSENSITIVE_ORDER))
-          .toList();
+  /**
+   * Returns the summary index of the given directory, building it and the directory's share of the
+   * attribute index from disk first if it has not been built yet. Files that were added, removed or
+   * changed by someone else since the last scan, as told by their size and modification time, are
+   * indexed again; the other files are not read. This service's own saves and deletes update the
+   * index directly, so the directory is checked for outside changes at most once per {@link
+   * #EXTERNAL_CHANGE_CHECK_INTERVAL_NANOS} instead of on every listing or query.
+   */
+  private <S> SummaryIndex<S> ensureIndexed(SummaryDirectory<S> directory) throws IOException {
+    synchronized (directory) {
+      long now = System.nanoTime();
+      if (directory.indexedFiles != null
+          && now - directory.checkedAt < EXTERNAL_CHANGE_CHECK_INTERVAL_NANOS) {
+        return directory.index;
+      }
+      Map<Path, FileState> files = directory.readFileStates();
+      if (directory.indexedFiles == null) {
+        log.debug("Building {} summary index from {}", directory.typeName, directory.path);
+        List<ScannedDocument<S>> scanned =
+            files.keySet().stream()
+                .map(path -> scanDocument(path, directory))
+                .flatMap(Optional::stream)
+                .toList();
+        directory.index.replaceAll(scanned.stream().map(ScannedDocument::summary).toList());
+        attributeIndex.replaceAll(
+            directory.documentType,
+            scanned.stream().map(ScannedDocument::document).filter(Objects::nonNull).toList());
+      } else if (!files.equals(directory.indexedFiles)) {
+        log.debug("Updating {} summary index from {}", directory.typeName, directory.path);
+        for (Path removed : directory.indexedFiles.keySet()) {
+          if (!files.containsKey(removed)) {
+            forgetDocument(removed, directory);
+          }
+        }
+        files.forEach(
+            (path, state) -> {
+              if (!state.equals(directory.indexedFiles.get(path))) {
+                rescanDocument(path, directory);
+              }
+            });
+      }
+      directory.indexedFiles = files;
+      directory.checkedAt = now;
+    }
+    return directory.index;
+  }
+
+  private <S> void rescanDocument(Path filePath, SummaryDirectory<S> directory) {
+    Optional<ScannedDocument<S>> scanned = scanDocument(filePath, directory);
+    if (scanned.isEmpty()) {
+      forgetDocument(filePath, directory);
+      return;
+    }
+    directory.index.put(scanned.get().summary());
+    switch (scanned.get().document()) {
+      case TrainingPlanDTO plan -> attributeIndex.indexPlan(plan);
+      case TrainingUnitDTO unit -> attributeIndex.indexUnit(unit);
+      case TrainingExerciseDTO exercise -> attributeIndex.indexExercise(exercise);
+      case null, default -> attributeIndex.remove(directory.documentType, identifierOf(filePath));
     }
   }
 
-  private <S> Optional<S> pathToSummary(
-      Path filePath, Class<S> summaryType, String objectTypeName) {
+  private void forgetDocument(Path filePath, SummaryDirectory<?> directory) {
+    UUID uuid = identifierOf(filePath);
+    if (uuid != null) {
+      directory.index.remove(uuid);
+      attributeIndex.remove(directory.documentType, uuid);
+    }
+  }
+
+  /** The identifier encoded in a file name, or null if the name is not a UUID. */
+  private static UUID identifierOf(Path filePath) {
     String filename = filePath.getFileName().toString();
-    String identifier = filename.substring(0, filename.length() - JSON_FILE_EXTENSION.length());
-    UUID uuid;
     try {
-      uuid = UUID.fromString(identifier);
+      return UUID.fromString(
+          filename.substring(0, filename.length() - JSON_FILE_EXTENSION.length()));
     } catch (IllegalArgumentException e) {
-      log.warn("Skipping file with invalid UUID filename for {}: {}", objectTypeName, filename);
+      return null;
+    }
+  }
+
+  private <S> Optional<ScannedDocument<S>> scanDocument(
+      Path filePath, SummaryDirectory<S> directory) {
+    String filename = filePath.getFileName().toString();
+    UUID uuid = identifierOf(filePath);
+    if (uuid == null) {
+      log.warn("Skipping file with invalid UUID filename for {}: {}", directory.typeName, filename);
       return Optional.empty();
     }
 
     try (InputStream in = Files.newInputStream(filePath)) {
       JsonNode rootNode = objectMapper.readTree(in);
+      schemaMigrator.migrate(rootNode, directory.documentType);
       JsonNode nameNode = rootNode.path("name");
       if (!nameNode.isMissingNode() && nameNode.isTextual()) {
-        String name = nameNode.asText();
-        if (summaryType == PlanSummary.class) {
-          return Optional.of(summaryType.cast(new PlanSummary(uuid, name)));
-        } else if (summaryType == UnitSummary.class) {
-          return Optional.of(summaryType.cast(new UnitSummary(uuid, name)));
-        } else if (summaryType == ExerciseSummary.class) {
-          return Optional.of(summaryType.cast(new ExerciseSummary(uuid, name)));
-        } else {
-          log.error("Unsupported summary type: {}", summaryType.getName());
-          return Optional.empty();
-        }
+        S summary = directory.summaryFactory.apply(uuid, nameNode.asText());
+        Object document = toIndexableDocument(rootNode, directory);
+        return Optional.of(new ScannedDocument<>(summary, document));
       } else {
-        log.warn("Could not find 'name' field in {} file: {}", objectTypeName, filename);
+        log.warn("Could not find 'name' field in {} file: {}", directory.typeName, filename);
         return Optional.empty();
       }
     } catch (IOException e) {
-      log.error("Failed to read or parse summary from {} file: {}", objectTypeName, filename, e);
+      log.error(
+          "Failed to read or parse summary from {} file: {}", directory.typeName, filename, e);
       return Optional.empty();
     }
   }
 
-  private <S> String getSummaryName(S summary, String objectTypeName) {
+  /** Maps a scanned document to its DTO for the attribute index, or null if it cannot be mapped. */
+  private Object toIndexableDocument(JsonNode rootNode, SummaryDirectory<?> directory) {
     try {
-      java.lang.reflect.Method nameMethod = summary.getClass().getMethod("name");
-      return (String) nameMethod.invoke(summary);
-    } catch (Exception e) {
-      log.warn(
-          "Could not extract name for sorting summary of type {}: {}", objectTypeName, summary);
-      return "";
+      return objectMapper.treeToValue(rootNode, directory.dtoType);
+    } catch (JsonProcessingException | IllegalArgumentException e) {
+      log.debug("{} document cannot be indexed: {}", directory.typeName, e.getMessage());
+      return null;
+    }
+  }
+
+  private void ensureWritable(Path filePath) throws IOException {
+    if (!writable) {
+      throw new IOException("The library is read-only: " + filePath.getFileName());
     }
   }
 
   private boolean deleteFile(Path filePath, String objectTypeName) throws IOException {
+    ensureWritable(filePath);
     log.debug("Attempting to delete {} file: {}", objectTypeName, filePath);
     try {
       boolean deleted = Files.deleteIfExists(filePath);
@@ -395,4 +750,109 @@ public class JsonPlanStorageService implements PlanStorageService {
           "Failed to delete " + objectTypeName + ": " + filePath.getFileName(), e);
     }
   }
+
+  /**
+   * Couples a storage subdirectory with its sorted summary index. The index is kept up to date by
+   * this service on every save and delete; the size and modification time of every file recorded
+   * at the last scan detect changes made outside of this service (e.g., file sync tools or a second
+   * instance), which are therefore listed with a delay of up to two seconds. The directory's own
+   * modification time is not enough, as it does not change when a file is rewritten in place.
+   */
+  private static final class SummaryDirectory<S> {
+
+    private final Path path;
+    private final String typeName;
+    private final DocumentType documentType;
+    private final Class<?> dtoType;
+    private final BiFunction<UUID, String, S> summaryFactory;
+    private final SummaryIndex<S> index;
+    // Size and modification time of the indexed files, or null if the index was not built yet
+    private Map<Path, FileState> indexedFiles;
+    // System.nanoTime() of the last comparison of indexedFiles with the directory
+    private long checkedAt;
+
+    private SummaryDirectory(
+        Path path,
+        String typeName,
+        DocumentType documentType,
+        Class<?> dtoType,
+        BiFunction<UUID, String, S> summaryFactory,
+        Function<S, UUID> idExtractor,
+        Function<S, String> nameExtractor) {
+      this.path = path;
+      this.typeName = typeName;
+      this.documentType = documentType;
+      this.dtoType = dtoType;
+      this.summaryFactory = summaryFactory;
+      this.index = new SummaryIndex<>(idExtractor, nameExtractor);
+    }
+
+    /** Reads the size and modification time of every JSON file in the directory. */
+    private Map<Path, FileState> readFileStates() throws IOException {
+      Map<Path, FileState> states = new HashMap<>();
+      if (!Files.isDirectory(path)) {
+        return states;
+      }
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+        for (Path file : stream) {
+          if (!file.toString().toLowerCase().endsWith(JSON_FILE_EXTENSION)) {
+            continue;
+          }
+          try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.isRegularFile()) {
+              states.put(file, new FileState(attributes.size(), attributes.lastModifiedTime()));
+            }
+          } catch (NoSuchFileException e) {
+            // Deleted while listing
+          }
+        }
+      }
+      return states;
+    }
+
+    private synchronized void recordSave(UUID id, String name) {
+      updateIndex(id, name);
+    }
+
+    private synchronized void recordSaves(Map<UUID, String> namesById) {
+      namesById.forEach(this::updateIndex);
+    }
+
+    private void updateIndex(UUID id, String name) {
+      if (name == null) {
+        // Files without a textual name are not listed, see scanDocument
+        index.remove(id);
+      } else {
+        index.put(summaryFactory.apply(id, name));
+      }
+      if (indexedFiles == null) {
+        return; // Not built yet, the first listing performs a full scan anyway
+      }
+      Path file = path.resolve(id + JSON_FILE_EXTENSION);
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        indexedFiles.put(file, new FileState(attributes.size(), attributes.lastModifiedTime()));
+      } catch (IOException e) {
+        // The next check treats the file as new and scans it again
+        indexedFiles.remove(file);
+      }
+    }
+
+    private synchronized void recordDelete(UUID id) {
+      index.remove(id);
+      if (indexedFiles != null) {
+        indexedFiles.remove(path.resolve(id + JSON_FILE_EXTENSION));
+      }
+    }
+  }
+
+  /** Size and modification time of a library file as last indexed. */
+  private record FileState(long size, FileTime modifiedTime) {}
+
+  /** A scanned file: its summary and, if it could be mapped, its DTO. */
+  private record ScannedDocument<S>(S summary, Object document) {}
+
+  /** Content hash of a plan as last loaded from or written to its file, and the file's mtime. */
+  private record StoredPlanState(long contentHash, FileTime modifiedTime) {}
 }
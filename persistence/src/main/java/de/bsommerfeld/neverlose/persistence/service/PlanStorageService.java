@@ -1,14 +1,22 @@
 package de.bsommerfeld.neverlose.persistence.service;
 
+import de.bsommerfeld.neverlose.persistence.mapper.PlanMapper;
 import de.bsommerfeld.neverlose.persistence.model.ExerciseSummary;
 import de.bsommerfeld.neverlose.persistence.model.PlanSummary;
 import de.bsommerfeld.neverlose.persistence.model.UnitSummary;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseMatch;
+import de.bsommerfeld.neverlose.persistence.query.ExerciseQuery;
+import de.bsommerfeld.neverlose.persistence.query.UnitMatch;
+import de.bsommerfeld.neverlose.persistence.query.UnitQuery;
 import de.bsommerfeld.neverlose.plan.TrainingPlan;
 import de.bsommerfeld.neverlose.plan.components.TrainingExercise;
 import de.bsommerfeld.neverlose.plan.components.TrainingUnit;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,6 +38,43 @@ public interface PlanStorageService {
    */
   String savePlan(TrainingPlan plan) throws IOException;
 
+  /**
+   * Saves several training plans at once. Implementations write all plans in a single pass and
+   * update their summaries and indexes once for the whole batch.
+   *
+   * @param plans The plans to save. Must not contain null.
+   * @return The identifiers of the saved plans, in the order of the given plans.
+   * @throws IOException If an error occurs during saving. Plans before the failing one may already
+   *     have been written.
+   */
+  default List<String> savePlans(Collection<TrainingPlan> plans) throws IOException {
+    List<String> identifiers = new ArrayList<>(plans.size());
+    for (TrainingPlan plan : plans) {
+      identifiers.add(savePlan(plan));
+    }
+    return identifiers;
+  }
+
+  /**
+   * Adds a copy of the given unit to each of the given plans and saves them in one batch. Every
+   * plan receives its own copy with fresh identifiers, see {@link TrainingUnit#copy()}.
+   *
+   * @param unit The unit to copy. Must not be null.
+   * @param planIds The identifiers of the target plans. Unknown identifiers are skipped.
+   * @return The updated plans, in the order of the given identifiers.
+   * @throws IOException If an error occurs during loading or saving.
+   */
+  default List<TrainingPlan> applyUnitToPlans(TrainingUnit unit, Collection<UUID> planIds)
+      throws IOException {
+    Objects.requireNonNull(unit, "TrainingUnit cannot be null");
+    List<TrainingPlan> plans = loadPlans(planIds);
+    for (TrainingPlan plan : plans) {
+      plan.getTrainingUnits().add(unit.copy());
+    }
+    savePlans(plans);
+    return plans;
+  }
+
   /**
    * Loads a specific training plan identified by its unique identifier.
    *
@@ -42,6 +87,23 @@ public interface PlanStorageService {
    */
   Optional<TrainingPlan> loadPlan(UUID uuid) throws IOException;
 
+  /**
+   * Loads several training plans at once, e.g. the whole library for an analysis or a batch
+   * export. Implementations share equal strings between the loaded plans, see {@link
+   * PlanMapper#inLoadSession}.
+   *
+   * @param planIds The identifiers of the plans to load.
+   * @return The plans that were found, in the order of the given identifiers.
+   * @throws IOException If an error occurs during loading or parsing the stored data.
+   */
+  default List<TrainingPlan> loadPlans(Collection<UUID> planIds) throws IOException {
+    List<TrainingPlan> plans = new ArrayList<>(planIds.size());
+    for (UUID planId : planIds) {
+      loadPlan(planId).ifPresent(plans::add);
+    }
+    return plans;
+  }
+
   /**
    * Retrieves a list of summaries for all available training plans. Used for displaying the list of
    * plans without loading all details.
@@ -207,4 +269,25 @@ public interface PlanStorageService {
    * @throws IOException If an error occurs during the search.
    */
   Optional<UUID> findExerciseIdByName(String name) throws IOException;
+
+  /**
+   * Finds all training units matching the given query, both unit templates and units inside plans.
+   * The query is answered from secondary indexes, without loading any plan.
+   *
+   * @param query The criteria to match. Must not be null.
+   * @return The matching units, ordered by name. Returns an empty list if nothing matches.
+   * @throws IOException If the indexes could not be built from the storage.
+   */
+  List<UnitMatch> findUnits(UnitQuery query) throws IOException;
+
+  /**
+   * Finds all training exercises matching the given query, including exercise templates and the
+   * exercises of unit templates and plans. The query is answered from secondary indexes, without
+   * loading any plan.
+   *
+   * @param query The criteria to match. Must not be null.
+   * @return The matching exercises, ordered by name. Returns an empty list if nothing matches.
+   * @throws IOException If the indexes could not be built from the storage.
+   */
+  List<ExerciseMatch> findExercises(ExerciseQuery query) throws IOException;
 }